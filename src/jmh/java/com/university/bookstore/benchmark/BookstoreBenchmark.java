@@ -0,0 +1,116 @@
+package com.university.bookstore.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.api.BookstoreAPI;
+import com.university.bookstore.impl.BookstoreArrayList;
+import com.university.bookstore.impl.BookstoreHashMap;
+import com.university.bookstore.model.Book;
+import com.university.bookstore.utils.BookArrayUtils;
+
+/**
+ * Latency of {@link BookstoreAPI} lookups and {@link BookArrayUtils} array operations.
+ *
+ * <p>Catalog sizes stop at 100K because populating {@link BookstoreArrayList} is
+ * quadratic; {@link #bulkLoad()} measures exactly that cost.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookstoreBenchmark {
+
+    @Param({"arraylist", "hashmap"})
+    public String implementation;
+
+    @Param({"1000", "10000", "100000"})
+    public int catalogSize;
+
+    private List<Book> books;
+    private BookstoreAPI bookstore;
+    private Book[] snapshot;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        books = CatalogFixtures.books(catalogSize);
+        bookstore = newBookstore(books);
+        snapshot = bookstore.snapshotArray();
+    }
+
+    private BookstoreAPI newBookstore(List<Book> initialBooks) {
+        switch (implementation) {
+            case "arraylist":
+                return new BookstoreArrayList(initialBooks);
+            case "hashmap":
+                return new BookstoreHashMap(initialBooks);
+            default:
+                throw new IllegalArgumentException("Unknown bookstore implementation: " + implementation);
+        }
+    }
+
+    private Book nextBook() {
+        cursor = (cursor + 7919) % catalogSize;
+        return books.get(cursor);
+    }
+
+    @Benchmark
+    public BookstoreAPI bulkLoad() {
+        return newBookstore(books);
+    }
+
+    @Benchmark
+    public Book findByIsbn() {
+        return bookstore.findByIsbn(nextBook().getIsbn());
+    }
+
+    @Benchmark
+    public List<Book> findByTitle() {
+        return bookstore.findByTitle("shadow vol. 1");
+    }
+
+    @Benchmark
+    public List<Book> findByPriceRange() {
+        double min = nextBook().getPrice();
+        return bookstore.findByPriceRange(min, min + 0.5);
+    }
+
+    @Benchmark
+    public Book getMostExpensive() {
+        return bookstore.getMostExpensive();
+    }
+
+    @Benchmark
+    public Book[] filterPriceAtMost() {
+        return BookArrayUtils.filterPriceAtMost(snapshot, 25.0);
+    }
+
+    @Benchmark
+    public Book[] sortByPrice() {
+        Book[] copy = Arrays.copyOf(snapshot, snapshot.length);
+        BookArrayUtils.sortByPrice(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public double averagePrice() {
+        return BookArrayUtils.averagePrice(snapshot);
+    }
+}
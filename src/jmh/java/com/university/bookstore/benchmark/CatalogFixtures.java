@@ -0,0 +1,169 @@
+package com.university.bookstore.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.impl.MaterialStoreConcurrentImpl;
+import com.university.bookstore.impl.MaterialStoreImpl;
+import com.university.bookstore.impl.MaterialStoreOffHeapImpl;
+import com.university.bookstore.model.AudioBook;
+import com.university.bookstore.model.Book;
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.model.VideoMaterial;
+
+/**
+ * Deterministic catalog generators shared by the benchmarks.
+ *
+ * <p>Every generated item is a pure function of its index, so runs with the same
+ * catalog size always measure the same data. The mix cycles through all five
+ * material types; titles and creators are drawn from small vocabularies so that
+ * searches hit realistic match counts.</p>
+ */
+public final class CatalogFixtures {
+
+    static final String[] TITLE_WORDS = {
+        "Java", "Patterns", "Concurrency", "History", "Ocean", "Garden", "Empire", "Signal",
+        "Winter", "Design", "Algorithms", "Journey", "Shadow", "River", "Machine", "Silent",
+        "Harvest", "Atlas", "Frontier", "Memory", "Practice", "Theory", "Voyage", "Kingdom"
+    };
+
+    static final String[] CREATOR_NAMES = {
+        "Joshua Bloch", "Brian Goetz", "George Orwell", "Jane Austen", "Ursula Le Guin",
+        "Christopher Nolan", "Ada Lovelace", "Donald Knuth", "Mary Shelley", "Tech Publisher",
+        "NatGeo Society", "Toni Morrison", "Isaac Asimov", "Agnes Varda", "Frank Herbert"
+    };
+
+    private CatalogFixtures() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Creates the material with the given index.
+     *
+     * @param index non-negative item index
+     * @return the generated material
+     */
+    public static Material material(int index) {
+        String title = title(index);
+        String creator = CREATOR_NAMES[index % CREATOR_NAMES.length];
+        double price = price(index);
+        int year = 1950 + index % 75;
+        switch (index % 5) {
+            case 0:
+                return new PrintedBook(id(index), title, creator, price, year,
+                                       100 + index % 900, "Addison-Wesley", index % 2 == 0);
+            case 1:
+                return new EBook(id(index), title, creator, price, year, "EPUB", 2.5,
+                                 index % 3 == 0, 50000 + index % 100000, Media.MediaQuality.HIGH);
+            case 2:
+                return new Magazine(id(index), title, creator, price, year,
+                                    1 + index % 12, "Monthly", "Science");
+            case 3:
+                return new AudioBook(id(index), title, creator, "Simon Prebble",
+                                     price, year, 60 + index % 900, "MP3", 300.0,
+                                     index % 4 == 0 ? Media.MediaQuality.PHYSICAL : Media.MediaQuality.HIGH,
+                                     "English", index % 2 == 0);
+            default:
+                return new VideoMaterial(id(index), title, creator, price, year, 90 + index % 60,
+                                         "MP4", 1500.0, Media.MediaQuality.HD,
+                                         VideoMaterial.VideoType.MOVIE, "PG",
+                                         Arrays.asList("Actor One", "Actor Two"), true, "16:9");
+        }
+    }
+
+    /**
+     * Gets the ID of the material with the given index without constructing it.
+     *
+     * @param index non-negative item index
+     * @return the material ID
+     */
+    public static String id(int index) {
+        switch (index % 5) {
+            case 0:
+                return String.format("978%010d", index);
+            case 1:
+                return "E" + index;
+            case 2:
+                return String.format("%08d", index);
+            case 3:
+                return String.format("979%010d", index);
+            default:
+                return "V" + index;
+        }
+    }
+
+    /**
+     * Creates the book with the given index.
+     *
+     * @param index non-negative item index
+     * @return the generated book
+     */
+    public static Book book(int index) {
+        return new Book(String.format("978%010d", index), title(index),
+                        CREATOR_NAMES[index % CREATOR_NAMES.length], price(index), 1950 + index % 75);
+    }
+
+    /**
+     * Creates books {@code [0, size)}.
+     *
+     * @param size number of books
+     * @return list of generated books
+     */
+    public static List<Book> books(int size) {
+        List<Book> books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            books.add(book(i));
+        }
+        return books;
+    }
+
+    /**
+     * Creates an empty store of the named implementation.
+     *
+     * @param implementation "array" for MaterialStoreImpl, "concurrent" for MaterialStoreConcurrentImpl,
+     *                       "offheap" for MaterialStoreOffHeapImpl
+     * @return a new empty store
+     */
+    public static MaterialStore newStore(String implementation) {
+        switch (implementation) {
+            case "array":
+                return new MaterialStoreImpl();
+            case "concurrent":
+                return new MaterialStoreConcurrentImpl();
+            case "offheap":
+                return new MaterialStoreOffHeapImpl();
+            default:
+                throw new IllegalArgumentException("Unknown store implementation: " + implementation);
+        }
+    }
+
+    /**
+     * Creates a store of the named implementation holding materials {@code [0, size)}.
+     *
+     * @param implementation store implementation name
+     * @param size number of materials
+     * @return a populated store
+     */
+    public static MaterialStore populatedStore(String implementation, int size) {
+        MaterialStore store = newStore(implementation);
+        for (int i = 0; i < size; i++) {
+            store.addMaterial(material(i));
+        }
+        return store;
+    }
+
+    private static String title(int index) {
+        return TITLE_WORDS[index % TITLE_WORDS.length] + " "
+             + TITLE_WORDS[(index / TITLE_WORDS.length) % TITLE_WORDS.length] + " Vol. " + (index % 997);
+    }
+
+    private static double price(int index) {
+        return 1.0 + (index * 37L % 10000) / 100.0;
+    }
+}
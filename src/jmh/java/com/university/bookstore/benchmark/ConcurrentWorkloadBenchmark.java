@@ -0,0 +1,120 @@
+package com.university.bookstore.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.model.Material;
+
+/**
+ * Throughput of one shared store under concurrent readers and writers.
+ *
+ * <p>The {@code mixed} group runs three point readers and three range readers against one
+ * writer by default; change the split with {@code -tg <rangeQuery>,<read>,<write>} (group
+ * methods are ordered by name). The {@code readOnly} and {@code writeOnly} benchmarks use
+ * four threads; sweep thread counts by running them with {@code -t <threads>}.</p>
+ *
+ * <p>Only thread-safe stores are measured: the striped concurrent store, and the off-heap
+ * store behind one read-write lock as the coarse-locking baseline. {@code MaterialStoreImpl}
+ * is left out because its queries are not safe against concurrent writers.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentWorkloadBenchmark {
+
+    @Param({"concurrent", "offheap"})
+    public String implementation;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int catalogSize;
+
+    private MaterialStore store;
+    private final AtomicInteger nextNewIndex = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = CatalogFixtures.populatedStore(implementation, catalogSize);
+        nextNewIndex.set(catalogSize);
+        store.getAllMaterials();
+    }
+
+    /**
+     * Per-thread probe cursor so readers do not contend on shared state.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+
+        int next(int bound) {
+            position = (position + 7919) % bound;
+            return position;
+        }
+    }
+
+    private Optional<Material> read(Cursor cursor) {
+        return store.findById(CatalogFixtures.id(cursor.next(catalogSize)));
+    }
+
+    private boolean write() {
+        Material material = CatalogFixtures.material(nextNewIndex.getAndIncrement());
+        boolean added = store.addMaterial(material);
+        store.removeMaterial(material.getId());
+        return added;
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Optional<Material> mixedRead(Cursor cursor) {
+        return read(cursor);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public List<Material> mixedRangeQuery(Cursor cursor) {
+        double min = cursor.next(90);
+        return store.getMaterialsByPriceRange(min, min + 0.5);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public boolean mixedWrite() {
+        return write();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Material> readOnly(Cursor cursor) {
+        return read(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean writeOnly() {
+        return write();
+    }
+}
@@ -0,0 +1,116 @@
+package com.university.bookstore.benchmark;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.model.Material;
+
+/**
+ * Single-threaded latency of the core {@link MaterialStore} operations.
+ *
+ * <p>Run with {@code mvn -P benchmarks test-compile exec:exec -Djmh.args="MaterialStoreBenchmark"}.
+ * Narrow the matrix with JMH options, for example
+ * {@code -p catalogSize=1000000 -p implementation=concurrent}. The 10M catalog needs a
+ * large heap ({@code -jvmArgs -Xmx8g}).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MaterialStoreBenchmark {
+
+    private static final int FRESH_POOL_SIZE = 1 << 12;
+    private static final Comparator<Material> BY_PRICE = Comparator.comparingDouble(Material::getPrice);
+
+    @Param({"array", "concurrent", "offheap"})
+    public String implementation;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int catalogSize;
+
+    private MaterialStore store;
+    private String[] probeIds;
+    private Material[] freshMaterials;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = CatalogFixtures.populatedStore(implementation, catalogSize);
+        probeIds = new String[FRESH_POOL_SIZE];
+        freshMaterials = new Material[FRESH_POOL_SIZE];
+        for (int i = 0; i < FRESH_POOL_SIZE; i++) {
+            probeIds[i] = CatalogFixtures.id((int) ((long) i * 7919 % catalogSize));
+            freshMaterials[i] = CatalogFixtures.material(catalogSize + i);
+        }
+        // Warm the lazily built structures so the first measured call is not a rebuild
+        store.getAllMaterials();
+    }
+
+    private int nextIndex() {
+        cursor = (cursor + 1) & (FRESH_POOL_SIZE - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public boolean addAndRemoveMaterial() {
+        Material material = freshMaterials[nextIndex()];
+        boolean added = store.addMaterial(material);
+        store.removeMaterial(material.getId());
+        return added;
+    }
+
+    @Benchmark
+    public Optional<Material> findById() {
+        return store.findById(probeIds[nextIndex()]);
+    }
+
+    @Benchmark
+    public List<Material> searchByTitle() {
+        return store.searchByTitle(CatalogFixtures.TITLE_WORDS[nextIndex() % CatalogFixtures.TITLE_WORDS.length]
+                                   + " Shadow Vol. 1");
+    }
+
+    @Benchmark
+    public List<Material> searchByCreator() {
+        return store.searchByCreator("bloch");
+    }
+
+    @Benchmark
+    public List<Material> getMaterialsByPriceRange() {
+        double min = nextIndex() % 90;
+        return store.getMaterialsByPriceRange(min, min + 0.5);
+    }
+
+    @Benchmark
+    public MaterialStore.InventoryStats getInventoryStats() {
+        return store.getInventoryStats();
+    }
+
+    @Benchmark
+    public List<Material> cheapestFifty() {
+        return store.getSorted(BY_PRICE, 50);
+    }
+
+    @Benchmark
+    public List<Material> firstPageByTitle() {
+        return store.getSorted(Comparator.naturalOrder(), 20);
+    }
+}
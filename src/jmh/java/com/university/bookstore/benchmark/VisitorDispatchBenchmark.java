@@ -0,0 +1,144 @@
+package com.university.bookstore.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.university.bookstore.model.AudioBook;
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.model.VideoMaterial;
+import com.university.bookstore.visitor.MaterialResultVisitor;
+import com.university.bookstore.visitor.ShippingCostCalculator;
+
+/**
+ * Cost of pricing a whole catalog through each visitor dispatch strategy.
+ *
+ * <p>{@code mix=mixed} shuffles all five material types so every call site sees
+ * five receiver classes; {@code mix=books} keeps only printed books as a
+ * monomorphic baseline. The benchmarks compare the original instanceof chain,
+ * {@code accept} double dispatch with the mutable and the returning visitor, and
+ * the precomputed {@code MaterialType} table behind
+ * {@link ShippingCostCalculator#costOf(Material)}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VisitorDispatchBenchmark {
+
+    private static final MaterialResultVisitor<Double> COST_VISITOR = new MaterialResultVisitor<Double>() {
+        @Override
+        public Double visit(PrintedBook book) { return ShippingCostCalculator.costOf(book); }
+        @Override
+        public Double visit(Magazine magazine) { return ShippingCostCalculator.costOf(magazine); }
+        @Override
+        public Double visit(AudioBook audioBook) { return ShippingCostCalculator.costOf(audioBook); }
+        @Override
+        public Double visit(VideoMaterial video) { return ShippingCostCalculator.costOf(video); }
+        @Override
+        public Double visit(EBook ebook) { return ShippingCostCalculator.costOf(ebook); }
+    };
+
+    @Param({"mixed", "books"})
+    public String mix;
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    private Material[] catalog;
+    private ShippingCostCalculator calculator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Material> materials = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            materials.add(CatalogFixtures.material("books".equals(mix) ? i * 5 : i));
+        }
+        Collections.shuffle(materials, new Random(42));
+        catalog = materials.toArray(new Material[0]);
+        calculator = new ShippingCostCalculator();
+    }
+
+    @Benchmark
+    public double instanceofChain() {
+        double total = 0.0;
+        for (Material material : catalog) {
+            total += chainCost(material);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double acceptMutableVisitor() {
+        calculator.reset();
+        for (Material material : catalog) {
+            material.accept(calculator);
+        }
+        return calculator.getTotalShippingCost();
+    }
+
+    @Benchmark
+    public double acceptResultVisitor() {
+        double total = 0.0;
+        for (Material material : catalog) {
+            total += material.accept(COST_VISITOR);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double dispatchTable() {
+        double total = 0.0;
+        for (Material material : catalog) {
+            total += ShippingCostCalculator.costOf(material);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double batchPriceAll() {
+        return ShippingCostCalculator.priceAll(List.of(catalog)).getTotal();
+    }
+
+    /**
+     * The dispatch ShippingCostCalculator used before the type table.
+     */
+    private double chainCost(Material material) {
+        calculator.reset();
+        if (material instanceof PrintedBook pb) {
+            calculator.visit(pb);
+        } else if (material instanceof Magazine mag) {
+            calculator.visit(mag);
+        } else if (material instanceof AudioBook ab) {
+            calculator.visit(ab);
+        } else if (material instanceof VideoMaterial vm) {
+            calculator.visit(vm);
+        } else if (material instanceof EBook eb) {
+            calculator.visit(eb);
+        } else {
+            throw new IllegalArgumentException(
+                    "Unsupported material type: " + material.getClass().getSimpleName());
+        }
+        return calculator.getTotalShippingCost();
+    }
+}
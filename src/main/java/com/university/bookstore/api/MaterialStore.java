@@ -1,11 +1,16 @@
 package com.university.bookstore.api;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.university.bookstore.model.Material;
 import com.university.bookstore.model.Media;
+import com.university.bookstore.utils.TopK;
 
 /**
  * Interface defining operations for a polymorphic material store.
@@ -53,7 +58,7 @@ public interface MaterialStore {
     List<Material> searchByTitle(String title);
     
     /**
-     * Searches materials by creator (author/director/publisher).
+     * Searches materials by creator (author/director/publisher, case-insensitive partial match).
      * 
      * @param creator the creator name
      * @return list of matching materials
@@ -190,6 +195,122 @@ public interface MaterialStore {
      */
     boolean isEmpty();
     
+    /**
+     * Streams all materials. Implementations backed by an immutable snapshot walk it
+     * lazily without copying; the default streams a copy of {@link #getAllMaterials()}.
+     * 
+     * @return stream of all materials
+     */
+    default Stream<Material> stream() {
+        return getAllMaterials().stream();
+    }
+    
+    /**
+     * Streams materials matching a predicate. The predicate is only evaluated as the
+     * stream is consumed, so short-circuiting operations stop the scan early.
+     * 
+     * @param condition the filter condition
+     * @return stream of matching materials
+     */
+    default Stream<Material> streamMatching(Predicate<Material> condition) {
+        Objects.requireNonNull(condition, "Predicate cannot be null");
+        return stream().filter(condition);
+    }
+    
+    /**
+     * Streams materials whose title contains the given text (case-insensitive).
+     * 
+     * @param title the title to search for
+     * @return stream of matching materials
+     */
+    default Stream<Material> streamByTitle(String title) {
+        return searchByTitle(title).stream();
+    }
+    
+    /**
+     * Streams materials whose creator contains the given text (case-insensitive).
+     * 
+     * @param creator the creator name
+     * @return stream of matching materials
+     */
+    default Stream<Material> streamByCreator(String creator) {
+        return searchByCreator(creator).stream();
+    }
+    
+    /**
+     * Streams materials of a specific type.
+     * 
+     * @param type the material type
+     * @return stream of materials of that type
+     */
+    default Stream<Material> streamByType(Material.MaterialType type) {
+        return getMaterialsByType(type).stream();
+    }
+    
+    /**
+     * Gets one page of the materials matching a predicate.
+     * 
+     * @param condition the filter condition
+     * @param offset number of matches to skip
+     * @param limit maximum number of matches to return
+     * @return at most {@code limit} matches, in the order of {@link #streamMatching(Predicate)}
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    default List<Material> findWithPredicate(Predicate<Material> condition, int offset, int limit) {
+        return page(streamMatching(condition), offset, limit);
+    }
+    
+    /**
+     * Gets one page of a title search.
+     * 
+     * @param title the title to search for
+     * @param offset number of matches to skip
+     * @param limit maximum number of matches to return
+     * @return at most {@code limit} matches
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    default List<Material> searchByTitle(String title, int offset, int limit) {
+        return page(streamByTitle(title), offset, limit);
+    }
+    
+    /**
+     * Gets one page of a creator search.
+     * 
+     * @param creator the creator name
+     * @param offset number of matches to skip
+     * @param limit maximum number of matches to return
+     * @return at most {@code limit} matches
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    default List<Material> searchByCreator(String creator, int offset, int limit) {
+        return page(streamByCreator(creator), offset, limit);
+    }
+    
+    /**
+     * Gets the first {@code k} materials in comparator order, equal to the first
+     * {@code k} elements of {@link #getSorted(Comparator)}. Selected with a bounded
+     * heap rather than a full sort.
+     * 
+     * @param comparator the sorting comparator
+     * @param k maximum number of materials to return
+     * @return the {@code k} smallest materials, sorted
+     * @throws IllegalArgumentException if k is negative
+     */
+    default List<Material> getSorted(Comparator<Material> comparator, int k) {
+        return TopK.smallest(getAllMaterials(), comparator, k);
+    }
+    
+    /**
+     * Collects one page of a stream.
+     */
+    private static List<Material> page(Stream<Material> stream, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException(
+                String.format("Invalid page: offset=%d, limit=%d", offset, limit));
+        }
+        return stream.skip(offset).limit(limit).collect(Collectors.toList());
+    }
+    
     /**
      * Statistics class for inventory analysis.
      */
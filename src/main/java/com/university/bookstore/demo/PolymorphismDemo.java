@@ -27,6 +27,7 @@ import com.university.bookstore.model.Media;
 import com.university.bookstore.model.PrintedBook;
 import com.university.bookstore.model.VideoMaterial;
 import com.university.bookstore.utils.BookArrayUtils;
+import com.university.bookstore.visitor.MaterialVisitor;
 import com.university.bookstore.visitor.ShippingCostCalculator;
 
 /**
@@ -327,45 +328,53 @@ public class PolymorphismDemo {
             System.out.println("    -> Quality: " + media.getQuality());
         }
         
-        if (material instanceof PrintedBook) {
-            PrintedBook book = (PrintedBook) material;
+        material.accept(DETAIL_PRINTER);
+    }
+    
+    /**
+     * Prints subtype-specific details through double dispatch rather than an
+     * instanceof chain.
+     */
+    private static final MaterialVisitor DETAIL_PRINTER = new MaterialVisitor() {
+        @Override
+        public void visit(PrintedBook book) {
             System.out.println("    -> This is a printed book with " + 
                              book.getPages() + " pages");
             System.out.println("    -> Publisher: " + book.getPublisher());
             System.out.println("    -> Hardcover: " + book.isHardcover());
         }
         
-        if (material instanceof EBook) {
-            EBook ebook = (EBook) material;
+        @Override
+        public void visit(EBook ebook) {
             System.out.println("    -> This is an e-book in " + ebook.getFileFormat() + " format");
             System.out.println("    -> Word count: " + ebook.getWordCount());
             System.out.println("    -> DRM enabled: " + ebook.isDrmEnabled());
             System.out.println("    -> Reading time: " + ebook.getReadingTimeMinutes() + " minutes");
         }
         
-        if (material instanceof Magazine) {
-            Magazine mag = (Magazine) material;
+        @Override
+        public void visit(Magazine mag) {
             System.out.println("    -> This is a magazine, issue #" + 
                              mag.getIssueNumber());
             System.out.println("    -> Frequency: " + mag.getFrequency());
             System.out.println("    -> Category: " + mag.getCategory());
         }
         
-        if (material instanceof AudioBook) {
-            AudioBook audio = (AudioBook) material;
+        @Override
+        public void visit(AudioBook audio) {
             System.out.println("    -> This is an audio book narrated by " + audio.getNarrator());
             System.out.println("    -> Language: " + audio.getLanguage());
             System.out.println("    -> Unabridged: " + audio.isUnabridged());
         }
         
-        if (material instanceof VideoMaterial) {
-            VideoMaterial video = (VideoMaterial) material;
+        @Override
+        public void visit(VideoMaterial video) {
             System.out.println("    -> This is a " + video.getVideoType() + " video");
             System.out.println("    -> Director: " + video.getDirector());
             System.out.println("    -> Rating: " + video.getRating());
             System.out.println("    -> Aspect ratio: " + video.getAspectRatio());
         }
-    }
+    };
     
     private static void demonstrateSOLIDPrinciples(MaterialStore store) {
         System.out.println("5. SOLID PRINCIPLES IN ACTION");
@@ -0,0 +1,63 @@
+package com.university.bookstore.events;
+
+import java.util.Objects;
+
+import com.university.bookstore.model.Material;
+
+/**
+ * One mutation of a {@link com.university.bookstore.api.MaterialStore}, as published on a
+ * {@link ChangeFeed}.
+ *
+ * <p>Sequence numbers start at 1 and increase by one per event. Replaying events in
+ * sequence order onto an empty store reproduces the catalog. Materials are immutable,
+ * so events carry the material itself rather than a copy.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public final class ChangeEvent {
+
+    /**
+     * The kind of mutation.
+     */
+    public enum Type {
+        /** A material was added; {@link #getMaterial()} is the new material. */
+        ADDED,
+        /** A material was removed; {@link #getMaterial()} is the removed material. */
+        REMOVED,
+        /** The whole inventory was cleared; there is no material. */
+        CLEARED
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final Material material;
+    private final long timestampMillis;
+
+    ChangeEvent(long sequence, Type type, Material material, long timestampMillis) {
+        this.sequence = sequence;
+        this.type = Objects.requireNonNull(type, "Type cannot be null");
+        this.material = material;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public long getSequence() { return sequence; }
+    public Type getType() { return type; }
+    public long getTimestampMillis() { return timestampMillis; }
+
+    /**
+     * Gets the added or removed material.
+     *
+     * @return the material, or null for {@link Type#CLEARED}
+     */
+    public Material getMaterial() {
+        return material;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ChangeEvent[Seq=%d, Type=%s, Id=%s]",
+            sequence, type, material != null ? material.getId() : "-");
+    }
+}
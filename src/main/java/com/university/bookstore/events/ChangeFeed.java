@@ -0,0 +1,318 @@
+package com.university.bookstore.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.university.bookstore.model.Material;
+
+/**
+ * Bounded, lock-free ring buffer of {@link ChangeEvent}s with independent subscriber cursors.
+ *
+ * <p>Publishers claim a sequence with one atomic increment and store the event in slot
+ * {@code sequence & (capacity - 1)}. A slot only ever moves forward to a higher sequence,
+ * so a reader can tell a not-yet-published slot (older sequence) from an overwritten one
+ * (newer sequence) without locks. Each {@link Subscription} keeps its own cursor; reading
+ * never blocks publishers or other subscribers.</p>
+ *
+ * <p>When the ring wraps onto events a subscriber has not read, the {@link OverflowPolicy}
+ * decides: {@code BLOCK} holds the publisher until the slowest open subscription catches
+ * up, {@code OVERWRITE} lets the publisher continue and the lagging subscription fails
+ * with a {@link FeedOverflowException} on its next poll. The last {@code capacity} events
+ * are retained, so a consumer can resume from any sequence in that window.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public class ChangeFeed {
+
+    /**
+     * What a publisher does when the ring is full of unread events.
+     */
+    public enum OverflowPolicy {
+        /** Wait until every open subscription has read the slot about to be reused. */
+        BLOCK,
+        /** Reuse the slot; subscriptions that had not read it fail on their next poll. */
+        OVERWRITE
+    }
+
+    /** Default number of retained events. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    // Busy-spins before a blocked publisher or waiting poll starts parking
+    private static final int SPIN_LIMIT = 100;
+    private static final long PARK_NANOS = 50_000L;
+
+    private final AtomicReferenceArray<ChangeEvent> slots;
+    private final int mask;
+    private final OverflowPolicy policy;
+    private final long feedId;
+
+    // Highest sequence handed to a publisher; the first event gets sequence 1
+    private final AtomicLong claimed = new AtomicLong();
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a feed with the default capacity that overwrites on overflow.
+     */
+    public ChangeFeed() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.OVERWRITE);
+    }
+
+    /**
+     * Creates a feed.
+     *
+     * @param capacity number of retained events; a power of two, at least 2
+     * @param policy what publishers do when the ring is full
+     * @throws IllegalArgumentException if the capacity is not a power of two of at least 2
+     */
+    public ChangeFeed(int capacity, OverflowPolicy policy) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two of at least 2: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.policy = Objects.requireNonNull(policy, "Overflow policy cannot be null");
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0L);
+        this.feedId = id;
+    }
+
+    /**
+     * Publishes an event. Under {@link OverflowPolicy#BLOCK} this waits while the slot to
+     * be reused still holds an event an open subscription has not read.
+     *
+     * @param type the mutation
+     * @param material the added or removed material, or null for a clear
+     * @return the event's sequence number
+     */
+    public long publish(ChangeEvent.Type type, Material material) {
+        long sequence = claimed.incrementAndGet();
+        if (policy == OverflowPolicy.BLOCK) {
+            awaitSlot(sequence);
+        }
+        ChangeEvent event = new ChangeEvent(sequence, type, material, System.currentTimeMillis());
+        int index = (int) (sequence & mask);
+        while (true) {
+            ChangeEvent current = slots.get(index);
+            // A publisher a whole lap ahead already reused the slot; readers treat this
+            // sequence as overwritten
+            if (current != null && current.getSequence() > sequence) {
+                return sequence;
+            }
+            if (slots.compareAndSet(index, current, event)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * Subscribes from the next event to be published.
+     *
+     * @return the subscription
+     */
+    public Subscription subscribe() {
+        return register(claimed.get() + 1);
+    }
+
+    /**
+     * Subscribes from a given sequence, for a consumer resuming where it left off.
+     *
+     * @param fromSequence the first sequence to deliver
+     * @return the subscription
+     * @throws IllegalArgumentException if the sequence is below 1 or not yet claimed
+     *         (beyond the next one)
+     * @throws FeedOverflowException if the sequence is no longer retained
+     */
+    public Subscription subscribe(long fromSequence) {
+        long last = claimed.get();
+        if (fromSequence < 1 || fromSequence > last + 1) {
+            throw new IllegalArgumentException(
+                String.format("Cannot resume from sequence %d; last published is %d", fromSequence, last));
+        }
+        if (fromSequence < getOldestRetainedSequence()) {
+            throw new FeedOverflowException(fromSequence, getOldestRetainedSequence());
+        }
+        return register(fromSequence);
+    }
+
+    private Subscription register(long fromSequence) {
+        Subscription subscription = new Subscription(fromSequence);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Gets the highest sequence handed out so far; its event may still be in flight.
+     *
+     * @return the last sequence, 0 if nothing was published
+     */
+    public long getLastSequence() {
+        return claimed.get();
+    }
+
+    /**
+     * Gets the oldest sequence the ring can still deliver.
+     *
+     * @return the oldest retained sequence
+     */
+    public long getOldestRetainedSequence() {
+        return Math.max(1L, claimed.get() - mask);
+    }
+
+    /**
+     * Gets the random identity of this feed. Sequence numbers only mean something together
+     * with it: a new feed, such as one created after a restart, numbers an unrelated history
+     * from 1 again.
+     *
+     * @return the feed ID, never 0
+     */
+    public long getFeedId() {
+        return feedId;
+    }
+
+    public int getCapacity() { return mask + 1; }
+    public OverflowPolicy getPolicy() { return policy; }
+    public int getSubscriptionCount() { return subscriptions.size(); }
+
+    /**
+     * Waits until no open subscription still needs the event that {@code sequence} replaces.
+     */
+    private void awaitSlot(long sequence) {
+        long wrapPoint = sequence - (mask + 1);
+        int spins = 0;
+        while (wrapPoint >= slowestCursor()) {
+            if (++spins < SPIN_LIMIT) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    private long slowestCursor() {
+        long min = Long.MAX_VALUE;
+        for (Subscription subscription : subscriptions) {
+            min = Math.min(min, subscription.nextSequence);
+        }
+        return min;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ChangeFeed[Capacity=%d, Policy=%s, LastSequence=%d, Subscriptions=%d]",
+            mask + 1, policy, claimed.get(), subscriptions.size());
+    }
+
+    /**
+     * One consumer's position in the feed. A subscription is meant to be polled by one
+     * thread at a time; separate subscriptions are independent.
+     */
+    public final class Subscription implements AutoCloseable {
+
+        // Next sequence to deliver; publishers read it under the BLOCK policy
+        private volatile long nextSequence;
+        private volatile boolean closed;
+
+        private Subscription(long nextSequence) {
+            this.nextSequence = nextSequence;
+        }
+
+        /**
+         * Returns up to {@code maxEvents} published events in sequence order, without waiting.
+         *
+         * @param maxEvents the largest batch to return
+         * @return the events, empty if none are ready
+         * @throws IllegalArgumentException if maxEvents is not positive
+         * @throws IllegalStateException if the subscription is closed
+         * @throws FeedOverflowException if the next event was overwritten before it was read
+         */
+        public List<ChangeEvent> poll(int maxEvents) {
+            if (maxEvents <= 0) {
+                throw new IllegalArgumentException("maxEvents must be positive: " + maxEvents);
+            }
+            if (closed) {
+                throw new IllegalStateException("Subscription is closed");
+            }
+            List<ChangeEvent> batch = new ArrayList<>(Math.min(maxEvents, 64));
+            long next = nextSequence;
+            while (batch.size() < maxEvents) {
+                ChangeEvent event = slots.get((int) (next & mask));
+                if (event == null || event.getSequence() < next) {
+                    break; // claimed but not yet stored, or not claimed at all
+                }
+                if (event.getSequence() > next) {
+                    nextSequence = next;
+                    throw new FeedOverflowException(next, getOldestRetainedSequence());
+                }
+                batch.add(event);
+                next++;
+            }
+            nextSequence = next;
+            return batch;
+        }
+
+        /**
+         * Like {@link #poll(int)}, but waits up to the timeout for at least one event.
+         *
+         * @param maxEvents the largest batch to return
+         * @param timeout how long to wait
+         * @param unit the unit of the timeout
+         * @return the events, empty if none arrived in time
+         */
+        public List<ChangeEvent> poll(int maxEvents, long timeout, TimeUnit unit) {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            int spins = 0;
+            while (true) {
+                List<ChangeEvent> batch = poll(maxEvents);
+                if (!batch.isEmpty() || System.nanoTime() - deadline >= 0) {
+                    return batch;
+                }
+                if (++spins < SPIN_LIMIT) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+            }
+        }
+
+        /**
+         * Gets the sequence the next poll starts from; pass it to
+         * {@link ChangeFeed#subscribe(long)} to resume later.
+         *
+         * @return the next sequence
+         */
+        public long getNextSequence() {
+            return nextSequence;
+        }
+
+        /**
+         * Gets how many claimed events this subscription has not read yet.
+         *
+         * @return the lag in events
+         */
+        public long getLag() {
+            return Math.max(0L, claimed.get() - nextSequence + 1);
+        }
+
+        public boolean isClosed() { return closed; }
+
+        /**
+         * Stops the subscription; it no longer holds back publishers.
+         */
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.university.bookstore.events;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+
+/**
+ * Decorator that publishes every successful mutation of a {@link MaterialStore} to a
+ * {@link ChangeFeed}, so consumers can follow the catalog by deltas instead of copying
+ * {@link #getAllMaterials()}.
+ *
+ * <p>A successful {@link #addMaterial(Material)} publishes {@link ChangeEvent.Type#ADDED},
+ * a successful {@link #removeMaterial(String)} publishes {@link ChangeEvent.Type#REMOVED}
+ * and {@link #clearInventory()} publishes {@link ChangeEvent.Type#CLEARED}. Rejected
+ * duplicates and removals of unknown IDs publish nothing.</p>
+ *
+ * <p>The mutation and its publish happen under a lock striped by material ID, so events
+ * for the same ID appear in the order they were applied, while writers of different IDs
+ * still run in parallel. A clear holds every stripe, so it is ordered against all other
+ * events. Thread safety of the reads is that of the delegate.</p>
+ *
+ * <p>All mutations must go through this decorator. Reads are passed straight to the
+ * delegate.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public class ChangeFeedMaterialStore implements MaterialStore {
+
+    private static final int STRIPE_COUNT = 64;
+
+    private final MaterialStore delegate;
+    private final ChangeFeed feed;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPE_COUNT];
+
+    /**
+     * Wraps a store with a feed of the default capacity that overwrites on overflow.
+     *
+     * @param delegate the store to follow
+     */
+    public ChangeFeedMaterialStore(MaterialStore delegate) {
+        this(delegate, new ChangeFeed());
+    }
+
+    /**
+     * Wraps a store.
+     *
+     * @param delegate the store to follow
+     * @param feed where to publish its mutations
+     */
+    public ChangeFeedMaterialStore(MaterialStore delegate, ChangeFeed feed) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate cannot be null");
+        this.feed = Objects.requireNonNull(feed, "Feed cannot be null");
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public ChangeFeed getChangeFeed() {
+        return feed;
+    }
+
+    public MaterialStore getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Subscribes to the store's mutations from the next one.
+     *
+     * @return the subscription
+     */
+    public ChangeFeed.Subscription subscribe() {
+        return feed.subscribe();
+    }
+
+    /**
+     * Subscribes to the store's mutations from a retained sequence.
+     *
+     * @param fromSequence the first sequence to deliver
+     * @return the subscription
+     * @throws FeedOverflowException if the sequence is no longer retained
+     */
+    public ChangeFeed.Subscription subscribe(long fromSequence) {
+        return feed.subscribe(fromSequence);
+    }
+
+    /**
+     * Copies the catalog and subscribes from the first mutation after the copy. Every
+     * write stripe is held meanwhile, so no mutation falls between the two; writers wait
+     * for the duration of the copy.
+     *
+     * @return the copy, the sequence it reflects and the subscription
+     */
+    public CatalogSubscription snapshotAndSubscribe() {
+        lockAllStripes();
+        try {
+            List<Material> materials = delegate.getAllMaterials();
+            ChangeFeed.Subscription subscription = feed.subscribe();
+            return new CatalogSubscription(materials, subscription.getNextSequence() - 1, subscription);
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    @Override
+    public boolean addMaterial(Material material) {
+        if (material == null) {
+            throw new NullPointerException("Cannot add null material");
+        }
+        ReentrantLock lock = stripeFor(material.getId());
+        lock.lock();
+        try {
+            if (!delegate.addMaterial(material)) {
+                return false;
+            }
+            feed.publish(ChangeEvent.Type.ADDED, material);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Material> removeMaterial(String id) {
+        if (id == null) {
+            return delegate.removeMaterial(null);
+        }
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try {
+            Optional<Material> removed = delegate.removeMaterial(id);
+            removed.ifPresent(material -> feed.publish(ChangeEvent.Type.REMOVED, material));
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clearInventory() {
+        lockAllStripes();
+        try {
+            delegate.clearInventory();
+            feed.publish(ChangeEvent.Type.CLEARED, null);
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    private ReentrantLock stripeFor(String id) {
+        int hash = id.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1)];
+    }
+
+    private void lockAllStripes() {
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAllStripes() {
+        for (int i = STRIPE_COUNT - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+    @Override
+    public Optional<Material> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Material> searchByTitle(String title) {
+        return delegate.searchByTitle(title);
+    }
+
+    @Override
+    public List<Material> searchByCreator(String creator) {
+        return delegate.searchByCreator(creator);
+    }
+
+    @Override
+    public List<Material> getMaterialsByType(Material.MaterialType type) {
+        return delegate.getMaterialsByType(type);
+    }
+
+    @Override
+    public List<Media> getMediaMaterials() {
+        return delegate.getMediaMaterials();
+    }
+
+    @Override
+    public List<Material> filterMaterials(Predicate<Material> predicate) {
+        return delegate.filterMaterials(predicate);
+    }
+
+    @Override
+    public List<Material> findRecentMaterials(int years) {
+        return delegate.findRecentMaterials(years);
+    }
+
+    @Override
+    public List<Material> findByCreators(String... creators) {
+        return delegate.findByCreators(creators);
+    }
+
+    @Override
+    public List<Material> findWithPredicate(Predicate<Material> condition) {
+        return delegate.findWithPredicate(condition);
+    }
+
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator) {
+        return delegate.getSorted(comparator);
+    }
+
+    @Override
+    public List<Material> getMaterialsByPriceRange(double minPrice, double maxPrice) {
+        return delegate.getMaterialsByPriceRange(minPrice, maxPrice);
+    }
+
+    @Override
+    public List<Material> getMaterialsByYear(int year) {
+        return delegate.getMaterialsByYear(year);
+    }
+
+    @Override
+    public List<Material> getAllMaterialsSorted() {
+        return delegate.getAllMaterialsSorted();
+    }
+
+    @Override
+    public List<Material> getAllMaterials() {
+        return delegate.getAllMaterials();
+    }
+
+    @Override
+    public Stream<Material> stream() {
+        return delegate.stream();
+    }
+
+    @Override
+    public Stream<Material> streamByTitle(String title) {
+        return delegate.streamByTitle(title);
+    }
+
+    @Override
+    public Stream<Material> streamByCreator(String creator) {
+        return delegate.streamByCreator(creator);
+    }
+
+    @Override
+    public Stream<Material> streamByType(Material.MaterialType type) {
+        return delegate.streamByType(type);
+    }
+
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator, int k) {
+        return delegate.getSorted(comparator, k);
+    }
+
+    @Override
+    public double getTotalInventoryValue() {
+        return delegate.getTotalInventoryValue();
+    }
+
+    @Override
+    public double getTotalDiscountedValue() {
+        return delegate.getTotalDiscountedValue();
+    }
+
+    @Override
+    public InventoryStats getInventoryStats() {
+        return delegate.getInventoryStats();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ChangeFeedMaterialStore[Feed=%s, Delegate=%s]", feed, delegate);
+    }
+
+    /**
+     * A copy of the catalog together with a subscription that starts right after it.
+     */
+    public static final class CatalogSubscription {
+        private final List<Material> materials;
+        private final long sequence;
+        private final ChangeFeed.Subscription subscription;
+
+        CatalogSubscription(List<Material> materials, long sequence, ChangeFeed.Subscription subscription) {
+            this.materials = materials;
+            this.sequence = sequence;
+            this.subscription = subscription;
+        }
+
+        public List<Material> getMaterials() { return materials; }
+        public ChangeFeed.Subscription getSubscription() { return subscription; }
+
+        /**
+         * Gets the sequence of the last mutation reflected in the copy.
+         *
+         * @return the sequence, 0 if no mutation was published before the copy
+         */
+        public long getSequence() {
+            return sequence;
+        }
+    }
+}
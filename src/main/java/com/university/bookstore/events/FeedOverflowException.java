@@ -0,0 +1,34 @@
+package com.university.bookstore.events;
+
+/**
+ * Thrown when a {@link ChangeFeed} subscriber asks for events the ring buffer no longer
+ * holds. The subscriber must resynchronize from a full copy of the store and then
+ * resume from the feed's current position.
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public class FeedOverflowException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long requestedSequence;
+    private final long oldestAvailableSequence;
+
+    /**
+     * Creates the exception.
+     *
+     * @param requestedSequence the sequence the subscriber needed next
+     * @param oldestAvailableSequence the oldest sequence still held when this was detected
+     */
+    public FeedOverflowException(long requestedSequence, long oldestAvailableSequence) {
+        super(String.format("Change feed overwrote sequence %d; oldest available is %d",
+            requestedSequence, oldestAvailableSequence));
+        this.requestedSequence = requestedSequence;
+        this.oldestAvailableSequence = oldestAvailableSequence;
+    }
+
+    public long getRequestedSequence() { return requestedSequence; }
+    public long getOldestAvailableSequence() { return oldestAvailableSequence; }
+}
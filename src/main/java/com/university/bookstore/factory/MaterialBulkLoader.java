@@ -0,0 +1,330 @@
+package com.university.bookstore.factory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.university.bookstore.impl.MaterialBatch;
+import com.university.bookstore.impl.MaterialStoreConcurrentImpl;
+import com.university.bookstore.model.Material;
+
+/**
+ * Parallel bulk-ingest pipeline built on {@link MaterialFactory}.
+ *
+ * <p>Rows are property maps in the format accepted by
+ * {@link MaterialFactory#createMaterial(String, Map)}, with the material type under the
+ * {@value #TYPE_KEY} key. They are read sequentially in chunks. Each chunk is validated and
+ * turned into Materials in parallel on a {@link ForkJoinPool} while the next chunk is
+ * being read. Valid Materials are then applied one chunk at a time as a
+ * {@link MaterialBatch}, which merges them into the sorted indexes without copying the
+ * scan snapshot. The snapshot is rebuilt once, when the ingest ends, so a large ingest
+ * costs O(n) for the copy rather than O(n) per chunk.</p>
+ *
+ * <p>A bad row never aborts the batch. Its error is recorded in the
+ * {@link IngestReport} together with its 1-based row number. As with
+ * {@code addMaterialsBatch}, a row whose ID is already in the store replaces the
+ * earlier material.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public class MaterialBulkLoader {
+
+    /** Property key holding the material type of each row. */
+    public static final String TYPE_KEY = "type";
+
+    /** Default number of rows per chunk. */
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+
+    /** Default number of row errors kept in detail. */
+    public static final int DEFAULT_MAX_REPORTED_ERRORS = 1_000;
+
+    private final MaterialStoreConcurrentImpl store;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    /**
+     * Creates a loader using the common fork-join pool and default sizes.
+     *
+     * @param store the store to load into
+     */
+    public MaterialBulkLoader(MaterialStoreConcurrentImpl store) {
+        this(store, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, DEFAULT_MAX_REPORTED_ERRORS);
+    }
+
+    /**
+     * Creates a loader.
+     *
+     * @param store the store to load into
+     * @param pool the pool that validates and constructs rows
+     * @param chunkSize rows per chunk handed to the store
+     * @param maxReportedErrors row errors kept in detail; further errors are only counted
+     */
+    public MaterialBulkLoader(MaterialStoreConcurrentImpl store, ForkJoinPool pool,
+                              int chunkSize, int maxReportedErrors) {
+        this.store = Objects.requireNonNull(store, "Store cannot be null");
+        this.pool = Objects.requireNonNull(pool, "Pool cannot be null");
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        if (maxReportedErrors < 0) {
+            throw new IllegalArgumentException("Max reported errors cannot be negative");
+        }
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Ingests a stream of property maps.
+     *
+     * @param rows the rows; consumed sequentially
+     * @return the ingest report
+     */
+    public IngestReport ingest(Stream<? extends Map<String, Object>> rows) {
+        Objects.requireNonNull(rows, "Rows cannot be null");
+        return ingest(rows.iterator());
+    }
+
+    /**
+     * Ingests property maps from an iterator.
+     *
+     * @param rows the rows
+     * @return the ingest report
+     */
+    public IngestReport ingest(Iterator<? extends Map<String, Object>> rows) {
+        Objects.requireNonNull(rows, "Rows cannot be null");
+        IngestReport report = new IngestReport(maxReportedErrors);
+
+        List<Map<String, Object>> chunk = readChunk(rows);
+        long firstRow = 1;
+        while (!chunk.isEmpty()) {
+            List<Map<String, Object>> current = chunk;
+            ForkJoinTask<Object[]> converting = pool.submit(() -> convert(current));
+            // Read the next chunk while this one is being converted
+            List<Map<String, Object>> next = readChunk(rows);
+            report.accept(firstRow, join(converting), store);
+            firstRow += current.size();
+            chunk = next;
+        }
+        store.refreshScanSnapshot();
+        return report;
+    }
+
+    /**
+     * Ingests CSV text. The first line names the properties. Quoted fields may contain
+     * commas, quotes (doubled) and line breaks. Empty fields are left out of the row, so
+     * the factory's defaults apply.
+     *
+     * @param csv the CSV source; not closed by this method
+     * @return the ingest report; row numbers count data rows, not physical lines
+     * @throws UncheckedIOException if reading fails
+     */
+    public IngestReport ingestCsv(Reader csv) {
+        Objects.requireNonNull(csv, "Reader cannot be null");
+        BufferedReader reader = csv instanceof BufferedReader ? (BufferedReader) csv : new BufferedReader(csv);
+        List<String> header = readRecord(reader);
+        if (header == null) {
+            return new IngestReport(maxReportedErrors);
+        }
+        String[] columns = header.stream().map(String::trim).toArray(String[]::new);
+
+        return ingest(new Iterator<Map<String, Object>>() {
+            private List<String> pending = readRecord(reader);
+
+            @Override
+            public boolean hasNext() {
+                return pending != null;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (pending == null) {
+                    throw new NoSuchElementException();
+                }
+                Map<String, Object> row = new HashMap<>();
+                for (int i = 0; i < columns.length && i < pending.size(); i++) {
+                    if (!pending.get(i).isEmpty()) {
+                        row.put(columns[i], pending.get(i));
+                    }
+                }
+                pending = readRecord(reader);
+                return row;
+            }
+        });
+    }
+
+    private List<Map<String, Object>> readChunk(Iterator<? extends Map<String, Object>> rows) {
+        List<Map<String, Object>> chunk = new ArrayList<>(chunkSize);
+        while (chunk.size() < chunkSize && rows.hasNext()) {
+            chunk.add(rows.next());
+        }
+        return chunk;
+    }
+
+    /**
+     * Converts a chunk in parallel. Each slot holds a Material or the String error message.
+     */
+    private static Object[] convert(List<Map<String, Object>> chunk) {
+        Object[] results = new Object[chunk.size()];
+        IntStream.range(0, chunk.size()).parallel().forEach(i -> results[i] = convertRow(chunk.get(i)));
+        return results;
+    }
+
+    private static Object convertRow(Map<String, Object> row) {
+        try {
+            if (row == null) {
+                return "Row is null";
+            }
+            Object type = row.get(TYPE_KEY);
+            if (!(type instanceof String)) {
+                return "Missing '" + TYPE_KEY + "' property";
+            }
+            return MaterialFactory.createMaterial((String) type, row);
+        } catch (RuntimeException e) {
+            return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+    }
+
+    private static Object[] join(ForkJoinTask<Object[]> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during bulk ingest", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Bulk ingest worker failed", e.getCause());
+        }
+    }
+
+    /**
+     * Reads one CSV record, or null at end of input.
+     */
+    private static List<String> readRecord(BufferedReader reader) {
+        try {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                for (int i = 0; i < line.length(); i++) {
+                    char c = line.charAt(i);
+                    if (quoted) {
+                        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else if (c == '"') {
+                            quoted = false;
+                        } else {
+                            field.append(c);
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (!quoted) {
+                    break;
+                }
+                line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                field.append('\n');
+            }
+            fields.add(field.toString());
+            return fields;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Outcome of a bulk ingest.
+     */
+    public static class IngestReport {
+        private final int maxReportedErrors;
+        private final List<RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long loadedCount;
+        private long errorCount;
+
+        IngestReport(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void accept(long firstRow, Object[] results, MaterialStoreConcurrentImpl store) {
+            List<Material> valid = new ArrayList<>(results.length);
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] instanceof Material) {
+                    valid.add((Material) results[i]);
+                } else {
+                    errorCount++;
+                    if (errors.size() < maxReportedErrors) {
+                        errors.add(new RowError(firstRow + i, (String) results[i]));
+                    }
+                }
+            }
+            if (!valid.isEmpty()) {
+                MaterialBatch batch = new MaterialBatch();
+                valid.forEach(batch::replace);
+                store.applyBatch(batch);
+            }
+            rowsRead += results.length;
+            loadedCount += valid.size();
+        }
+
+        public long getRowsRead() { return rowsRead; }
+        public long getLoadedCount() { return loadedCount; }
+        public long getErrorCount() { return errorCount; }
+        public List<RowError> getErrors() { return Collections.unmodifiableList(errors); }
+
+        @Override
+        public String toString() {
+            return String.format("IngestReport[Rows=%d, Loaded=%d, Errors=%d]", rowsRead, loadedCount, errorCount);
+        }
+    }
+
+    /**
+     * A row that could not be turned into a Material.
+     */
+    public static class RowError {
+        private final long row;
+        private final String message;
+
+        RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() { return row; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "Row " + row + ": " + message;
+        }
+    }
+}
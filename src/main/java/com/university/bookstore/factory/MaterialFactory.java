@@ -9,6 +9,8 @@ import com.university.bookstore.model.Material;
 import com.university.bookstore.model.Media;
 import com.university.bookstore.model.PrintedBook;
 import com.university.bookstore.model.VideoMaterial;
+import com.university.bookstore.utils.StringDictionary;
+import com.university.bookstore.utils.WeakStringPool;
 
 /**
  * Factory class for creating Material instances.
@@ -17,7 +19,12 @@ import com.university.bookstore.model.VideoMaterial;
  * their constructors directly.
  * 
  * <p>This factory supports creating all material types including
- * the new EBook class, with proper validation and error handling.</p>
+ * the new EBook class, with proper validation and error handling.
+ * Low-cardinality values such as formats, languages and ratings are shared
+ * through {@link StringDictionary} by the model constructors. Names such as
+ * authors, narrators, publishers and directors are shared through
+ * {@link WeakStringPool}, which forgets a name once no material holds it;
+ * cast names parsed here are pooled the same way.</p>
  * 
  * @author Navid Mohaghegh
  * @version 2.0
@@ -64,6 +71,16 @@ public class MaterialFactory {
         }
     }
     
+    /**
+     * Estimates the heap saved so far by sharing repeated field values, counting both
+     * the low-cardinality dictionary and the name pool.
+     * 
+     * @return estimated bytes saved
+     */
+    public static long getBytesSaved() {
+        return StringDictionary.shared().getBytesSaved() + WeakStringPool.shared().getBytesSaved();
+    }
+    
     /**
      * Creates a PrintedBook instance.
      */
@@ -337,7 +354,12 @@ public class MaterialFactory {
             if (str.trim().isEmpty()) {
                 return java.util.Arrays.asList();
             }
-            return java.util.Arrays.asList(str.split(","));
+            // Parsed names are fresh copies; share the pooled instance of each one
+            String[] names = str.split(",");
+            for (int i = 0; i < names.length; i++) {
+                names[i] = WeakStringPool.shared().intern(names[i]);
+            }
+            return java.util.Arrays.asList(names);
         }
         throw new IllegalArgumentException("Property '" + key + "' must be a List<String> or String, got: " + value.getClass().getSimpleName());
     }
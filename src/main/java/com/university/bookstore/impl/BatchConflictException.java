@@ -0,0 +1,32 @@
+package com.university.bookstore.impl;
+
+import java.util.List;
+
+/**
+ * Thrown when a {@link MaterialBatch} cannot be applied because the catalog no longer
+ * matches what it expects: an expected version differs from the current one, or an add
+ * targets an ID that is already present. Nothing of the batch was applied; the caller
+ * may re-read the conflicting materials and retry.
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public class BatchConflictException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> conflictingIds;
+
+    /**
+     * Creates the exception.
+     *
+     * @param conflictingIds the IDs whose current state did not match the batch
+     */
+    public BatchConflictException(List<String> conflictingIds) {
+        super(String.format("Batch conflicts on %d material(s): %s", conflictingIds.size(), conflictingIds));
+        this.conflictingIds = List.copyOf(conflictingIds);
+    }
+
+    public List<String> getConflictingIds() { return conflictingIds; }
+}
@@ -0,0 +1,249 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.university.bookstore.api.BookstoreAPI;
+import com.university.bookstore.model.Book;
+import com.university.bookstore.utils.Money;
+
+/**
+ * Hash-indexed implementation of the BookstoreAPI.
+ *
+ * <p>Books are stored in an insertion-ordered hash map keyed by ISBN, with trigram
+ * indexes for title and author searches and sorted indexes for price and year.
+ * The most expensive and most recent books and the total value are maintained
+ * on every mutation. Results keep the same semantics and tie-breaking as
+ * {@link BookstoreArrayList}.</p>
+ *
+ * <p>Performance characteristics, for n books, titles and authors of length L, and
+ * sorted-index blocks of at most B = 512 entries:</p>
+ * <ul>
+ *   <li>add: O(1) expected hash insert, O(L) trigram postings, and two sorted-index
+ *       inserts of O(log n + B) each (a binary search plus a shift within one block)</li>
+ *   <li>bulk load via the constructor: O(n log n) for the sorted indexes plus O(n L) for
+ *       the trigram postings</li>
+ *   <li>removeByIsbn: O(1) expected hash removal, O(L) trigram postings, two sorted-index
+ *       removals of O(log n + B) each, and an O(log n) lookup when a cached extreme
+ *       was removed</li>
+ *   <li>findByIsbn: O(1)</li>
+ *   <li>findByTitle / findByAuthor: proportional to the rarest query trigram</li>
+ *   <li>findByPriceRange / findByYear: O(log n + k)</li>
+ *   <li>inventoryValue, getMostExpensive, getMostRecent: O(1)</li>
+ * </ul>
+ *
+ * <p>Note: This implementation is NOT thread-safe. For concurrent access,
+ * wrap it with external synchronization.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public class BookstoreHashMap implements BookstoreAPI {
+
+    private final Map<String, Book> isbnIndex;
+    private final TrigramIndex<Book> titleIndex;
+    private final TrigramIndex<Book> authorIndex;
+    private final SortedKeyIndex<Book> priceIndex;
+    private final SortedKeyIndex<Book> yearIndex;
+
+    private long totalValueUnits;
+    private Book mostExpensive;
+    private Book mostRecent;
+
+    /**
+     * Creates a new empty bookstore.
+     */
+    public BookstoreHashMap() {
+        this.isbnIndex = new LinkedHashMap<>();
+        this.titleIndex = TrigramIndex.insertionOrdered(Book::getTitle);
+        this.authorIndex = TrigramIndex.insertionOrdered(Book::getAuthor);
+        this.priceIndex = new SortedKeyIndex<>();
+        this.yearIndex = new SortedKeyIndex<>();
+    }
+
+    /**
+     * Creates a bookstore with initial books in O(n log n) total.
+     *
+     * <p>Duplicates and nulls are skipped, as with {@link #add(Book)}. The sorted
+     * indexes are built once for the whole collection instead of per book.</p>
+     *
+     * @param initialBooks books to add initially (may be null or empty)
+     */
+    public BookstoreHashMap(Collection<Book> initialBooks) {
+        this();
+        if (initialBooks != null) {
+            List<Book> accepted = new ArrayList<>(initialBooks.size());
+            for (Book book : initialBooks) {
+                if (book != null && isbnIndex.putIfAbsent(book.getIsbn(), book) == null) {
+                    titleIndex.add(book);
+                    authorIndex.add(book);
+                    totalValueUnits += Money.toUnits(book.getPrice());
+                    updateExtremes(book);
+                    accepted.add(book);
+                }
+            }
+            priceIndex.insertAll(accepted, Book::getPrice);
+            yearIndex.insertAll(accepted, Book::getYear);
+        }
+    }
+
+    @Override
+    public boolean add(Book book) {
+        if (book == null) {
+            return false;
+        }
+
+        // Single hash probe replaces the linear duplicate scan
+        if (isbnIndex.putIfAbsent(book.getIsbn(), book) != null) {
+            return false;
+        }
+
+        titleIndex.add(book);
+        authorIndex.add(book);
+        priceIndex.insert(book.getPrice(), book);
+        yearIndex.insert(book.getYear(), book);
+        totalValueUnits += Money.toUnits(book.getPrice());
+        updateExtremes(book);
+        return true;
+    }
+
+    @Override
+    public boolean removeByIsbn(String isbn) {
+        if (isbn == null || isbn.trim().isEmpty()) {
+            return false;
+        }
+
+        Book removed = isbnIndex.remove(isbn);
+        if (removed == null) {
+            return false;
+        }
+
+        titleIndex.remove(removed);
+        authorIndex.remove(removed);
+        priceIndex.remove(removed.getPrice(), removed);
+        yearIndex.remove(removed.getYear(), removed);
+        totalValueUnits -= Money.toUnits(removed.getPrice());
+
+        if (removed == mostExpensive) {
+            mostExpensive = priceIndex.firstOfLargestKey();
+        }
+        if (removed == mostRecent) {
+            mostRecent = yearIndex.firstOfLargestKey();
+        }
+        return true;
+    }
+
+    @Override
+    public Book findByIsbn(String isbn) {
+        if (isbn == null || isbn.trim().isEmpty()) {
+            return null;
+        }
+        return isbnIndex.get(isbn);
+    }
+
+    @Override
+    public List<Book> findByTitle(String titleQuery) {
+        if (titleQuery == null || titleQuery.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return titleIndex.search(titleQuery);
+    }
+
+    @Override
+    public List<Book> findByAuthor(String authorQuery) {
+        if (authorQuery == null || authorQuery.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return authorIndex.search(authorQuery);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Results are ordered by ascending price.</p>
+     */
+    @Override
+    public List<Book> findByPriceRange(double minPrice, double maxPrice) {
+        if (minPrice < 0 || maxPrice < 0) {
+            throw new IllegalArgumentException("Prices cannot be negative");
+        }
+        if (minPrice > maxPrice) {
+            throw new IllegalArgumentException(
+                "Minimum price cannot be greater than maximum price");
+        }
+        return priceIndex.range(minPrice, maxPrice);
+    }
+
+    @Override
+    public List<Book> findByYear(int year) {
+        return yearIndex.range(year, year);
+    }
+
+    @Override
+    public int size() {
+        return isbnIndex.size();
+    }
+
+    @Override
+    public double inventoryValue() {
+        return Money.toDollars(totalValueUnits);
+    }
+
+    @Override
+    public Book getMostExpensive() {
+        return mostExpensive;
+    }
+
+    @Override
+    public Book getMostRecent() {
+        return mostRecent;
+    }
+
+    @Override
+    public Book[] snapshotArray() {
+        return isbnIndex.values().toArray(new Book[0]);
+    }
+
+    @Override
+    public List<Book> getAllBooks() {
+        return new ArrayList<>(isbnIndex.values());
+    }
+
+    /**
+     * Clears all books from the inventory.
+     */
+    public void clear() {
+        isbnIndex.clear();
+        titleIndex.clear();
+        authorIndex.clear();
+        priceIndex.clear();
+        yearIndex.clear();
+        totalValueUnits = 0;
+        mostExpensive = null;
+        mostRecent = null;
+    }
+
+    /**
+     * Updates the cached extremes for a newly added book.
+     * Strict comparison keeps the earliest book on ties, like BookstoreArrayList.
+     */
+    private void updateExtremes(Book book) {
+        if (mostExpensive == null || book.getPrice() > mostExpensive.getPrice()) {
+            mostExpensive = book;
+        }
+        if (mostRecent == null || book.getYear() > mostRecent.getYear()) {
+            mostRecent = book;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BookstoreHashMap[size=%d, value=$%.2f]",
+            size(), inventoryValue());
+    }
+}
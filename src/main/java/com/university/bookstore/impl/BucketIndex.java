@@ -0,0 +1,90 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import com.university.bookstore.model.Material;
+
+/**
+ * Thread-safe multi-valued index mapping a key to the materials that share it.
+ *
+ * <p>Each bucket is a concurrent set, so adding or removing a material only touches
+ * the bucket for its own key. Readers iterate buckets without locking and always see
+ * a weakly consistent view, which is the same guarantee {@link ConcurrentHashMap}
+ * gives for the primary index.</p>
+ *
+ * @param <K> the index key type
+ */
+class BucketIndex<K> {
+
+    private final ConcurrentHashMap<K, Set<Material>> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a material under the given key.
+     *
+     * @param key the index key
+     * @param material the material to index
+     */
+    void add(K key, Material material) {
+        buckets.compute(key, (k, bucket) -> {
+            Set<Material> target = bucket != null ? bucket : ConcurrentHashMap.newKeySet();
+            target.add(material);
+            return target;
+        });
+    }
+
+    /**
+     * Removes a material from the bucket for the given key, dropping the bucket when it empties.
+     *
+     * @param key the index key
+     * @param material the material to remove
+     */
+    void remove(K key, Material material) {
+        buckets.computeIfPresent(key, (k, bucket) -> {
+            bucket.remove(material);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    /**
+     * Gets a copy of the materials stored under the given key.
+     *
+     * @param key the index key
+     * @return list of materials (never null)
+     */
+    List<Material> get(K key) {
+        Set<Material> bucket = buckets.get(key);
+        return bucket != null ? new ArrayList<>(bucket) : new ArrayList<>();
+    }
+
+    /**
+     * Streams the materials stored under the given key without copying the bucket.
+     * The stream is weakly consistent with concurrent writes.
+     *
+     * @param key the index key
+     * @return stream of materials
+     */
+    Stream<Material> stream(K key) {
+        Set<Material> bucket = buckets.get(key);
+        return bucket != null ? bucket.stream() : Stream.empty();
+    }
+
+    /**
+     * Gets the number of distinct keys.
+     *
+     * @return key count
+     */
+    int keyCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Removes every bucket.
+     */
+    void clear() {
+        buckets.clear();
+    }
+}
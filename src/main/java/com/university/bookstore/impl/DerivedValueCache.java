@@ -0,0 +1,279 @@
+package com.university.bookstore.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.VideoMaterial;
+import com.university.bookstore.visitor.ShippingCostCalculator;
+
+/**
+ * Bounded, thread-safe cache of values derived from immutable materials, keyed by
+ * material ID.
+ *
+ * <p>The cache is split into segments by ID hash, each under its own lock, so threads
+ * working on different IDs rarely contend. Values are computed outside the lock. Each
+ * segment is a segmented LRU: a new entry starts in a probation area of a fifth of the
+ * segment and moves to the protected area on its next hit. A full scan such as
+ * {@code getAllDisplayInfo()} touches every material once, so it only cycles probation
+ * and cannot flush the entries in steady use.</p>
+ *
+ * <p>A hit requires the cached entry to belong to the very same {@link Material}
+ * instance, so a replaced material is never served stale values even before the
+ * owning store calls {@link #invalidate(String)}.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public final class DerivedValueCache {
+
+    /** Default maximum number of cached materials. */
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding up to {@link #DEFAULT_CAPACITY} materials.
+     */
+    public DerivedValueCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param capacity maximum number of cached materials
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public DerivedValueCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        int perSegment = (capacity + SEGMENT_COUNT - 1) / SEGMENT_COUNT;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(perSegment, evictions);
+        }
+    }
+
+    /**
+     * Returns the derived values of a material, computing them on a miss.
+     *
+     * @param material the material
+     * @return its derived values
+     */
+    public DerivedValues get(Material material) {
+        Objects.requireNonNull(material, "Material cannot be null");
+        Segment segment = segmentFor(material.getId());
+        DerivedValues cached;
+        synchronized (segment) {
+            cached = segment.get(material.getId());
+        }
+        if (cached != null && cached.material == material) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        DerivedValues computed = new DerivedValues(material);
+        synchronized (segment) {
+            segment.put(material.getId(), computed);
+        }
+        return computed;
+    }
+
+    /**
+     * Drops the entry for a removed or replaced material.
+     *
+     * @param id the material ID
+     */
+    public void invalidate(String id) {
+        if (id == null) {
+            return;
+        }
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            segment.remove(id);
+        }
+    }
+
+    /**
+     * Drops every entry. Metrics are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cached materials.
+     *
+     * @return current entry count
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getCapacity() { return capacity; }
+    public long getHitCount() { return hits.sum(); }
+    public long getMissCount() { return misses.sum(); }
+    public long getEvictionCount() { return evictions.sum(); }
+
+    /**
+     * Returns the fraction of lookups served from the cache.
+     *
+     * @return hit rate between 0.0 and 1.0, or 0.0 before the first lookup
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private Segment segmentFor(String id) {
+        int hash = id.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DerivedValueCache[Size=%d, Capacity=%d, HitRate=%.2f, Evictions=%d]",
+            size(), capacity, getHitRate(), getEvictionCount());
+    }
+
+    /**
+     * Probation and protected LRU areas of one segment. An entry is evicted only from
+     * probation; a protected entry pushed out by a promotion is demoted to probation for
+     * another chance. Guarded by its own monitor.
+     */
+    private static final class Segment {
+        private final LinkedHashMap<String, DerivedValues> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<String, DerivedValues> protectedArea = new LinkedHashMap<>(16, 0.75f, true);
+        private final int probationCapacity;
+        private final int protectedCapacity;
+        private final LongAdder evictions;
+
+        Segment(int maxEntries, LongAdder evictions) {
+            this.probationCapacity = Math.max(1, maxEntries / 5);
+            this.protectedCapacity = maxEntries - probationCapacity;
+            this.evictions = evictions;
+        }
+
+        DerivedValues get(String id) {
+            DerivedValues values = protectedArea.get(id);
+            if (values != null || protectedCapacity == 0) {
+                return values != null ? values : probation.get(id);
+            }
+            values = probation.remove(id);
+            if (values == null) {
+                return null;
+            }
+            protectedArea.put(id, values);
+            if (protectedArea.size() > protectedCapacity) {
+                Iterator<Map.Entry<String, DerivedValues>> eldest = protectedArea.entrySet().iterator();
+                Map.Entry<String, DerivedValues> demoted = eldest.next();
+                eldest.remove();
+                admit(demoted.getKey(), demoted.getValue());
+            }
+            return values;
+        }
+
+        void put(String id, DerivedValues values) {
+            if (protectedArea.containsKey(id)) {
+                protectedArea.put(id, values);
+            } else {
+                admit(id, values);
+            }
+        }
+
+        void remove(String id) {
+            if (protectedArea.remove(id) == null) {
+                probation.remove(id);
+            }
+        }
+
+        void clear() {
+            probation.clear();
+            protectedArea.clear();
+        }
+
+        int size() {
+            return probation.size() + protectedArea.size();
+        }
+
+        private void admit(String id, DerivedValues values) {
+            probation.put(id, values);
+            if (probation.size() > probationCapacity) {
+                Iterator<String> eldest = probation.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Values derived from one material. Display info and discounted price are computed
+     * up front; the shipping cost on first use, since not every material type has one.
+     */
+    public static final class DerivedValues {
+        private final Material material;
+        private final String displayInfo;
+        private final double discountedPrice;
+        private final double streamingBandwidth;
+        // Negative until computed; racing threads compute the same value
+        private volatile double shippingCost = -1.0;
+
+        DerivedValues(Material material) {
+            this.material = material;
+            this.displayInfo = material.getDisplayInfo();
+            this.discountedPrice = material.getDiscountedPrice();
+            this.streamingBandwidth = material instanceof VideoMaterial video
+                    ? video.getStreamingBandwidth() : 0.0;
+        }
+
+        public String getDisplayInfo() { return displayInfo; }
+        public double getDiscountedPrice() { return discountedPrice; }
+
+        /**
+         * Returns the streaming bandwidth of a video.
+         *
+         * @return bandwidth in Mbps, or 0.0 for materials that are not videos
+         */
+        public double getStreamingBandwidth() { return streamingBandwidth; }
+
+        /**
+         * Returns the shipping cost, computing it on first use.
+         *
+         * @return cost from {@link ShippingCostCalculator#costOf(Material)}
+         * @throws IllegalArgumentException if the material type has no shipping rule
+         */
+        public double getShippingCost() {
+            double cost = shippingCost;
+            if (cost < 0.0) {
+                cost = ShippingCostCalculator.costOf(material);
+                shippingCost = cost;
+            }
+            return cost;
+        }
+    }
+}
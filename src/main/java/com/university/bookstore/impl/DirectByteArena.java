@@ -0,0 +1,163 @@
+package com.university.bookstore.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only store of byte records in direct (off-heap) memory.
+ *
+ * <p>Records are length-prefixed and packed into chunks allocated with
+ * {@link ByteBuffer#allocateDirect(int)}. Chunks start small and double up to a maximum
+ * size, so small stores stay small. A record is addressed by a {@code long} holding
+ * the chunk number in the high 32 bits and the offset in the low 32 bits, so the arena
+ * can grow past the 2 GB limit of a single buffer. A record larger than the maximum chunk
+ * size gets a chunk of its own.</p>
+ *
+ * <p>Records are never freed individually; the owner reclaims space by copying its live
+ * records into a fresh arena. This class is not thread-safe for writers. Reads only use
+ * absolute buffer accessors, so they may run concurrently with each other.</p>
+ */
+class DirectByteArena {
+
+    static final int DEFAULT_MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+    private static final int FIRST_CHUNK_SIZE = 64 * 1024;
+
+    private final int maxChunkSize;
+    private int nextChunkSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private ByteBuffer current;
+    private long allocatedBytes;
+
+    /**
+     * Creates an arena with the default maximum chunk size.
+     */
+    DirectByteArena() {
+        this(DEFAULT_MAX_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates an arena with the given maximum chunk size.
+     *
+     * @param maxChunkSize upper bound on the size of a regular chunk, in bytes
+     */
+    DirectByteArena(int maxChunkSize) {
+        if (maxChunkSize < 64) {
+            throw new IllegalArgumentException("Chunk size too small: " + maxChunkSize);
+        }
+        this.maxChunkSize = maxChunkSize;
+        this.nextChunkSize = Math.min(FIRST_CHUNK_SIZE, maxChunkSize);
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param bytes the record contents
+     * @return the record address
+     */
+    long append(byte[] bytes) {
+        int needed = Integer.BYTES + bytes.length;
+        if (current == null || current.remaining() < needed) {
+            current = ByteBuffer.allocateDirect(Math.max(nextChunkSize, needed));
+            nextChunkSize = (int) Math.min((long) nextChunkSize * 2, maxChunkSize);
+            chunks.add(current);
+            allocatedBytes += current.capacity();
+        }
+        int offset = current.position();
+        current.putInt(bytes.length).put(bytes);
+        return ((long) (chunks.size() - 1) << 32) | offset;
+    }
+
+    /**
+     * Reads a record.
+     *
+     * @param address an address returned by {@link #append(byte[])}
+     * @return a copy of the record contents
+     */
+    byte[] read(long address) {
+        ByteBuffer chunk = chunks.get((int) (address >>> 32));
+        int offset = (int) address;
+        byte[] bytes = new byte[chunk.getInt(offset)];
+        chunk.get(offset + Integer.BYTES, bytes);
+        return bytes;
+    }
+
+    /**
+     * Compares a record with the given bytes without copying it on-heap.
+     *
+     * @param address the record address
+     * @param expected the bytes to compare with
+     * @return true if the record holds exactly {@code expected}
+     */
+    boolean matches(long address, byte[] expected) {
+        ByteBuffer chunk = chunks.get((int) (address >>> 32));
+        int offset = (int) address;
+        if (chunk.getInt(offset) != expected.length) {
+            return false;
+        }
+        return chunk.slice(offset + Integer.BYTES, expected.length).equals(ByteBuffer.wrap(expected));
+    }
+
+    /**
+     * Tests whether a UTF-8 record, lowercased, contains a lowercase query, as
+     * {@code new String(record, UTF_8).toLowerCase().contains(query)} would.
+     *
+     * <p>ASCII records are searched in place, folding upper-case ASCII letters while
+     * comparing, so nothing is copied on-heap. A record holding non-ASCII bytes is decoded
+     * only if the in-place search found no match, since case folding outside ASCII can
+     * change its characters.</p>
+     *
+     * @param address the record address
+     * @param query the lowercase query
+     * @param queryBytes the UTF-8 encoding of {@code query}
+     * @return true if the lowercased record contains the query
+     */
+    boolean containsIgnoreCase(long address, String query, byte[] queryBytes) {
+        ByteBuffer chunk = chunks.get((int) (address >>> 32));
+        int offset = (int) address;
+        int start = offset + Integer.BYTES;
+        int end = start + chunk.getInt(offset);
+        boolean ascii = true;
+        for (int i = start; i < end; i++) {
+            if (chunk.get(i) < 0) {
+                ascii = false;
+            } else if (end - i >= queryBytes.length && regionMatches(chunk, i, queryBytes)) {
+                return true;
+            }
+        }
+        return !ascii && new String(read(address), StandardCharsets.UTF_8).toLowerCase().contains(query);
+    }
+
+    private static boolean regionMatches(ByteBuffer chunk, int from, byte[] lowerCase) {
+        for (int j = 0; j < lowerCase.length; j++) {
+            byte b = chunk.get(from + j);
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != lowerCase[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the direct memory held by this arena.
+     *
+     * @return allocated bytes
+     */
+    long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Drops every chunk. Previously returned addresses become invalid.
+     */
+    void clear() {
+        chunks.clear();
+        current = null;
+        allocatedBytes = 0;
+        nextChunkSize = Math.min(FIRST_CHUNK_SIZE, maxChunkSize);
+    }
+}
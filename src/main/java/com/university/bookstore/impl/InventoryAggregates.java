@@ -0,0 +1,191 @@
+package com.university.bookstore.impl;
+
+import java.util.Arrays;
+import java.util.function.DoubleToLongFunction;
+
+import com.university.bookstore.api.MaterialStore.InventoryStats;
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.utils.Money;
+
+/**
+ * Running aggregates behind {@link InventoryStats}, updated in O(1) per mutation.
+ *
+ * <p>Keeps a count, an exact fixed-point price sum, per-{@link Material.MaterialType} counters and the
+ * media/print counts. The median is read from the store's sorted price index, which
+ * already is an order-statistic structure, so producing a stats object never scans or
+ * allocates per material.</p>
+ *
+ * <p>This class is not thread-safe. Callers guard it with the same lock as the price index
+ * so that the median and the counters describe the same catalog state.</p>
+ */
+class InventoryAggregates {
+
+    private final int[] typeCounts = new int[Material.MaterialType.values().length];
+    private int count;
+    private long priceUnits;
+    private int distinctTypes;
+    private int mediaCount;
+    private int printCount;
+
+    /**
+     * Records a material added to the store.
+     *
+     * @param material the added material
+     */
+    void add(Material material) {
+        count++;
+        priceUnits += material.getPriceUnits();
+        if (typeCounts[material.getType().ordinal()]++ == 0) {
+            distinctTypes++;
+        }
+        if (material instanceof Media) {
+            mediaCount++;
+        }
+        if (isPrint(material)) {
+            printCount++;
+        }
+    }
+
+    /**
+     * Records a material removed from the store.
+     *
+     * @param material the removed material
+     */
+    void remove(Material material) {
+        count--;
+        priceUnits -= material.getPriceUnits();
+        if (--typeCounts[material.getType().ordinal()] == 0) {
+            distinctTypes--;
+        }
+        if (material instanceof Media) {
+            mediaCount--;
+        }
+        if (isPrint(material)) {
+            printCount--;
+        }
+    }
+
+    /**
+     * Resets every aggregate.
+     */
+    void clear() {
+        Arrays.fill(typeCounts, 0);
+        count = 0;
+        priceUnits = 0;
+        distinctTypes = 0;
+        mediaCount = 0;
+        printCount = 0;
+    }
+
+    /**
+     * Adds another store's aggregates to these, as when combining shards.
+     *
+     * @param other aggregates over a disjoint set of materials, such as another stripe's
+     */
+    void merge(InventoryAggregates other) {
+        count += other.count;
+        priceUnits += other.priceUnits;
+        mediaCount += other.mediaCount;
+        printCount += other.printCount;
+        distinctTypes = 0;
+        for (int i = 0; i < typeCounts.length; i++) {
+            typeCounts[i] += other.typeCounts[i];
+            if (typeCounts[i] > 0) {
+                distinctTypes++;
+            }
+        }
+    }
+
+    /**
+     * Selects the median of prices spread over several sorted sources, given only how many
+     * prices in total are at most a value.
+     *
+     * @param n total number of prices
+     * @param maxPrice the largest price
+     * @param countAtMost counts the prices {@code <=} a value across all sources
+     * @return the median, or 0.0 if there are no prices
+     */
+    static double medianPrice(long n, double maxPrice, DoubleToLongFunction countAtMost) {
+        if (n == 0) {
+            return 0.0;
+        }
+        return n % 2 == 0
+                ? (priceAtRank(n / 2 - 1, maxPrice, countAtMost) + priceAtRank(n / 2, maxPrice, countAtMost)) / 2.0
+                : priceAtRank(n / 2, maxPrice, countAtMost);
+    }
+
+    /**
+     * Finds the smallest price whose count of prices at most it exceeds {@code rank}.
+     * Non-negative doubles order like their bit patterns, so this bisects the bits of
+     * {@code [0, maxPrice]}: at most 64 counting rounds, O(64 k log n) for k sources.
+     */
+    private static double priceAtRank(long rank, double maxPrice, DoubleToLongFunction countAtMost) {
+        long low = 0L;
+        long high = Double.doubleToLongBits(maxPrice + 0.0);
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (countAtMost.applyAsLong(Double.longBitsToDouble(mid)) > rank) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return Double.longBitsToDouble(low);
+    }
+
+    /**
+     * Returns the number of materials.
+     *
+     * @return material count
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Returns the exact sum of all prices.
+     *
+     * @return total price in {@link Money} units
+     */
+    long priceUnits() {
+        return priceUnits;
+    }
+
+    /**
+     * Builds a stats object from the running aggregates, reading the median from the
+     * price index in O(log n).
+     *
+     * @param priceIndex sorted price index holding the same materials
+     * @return the current inventory statistics
+     */
+    InventoryStats toStats(SortedKeyIndex<Material> priceIndex) {
+        if (count == 0) {
+            return new InventoryStats(0, 0.0, 0.0, 0, 0, 0);
+        }
+        int n = priceIndex.size();
+        double median = n % 2 == 0
+                ? (priceIndex.keyAt(n / 2 - 1) + priceIndex.keyAt(n / 2)) / 2.0
+                : priceIndex.keyAt(n / 2);
+        return toStats(median);
+    }
+
+    /**
+     * Builds a stats object from the running aggregates and a median computed by the caller.
+     *
+     * @param medianPrice median price of the same materials
+     * @return the current inventory statistics
+     */
+    InventoryStats toStats(double medianPrice) {
+        if (count == 0) {
+            return new InventoryStats(0, 0.0, 0.0, 0, 0, 0);
+        }
+        return new InventoryStats(count, Money.toDollars(priceUnits) / count, medianPrice, distinctTypes, mediaCount, printCount);
+    }
+
+    private static boolean isPrint(Material material) {
+        return material instanceof PrintedBook || material instanceof Magazine;
+    }
+}
@@ -0,0 +1,160 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.university.bookstore.model.Material;
+
+/**
+ * Adds, replacements and removals applied together by
+ * {@link MaterialStoreConcurrentImpl#applyBatch(MaterialBatch)}.
+ *
+ * <p>Operations take effect in the order they were added, so a later operation on an ID
+ * sees the earlier ones. {@link #add(Material)} requires the ID to be absent,
+ * {@link #replace(Material)} adds or replaces, and {@link #remove(String)} removes the ID
+ * if present. Version expectations are optional: each one names an ID and the version
+ * from {@link MaterialStoreConcurrentImpl#getVersion(String)} it must still have, with 0
+ * meaning absent. If any expectation fails, or an add finds its ID present, the whole
+ * batch is rejected with a {@link BatchConflictException}.</p>
+ *
+ * <p>A batch is a plain description and is not thread-safe. It can be applied again,
+ * for example after refreshing its expectations on conflict.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public final class MaterialBatch {
+
+    private final List<Operation> operations = new ArrayList<>();
+    private final Map<String, Long> expectedVersions = new LinkedHashMap<>();
+
+    /**
+     * Adds a material whose ID must not be in the catalog.
+     *
+     * @param material the material to add
+     * @return this batch
+     */
+    public MaterialBatch add(Material material) {
+        Objects.requireNonNull(material, "Cannot add null material");
+        operations.add(new Operation(Kind.ADD, material.getId(), material));
+        return this;
+    }
+
+    /**
+     * Adds a material, replacing any material with the same ID.
+     *
+     * @param material the material to put
+     * @return this batch
+     */
+    public MaterialBatch replace(Material material) {
+        Objects.requireNonNull(material, "Cannot replace with null material");
+        operations.add(new Operation(Kind.REPLACE, material.getId(), material));
+        return this;
+    }
+
+    /**
+     * Removes the material with an ID, if present.
+     *
+     * @param id the material ID
+     * @return this batch
+     */
+    public MaterialBatch remove(String id) {
+        Objects.requireNonNull(id, "ID cannot be null");
+        operations.add(new Operation(Kind.REMOVE, id, null));
+        return this;
+    }
+
+    /**
+     * Requires an ID to be at a version when the batch is applied. A later expectation for
+     * the same ID replaces the earlier one.
+     *
+     * @param id the material ID
+     * @param version the expected version, 0 for absent
+     * @return this batch
+     * @throws IllegalArgumentException if the version is negative
+     */
+    public MaterialBatch expectVersion(String id, long version) {
+        Objects.requireNonNull(id, "ID cannot be null");
+        if (version < 0) {
+            throw new IllegalArgumentException("Version cannot be negative: " + version);
+        }
+        expectedVersions.put(id, version);
+        return this;
+    }
+
+    /**
+     * Requires an ID to be absent when the batch is applied.
+     *
+     * @param id the material ID
+     * @return this batch
+     */
+    public MaterialBatch expectAbsent(String id) {
+        return expectVersion(id, 0L);
+    }
+
+    public int size() { return operations.size(); }
+    public boolean isEmpty() { return operations.isEmpty() && expectedVersions.isEmpty(); }
+
+    List<Operation> getOperations() {
+        return Collections.unmodifiableList(operations);
+    }
+
+    Map<String, Long> getExpectedVersions() {
+        return Collections.unmodifiableMap(expectedVersions);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MaterialBatch[Operations=%d, Expectations=%d]",
+            operations.size(), expectedVersions.size());
+    }
+
+    enum Kind {
+        ADD, REPLACE, REMOVE
+    }
+
+    /**
+     * One operation; the material is null for a removal.
+     */
+    static final class Operation {
+        final Kind kind;
+        final String id;
+        final Material material;
+
+        Operation(Kind kind, String id, Material material) {
+            this.kind = kind;
+            this.id = id;
+            this.material = material;
+        }
+    }
+
+    /**
+     * Net effect of an applied batch. Operations that cancel out within the batch, such as
+     * an add followed by a removal of the same ID, are not counted.
+     */
+    public static final class Result {
+        private final int added;
+        private final int replaced;
+        private final int removed;
+
+        Result(int added, int replaced, int removed) {
+            this.added = added;
+            this.replaced = replaced;
+            this.removed = removed;
+        }
+
+        public int getAdded() { return added; }
+        public int getReplaced() { return replaced; }
+        public int getRemoved() { return removed; }
+
+        @Override
+        public String toString() {
+            return String.format("Result[Added=%d, Replaced=%d, Removed=%d]", added, replaced, removed);
+        }
+    }
+}
@@ -1,32 +1,52 @@
 package com.university.bookstore.impl;
 
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.university.bookstore.api.MaterialStore;
-import com.university.bookstore.model.Magazine;
+import com.university.bookstore.metrics.StoreMetrics;
 import com.university.bookstore.model.Material;
 import com.university.bookstore.model.Media;
+import com.university.bookstore.utils.Money;
+import com.university.bookstore.utils.StringDictionary;
+import com.university.bookstore.utils.TopK;
 
 /**
- * Thread-safe implementation of MaterialStore using ConcurrentHashMap for primary indexing
- * and immutable snapshots for secondary indexes with StampedLock for consistency.
+ * Thread-safe implementation of MaterialStore using ConcurrentHashMap for primary indexing,
+ * incrementally maintained secondary indexes, and an immutable catalog snapshot guarded by
+ * a StampedLock for full scans.
  * 
  * <p>This implementation provides:
  * - Lock-free reads for primary operations (findById)
- * - Thread-safe writes with minimal locking
- * - Immutable snapshots for secondary indexes
+ * - Writes locked per ID stripe, so writers of different materials run in parallel
+ * - Exact per-stripe statistics with a consistent snapshot read
+ * - Secondary indexes updated per mutation in time proportional to one material
+ * - Per-stripe sorted price and year indexes, merged to answer range queries in
+ *   O(log n + k log 64)
+ * - Inventory statistics maintained per stripe alongside its price index
+ * - Immutable snapshots for scan-based queries
+ * - Versioned read-only snapshots that give multi-query reports one consistent catalog state
+ * - Atomic multi-material batches with optional per-ID version checks
  * - High performance under concurrent access</p>
  * 
  * @author Navid Mohaghegh
@@ -38,32 +58,76 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
     // Primary index using ConcurrentHashMap for thread-safe, lock-free reads
     private final ConcurrentHashMap<String, Material> primaryIndex;
     
-    // Secondary indexes with immutable snapshots
-    private volatile Map<String, List<Material>> titleIndex;
-    private volatile Map<String, List<Material>> creatorIndex;
-    private volatile Map<Material.MaterialType, List<Material>> typeIndex;
+    // Secondary indexes maintained incrementally on every mutation
+    private final BucketIndex<String> titleIndex;
+    private final BucketIndex<Integer> creatorIndex;
+    private final BucketIndex<Material.MaterialType> typeIndex;
+    
+    // Codes of the lowercased creator names keying creatorIndex, counted per material so a
+    // name and its code are dropped with the last material by that creator
+    private volatile StringDictionary creatorCodes = new StringDictionary();
+    
+    // Substring indexes backing searchByTitle and searchByCreator
+    private final TrigramIndex<Material> titleSearchIndex;
+    private final TrigramIndex<Material> creatorSearchIndex;
+    
+    // Insertion stamps shared by every stripe's sorted indexes, so ranges merged across
+    // stripes keep equal keys in catalog-wide insertion order
+    private final AtomicLong sortStamps = new AtomicLong();
+    
+    // Display info, discounted price and shipping cost per material; entries are
+    // dropped whenever a material is removed or replaced
+    private final DerivedValueCache derivedValues = new DerivedValueCache();
+    
+    // Immutable snapshot of all materials for scan-based queries
     private volatile List<Material> allMaterials;
     
-    // Track if indexes are dirty to avoid unnecessary rebuilds
+    // Natural-order copy of allMaterials, valid while its source is the current snapshot
+    private volatile SortedView naturalOrder;
+    
+    // Track if the snapshot is stale to avoid unnecessary rebuilds
     private volatile boolean indexesDirty = true;
     
-    // StampedLock for managing secondary index updates
+    // StampedLock ordering scan snapshot rebuilds against batches changing the primary index
     private final StampedLock indexLock = new StampedLock();
     
-    // Statistics tracking
-    private volatile int totalCount = 0;
-    private volatile double totalValue = 0.0;
-    private volatile double totalDiscountedValue = 0.0;
+    // Writers lock only the stripe of the material ID; each stripe keeps exact sums,
+    // sorted indexes and aggregates for the materials whose IDs hash to it
+    private static final int STRIPE_COUNT = 64;
+    private final Stripe[] stripes;
+    
+    // Optional instrumentation; null unless a caller attaches metrics
+    private volatile StoreMetrics metrics;
+    
+    // When and where full predicate scans of the snapshot run in parallel
+    private volatile ScanConfig scanConfig = ScanConfig.defaults();
+    
+    // Optimistic snapshot copies tried before briefly holding every stripe
+    private static final int OPTIMISTIC_SNAPSHOT_ATTEMPTS = 4;
+    
+    // Most recent versioned snapshot, reused while the version is unchanged; weakly held
+    // so a version no caller references can be reclaimed
+    private volatile WeakReference<MaterialStoreSnapshot> latestSnapshot = new WeakReference<>(null);
+    
+    // Version of each present material: the sequence its stripe reached when the write
+    // section that last changed it ended. Absent IDs are at version 0
+    private final ConcurrentHashMap<String, Long> versions = new ConcurrentHashMap<>();
     
     /**
      * Creates a new empty concurrent material store.
      */
     public MaterialStoreConcurrentImpl() {
         this.primaryIndex = new ConcurrentHashMap<>();
-        this.titleIndex = Collections.emptyMap();
-        this.creatorIndex = Collections.emptyMap();
-        this.typeIndex = Collections.emptyMap();
+        this.titleIndex = new BucketIndex<>();
+        this.creatorIndex = new BucketIndex<>();
+        this.typeIndex = new BucketIndex<>();
+        this.titleSearchIndex = TrigramIndex.concurrent(Material::getTitle);
+        this.creatorSearchIndex = TrigramIndex.concurrent(Material::getCreator);
         this.allMaterials = Collections.emptyList();
+        this.stripes = new Stripe[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe(sortStamps);
+        }
     }
     
     /**
@@ -74,54 +138,237 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
     public MaterialStoreConcurrentImpl(Collection<Material> initialMaterials) {
         this();
         if (initialMaterials != null) {
-            for (Material material : initialMaterials) {
-                if (material != null) {
-                    addMaterialInternal(material);
-                }
-            }
-            // Update secondary indexes once after adding all materials
-            updateSecondaryIndexes();
+            addMaterialsBatch(initialMaterials);
         }
     }
     
-    /**
-     * Internal method to add material without triggering index updates during construction.
-     */
-    private void addMaterialInternal(Material material) {
-        primaryIndex.put(material.getId(), material);
-        updateStatistics(material, true);
-    }
-    
     /**
      * Batch add materials for better performance.
-     * Only updates secondary indexes once after all materials are added.
+     * A material whose ID is already present replaces the earlier one. The whole collection
+     * is applied as one {@link MaterialBatch}, and the scan snapshot is rebuilt once after.
      */
     public void addMaterialsBatch(Collection<Material> materials) {
         if (materials == null || materials.isEmpty()) {
             return;
         }
         
-        // Add all materials to primary index first
+        MaterialBatch batch = new MaterialBatch();
         for (Material material : materials) {
             if (material != null) {
-                primaryIndex.put(material.getId(), material);
-                updateStatistics(material, true);
+                batch.replace(material);
             }
         }
+        applyBatch(batch);
         
-        // Update secondary indexes once after all materials are added
-        this.indexesDirty = true;
+        // Rebuild the scan snapshot once after all materials are added
         updateSecondaryIndexes();
     }
     
+    /**
+     * Rebuilds the scan snapshot now rather than on the next full scan. Batches applied
+     * with {@link #applyBatch(MaterialBatch)} leave the snapshot stale, so a loader that
+     * applies many of them calls this once at the end and pays the O(n) copy only once.
+     */
+    public void refreshScanSnapshot() {
+        updateSecondaryIndexes();
+    }
+    
+    /**
+     * Applies a batch of adds, replacements and removals atomically.
+     * 
+     * <p>Every stripe the batch touches is held from the version checks to the end of the
+     * batch, so the checks and the changes form one write section. The primary index
+     * changes under a single acquisition of the index write lock, and each touched
+     * stripe's sorted indexes, aggregates and totals are updated once, with bulk merges
+     * into the sorted indexes. Snapshots, {@link #getTotalsSnapshot()}, inventory stats, range
+     * queries and full scans therefore see either none of the batch or all of it. Lock-free
+     * lookups by ID, title, creator or type may see a batch while it is being applied.</p>
+     * 
+     * @param batch the changes to apply
+     * @return the net number of materials added, replaced and removed
+     * @throws BatchConflictException if a version expectation fails or an add finds its
+     *         ID present; nothing is applied in that case
+     */
+    public MaterialBatch.Result applyBatch(MaterialBatch batch) {
+        Objects.requireNonNull(batch, "Batch cannot be null");
+        List<MaterialBatch.Operation> operations = batch.getOperations();
+        Map<String, Long> expectedVersions = batch.getExpectedVersions();
+        if (batch.isEmpty()) {
+            return new MaterialBatch.Result(0, 0, 0);
+        }
+        
+        // Lock the touched stripes in index order, as lockAllStripes does
+        boolean[] touched = new boolean[STRIPE_COUNT];
+        for (MaterialBatch.Operation operation : operations) {
+            touched[stripeIndex(operation.id)] = true;
+        }
+        for (String id : expectedVersions.keySet()) {
+            touched[stripeIndex(id)] = true;
+        }
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            if (touched[i]) {
+                stripes[i].beginWrite();
+            }
+        }
+        try {
+            Set<String> conflicts = new LinkedHashSet<>();
+            for (Map.Entry<String, Long> expected : expectedVersions.entrySet()) {
+                if (getVersion(expected.getKey()) != expected.getValue()) {
+                    conflicts.add(expected.getKey());
+                }
+            }
+            
+            // Resolve the operations in order to each ID's final material, null if absent
+            Map<String, Material> before = new HashMap<>();
+            Map<String, Material> after = new LinkedHashMap<>();
+            for (MaterialBatch.Operation operation : operations) {
+                if (!before.containsKey(operation.id)) {
+                    Material current = primaryIndex.get(operation.id);
+                    before.put(operation.id, current);
+                    after.put(operation.id, current);
+                }
+                if (operation.kind == MaterialBatch.Kind.ADD && after.get(operation.id) != null) {
+                    conflicts.add(operation.id);
+                    continue;
+                }
+                after.put(operation.id, operation.material);
+            }
+            if (!conflicts.isEmpty()) {
+                throw new BatchConflictException(new ArrayList<>(conflicts));
+            }
+            return commitBatch(before, after);
+        } finally {
+            for (int i = STRIPE_COUNT - 1; i >= 0; i--) {
+                if (touched[i]) {
+                    stripes[i].endWrite();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Applies the net change of a resolved batch. The caller holds the stripes of every ID.
+     */
+    private MaterialBatch.Result commitBatch(Map<String, Material> before, Map<String, Material> after) {
+        List<Material> removed = new ArrayList<>();
+        List<Material> inserted = new ArrayList<>();
+        int added = 0;
+        int replaced = 0;
+        int deleted = 0;
+        for (Map.Entry<String, Material> entry : after.entrySet()) {
+            Material previous = before.get(entry.getKey());
+            Material next = entry.getValue();
+            if (previous == next) {
+                continue;
+            }
+            if (previous != null) {
+                removed.add(previous);
+            }
+            if (next != null) {
+                inserted.add(next);
+            }
+            if (previous == null) {
+                added++;
+            } else if (next == null) {
+                deleted++;
+            } else {
+                replaced++;
+            }
+        }
+        if (removed.isEmpty() && inserted.isEmpty()) {
+            return new MaterialBatch.Result(0, 0, 0);
+        }
+        
+        // Primary changes in one index write section, so the scan snapshot rebuild never
+        // observes part of the batch
+        long stamp = writeIndexLock();
+        try {
+            for (Map.Entry<String, Material> entry : after.entrySet()) {
+                if (entry.getValue() != null) {
+                    primaryIndex.put(entry.getKey(), entry.getValue());
+                } else {
+                    primaryIndex.remove(entry.getKey());
+                }
+            }
+            this.indexesDirty = true;
+        } finally {
+            indexLock.unlockWrite(stamp);
+        }
+        
+        // Sorted indexes and aggregates per touched stripe, all held by the caller; stamps
+        // drawn in batch order keep equal keys in that order across stripes
+        StripeChanges[] changes = new StripeChanges[STRIPE_COUNT];
+        for (Material material : removed) {
+            changesFor(changes, material).removed.add(material);
+        }
+        long firstStamp = sortStamps.getAndAdd(inserted.size());
+        for (int i = 0; i < inserted.size(); i++) {
+            changesFor(changes, inserted.get(i)).insert(inserted.get(i), firstStamp + i);
+        }
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            if (changes[i] != null) {
+                changes[i].applyTo(stripes[i]);
+            }
+        }
+        
+        // One statistics update per stripe, in fixed-point units
+        int[] counts = new int[STRIPE_COUNT];
+        long[] valueUnits = new long[STRIPE_COUNT];
+        long[] discountedUnits = new long[STRIPE_COUNT];
+        for (Material material : removed) {
+            int index = stripeIndex(material.getId());
+            counts[index]--;
+            valueUnits[index] -= material.getPriceUnits();
+            discountedUnits[index] -= material.getDiscountedPriceUnits();
+            unindexKeys(material);
+            versions.remove(material.getId());
+        }
+        for (Material material : inserted) {
+            int index = stripeIndex(material.getId());
+            counts[index]++;
+            valueUnits[index] += material.getPriceUnits();
+            discountedUnits[index] += material.getDiscountedPriceUnits();
+            indexKeys(material);
+            recordVersion(stripes[index], material.getId());
+        }
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            Stripe stripe = stripes[i];
+            if (counts[i] != 0 || valueUnits[i] != 0 || discountedUnits[i] != 0) {
+                stripe.count += counts[i];
+                stripe.valueUnits += valueUnits[i];
+                stripe.discountedUnits += discountedUnits[i];
+            }
+        }
+        return new MaterialBatch.Result(added, replaced, deleted);
+    }
+    
+    /**
+     * Gets the version of a material for use in {@link MaterialBatch#expectVersion}.
+     * Versions of an ID only grow while it is present; a removed ID is back at 0. Read the
+     * version before the material, so a write in between shows up as a conflict; a material
+     * found present after reading version 0 was added in between and must be re-read.
+     * 
+     * @param id the material ID
+     * @return the current version, or 0 if the ID is absent
+     */
+    public long getVersion(String id) {
+        if (id == null) {
+            return 0L;
+        }
+        Long version = versions.get(id);
+        return version != null ? version : 0L;
+    }
+    
     @Override
     public boolean addMaterial(Material material) {
         if (material == null) {
             throw new NullPointerException("Cannot add null material");
         }
         
-        // Use synchronized block to ensure atomicity of the entire operation
-        synchronized (this) {
+        // Lock only this ID's stripe so writers of other IDs proceed in parallel
+        Stripe stripe = stripeFor(material.getId());
+        stripe.beginWrite();
+        try {
             // Use putIfAbsent for atomic check-and-insert
             Material existing = primaryIndex.putIfAbsent(material.getId(), material);
             if (existing != null) {
@@ -129,8 +376,12 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
             }
             
             // Update statistics atomically - only when material was actually added
-            updateStatistics(material, true);
+            updateStatistics(stripe, material, true);
+            indexMaterial(stripe, material);
+            recordVersion(stripe, material.getId());
             this.indexesDirty = true;
+        } finally {
+            stripe.endWrite();
         }
         
         return true;
@@ -142,7 +393,9 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
             return Optional.empty();
         }
         
-        synchronized (this) {
+        Stripe stripe = stripeFor(id);
+        stripe.beginWrite();
+        try {
             // Remove from primary index atomically
             Material removed = primaryIndex.remove(id);
             if (removed == null) {
@@ -150,10 +403,14 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
             }
             
             // Update statistics atomically
-            updateStatistics(removed, false);
+            updateStatistics(stripe, removed, false);
+            unindexMaterial(stripe, removed);
+            versions.remove(id);
             this.indexesDirty = true;
             
             return Optional.of(removed);
+        } finally {
+            stripe.endWrite();
         }
     }
     
@@ -166,20 +423,33 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
         return Optional.ofNullable(primaryIndex.get(id));
     }
     
+    /**
+     * Gets the cached derived values of a material, computing them on first use.
+     * 
+     * @param id the material ID
+     * @return the derived values, or empty if no such material
+     */
+    public Optional<DerivedValueCache.DerivedValues> getDerivedValues(String id) {
+        return findById(id).map(derivedValues::get);
+    }
+    
+    /**
+     * Gets the derived-value cache, for its hit, miss and eviction metrics.
+     * 
+     * @return the cache
+     */
+    public DerivedValueCache getDerivedValueCache() {
+        return derivedValues;
+    }
+    
     @Override
     public List<Material> searchByTitle(String title) {
         if (title == null || title.trim().isEmpty()) {
             return new ArrayList<>();
         }
         
-        // Ensure indexes are built (lazy loading)
-        ensureSecondaryIndexes();
-        
-        // Lock-free read from immutable snapshot
-        Map<String, List<Material>> currentTitleIndex = titleIndex;
-        List<Material> results = currentTitleIndex.get(title.trim().toLowerCase());
-        
-        return results != null ? new ArrayList<>(results) : new ArrayList<>();
+        // Lock-free substring lookup, same contains() semantics as MaterialStoreImpl
+        return titleSearchIndex.search(title);
     }
     
     @Override
@@ -188,14 +458,8 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
             return new ArrayList<>();
         }
         
-        // Ensure indexes are built (lazy loading)
-        ensureSecondaryIndexes();
-        
-        // Lock-free read from immutable snapshot
-        Map<String, List<Material>> currentCreatorIndex = creatorIndex;
-        List<Material> results = currentCreatorIndex.get(creator.trim().toLowerCase());
-        
-        return results != null ? new ArrayList<>(results) : new ArrayList<>();
+        // Lock-free substring lookup, same contains() semantics as MaterialStoreImpl
+        return creatorSearchIndex.search(creator);
     }
     
     @Override
@@ -204,14 +468,8 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
             return new ArrayList<>();
         }
         
-        // Ensure indexes are built (lazy loading)
-        ensureSecondaryIndexes();
-        
-        // Lock-free read from immutable snapshot
-        Map<Material.MaterialType, List<Material>> currentTypeIndex = typeIndex;
-        List<Material> results = currentTypeIndex.get(type);
-        
-        return results != null ? new ArrayList<>(results) : new ArrayList<>();
+        // Lock-free read from the incrementally maintained index
+        return typeIndex.get(type);
     }
     
     @Override
@@ -222,10 +480,7 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
         // Lock-free read from immutable snapshot
         List<Material> currentAllMaterials = allMaterials;
         
-        return currentAllMaterials.stream()
-                .filter(material -> material instanceof Media)
-                .map(material -> (Media) material)
-                .collect(Collectors.toList());
+        return ParallelScan.select(currentAllMaterials, Media.class::isInstance, Media.class::cast, scanConfig);
     }
     
     @Override
@@ -240,9 +495,7 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
         // Lock-free read from immutable snapshot
         List<Material> currentAllMaterials = allMaterials;
         
-        return currentAllMaterials.stream()
-                .filter(predicate)
-                .collect(Collectors.toList());
+        return ParallelScan.select(currentAllMaterials, predicate, Function.identity(), scanConfig);
     }
     
     @Override
@@ -254,15 +507,8 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
         int currentYear = java.time.Year.now().getValue();
         int cutoffYear = currentYear - years;
         
-        // Ensure indexes are built (lazy loading)
-        ensureSecondaryIndexes();
-        
-        // Lock-free read from immutable snapshot
-        List<Material> currentAllMaterials = allMaterials;
-        
-        return currentAllMaterials.stream()
-                .filter(material -> material.getYear() >= cutoffYear)
-                .collect(Collectors.toList());
+        // Binary search on the stripes' year indexes, merged oldest first
+        return readSortedRange(false, cutoffYear, Double.POSITIVE_INFINITY);
     }
     
     @Override
@@ -278,15 +524,20 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
                 .map(String::toLowerCase)
                 .collect(Collectors.toSet());
         
-        // Ensure indexes are built (lazy loading)
-        ensureSecondaryIndexes();
-        
-        // Lock-free read from immutable snapshot
-        List<Material> currentAllMaterials = allMaterials;
-        
-        return currentAllMaterials.stream()
-                .filter(material -> creatorSet.contains(material.getCreator().toLowerCase()))
-                .collect(Collectors.toList());
+        // One index lookup per creator instead of a full scan; a name the dictionary
+        // does not hold cannot match any material. A code freed and reused while this
+        // runs may briefly key another creator, so each hit is checked
+        StringDictionary dictionary = creatorCodes;
+        List<Material> results = new ArrayList<>();
+        for (String creator : creatorSet) {
+            int code = dictionary.find(creator);
+            if (code >= 0) {
+                creatorIndex.stream(code)
+                        .filter(m -> creator.equals(m.getCreator().toLowerCase()))
+                        .forEach(results::add);
+            }
+        }
+        return results;
     }
     
     @Override
@@ -301,9 +552,7 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
         // Lock-free read from immutable snapshot
         List<Material> currentAllMaterials = allMaterials;
         
-        return currentAllMaterials.stream()
-                .filter(condition)
-                .collect(Collectors.toList());
+        return ParallelScan.select(currentAllMaterials, condition, Function.identity(), scanConfig);
     }
     
     @Override
@@ -323,6 +572,25 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
                 .collect(Collectors.toList());
     }
     
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator, int k) {
+        if (comparator == null) {
+            throw new NullPointerException("Comparator cannot be null");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative: " + k);
+        }
+        
+        if (comparator == Comparator.<Material>naturalOrder()) {
+            List<Material> sorted = naturalOrderView();
+            return new ArrayList<>(sorted.subList(0, Math.min(k, sorted.size())));
+        }
+        
+        // Bounded heap over the immutable snapshot, partitioned across cores for large catalogs
+        ensureSecondaryIndexes();
+        return TopK.smallestParallel(allMaterials, comparator, k);
+    }
+    
     @Override
     public List<Material> getMaterialsByPriceRange(double minPrice, double maxPrice) {
         if (minPrice < 0 || maxPrice < 0 || minPrice > maxPrice) {
@@ -330,41 +598,20 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
                 String.format("Invalid price range: min=%.2f, max=%.2f", minPrice, maxPrice));
         }
         
-        // Ensure indexes are built (lazy loading)
-        ensureSecondaryIndexes();
-        
-        // Lock-free read from immutable snapshot
-        List<Material> currentAllMaterials = allMaterials;
-        
-        return currentAllMaterials.stream()
-                .filter(material -> material.getPrice() >= minPrice && material.getPrice() <= maxPrice)
-                .collect(Collectors.toList());
+        // Binary search on the stripes' price indexes, merged cheapest first
+        return readSortedRange(true, minPrice, maxPrice);
     }
     
     @Override
     public List<Material> getMaterialsByYear(int year) {
-        // Ensure indexes are built (lazy loading)
-        ensureSecondaryIndexes();
-        
-        // Lock-free read from immutable snapshot
-        List<Material> currentAllMaterials = allMaterials;
-        
-        return currentAllMaterials.stream()
-                .filter(material -> material.getYear() == year)
-                .collect(Collectors.toList());
+        // Binary search on the stripes' year indexes
+        return readSortedRange(false, year, year);
     }
     
     @Override
     public List<Material> getAllMaterialsSorted() {
-        // Ensure indexes are built (lazy loading)
-        ensureSecondaryIndexes();
-        
-        // Lock-free read from immutable snapshot
-        List<Material> currentAllMaterials = allMaterials;
-        
-        return currentAllMaterials.stream()
-                .sorted()
-                .collect(Collectors.toList());
+        // Copy of the cached natural-order view; sorted at most once per catalog version
+        return new ArrayList<>(naturalOrderView());
     }
     
     @Override
@@ -378,108 +625,466 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
     
     @Override
     public double getTotalInventoryValue() {
-        // Lock-free read of volatile field
-        return totalValue;
+        // Lock-free, exact sum of the per-stripe fixed-point totals
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.valueUnits;
+        }
+        return Money.toDollars(total);
     }
     
     @Override
     public double getTotalDiscountedValue() {
-        // Lock-free read of volatile field
-        return totalDiscountedValue;
+        // Lock-free, exact sum of the per-stripe fixed-point totals
+        long total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.discountedUnits;
+        }
+        return Money.toDollars(total);
+    }
+    
+    /**
+     * Reads count, value and discounted value as of a single point in time by briefly
+     * holding every stripe. The individual getters are lock-free and may straddle
+     * concurrent writes.
+     * 
+     * @return consistent totals
+     */
+    public Totals getTotalsSnapshot() {
+        lockAllStripes();
+        try {
+            int count = 0;
+            long valueUnits = 0;
+            long discountedUnits = 0;
+            for (Stripe stripe : stripes) {
+                count += stripe.count;
+                valueUnits += stripe.valueUnits;
+                discountedUnits += stripe.discountedUnits;
+            }
+            return new Totals(count, Money.toDollars(valueUnits), Money.toDollars(discountedUnits));
+        } finally {
+            unlockAllStripes();
+        }
+    }
+    
+    /**
+     * Gets a read-only view of the whole catalog as of a single version.
+     * 
+     * <p>Individual reads on the store are each current but may observe different catalog
+     * states; every query on the returned snapshot observes the same one. Each stripe
+     * carries a write sequence that is odd while a writer holds it. The snapshot shares
+     * the store's immutable scan list, rebuilding it first if a write made it stale, and
+     * is kept if no sequence moved meanwhile, so writers are not blocked; only after
+     * repeated interference are the stripes briefly held instead. A new version therefore
+     * costs one O(n) copy, shared with the store's own full scans, and taking a snapshot
+     * when nothing was written since the last one returns that same snapshot.</p>
+     * 
+     * @return the snapshot
+     */
+    public MaterialStoreSnapshot snapshot() {
+        long[] sequences = new long[STRIPE_COUNT];
+        for (int attempt = 0; attempt < OPTIMISTIC_SNAPSHOT_ATTEMPTS; attempt++) {
+            long version = readStableVersion(sequences);
+            if (version < 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            MaterialStoreSnapshot cached = latestSnapshot.get();
+            if (cached != null && cached.getVersion() == version) {
+                return cached;
+            }
+            List<Material> materials = currentScanList();
+            if (sequencesUnchanged(sequences)) {
+                return publishSnapshot(version, materials);
+            }
+        }
+        
+        // Writers kept interfering; exclude them for the duration of the copy
+        lockAllStripes();
+        try {
+            long version = readStableVersion(sequences);
+            MaterialStoreSnapshot cached = latestSnapshot.get();
+            if (cached != null && cached.getVersion() == version) {
+                return cached;
+            }
+            return publishSnapshot(version, currentScanList());
+        } finally {
+            unlockAllStripes();
+        }
+    }
+    
+    /**
+     * Gets the immutable scan list, rebuilt first if stale. It is read under the index
+     * read lock, so a clean flag means no write completed since the list was copied.
+     */
+    private List<Material> currentScanList() {
+        ensureSecondaryIndexes();
+        long stamp = indexLock.readLock();
+        try {
+            if (!indexesDirty) {
+                return allMaterials;
+            }
+        } finally {
+            indexLock.unlockRead(stamp);
+        }
+        // A writer got in after the rebuild; the caller's sequence check decides
+        return new ArrayList<>(primaryIndex.values());
+    }
+    
+    /**
+     * Runs a query on the live indexes and keeps its result only if the catalog stayed at
+     * {@code version} throughout, so that it is also the answer of a snapshot pinned to
+     * that version. Lock-free index reads never throw on a torn read, and the sequence
+     * check rejects any read a writer could have torn.
+     * 
+     * @return the result, or null if the catalog is at another version or a writer intervened
+     */
+    <T> T queryAtVersion(long version, Function<MaterialStoreConcurrentImpl, T> query) {
+        long[] sequences = new long[STRIPE_COUNT];
+        if (readStableVersion(sequences) != version) {
+            return null;
+        }
+        T result = query.apply(this);
+        VarHandle.acquireFence();
+        return sequencesUnchanged(sequences) ? result : null;
+    }
+    
+    /**
+     * Reads every stripe's write sequence into the array.
+     * 
+     * @return the catalog version, i.e. the number of completed write sections, or -1 if
+     *         a writer is in progress
+     */
+    private long readStableVersion(long[] sequences) {
+        long sum = 0;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            long sequence = stripes[i].sequence;
+            if ((sequence & 1L) != 0) {
+                return -1L;
+            }
+            sequences[i] = sequence;
+            sum += sequence;
+        }
+        return sum >>> 1;
+    }
+    
+    private boolean sequencesUnchanged(long[] sequences) {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            if (stripes[i].sequence != sequences[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private MaterialStoreSnapshot publishSnapshot(long version, List<Material> materials) {
+        MaterialStoreSnapshot snapshot = new MaterialStoreSnapshot(version, materials, scanConfig, this);
+        latestSnapshot = new WeakReference<>(snapshot);
+        return snapshot;
     }
     
     @Override
     public InventoryStats getInventoryStats() {
-        // Ensure indexes are built (lazy loading)
-        ensureSecondaryIndexes();
-        
-        // Lock-free read from immutable snapshot
-        List<Material> currentAllMaterials = allMaterials;
-        
-        if (currentAllMaterials.isEmpty()) {
-            return new InventoryStats(0, 0.0, 0.0, 0, 0, 0);
+        // Every stripe held briefly so the merged aggregates and the median describe one
+        // catalog state; nothing is scanned or copied
+        lockAllStripes();
+        try {
+            return inventoryStats(List.of(this));
+        } finally {
+            unlockAllStripes();
         }
-        
-        // Calculate statistics
-        double averagePrice = currentAllMaterials.stream()
-                .mapToDouble(Material::getPrice)
-                .average()
-                .orElse(0.0);
-        
-        List<Double> prices = currentAllMaterials.stream()
-                .map(Material::getPrice)
-                .sorted()
-                .collect(Collectors.toList());
-        
-        double medianPrice = prices.isEmpty() ? 0.0 :
-            prices.size() % 2 == 0 ?
-                (prices.get(prices.size() / 2 - 1) + prices.get(prices.size() / 2)) / 2.0 :
-                prices.get(prices.size() / 2);
-        
-        Set<Material.MaterialType> uniqueTypes = currentAllMaterials.stream()
-                .map(Material::getType)
-                .collect(Collectors.toSet());
-        
-        long mediaCount = currentAllMaterials.stream()
-                .filter(material -> material instanceof Media)
-                .count();
-        
-        long printCount = currentAllMaterials.stream()
-                .filter(material -> material instanceof Magazine || 
-                                  (material.getClass().getSimpleName().equals("PrintedBook")))
-                .count();
-        
-        return new InventoryStats(
-            currentAllMaterials.size(),
-            averagePrice,
-            medianPrice,
-            uniqueTypes.size(),
-            (int) mediaCount,
-            (int) printCount
-        );
+    }
+    
+    /**
+     * Computes exact statistics over stores whose stripes the caller holds, as
+     * {@link ShardedMaterialStore} does for all its shards. The stripe aggregates are
+     * merged and the median is selected by {@link InventoryAggregates#medianPrice}, each
+     * counting round summing O(log n) rank lookups over the stripes' price indexes.
+     */
+    static InventoryStats inventoryStats(List<MaterialStoreConcurrentImpl> stores) {
+        InventoryAggregates total = new InventoryAggregates();
+        List<SortedKeyIndex<Material>> priceIndexes = new ArrayList<>();
+        double maxPrice = 0.0;
+        for (MaterialStoreConcurrentImpl store : stores) {
+            for (Stripe stripe : store.stripes) {
+                total.merge(stripe.aggregates);
+                int n = stripe.priceIndex.size();
+                if (n > 0) {
+                    priceIndexes.add(stripe.priceIndex);
+                    maxPrice = Math.max(maxPrice, stripe.priceIndex.keyAt(n - 1));
+                }
+            }
+        }
+        return total.toStats(InventoryAggregates.medianPrice(total.count(), maxPrice, price -> {
+            long atMost = 0;
+            for (SortedKeyIndex<Material> index : priceIndexes) {
+                atMost += index.countAtMost(price);
+            }
+            return atMost;
+        }));
     }
     
     @Override
     public void clearInventory() {
-        // Clear primary index
-        primaryIndex.clear();
-        
-        // Reset statistics
-        totalCount = 0;
-        totalValue = 0.0;
-        totalDiscountedValue = 0.0;
+        lockAllStripes();
+        for (Stripe stripe : stripes) {
+            stripe.sequence++;
+        }
+        try {
+            // Clear primary and secondary indexes
+            primaryIndex.clear();
+            versions.clear();
+            derivedValues.clear();
+            titleIndex.clear();
+            creatorIndex.clear();
+            creatorCodes = new StringDictionary();
+            typeIndex.clear();
+            titleSearchIndex.clear();
+            creatorSearchIndex.clear();
+            
+            // Reset statistics and the per-stripe sorted indexes
+            for (Stripe stripe : stripes) {
+                stripe.count = 0;
+                stripe.valueUnits = 0;
+                stripe.discountedUnits = 0;
+                stripe.priceIndex.clear();
+                stripe.yearIndex.clear();
+                stripe.aggregates.clear();
+            }
+            this.indexesDirty = true;
+        } finally {
+            for (Stripe stripe : stripes) {
+                stripe.sequence++;
+            }
+            unlockAllStripes();
+        }
         
-        // Update secondary indexes under write lock
+        // Rebuild the scan snapshot under write lock
         updateSecondaryIndexes();
     }
     
     @Override
     public int size() {
-        // Lock-free read of volatile field
-        return totalCount;
+        // Lock-free sum of the per-stripe counts
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.count;
+        }
+        return count;
     }
     
     @Override
     public boolean isEmpty() {
-        // Lock-free read of volatile field
-        return totalCount == 0;
+        return size() == 0;
+    }
+    
+    @Override
+    public Stream<Material> stream() {
+        // Ensure indexes are built (lazy loading)
+        ensureSecondaryIndexes();
+        
+        // Lazy walk over the immutable snapshot, no copy
+        return allMaterials.stream();
+    }
+    
+    @Override
+    public Stream<Material> streamByTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            return Stream.empty();
+        }
+        return titleSearchIndex.stream(title);
+    }
+    
+    @Override
+    public Stream<Material> streamByCreator(String creator) {
+        if (creator == null || creator.trim().isEmpty()) {
+            return Stream.empty();
+        }
+        return creatorSearchIndex.stream(creator);
+    }
+    
+    @Override
+    public Stream<Material> streamByType(Material.MaterialType type) {
+        if (type == null) {
+            return Stream.empty();
+        }
+        return typeIndex.stream(type);
+    }
+    
+    /**
+     * Updates the stripe's statistics when a material is added or removed.
+     * The caller holds the stripe's lock.
+     */
+    private void updateStatistics(Stripe stripe, Material material, boolean isAdd) {
+        int sign = isAdd ? 1 : -1;
+        
+        // Fixed-point units add exactly, so the totals never drift from a fresh sum
+        stripe.count += sign;
+        stripe.valueUnits += sign * material.getPriceUnits();
+        stripe.discountedUnits += sign * material.getDiscountedPriceUnits();
+    }
+    
+    private Stripe stripeFor(String id) {
+        return stripes[stripeIndex(id)];
+    }
+    
+    private static int stripeIndex(String id) {
+        int hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1);
+    }
+    
+    /**
+     * Stamps an ID with the sequence its stripe will have once the current write section
+     * ends. The caller is inside that section, so the sequence is odd.
+     */
+    private void recordVersion(Stripe stripe, String id) {
+        versions.put(id, stripe.sequence + 1);
+    }
+    
+    /**
+     * Acquires every stripe in index order, excluding all writers, and records the wait
+     * when metrics are attached and enabled. Callers holding several stores' stripes
+     * acquire the stores in a fixed order.
+     */
+    void lockAllStripes() {
+        StoreMetrics recorder = metrics;
+        long start = recorder != null && recorder.isEnabled() ? System.nanoTime() : 0L;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+        if (start != 0L) {
+            recorder.recordLockWait(System.nanoTime() - start);
+        }
+    }
+    
+    void unlockAllStripes() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].lock.unlock();
+        }
+    }
+    
+    /**
+     * Adds a material to the keyed indexes, then to its stripe's sorted indexes and
+     * aggregates. The caller holds the stripe, so no lock is shared with other stripes.
+     * Cost is proportional to the material's own buckets, not to the catalog size.
+     */
+    private void indexMaterial(Stripe stripe, Material material) {
+        indexKeys(material);
+        stripe.priceIndex.insert(material.getPrice(), material);
+        stripe.yearIndex.insert(material.getYear(), material);
+        stripe.aggregates.add(material);
+    }
+    
+    /**
+     * Removes a material from the keyed indexes and from its stripe's sorted indexes and
+     * aggregates. The caller holds the stripe.
+     */
+    private void unindexMaterial(Stripe stripe, Material material) {
+        unindexKeys(material);
+        stripe.priceIndex.remove(material.getPrice(), material);
+        stripe.yearIndex.remove(material.getYear(), material);
+        stripe.aggregates.remove(material);
+    }
+    
+    private static StripeChanges changesFor(StripeChanges[] changes, Material material) {
+        int index = stripeIndex(material.getId());
+        if (changes[index] == null) {
+            changes[index] = new StripeChanges();
+        }
+        return changes[index];
+    }
+    
+    /**
+     * Adds a material to the lock-free keyed and substring indexes.
+     */
+    private void indexKeys(Material material) {
+        titleIndex.add(material.getTitle().toLowerCase(), material);
+        creatorIndex.add(creatorCodes.acquire(material.getCreator().toLowerCase()), material);
+        typeIndex.add(material.getType(), material);
+        titleSearchIndex.add(material);
+        creatorSearchIndex.add(material);
+    }
+    
+    /**
+     * Removes a material from the lock-free keyed and substring indexes and drops its
+     * derived values.
+     */
+    private void unindexKeys(Material material) {
+        derivedValues.invalidate(material.getId());
+        titleIndex.remove(material.getTitle().toLowerCase(), material);
+        String creator = material.getCreator().toLowerCase();
+        creatorIndex.remove(creatorCodes.find(creator), material);
+        creatorCodes.release(creator);
+        typeIndex.remove(material.getType(), material);
+        titleSearchIndex.remove(material);
+        creatorSearchIndex.remove(material);
     }
     
     /**
-     * Updates statistics atomically when materials are added or removed.
+     * Reads a key range from every stripe's price or year index, merged into one order.
+     * The read is optimistic: it is kept if no stripe sequence moved while it ran, so it
+     * never observes part of a write section. After repeated interference the stripes are
+     * briefly held instead.
      */
-    private void updateStatistics(Material material, boolean isAdd) {
-        double multiplier = isAdd ? 1.0 : -1.0;
+    private List<Material> readSortedRange(boolean byPrice, double min, double max) {
+        List<SortedKeyIndex<Material>> indexes = new ArrayList<>(STRIPE_COUNT);
+        for (Stripe stripe : stripes) {
+            indexes.add(byPrice ? stripe.priceIndex : stripe.yearIndex);
+        }
+        long[] sequences = new long[STRIPE_COUNT];
+        for (int attempt = 0; attempt < OPTIMISTIC_SNAPSHOT_ATTEMPTS; attempt++) {
+            if (readStableVersion(sequences) < 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            List<Material> results = SortedKeyIndex.mergeRanges(indexes, min, max);
+            // Order the index reads before the sequence re-check, as StampedLock.validate does
+            VarHandle.acquireFence();
+            if (sequencesUnchanged(sequences)) {
+                return results;
+            }
+        }
         
-        // Update statistics directly since we're already in a synchronized block
-        totalCount += (int) multiplier;
-        totalValue += material.getPrice() * multiplier;
-        totalDiscountedValue += material.getDiscountedPrice() * multiplier;
+        lockAllStripes();
+        try {
+            return SortedKeyIndex.mergeRanges(indexes, min, max);
+        } finally {
+            unlockAllStripes();
+        }
+    }
+    
+    /**
+     * Gets the scan snapshot sorted by natural order, reusing the last sorted copy until
+     * a mutation replaces the snapshot.
+     */
+    private List<Material> naturalOrderView() {
+        ensureSecondaryIndexes();
+        List<Material> snapshot = allMaterials;
+        SortedView view = naturalOrder;
+        if (view == null || view.source != snapshot) {
+            List<Material> sorted = new ArrayList<>(snapshot);
+            Collections.sort(sorted);
+            view = new SortedView(snapshot, Collections.unmodifiableList(sorted));
+            naturalOrder = view;
+        }
+        return view.sorted;
+    }
+    
+    /**
+     * A natural-order copy of one scan snapshot, identified by reference.
+     */
+    private static final class SortedView {
+        final List<Material> source;
+        final List<Material> sorted;
+        
+        SortedView(List<Material> source, List<Material> sorted) {
+            this.source = source;
+            this.sorted = sorted;
+        }
     }
     
     /**
-     * Updates secondary indexes under write lock to ensure consistency.
-     * Creates new immutable snapshots for lock-free reads.
+     * Marks the scan snapshot as stale.
      */
     private void invalidateSecondaryIndexes() {
         // Mark indexes as dirty - they'll be rebuilt on next access
@@ -505,49 +1110,71 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
     }
     
     private void updateSecondaryIndexes() {
-        long stamp = indexLock.writeLock();
+        long stamp = writeIndexLock();
         try {
             // Double-check pattern to avoid unnecessary rebuilds
             if (!indexesDirty && allMaterials != null) {
                 return;
             }
+            StoreMetrics recorder = metrics;
+            long start = recorder != null && recorder.isEnabled() ? System.nanoTime() : 0L;
             
-            // Create new immutable snapshots
-            List<Material> newAllMaterials = new ArrayList<>(primaryIndex.values());
-            
-            // Build indexes efficiently - use single stream for better performance
-            Map<String, List<Material>> newTitleIndex = newAllMaterials.stream()
-                    .collect(Collectors.groupingBy(
-                        material -> material.getTitle().toLowerCase(),
-                        Collectors.toList()
-                    ));
-            
-            Map<String, List<Material>> newCreatorIndex = newAllMaterials.stream()
-                    .collect(Collectors.groupingBy(
-                        material -> material.getCreator().toLowerCase(),
-                        Collectors.toList()
-                    ));
-            
-            Map<Material.MaterialType, List<Material>> newTypeIndex = newAllMaterials.stream()
-                    .collect(Collectors.groupingBy(
-                        Material::getType,
-                        Collectors.toList()
-                    ));
+            // Mark clean before copying so a concurrent write re-dirties the snapshot
+            this.indexesDirty = false;
             
-            // Make collections immutable and assign to volatile fields
+            // Create new immutable snapshot; keyed indexes are maintained incrementally
+            List<Material> newAllMaterials = new ArrayList<>(primaryIndex.values());
             this.allMaterials = Collections.unmodifiableList(newAllMaterials);
-            this.titleIndex = Collections.unmodifiableMap(newTitleIndex);
-            this.creatorIndex = Collections.unmodifiableMap(newCreatorIndex);
-            this.typeIndex = Collections.unmodifiableMap(newTypeIndex);
-            
-            // Mark indexes as clean
-            this.indexesDirty = false;
             
+            if (start != 0L) {
+                recorder.recordIndexRebuild(System.nanoTime() - start);
+            }
         } finally {
             indexLock.unlockWrite(stamp);
         }
     }
     
+    /**
+     * Acquires the index write lock, recording the wait when metrics are attached and enabled.
+     */
+    private long writeIndexLock() {
+        StoreMetrics recorder = metrics;
+        if (recorder == null || !recorder.isEnabled()) {
+            return indexLock.writeLock();
+        }
+        long stamp = indexLock.tryWriteLock();
+        if (stamp != 0L) {
+            recorder.recordLockWait(0L);
+            return stamp;
+        }
+        long start = System.nanoTime();
+        stamp = indexLock.writeLock();
+        recorder.recordLockWait(System.nanoTime() - start);
+        return stamp;
+    }
+    
+    /**
+     * Attaches metrics that record index rebuild durations and waits for the index lock and for all stripes.
+     * 
+     * @param metrics the metrics, or null to detach
+     */
+    public void setMetrics(StoreMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Sets how predicate scans over the whole catalog are parallelized.
+     * 
+     * @param scanConfig the scan configuration
+     */
+    public void setScanConfig(ScanConfig scanConfig) {
+        this.scanConfig = Objects.requireNonNull(scanConfig, "Scan config cannot be null");
+    }
+    
+    public ScanConfig getScanConfig() {
+        return scanConfig;
+    }
+    
     /**
      * Gets the current size of the primary index (for debugging/monitoring).
      * 
@@ -563,7 +1190,7 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
      * @return size of title index
      */
     public int getTitleIndexSize() {
-        return titleIndex.size();
+        return titleIndex.keyCount();
     }
     
     /**
@@ -572,6 +1199,103 @@ public class MaterialStoreConcurrentImpl implements MaterialStore {
      * @return size of creator index
      */
     public int getCreatorIndexSize() {
-        return creatorIndex.size();
+        return creatorIndex.keyCount();
+    }
+    
+    /**
+     * Gets the number of creator names currently encoded (for debugging/monitoring).
+     * 
+     * @return number of distinct live creator names
+     */
+    public int getCreatorCodeCount() {
+        return creatorCodes.size();
+    }
+    
+    /**
+     * Write lock, exact statistics, sorted indexes and aggregates for the materials whose
+     * IDs hash to one stripe. Fields are written only under the lock; the totals are read
+     * lock-free, the sorted indexes optimistically, and the aggregates under the lock.
+     * Amounts are {@link Money} units. The sequence is odd while a writer is inside the
+     * stripe and grows by two per write section, so readers can detect interference.
+     */
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final SortedKeyIndex<Material> priceIndex;
+        final SortedKeyIndex<Material> yearIndex;
+        final InventoryAggregates aggregates = new InventoryAggregates();
+        volatile long sequence;
+        volatile int count;
+        volatile long valueUnits;
+        volatile long discountedUnits;
+        
+        Stripe(AtomicLong sortStamps) {
+            this.priceIndex = new SortedKeyIndex<>(sortStamps);
+            this.yearIndex = new SortedKeyIndex<>(sortStamps);
+        }
+        
+        void beginWrite() {
+            lock.lock();
+            sequence++;
+        }
+        
+        void endWrite() {
+            sequence++;
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * The part of a batch that falls in one stripe, with the stamp of each insertion.
+     */
+    private static final class StripeChanges {
+        final List<Material> removed = new ArrayList<>();
+        final List<Material> inserted = new ArrayList<>();
+        long[] stamps = new long[4];
+        
+        void insert(Material material, long stamp) {
+            if (inserted.size() == stamps.length) {
+                stamps = java.util.Arrays.copyOf(stamps, stamps.length * 2);
+            }
+            stamps[inserted.size()] = stamp;
+            inserted.add(material);
+        }
+        
+        void applyTo(Stripe stripe) {
+            for (Material material : removed) {
+                stripe.aggregates.remove(material);
+            }
+            for (Material material : inserted) {
+                stripe.aggregates.add(material);
+            }
+            stripe.priceIndex.removeAll(removed, Material::getPrice);
+            stripe.yearIndex.removeAll(removed, Material::getYear);
+            stripe.priceIndex.insertAll(inserted, Material::getPrice, stamps);
+            stripe.yearIndex.insertAll(inserted, Material::getYear, stamps);
+        }
+    }
+    
+    /**
+     * Inventory totals read at a single point in time.
+     */
+    public static final class Totals {
+        private final int count;
+        private final double totalValue;
+        private final double totalDiscountedValue;
+        
+        Totals(int count, double totalValue, double totalDiscountedValue) {
+            this.count = count;
+            this.totalValue = totalValue;
+            this.totalDiscountedValue = totalDiscountedValue;
+        }
+        
+        public int getCount() { return count; }
+        public double getTotalValue() { return totalValue; }
+        public double getTotalDiscountedValue() { return totalDiscountedValue; }
+        
+        @Override
+        public String toString() {
+            return String.format("Totals[Count=%d, Value=$%.2f, Discounted=$%.2f]",
+                count, totalValue, totalDiscountedValue);
+        }
     }
 }
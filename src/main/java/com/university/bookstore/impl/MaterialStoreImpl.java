@@ -2,8 +2,11 @@ package com.university.bookstore.impl;
 
 import com.university.bookstore.api.MaterialStore;
 import com.university.bookstore.model.*;
+import com.university.bookstore.utils.Money;
+import com.university.bookstore.utils.TopK;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -14,7 +17,9 @@ import java.util.stream.Collectors;
  * including adding, removing, searching, filtering, and computing statistics
  * across various subclasses of {@link Material}.
  *
- * <p>This implementation maintains an internal index for quick lookups
+ * <p>This implementation maintains an internal index for quick lookups,
+ * trigram indexes for substring searches by title and creator,
+ * sorted price and year indexes for range queries, running aggregates for statistics,
  * and supports polymorphic behavior across material types.
  *
  *     Luxsan Indran (221298286)
@@ -24,6 +29,17 @@ public class MaterialStoreImpl implements MaterialStore {
 
     private final List<Material> materials;
     private final Map<String, Material> materialIndex;
+    private final TrigramIndex<Material> titleSearchIndex;
+    private final TrigramIndex<Material> creatorSearchIndex;
+    private final SortedKeyIndex<Material> priceIndex;
+    private final SortedKeyIndex<Material> yearIndex;
+    private final InventoryAggregates aggregates;
+    private final DerivedValueCache derivedValues;
+    private volatile ScanConfig scanConfig = ScanConfig.defaults();
+
+    // Bumped by every mutation; invalidates the cached natural-order view
+    private volatile long modCount;
+    private volatile SortedView naturalOrder;
 
     /**
      * Default constructor — initializes an empty material inventory.
@@ -31,6 +47,12 @@ public class MaterialStoreImpl implements MaterialStore {
     public MaterialStoreImpl() {
         this.materials = new ArrayList<>();
         this.materialIndex = new HashMap<>();
+        this.titleSearchIndex = TrigramIndex.insertionOrdered(Material::getTitle);
+        this.creatorSearchIndex = TrigramIndex.insertionOrdered(Material::getCreator);
+        this.priceIndex = new SortedKeyIndex<>();
+        this.yearIndex = new SortedKeyIndex<>();
+        this.aggregates = new InventoryAggregates();
+        this.derivedValues = new DerivedValueCache();
     }
 
     /**
@@ -62,6 +84,12 @@ public class MaterialStoreImpl implements MaterialStore {
 
         materials.add(material);
         materialIndex.put(material.getId(), material);
+        titleSearchIndex.add(material);
+        creatorSearchIndex.add(material);
+        priceIndex.insert(material.getPrice(), material);
+        yearIndex.insert(material.getYear(), material);
+        aggregates.add(material);
+        modCount++;
         return true;
     }
 
@@ -80,6 +108,13 @@ public class MaterialStoreImpl implements MaterialStore {
         Material removed = materialIndex.remove(id);
         if (removed != null) {
             materials.remove(removed);
+            titleSearchIndex.remove(removed);
+            creatorSearchIndex.remove(removed);
+            priceIndex.remove(removed.getPrice(), removed);
+            yearIndex.remove(removed.getYear(), removed);
+            aggregates.remove(removed);
+            derivedValues.invalidate(id);
+            modCount++;
             return Optional.of(removed);
         }
         return Optional.empty();
@@ -100,7 +135,8 @@ public class MaterialStoreImpl implements MaterialStore {
     }
 
     /**
-     * Searches for materials whose titles contain the given keyword.
+     * Searches for materials whose titles contain the given keyword (case-insensitive).
+     * Answered from the title trigram index rather than a full scan.
      *
      * @param title the title or keyword to search for
      * @return a list of matching materials; empty list if none found
@@ -111,14 +147,12 @@ public class MaterialStoreImpl implements MaterialStore {
             return List.of();
         }
 
-        String keyword = title.trim().toLowerCase();
-        return materials.stream()
-                .filter(m -> m.getTitle().toLowerCase().contains(keyword))
-                .collect(Collectors.toList());
+        return titleSearchIndex.search(title);
     }
 
     /**
-     * Searches for materials created by a specific creator or matching keyword.
+     * Searches for materials created by a specific creator or matching keyword (case-insensitive).
+     * Answered from the creator trigram index rather than a full scan.
      *
      * @param creator the creator name or partial match
      * @return list of materials matching the search criteria
@@ -129,10 +163,7 @@ public class MaterialStoreImpl implements MaterialStore {
             return List.of();
         }
 
-        String keyword = creator.trim().toLowerCase();
-        return materials.stream()
-                .filter(m -> m.getCreator().toLowerCase().contains(keyword))
-                .collect(Collectors.toList());
+        return creatorSearchIndex.search(creator);
     }
 
     /**
@@ -159,10 +190,7 @@ public class MaterialStoreImpl implements MaterialStore {
      */
     @Override
     public List<Media> getMediaMaterials() {
-        return materials.stream()
-                .filter(Media.class::isInstance)
-                .map(Media.class::cast)
-                .collect(Collectors.toList());
+        return ParallelScan.select(materials, Media.class::isInstance, Media.class::cast, scanConfig);
     }
 
     /**
@@ -175,13 +203,12 @@ public class MaterialStoreImpl implements MaterialStore {
     @Override
     public List<Material> filterMaterials(Predicate<Material> predicate) {
         Objects.requireNonNull(predicate, "Predicate cannot be null");
-        return materials.stream()
-                .filter(predicate)
-                .collect(Collectors.toList());
+        return ParallelScan.select(materials, predicate, Function.identity(), scanConfig);
     }
 
     /**
-     * Retrieves all materials with a price between {@code min} and {@code max}.
+     * Retrieves all materials with a price between {@code min} and {@code max},
+     * ordered by ascending price. Answered by binary search on the price index.
      *
      * @param min minimum price (inclusive)
      * @param max maximum price (inclusive)
@@ -193,22 +220,18 @@ public class MaterialStoreImpl implements MaterialStore {
             return List.of();
         }
 
-        return materials.stream()
-                .filter(m -> m.getPrice() >= min && m.getPrice() <= max)
-                .collect(Collectors.toList());
+        return priceIndex.range(min, max);
     }
 
     /**
-     * Retrieves materials released in a specific year.
+     * Retrieves materials released in a specific year. Answered by binary search on the year index.
      *
      * @param year the release year
      * @return list of materials released in that year
      */
     @Override
     public List<Material> getMaterialsByYear(int year) {
-        return materials.stream()
-                .filter(m -> m.getYear() == year)
-                .collect(Collectors.toList());
+        return yearIndex.range(year, year);
     }
 
     /**
@@ -218,9 +241,57 @@ public class MaterialStoreImpl implements MaterialStore {
      */
     @Override
     public List<Material> getAllMaterialsSorted() {
-        List<Material> copy = new ArrayList<>(materials);
-        Collections.sort(copy);
-        return copy;
+        return new ArrayList<>(naturalOrderView());
+    }
+
+    /**
+     * Returns the {@code k} smallest materials in comparator order without sorting the
+     * whole inventory. The natural order is served from the cached sorted view.
+     *
+     * @param comparator the sorting logic
+     * @param k maximum number of materials to return
+     * @return the first {@code k} elements of {@link #getSorted(Comparator)}
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator, int k) {
+        Objects.requireNonNull(comparator, "Comparator cannot be null");
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative: " + k);
+        }
+        if (comparator == Comparator.<Material>naturalOrder()) {
+            List<Material> sorted = naturalOrderView();
+            return new ArrayList<>(sorted.subList(0, Math.min(k, sorted.size())));
+        }
+        return TopK.smallest(materials, comparator, k);
+    }
+
+    /**
+     * Gets the inventory sorted by natural order, sorting at most once per mutation.
+     */
+    private List<Material> naturalOrderView() {
+        SortedView view = naturalOrder;
+        long version = modCount;
+        if (view == null || view.version != version) {
+            List<Material> sorted = new ArrayList<>(materials);
+            Collections.sort(sorted);
+            view = new SortedView(version, Collections.unmodifiableList(sorted));
+            naturalOrder = view;
+        }
+        return view.sorted;
+    }
+
+    /**
+     * A natural-order copy of the inventory as of one mutation count.
+     */
+    private static final class SortedView {
+        final long version;
+        final List<Material> sorted;
+
+        SortedView(long version, List<Material> sorted) {
+            this.version = version;
+            this.sorted = sorted;
+        }
     }
 
     /**
@@ -236,13 +307,13 @@ public class MaterialStoreImpl implements MaterialStore {
     /**
      * Calculates the total value of all materials in the inventory.
      *
+     * Read in O(1) from the exact fixed-point price sum kept by the running aggregates.
+     *
      * @return the total monetary value
      */
     @Override
     public double getTotalInventoryValue() {
-        return materials.stream()
-                .mapToDouble(Material::getPrice)
-                .sum();
+        return Money.toDollars(aggregates.priceUnits());
     }
 
     /**
@@ -252,50 +323,20 @@ public class MaterialStoreImpl implements MaterialStore {
      */
     @Override
     public double getTotalDiscountedValue() {
-        return materials.stream()
-                .mapToDouble(Material::getDiscountedPrice)
-                .sum();
+        return Money.toDollars(materials.stream()
+                .mapToLong(Material::getDiscountedPriceUnits)
+                .sum());
     }
 
     /**
      * Computes statistical summaries about the current inventory.
+     * Served from running aggregates and the price index without scanning the inventory.
      *
      * @return an {@link InventoryStats} object containing statistical values
      */
     @Override
-    public InventoryStats getInventoryStats() {
-        if (materials.isEmpty()) {
-            return new InventoryStats(0, 0, 0, 0, 0, 0);
-        }
-
-        List<Double> prices = materials.stream()
-                .map(Material::getPrice)
-                .sorted()
-                .collect(Collectors.toList());
-
-        double avgPrice = prices.stream().mapToDouble(Double::doubleValue).average().orElse(0);
-        double median = prices.size() % 2 == 0
-                ? (prices.get(prices.size() / 2 - 1) + prices.get(prices.size() / 2)) / 2
-                : prices.get(prices.size() / 2);
-
-        int distinctTypes = (int) materials.stream()
-                .map(Material::getType)
-                .distinct()
-                .count();
-
-        long mediaCount = materials.stream().filter(Media.class::isInstance).count();
-        long printedCount = materials.stream()
-                .filter(m -> m instanceof PrintedBook || m instanceof Magazine)
-                .count();
-
-        return new InventoryStats(
-                materials.size(),
-                avgPrice,
-                median,
-                distinctTypes,
-                (int) mediaCount,
-                (int) printedCount
-        );
+    public synchronized InventoryStats getInventoryStats() {
+        return aggregates.toStats(priceIndex);
     }
 
     /**
@@ -305,6 +346,13 @@ public class MaterialStoreImpl implements MaterialStore {
     public synchronized void clearInventory() {
         materials.clear();
         materialIndex.clear();
+        titleSearchIndex.clear();
+        creatorSearchIndex.clear();
+        priceIndex.clear();
+        yearIndex.clear();
+        aggregates.clear();
+        derivedValues.clear();
+        modCount++;
     }
 
     /**
@@ -328,7 +376,8 @@ public class MaterialStoreImpl implements MaterialStore {
     }
 
     /**
-     * Retrieves materials released within the past {@code years} years.
+     * Retrieves materials released within the past {@code years} years, oldest first.
+     * Answered by binary search on the year index.
      *
      * @param years number of recent years to include
      * @return list of recent materials
@@ -343,9 +392,7 @@ public class MaterialStoreImpl implements MaterialStore {
         int currentYear = java.time.Year.now().getValue();
         int cutoff = currentYear - years;
 
-        return materials.stream()
-                .filter(m -> m.getYear() >= cutoff)
-                .collect(Collectors.toList());
+        return yearIndex.tailFrom(cutoff);
     }
 
     /**
@@ -370,9 +417,8 @@ public class MaterialStoreImpl implements MaterialStore {
             return List.of();
         }
 
-        return materials.stream()
-                .filter(m -> creatorSet.contains(m.getCreator()))
-                .collect(Collectors.toList());
+        return ParallelScan.select(materials, m -> creatorSet.contains(m.getCreator()),
+                                   Function.identity(), scanConfig);
     }
 
     /**
@@ -385,9 +431,7 @@ public class MaterialStoreImpl implements MaterialStore {
     @Override
     public List<Material> findWithPredicate(Predicate<Material> condition) {
         Objects.requireNonNull(condition, "Predicate cannot be null");
-        return materials.stream()
-                .filter(condition)
-                .collect(Collectors.toList());
+        return ParallelScan.select(materials, condition, Function.identity(), scanConfig);
     }
 
     /**
@@ -407,15 +451,48 @@ public class MaterialStoreImpl implements MaterialStore {
 
     /**
      * Retrieves formatted display information for all stored materials.
+     * Strings are formatted once per material and then served from the derived-value cache.
      *
      * @return list of formatted strings from {@link Material#getDisplayInfo()}
      */
     public List<String> getAllDisplayInfo() {
         return materials.stream()
-                .map(Material::getDisplayInfo)
+                .map(material -> derivedValues.get(material).getDisplayInfo())
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Gets the cached derived values of a material, computing them on first use.
+     *
+     * @param id the material ID
+     * @return the derived values, or empty if no such material
+     */
+    public Optional<DerivedValueCache.DerivedValues> getDerivedValues(String id) {
+        return findById(id).map(derivedValues::get);
+    }
+
+    /**
+     * Gets the derived-value cache, for its hit, miss and eviction metrics.
+     *
+     * @return the cache
+     */
+    public DerivedValueCache getDerivedValueCache() {
+        return derivedValues;
+    }
+
+    /**
+     * Sets how predicate scans over the whole inventory are parallelized.
+     *
+     * @param scanConfig the scan configuration
+     */
+    public void setScanConfig(ScanConfig scanConfig) {
+        this.scanConfig = Objects.requireNonNull(scanConfig, "Scan config cannot be null");
+    }
+
+    public ScanConfig getScanConfig() {
+        return scanConfig;
+    }
+
     /**
      * Groups materials in the inventory by their {@link Material.MaterialType}.
      *
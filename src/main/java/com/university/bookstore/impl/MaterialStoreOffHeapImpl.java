@@ -0,0 +1,675 @@
+package com.university.bookstore.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.storage.MaterialCodec;
+import com.university.bookstore.utils.Money;
+
+/**
+ * Columnar {@link MaterialStore} that keeps the catalog in direct (off-heap) memory.
+ *
+ * <p>Each material occupies one row. The fixed-width fields (price, discount rate, year,
+ * type, codec kind and ID hash) live in primitive columns, each a direct {@link ByteBuffer}.
+ * The ID, title and creator strings and a {@link MaterialCodec} blob with the
+ * subtype-specific fields are appended to a {@link DirectByteArena}, and their addresses
+ * are stored in further columns. Lookups by ID go through an open-addressing hash table that
+ * is itself a direct buffer. No {@link Material} objects are retained: they are rebuilt only
+ * when a query returns them, so the heap footprint and GC cost stay flat as the catalog grows.</p>
+ *
+ * <p>Queries on prices, years, types and totals scan the primitive columns without
+ * decoding rows. Title and creator searches match the UTF-8 bytes in place and decode
+ * only rows that match or hold non-ASCII text. Predicate-based queries and sorts must
+ * materialize every row.</p>
+ *
+ * <p>Removal marks the row dead. Once dead rows outnumber live ones the columns and arena
+ * are compacted, preserving insertion order. Only {@link com.university.bookstore.model}
+ * subtypes supported by {@link MaterialCodec} can be stored.</p>
+ *
+ * <p>Thread-safe: writers hold a write lock, queries share a read lock.</p>
+ */
+public class MaterialStoreOffHeapImpl implements MaterialStore {
+
+    private static final int INITIAL_ROWS = 1024;
+    private static final int MIN_COMPACTION_DEAD_ROWS = 1024;
+    private static final byte DEAD = 0;
+    private static final int EMPTY_SLOT = 0;
+    private static final int DELETED_SLOT = -1;
+    private static final Material.MaterialType[] TYPES = Material.MaterialType.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final InventoryAggregates aggregates = new InventoryAggregates();
+
+    private DirectByteArena arena;
+    private ByteBuffer prices;
+    private ByteBuffer discountRates;
+    private ByteBuffer years;
+    private ByteBuffer types;
+    private ByteBuffer kinds;
+    private ByteBuffer idHashes;
+    private ByteBuffer idRefs;
+    private ByteBuffer titleRefs;
+    private ByteBuffer creatorRefs;
+    private ByteBuffer detailRefs;
+    private int rowCapacity;
+    private int rowCount;
+    private int liveCount;
+
+    private ByteBuffer slots;
+    private int slotMask;
+    private int usedSlots;
+
+    /**
+     * Creates an empty store.
+     */
+    public MaterialStoreOffHeapImpl() {
+        allocate(INITIAL_ROWS);
+    }
+
+    /**
+     * Creates a store preloaded with the given materials.
+     *
+     * @param initialMaterials materials to add; may be {@code null}
+     */
+    public MaterialStoreOffHeapImpl(Collection<Material> initialMaterials) {
+        this();
+        if (initialMaterials != null) {
+            initialMaterials.forEach(this::addMaterial);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if {@code material} is {@code null}
+     * @throws IllegalArgumentException if the material is not a supported subtype
+     */
+    @Override
+    public boolean addMaterial(Material material) {
+        Objects.requireNonNull(material, "Material cannot be null");
+        byte kind = MaterialCodec.kindOf(material);
+        byte[] details = MaterialCodec.encodeDetails(material);
+        byte[] id = utf8(material.getId());
+        int hash = material.getId().hashCode();
+
+        lock.writeLock().lock();
+        try {
+            if (findSlot(id, hash) >= 0) {
+                return false;
+            }
+            if (rowCount == rowCapacity) {
+                growRows(rowCapacity * 2);
+            }
+            int row = rowCount++;
+            prices.putDouble(row * Double.BYTES, material.getPrice());
+            discountRates.putDouble(row * Double.BYTES, material.getDiscountRate());
+            years.putInt(row * Integer.BYTES, material.getYear());
+            types.put(row, (byte) material.getType().ordinal());
+            kinds.put(row, kind);
+            idHashes.putInt(row * Integer.BYTES, hash);
+            idRefs.putLong(row * Long.BYTES, arena.append(id));
+            titleRefs.putLong(row * Long.BYTES, arena.append(utf8(material.getTitle())));
+            creatorRefs.putLong(row * Long.BYTES, arena.append(utf8(material.getCreator())));
+            detailRefs.putLong(row * Long.BYTES, arena.append(details));
+            insertSlot(row, hash);
+            liveCount++;
+            aggregates.add(material);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Material> removeMaterial(String id) {
+        if (id == null || id.isBlank()) {
+            return Optional.empty();
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(utf8(id), id.hashCode());
+            if (slot < 0) {
+                return Optional.empty();
+            }
+            int row = slots.getInt(slot * Integer.BYTES) - 1;
+            Material removed = materialize(row);
+            slots.putInt(slot * Integer.BYTES, DELETED_SLOT);
+            kinds.put(row, DEAD);
+            liveCount--;
+            aggregates.remove(removed);
+            int deadRows = rowCount - liveCount;
+            if (deadRows >= MIN_COMPACTION_DEAD_ROWS && deadRows > liveCount) {
+                compact();
+            }
+            return Optional.of(removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Material> findById(String id) {
+        if (id == null || id.isBlank()) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(utf8(id), id.hashCode());
+            return slot < 0 ? Optional.empty() : Optional.of(materialize(slots.getInt(slot * Integer.BYTES) - 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Material> searchByTitle(String title) {
+        if (title == null || title.isBlank()) {
+            return List.of();
+        }
+        return searchStrings(titleRefs, title.trim().toLowerCase());
+    }
+
+    @Override
+    public List<Material> searchByCreator(String creator) {
+        if (creator == null || creator.isBlank()) {
+            return List.of();
+        }
+        return searchStrings(creatorRefs, creator.trim().toLowerCase());
+    }
+
+    @Override
+    public List<Material> getMaterialsByType(Material.MaterialType type) {
+        if (type == null) {
+            return List.of();
+        }
+        byte ordinal = (byte) type.ordinal();
+        lock.readLock().lock();
+        try {
+            List<Material> result = new ArrayList<>();
+            for (int row = 0; row < rowCount; row++) {
+                if (kinds.get(row) != DEAD && types.get(row) == ordinal) {
+                    result.add(materialize(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Media> getMediaMaterials() {
+        lock.readLock().lock();
+        try {
+            List<Media> result = new ArrayList<>();
+            for (int row = 0; row < rowCount; row++) {
+                byte kind = kinds.get(row);
+                if (kind == MaterialCodec.KIND_AUDIO_BOOK || kind == MaterialCodec.KIND_VIDEO
+                        || kind == MaterialCodec.KIND_E_BOOK) {
+                    result.add((Media) materialize(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Materializes every row to evaluate the predicate.</p>
+     */
+    @Override
+    public List<Material> filterMaterials(Predicate<Material> predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        List<Material> result = new ArrayList<>();
+        for (Material material : getAllMaterials()) {
+            if (predicate.test(material)) {
+                result.add(material);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Results are ordered oldest first, matching the other implementations.</p>
+     */
+    @Override
+    public List<Material> findRecentMaterials(int years) {
+        if (years < 0) {
+            throw new IllegalArgumentException("Years must be non-negative");
+        }
+        int cutoff = Year.now().getValue() - years;
+        List<Material> result = scanYears(cutoff, Integer.MAX_VALUE);
+        result.sort(Comparator.comparingInt(Material::getYear));
+        return result;
+    }
+
+    @Override
+    public List<Material> findByCreators(String... creators) {
+        if (creators == null || creators.length == 0) {
+            return List.of();
+        }
+        List<byte[]> wanted = new ArrayList<>();
+        for (String creator : creators) {
+            if (creator != null && !creator.trim().isEmpty()) {
+                wanted.add(utf8(creator.trim()));
+            }
+        }
+        if (wanted.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Material> result = new ArrayList<>();
+            for (int row = 0; row < rowCount; row++) {
+                if (kinds.get(row) == DEAD) {
+                    continue;
+                }
+                long address = creatorRefs.getLong(row * Long.BYTES);
+                for (byte[] creator : wanted) {
+                    if (arena.matches(address, creator)) {
+                        result.add(materialize(row));
+                        break;
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Material> findWithPredicate(Predicate<Material> condition) {
+        Objects.requireNonNull(condition, "Predicate cannot be null");
+        return filterMaterials(condition);
+    }
+
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator) {
+        Objects.requireNonNull(comparator, "Comparator cannot be null");
+        List<Material> result = getAllMaterials();
+        result.sort(comparator);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Scans the price column and materializes only the matches, ordered by ascending price.</p>
+     */
+    @Override
+    public List<Material> getMaterialsByPriceRange(double minPrice, double maxPrice) {
+        if (minPrice < 0 || maxPrice < 0 || minPrice > maxPrice) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Material> result = new ArrayList<>();
+            for (int row = 0; row < rowCount; row++) {
+                double price = prices.getDouble(row * Double.BYTES);
+                if (price >= minPrice && price <= maxPrice && kinds.get(row) != DEAD) {
+                    result.add(materialize(row));
+                }
+            }
+            result.sort(Comparator.comparingDouble(Material::getPrice));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Material> getMaterialsByYear(int year) {
+        return scanYears(year, year);
+    }
+
+    @Override
+    public List<Material> getAllMaterialsSorted() {
+        List<Material> result = getAllMaterials();
+        Collections.sort(result);
+        return result;
+    }
+
+    @Override
+    public List<Material> getAllMaterials() {
+        lock.readLock().lock();
+        try {
+            List<Material> result = new ArrayList<>(liveCount);
+            for (int row = 0; row < rowCount; row++) {
+                if (kinds.get(row) != DEAD) {
+                    result.add(materialize(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public double getTotalInventoryValue() {
+        lock.readLock().lock();
+        try {
+            // Summed in fixed-point units so the result matches the other stores exactly
+            long total = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (kinds.get(row) != DEAD) {
+                    total += Money.toUnits(prices.getDouble(row * Double.BYTES));
+                }
+            }
+            return Money.toDollars(total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public double getTotalDiscountedValue() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (kinds.get(row) != DEAD) {
+                    total += Money.discount(Money.toUnits(prices.getDouble(row * Double.BYTES)),
+                                            discountRates.getDouble(row * Double.BYTES));
+                }
+            }
+            return Money.toDollars(total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Counts come from running aggregates. The median is selected by
+     * {@link InventoryAggregates#medianPrice} with each counting round scanning the price
+     * column: at most 64 passes and no allocation, where copying and sorting the column
+     * would allocate {@code 8 * size()} bytes per call.</p>
+     */
+    @Override
+    public InventoryStats getInventoryStats() {
+        lock.readLock().lock();
+        try {
+            double maxPrice = 0.0;
+            for (int row = 0; row < rowCount; row++) {
+                if (kinds.get(row) != DEAD) {
+                    maxPrice = Math.max(maxPrice, prices.getDouble(row * Double.BYTES));
+                }
+            }
+            return aggregates.toStats(InventoryAggregates.medianPrice(liveCount, maxPrice, this::countPricesAtMost));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long countPricesAtMost(double price) {
+        long count = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (prices.getDouble(row * Double.BYTES) <= price && kinds.get(row) != DEAD) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void clearInventory() {
+        lock.writeLock().lock();
+        try {
+            allocate(INITIAL_ROWS);
+            aggregates.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Gets the direct memory currently held by the columns, string arena and ID table.
+     *
+     * @return off-heap bytes in use
+     */
+    public long getOffHeapBytes() {
+        lock.readLock().lock();
+        try {
+            long columns = (long) rowCapacity * (2 * Double.BYTES + 2 * Integer.BYTES + 2 + 4 * Long.BYTES);
+            return columns + slots.capacity() + arena.allocatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MaterialStoreOffHeapImpl[Count=%d, OffHeapBytes=%d]", size(), getOffHeapBytes());
+    }
+
+    private List<Material> searchStrings(ByteBuffer refs, String query) {
+        byte[] queryBytes = utf8(query);
+        lock.readLock().lock();
+        try {
+            List<Material> result = new ArrayList<>();
+            for (int row = 0; row < rowCount; row++) {
+                if (kinds.get(row) != DEAD
+                        && arena.containsIgnoreCase(refs.getLong(row * Long.BYTES), query, queryBytes)) {
+                    result.add(materialize(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Material> scanYears(int fromYear, int toYear) {
+        lock.readLock().lock();
+        try {
+            List<Material> result = new ArrayList<>();
+            for (int row = 0; row < rowCount; row++) {
+                int year = years.getInt(row * Integer.BYTES);
+                if (year >= fromYear && year <= toYear && kinds.get(row) != DEAD) {
+                    result.add(materialize(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Material materialize(int row) {
+        return MaterialCodec.decodeDetails(
+            kinds.get(row),
+            readString(idRefs, row),
+            readString(titleRefs, row),
+            readString(creatorRefs, row),
+            prices.getDouble(row * Double.BYTES),
+            years.getInt(row * Integer.BYTES),
+            arena.read(detailRefs.getLong(row * Long.BYTES)));
+    }
+
+    private String readString(ByteBuffer refs, int row) {
+        return new String(arena.read(refs.getLong(row * Long.BYTES)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Finds the hash slot holding the given ID.
+     *
+     * @return the slot number, or -1 if absent
+     */
+    private int findSlot(byte[] id, int hash) {
+        for (int slot = mix(hash) & slotMask; ; slot = (slot + 1) & slotMask) {
+            int value = slots.getInt(slot * Integer.BYTES);
+            if (value == EMPTY_SLOT) {
+                return -1;
+            }
+            if (value != DELETED_SLOT) {
+                int row = value - 1;
+                if (idHashes.getInt(row * Integer.BYTES) == hash
+                        && arena.matches(idRefs.getLong(row * Long.BYTES), id)) {
+                    return slot;
+                }
+            }
+        }
+    }
+
+    private void insertSlot(int row, int hash) {
+        int slot = mix(hash) & slotMask;
+        while (true) {
+            int value = slots.getInt(slot * Integer.BYTES);
+            if (value == EMPTY_SLOT || value == DELETED_SLOT) {
+                break;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        if (slots.getInt(slot * Integer.BYTES) == EMPTY_SLOT) {
+            usedSlots++;
+        }
+        slots.putInt(slot * Integer.BYTES, row + 1);
+        // Deleted slots count as used, so rehash before probe chains get long
+        if (usedSlots * 2L > slotMask + 1) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        int slotCount = Integer.highestOneBit(Math.max(16, liveCount * 4 - 1)) << 1;
+        slots = ByteBuffer.allocateDirect(slotCount * Integer.BYTES);
+        slotMask = slotCount - 1;
+        usedSlots = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (kinds.get(row) != DEAD) {
+                int slot = mix(idHashes.getInt(row * Integer.BYTES)) & slotMask;
+                while (slots.getInt(slot * Integer.BYTES) != EMPTY_SLOT) {
+                    slot = (slot + 1) & slotMask;
+                }
+                slots.putInt(slot * Integer.BYTES, row + 1);
+                usedSlots++;
+            }
+        }
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        arena = new DirectByteArena();
+        prices = ByteBuffer.allocateDirect(capacity * Double.BYTES);
+        discountRates = ByteBuffer.allocateDirect(capacity * Double.BYTES);
+        years = ByteBuffer.allocateDirect(capacity * Integer.BYTES);
+        types = ByteBuffer.allocateDirect(capacity);
+        kinds = ByteBuffer.allocateDirect(capacity);
+        idHashes = ByteBuffer.allocateDirect(capacity * Integer.BYTES);
+        idRefs = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        titleRefs = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        creatorRefs = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        detailRefs = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        rowCapacity = capacity;
+        rowCount = 0;
+        liveCount = 0;
+        slots = ByteBuffer.allocateDirect(16 * Integer.BYTES);
+        slotMask = 15;
+        usedSlots = 0;
+    }
+
+    private void growRows(int capacity) {
+        prices = grow(prices, capacity * Double.BYTES, rowCount * Double.BYTES);
+        discountRates = grow(discountRates, capacity * Double.BYTES, rowCount * Double.BYTES);
+        years = grow(years, capacity * Integer.BYTES, rowCount * Integer.BYTES);
+        types = grow(types, capacity, rowCount);
+        kinds = grow(kinds, capacity, rowCount);
+        idHashes = grow(idHashes, capacity * Integer.BYTES, rowCount * Integer.BYTES);
+        idRefs = grow(idRefs, capacity * Long.BYTES, rowCount * Long.BYTES);
+        titleRefs = grow(titleRefs, capacity * Long.BYTES, rowCount * Long.BYTES);
+        creatorRefs = grow(creatorRefs, capacity * Long.BYTES, rowCount * Long.BYTES);
+        detailRefs = grow(detailRefs, capacity * Long.BYTES, rowCount * Long.BYTES);
+        rowCapacity = capacity;
+    }
+
+    private static ByteBuffer grow(ByteBuffer column, int newBytes, int usedBytes) {
+        ByteBuffer grown = ByteBuffer.allocateDirect(newBytes);
+        grown.put(0, column, 0, usedBytes);
+        return grown;
+    }
+
+    /**
+     * Copies live rows, in order, into fresh columns and a fresh arena.
+     */
+    private void compact() {
+        DirectByteArena oldArena = arena;
+        ByteBuffer oldPrices = prices;
+        ByteBuffer oldDiscountRates = discountRates;
+        ByteBuffer oldYears = years;
+        ByteBuffer oldTypes = types;
+        ByteBuffer oldKinds = kinds;
+        ByteBuffer oldIdHashes = idHashes;
+        ByteBuffer oldIdRefs = idRefs;
+        ByteBuffer oldTitleRefs = titleRefs;
+        ByteBuffer oldCreatorRefs = creatorRefs;
+        ByteBuffer oldDetailRefs = detailRefs;
+        int oldRowCount = rowCount;
+        int live = liveCount;
+
+        allocate(Math.max(INITIAL_ROWS, Integer.highestOneBit(Math.max(1, live)) << 1));
+        for (int from = 0; from < oldRowCount; from++) {
+            if (oldKinds.get(from) == DEAD) {
+                continue;
+            }
+            int row = rowCount++;
+            prices.putDouble(row * Double.BYTES, oldPrices.getDouble(from * Double.BYTES));
+            discountRates.putDouble(row * Double.BYTES, oldDiscountRates.getDouble(from * Double.BYTES));
+            years.putInt(row * Integer.BYTES, oldYears.getInt(from * Integer.BYTES));
+            types.put(row, oldTypes.get(from));
+            kinds.put(row, oldKinds.get(from));
+            idHashes.putInt(row * Integer.BYTES, oldIdHashes.getInt(from * Integer.BYTES));
+            idRefs.putLong(row * Long.BYTES, arena.append(oldArena.read(oldIdRefs.getLong(from * Long.BYTES))));
+            titleRefs.putLong(row * Long.BYTES, arena.append(oldArena.read(oldTitleRefs.getLong(from * Long.BYTES))));
+            creatorRefs.putLong(row * Long.BYTES, arena.append(oldArena.read(oldCreatorRefs.getLong(from * Long.BYTES))));
+            detailRefs.putLong(row * Long.BYTES, arena.append(oldArena.read(oldDetailRefs.getLong(from * Long.BYTES))));
+        }
+        liveCount = live;
+        rehash();
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,412 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.utils.Money;
+import com.university.bookstore.utils.TopK;
+
+/**
+ * Read-only view of a {@link MaterialStoreConcurrentImpl} catalog as of one version.
+ *
+ * <p>Every query on a snapshot, including the totals and statistics, describes the same
+ * catalog state no matter what writers do to the store afterwards. The snapshot holds an
+ * immutable list of the materials, the same list the store uses for its full scans.</p>
+ *
+ * <p>While the store is still at the snapshot's version, lookups, searches, range queries
+ * and statistics run on the store's live indexes and are kept only if no write
+ * intervened. Once the store has moved on, they fall back to structures built from the
+ * list on first use and shared by later queries: the ID map, the price order and the
+ * title and creator substring indexes. Mutators throw
+ * {@link UnsupportedOperationException}.</p>
+ *
+ * <p>A snapshot is an ordinary object: once no caller references it, its version is
+ * reclaimed by the garbage collector. Snapshots are safe to share between threads.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public final class MaterialStoreSnapshot implements MaterialStore {
+
+    private final long version;
+    private final List<Material> materials;
+    private final ScanConfig scanConfig;
+    private final MaterialStoreConcurrentImpl source;
+
+    // Built lazily from the immutable list; a racing reader at worst builds an equal copy
+    private volatile Map<String, Material> byId;
+    private volatile List<Material> byPrice;
+    private volatile TrigramIndex<Material> titleIndex;
+    private volatile TrigramIndex<Material> creatorIndex;
+    private volatile List<Material> naturalOrder;
+    private volatile Summary summary;
+
+    /**
+     * Creates a snapshot over a list the caller no longer modifies.
+     *
+     * @param version the store version the materials were read at
+     * @param materials every material of that version
+     * @param scanConfig how full predicate scans are parallelized
+     * @param source the store the snapshot was taken from
+     */
+    MaterialStoreSnapshot(long version, List<Material> materials, ScanConfig scanConfig,
+                          MaterialStoreConcurrentImpl source) {
+        this.version = version;
+        this.materials = Collections.unmodifiableList(materials);
+        this.scanConfig = scanConfig;
+        this.source = source;
+    }
+
+    /**
+     * Gets the store version this snapshot is pinned to. Later snapshots of the same store
+     * have equal versions exactly when no write happened in between.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean addMaterial(Material material) {
+        throw readOnly();
+    }
+
+    @Override
+    public Optional<Material> removeMaterial(String id) {
+        throw readOnly();
+    }
+
+    @Override
+    public void clearInventory() {
+        throw readOnly();
+    }
+
+    @Override
+    public Optional<Material> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Optional<Material> live = source.queryAtVersion(version, store -> store.findById(id));
+        return live != null ? live : Optional.ofNullable(idMap().get(id));
+    }
+
+    @Override
+    public List<Material> searchByTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Material> live = source.queryAtVersion(version, store -> store.searchByTitle(title));
+        return live != null ? live : titleIndex().search(title);
+    }
+
+    @Override
+    public List<Material> searchByCreator(String creator) {
+        if (creator == null || creator.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Material> live = source.queryAtVersion(version, store -> store.searchByCreator(creator));
+        return live != null ? live : creatorIndex().search(creator);
+    }
+
+    @Override
+    public List<Material> getMaterialsByType(Material.MaterialType type) {
+        if (type == null) {
+            return new ArrayList<>();
+        }
+        List<Material> live = source.queryAtVersion(version, store -> store.getMaterialsByType(type));
+        return live != null ? live : scan(m -> m.getType() == type);
+    }
+
+    @Override
+    public List<Media> getMediaMaterials() {
+        return ParallelScan.select(materials, Media.class::isInstance, Media.class::cast, scanConfig);
+    }
+
+    @Override
+    public List<Material> filterMaterials(Predicate<Material> predicate) {
+        if (predicate == null) {
+            throw new NullPointerException("Predicate cannot be null");
+        }
+        return scan(predicate);
+    }
+
+    @Override
+    public List<Material> findRecentMaterials(int years) {
+        if (years < 0) {
+            throw new IllegalArgumentException("Years cannot be negative: " + years);
+        }
+        List<Material> live = source.queryAtVersion(version, store -> store.findRecentMaterials(years));
+        if (live != null) {
+            return live;
+        }
+        int cutoffYear = java.time.Year.now().getValue() - years;
+        List<Material> results = scan(m -> m.getYear() >= cutoffYear);
+        results.sort(Comparator.comparingInt(Material::getYear));
+        return results;
+    }
+
+    @Override
+    public List<Material> findByCreators(String... creators) {
+        if (creators == null || creators.length == 0) {
+            return new ArrayList<>();
+        }
+
+        // Compare lowercased names, as the store's creator index does
+        Set<String> names = new HashSet<>();
+        for (String creator : creators) {
+            if (creator != null && !creator.trim().isEmpty()) {
+                names.add(creator.trim().toLowerCase());
+            }
+        }
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Material> live = source.queryAtVersion(version, store -> store.findByCreators(creators));
+        if (live != null) {
+            return live;
+        }
+        // Each exact name contains itself, so its substring matches are the candidates
+        TrigramIndex<Material> index = creatorIndex();
+        Set<Material> results = new LinkedHashSet<>();
+        for (String name : names) {
+            for (Material material : index.search(name)) {
+                if (material.getCreator().toLowerCase().equals(name)) {
+                    results.add(material);
+                }
+            }
+        }
+        return new ArrayList<>(results);
+    }
+
+    @Override
+    public List<Material> findWithPredicate(Predicate<Material> condition) {
+        if (condition == null) {
+            throw new NullPointerException("Predicate cannot be null");
+        }
+        return scan(condition);
+    }
+
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator) {
+        if (comparator == null) {
+            throw new NullPointerException("Comparator cannot be null");
+        }
+        List<Material> sorted = new ArrayList<>(materials);
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator, int k) {
+        if (comparator == null) {
+            throw new NullPointerException("Comparator cannot be null");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative: " + k);
+        }
+        return TopK.smallestParallel(materials, comparator, k);
+    }
+
+    @Override
+    public List<Material> getMaterialsByPriceRange(double minPrice, double maxPrice) {
+        if (minPrice < 0 || maxPrice < 0 || minPrice > maxPrice) {
+            throw new IllegalArgumentException(
+                String.format("Invalid price range: min=%.2f, max=%.2f", minPrice, maxPrice));
+        }
+        List<Material> live = source.queryAtVersion(version,
+                store -> store.getMaterialsByPriceRange(minPrice, maxPrice));
+        if (live != null) {
+            return live;
+        }
+
+        // Binary search for the cheapest match, then walk the price order
+        List<Material> sorted = priceOrder();
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted.get(mid).getPrice() < minPrice) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<Material> results = new ArrayList<>();
+        for (int i = low; i < sorted.size() && sorted.get(i).getPrice() <= maxPrice; i++) {
+            results.add(sorted.get(i));
+        }
+        return results;
+    }
+
+    @Override
+    public List<Material> getMaterialsByYear(int year) {
+        List<Material> live = source.queryAtVersion(version, store -> store.getMaterialsByYear(year));
+        return live != null ? live : scan(m -> m.getYear() == year);
+    }
+
+    @Override
+    public List<Material> getAllMaterialsSorted() {
+        List<Material> sorted = naturalOrder;
+        if (sorted == null) {
+            List<Material> copy = new ArrayList<>(materials);
+            Collections.sort(copy);
+            sorted = Collections.unmodifiableList(copy);
+            naturalOrder = sorted;
+        }
+        return new ArrayList<>(sorted);
+    }
+
+    @Override
+    public List<Material> getAllMaterials() {
+        return new ArrayList<>(materials);
+    }
+
+    @Override
+    public double getTotalInventoryValue() {
+        return Money.toDollars(summary().aggregates.priceUnits());
+    }
+
+    @Override
+    public double getTotalDiscountedValue() {
+        return Money.toDollars(summary().discountedUnits);
+    }
+
+    @Override
+    public InventoryStats getInventoryStats() {
+        InventoryStats live = source.queryAtVersion(version, MaterialStoreConcurrentImpl::getInventoryStats);
+        if (live != null) {
+            return live;
+        }
+        List<Material> sorted = priceOrder();
+        int n = sorted.size();
+        if (n == 0) {
+            return summary().aggregates.toStats(0.0);
+        }
+        double median = n % 2 == 0
+                ? (sorted.get(n / 2 - 1).getPrice() + sorted.get(n / 2).getPrice()) / 2.0
+                : sorted.get(n / 2).getPrice();
+        return summary().aggregates.toStats(median);
+    }
+
+    @Override
+    public int size() {
+        return materials.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return materials.isEmpty();
+    }
+
+    @Override
+    public Stream<Material> stream() {
+        // The list never changes, so it can be walked without a copy
+        return materials.stream();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MaterialStoreSnapshot[Version=%d, Size=%d]", version, materials.size());
+    }
+
+    private List<Material> scan(Predicate<? super Material> predicate) {
+        return ParallelScan.select(materials, predicate, Function.identity(), scanConfig);
+    }
+
+    private Map<String, Material> idMap() {
+        Map<String, Material> map = byId;
+        if (map == null) {
+            map = new HashMap<>(materials.size() * 4 / 3 + 1);
+            for (Material material : materials) {
+                map.put(material.getId(), material);
+            }
+            map = Collections.unmodifiableMap(map);
+            byId = map;
+        }
+        return map;
+    }
+
+    private TrigramIndex<Material> titleIndex() {
+        TrigramIndex<Material> index = titleIndex;
+        if (index == null) {
+            index = buildIndex(Material::getTitle);
+            titleIndex = index;
+        }
+        return index;
+    }
+
+    private TrigramIndex<Material> creatorIndex() {
+        TrigramIndex<Material> index = creatorIndex;
+        if (index == null) {
+            index = buildIndex(Material::getCreator);
+            creatorIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Indexes the list once; the index is never written after it is published.
+     */
+    private TrigramIndex<Material> buildIndex(Function<Material, String> text) {
+        TrigramIndex<Material> index = TrigramIndex.insertionOrdered(text);
+        materials.forEach(index::add);
+        return index;
+    }
+
+    private List<Material> priceOrder() {
+        List<Material> sorted = byPrice;
+        if (sorted == null) {
+            List<Material> copy = new ArrayList<>(materials);
+            copy.sort(Comparator.comparingDouble(Material::getPrice));
+            sorted = Collections.unmodifiableList(copy);
+            byPrice = sorted;
+        }
+        return sorted;
+    }
+
+    private Summary summary() {
+        Summary current = summary;
+        if (current == null) {
+            current = new Summary(materials);
+            summary = current;
+        }
+        return current;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Snapshots are read-only");
+    }
+
+    /**
+     * Totals and aggregates of the snapshot, computed once; never mutated after construction.
+     */
+    private static final class Summary {
+        final InventoryAggregates aggregates = new InventoryAggregates();
+        final long discountedUnits;
+
+        Summary(List<Material> materials) {
+            long discounted = 0;
+            for (Material material : materials) {
+                aggregates.add(material);
+                discounted += material.getDiscountedPriceUnits();
+            }
+            this.discountedUnits = discounted;
+        }
+    }
+}
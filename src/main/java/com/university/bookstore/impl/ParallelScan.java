@@ -0,0 +1,96 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.university.bookstore.model.Material;
+
+/**
+ * Chunked predicate scan over a random-access list of materials, run sequentially or on a
+ * fork-join pool as a {@link ScanConfig} decides.
+ *
+ * <p>Each chunk is a contiguous index range, so a task walks adjacent list slots and
+ * collects into its own list with no shared writes. Exceptions thrown by the predicate
+ * reach the caller unchanged.</p>
+ */
+final class ParallelScan {
+
+    private ParallelScan() {
+    }
+
+    /**
+     * Collects the mapped materials that satisfy a predicate.
+     *
+     * @param items the materials; must support fast random access and not change during the scan
+     * @param predicate the filter
+     * @param mapper applied to each match
+     * @param config threshold, chunk size, pool and ordering
+     * @return a new list of matches
+     */
+    static <T> List<T> select(List<? extends Material> items, Predicate<? super Material> predicate,
+                              Function<? super Material, ? extends T> mapper, ScanConfig config) {
+        int n = items.size();
+        if (n < config.getParallelThreshold()) {
+            return scan(items, 0, n, predicate, mapper);
+        }
+
+        ForkJoinPool pool = config.getPool();
+        int chunkSize = config.getChunkSize();
+        int chunks = (int) (((long) n + chunkSize - 1) / chunkSize);
+        List<ForkJoinTask<List<T>>> tasks = new ArrayList<>(chunks);
+        ConcurrentLinkedQueue<List<T>> finished = new ConcurrentLinkedQueue<>();
+        // Join would rethrow a copy of a predicate's exception; keep the original instead
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        for (int c = 0; c < chunks; c++) {
+            int from = c * chunkSize;
+            int to = (int) Math.min(n, (long) from + chunkSize);
+            tasks.add(pool.submit(() -> {
+                try {
+                    List<T> part = scan(items, from, to, predicate, mapper);
+                    finished.add(part);
+                    return part;
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    return List.of();
+                }
+            }));
+        }
+
+        List<T> results = new ArrayList<>();
+        for (ForkJoinTask<List<T>> task : tasks) {
+            List<T> part = task.join();
+            if (config.isPreserveOrder()) {
+                // Joining in submission order concatenates chunks in catalog order
+                results.addAll(part);
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        if (!config.isPreserveOrder()) {
+            for (List<T> part : finished) {
+                results.addAll(part);
+            }
+        }
+        return results;
+    }
+
+    private static <T> List<T> scan(List<? extends Material> items, int from, int to,
+                                    Predicate<? super Material> predicate,
+                                    Function<? super Material, ? extends T> mapper) {
+        List<T> part = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Material material = items.get(i);
+            if (predicate.test(material)) {
+                part.add(mapper.apply(material));
+            }
+        }
+        return part;
+    }
+}
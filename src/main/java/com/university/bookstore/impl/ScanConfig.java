@@ -0,0 +1,157 @@
+package com.university.bookstore.impl;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Settings for the full-catalog predicate scans of the in-memory stores.
+ *
+ * <p>A scan over fewer materials than the parallel threshold runs on the calling thread.
+ * Larger scans are split into contiguous chunks that run on the configured
+ * {@link ForkJoinPool}. With order preservation on, results come back in catalog order,
+ * exactly as from a sequential scan. With it off, chunk results are appended as chunks
+ * finish, which avoids waiting on a slow chunk before merging the rest.</p>
+ *
+ * <p>Instances are immutable. The default pool is a dedicated daemon pool sized to the
+ * machine, created on first use, so large scans do not compete with other users of the
+ * common pool.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public final class ScanConfig {
+
+    /** Default catalog size from which scans go parallel. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 16;
+
+    /** Default materials per chunk; small enough to balance, large enough to amortize a task. */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 13;
+
+    private static final ScanConfig DEFAULTS =
+        new ScanConfig(null, DEFAULT_PARALLEL_THRESHOLD, DEFAULT_CHUNK_SIZE, true);
+    private static final ScanConfig SEQUENTIAL =
+        new ScanConfig(null, Integer.MAX_VALUE, DEFAULT_CHUNK_SIZE, true);
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final int chunkSize;
+    private final boolean preserveOrder;
+
+    /**
+     * Creates a scan configuration.
+     *
+     * @param pool the pool for parallel scans, or null for the shared scan pool
+     * @param parallelThreshold catalog size from which scans go parallel
+     * @param chunkSize materials per parallel task
+     * @param preserveOrder whether results keep catalog order
+     * @throws IllegalArgumentException if the threshold or chunk size is not positive
+     */
+    public ScanConfig(ForkJoinPool pool, int parallelThreshold, int chunkSize, boolean preserveOrder) {
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("Parallel threshold must be positive");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+        this.chunkSize = chunkSize;
+        this.preserveOrder = preserveOrder;
+    }
+
+    /**
+     * Returns the default configuration: ordered results on the dedicated scan pool from
+     * {@value #DEFAULT_PARALLEL_THRESHOLD} materials.
+     *
+     * @return the defaults
+     */
+    public static ScanConfig defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns a configuration that always scans on the calling thread.
+     *
+     * @return the sequential configuration
+     */
+    public static ScanConfig sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Returns the pool parallel scans run on.
+     *
+     * @return the configured pool, or the shared scan pool
+     */
+    public ForkJoinPool getPool() {
+        return pool != null ? pool : DefaultPool.INSTANCE;
+    }
+
+    public int getParallelThreshold() { return parallelThreshold; }
+    public int getChunkSize() { return chunkSize; }
+    public boolean isPreserveOrder() { return preserveOrder; }
+
+    /**
+     * Returns a copy with a different parallel threshold.
+     *
+     * @param threshold catalog size from which scans go parallel
+     * @return the new configuration
+     */
+    public ScanConfig withParallelThreshold(int threshold) {
+        return new ScanConfig(pool, threshold, chunkSize, preserveOrder);
+    }
+
+    /**
+     * Returns a copy with a different chunk size.
+     *
+     * @param size materials per parallel task
+     * @return the new configuration
+     */
+    public ScanConfig withChunkSize(int size) {
+        return new ScanConfig(pool, parallelThreshold, size, preserveOrder);
+    }
+
+    /**
+     * Returns a copy with order preservation switched.
+     *
+     * @param preserve whether results keep catalog order
+     * @return the new configuration
+     */
+    public ScanConfig withPreserveOrder(boolean preserve) {
+        return new ScanConfig(pool, parallelThreshold, chunkSize, preserve);
+    }
+
+    /**
+     * Returns a copy that runs parallel scans on another pool.
+     *
+     * @param scanPool the pool
+     * @return the new configuration
+     */
+    public ScanConfig withPool(ForkJoinPool scanPool) {
+        return new ScanConfig(Objects.requireNonNull(scanPool, "Pool cannot be null"),
+                              parallelThreshold, chunkSize, preserveOrder);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScanConfig[Threshold=%d, ChunkSize=%d, PreserveOrder=%b]",
+            parallelThreshold, chunkSize, preserveOrder);
+    }
+
+    /**
+     * Holder for the shared scan pool, so it is only started if a scan goes parallel.
+     */
+    private static final class DefaultPool {
+        static final ForkJoinPool INSTANCE = new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors(),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("material-scan-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            },
+            null, false);
+    }
+}
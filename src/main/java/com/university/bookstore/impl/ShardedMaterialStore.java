@@ -0,0 +1,437 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.utils.Money;
+
+/**
+ * MaterialStore that hash-partitions materials by ID across independent
+ * {@link MaterialStoreConcurrentImpl} shards.
+ *
+ * <p>Operations on one ID ({@link #addMaterial}, {@link #removeMaterial}, {@link #findById})
+ * go to a single shard, so writers to different shards share no locks and each shard
+ * rebuilds only its own scan snapshot. Every other query is scattered to all shards and
+ * the partial results gathered:
+ * - Unordered results are concatenated in shard order
+ * - Ordered results (price ranges, recent materials, sorted views) are k-way merged,
+ *   since every shard already returns them sorted
+ * - Top-k keeps each shard's k best and merges the first k
+ * - Totals add exact {@link Money} units; statistics hold every shard's stripes, merge
+ *   their aggregates and select the median by counting across their price indexes</p>
+ *
+ * <p>The default shard count is the number of available processors. Catalogs at or
+ * above the {@link ScanConfig} parallel threshold are queried on its pool, one task per
+ * shard; smaller catalogs visit the shards on the calling thread. Shards themselves scan
+ * sequentially, since the fan-out already provides the parallelism.</p>
+ *
+ * <p>Each query is consistent per shard, not across shards: a query that races writers
+ * may see a write on one shard and not an earlier one on another.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public class ShardedMaterialStore implements MaterialStore {
+
+    private final MaterialStoreConcurrentImpl[] shards;
+
+    // When, and on which pool, queries fan out to the shards in parallel
+    private volatile ScanConfig scanConfig = ScanConfig.defaults();
+
+    /**
+     * Creates a store with one shard per available processor.
+     */
+    public ShardedMaterialStore() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a store with a fixed number of shards.
+     *
+     * @param shardCount number of shards
+     * @throws IllegalArgumentException if shardCount is not positive
+     */
+    public ShardedMaterialStore(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        this.shards = new MaterialStoreConcurrentImpl[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new MaterialStoreConcurrentImpl();
+            shards[i].setScanConfig(ScanConfig.sequential());
+        }
+    }
+
+    /**
+     * Creates a store with a fixed number of shards and initial materials.
+     *
+     * @param shardCount number of shards
+     * @param initialMaterials materials to add initially
+     */
+    public ShardedMaterialStore(int shardCount, List<Material> initialMaterials) {
+        this(shardCount);
+        if (initialMaterials != null) {
+            List<List<Material>> batches = new ArrayList<>(shardCount);
+            for (int i = 0; i < shardCount; i++) {
+                batches.add(new ArrayList<>());
+            }
+            for (Material material : initialMaterials) {
+                if (material != null) {
+                    batches.get(shardIndex(material.getId())).add(material);
+                }
+            }
+            // One snapshot rebuild per shard instead of one per material
+            for (int i = 0; i < shardCount; i++) {
+                shards[i].addMaterialsBatch(batches.get(i));
+            }
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Gets the number of materials in each shard, to check the balance of the partitioning.
+     *
+     * @return one size per shard
+     */
+    public int[] getShardSizes() {
+        return Arrays.stream(shards).mapToInt(MaterialStoreConcurrentImpl::size).toArray();
+    }
+
+    /**
+     * Sets when and on which pool queries fan out to the shards in parallel.
+     *
+     * @param scanConfig the scan configuration
+     */
+    public void setScanConfig(ScanConfig scanConfig) {
+        this.scanConfig = Objects.requireNonNull(scanConfig, "Scan config cannot be null");
+    }
+
+    public ScanConfig getScanConfig() {
+        return scanConfig;
+    }
+
+    @Override
+    public boolean addMaterial(Material material) {
+        if (material == null) {
+            throw new NullPointerException("Cannot add null material");
+        }
+        return shardFor(material.getId()).addMaterial(material);
+    }
+
+    @Override
+    public Optional<Material> removeMaterial(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return shardFor(id).removeMaterial(id);
+    }
+
+    @Override
+    public Optional<Material> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return shardFor(id).findById(id);
+    }
+
+    @Override
+    public List<Material> searchByTitle(String title) {
+        return concat(scatter(shard -> shard.searchByTitle(title)));
+    }
+
+    @Override
+    public List<Material> searchByCreator(String creator) {
+        return concat(scatter(shard -> shard.searchByCreator(creator)));
+    }
+
+    @Override
+    public List<Material> getMaterialsByType(Material.MaterialType type) {
+        return concat(scatter(shard -> shard.getMaterialsByType(type)));
+    }
+
+    @Override
+    public List<Media> getMediaMaterials() {
+        return concat(scatter(MaterialStoreConcurrentImpl::getMediaMaterials));
+    }
+
+    @Override
+    public List<Material> filterMaterials(Predicate<Material> predicate) {
+        if (predicate == null) {
+            throw new NullPointerException("Predicate cannot be null");
+        }
+        return concat(scatter(shard -> shard.filterMaterials(predicate)));
+    }
+
+    @Override
+    public List<Material> findRecentMaterials(int years) {
+        if (years < 0) {
+            throw new IllegalArgumentException("Years cannot be negative: " + years);
+        }
+        // Each shard answers oldest first
+        return mergeSorted(scatter(shard -> shard.findRecentMaterials(years)),
+                           Comparator.comparingInt(Material::getYear), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Material> findByCreators(String... creators) {
+        return concat(scatter(shard -> shard.findByCreators(creators)));
+    }
+
+    @Override
+    public List<Material> findWithPredicate(Predicate<Material> condition) {
+        if (condition == null) {
+            throw new NullPointerException("Predicate cannot be null");
+        }
+        return concat(scatter(shard -> shard.findWithPredicate(condition)));
+    }
+
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator) {
+        if (comparator == null) {
+            throw new NullPointerException("Comparator cannot be null");
+        }
+        return mergeSorted(scatter(shard -> shard.getSorted(comparator)), comparator, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator, int k) {
+        if (comparator == null) {
+            throw new NullPointerException("Comparator cannot be null");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative: " + k);
+        }
+        // The global top k is among the shards' top k
+        return mergeSorted(scatter(shard -> shard.getSorted(comparator, k)), comparator, k);
+    }
+
+    @Override
+    public List<Material> getMaterialsByPriceRange(double minPrice, double maxPrice) {
+        if (minPrice < 0 || maxPrice < 0 || minPrice > maxPrice) {
+            throw new IllegalArgumentException(
+                String.format("Invalid price range: min=%.2f, max=%.2f", minPrice, maxPrice));
+        }
+        // Each shard answers cheapest first
+        return mergeSorted(scatter(shard -> shard.getMaterialsByPriceRange(minPrice, maxPrice)),
+                           Comparator.comparingDouble(Material::getPrice), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Material> getMaterialsByYear(int year) {
+        return concat(scatter(shard -> shard.getMaterialsByYear(year)));
+    }
+
+    @Override
+    public List<Material> getAllMaterialsSorted() {
+        return mergeSorted(scatter(MaterialStoreConcurrentImpl::getAllMaterialsSorted),
+                           Comparator.naturalOrder(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Material> getAllMaterials() {
+        return concat(scatter(MaterialStoreConcurrentImpl::getAllMaterials));
+    }
+
+    @Override
+    public double getTotalInventoryValue() {
+        long units = 0;
+        for (MaterialStoreConcurrentImpl shard : shards) {
+            units += Money.toUnits(shard.getTotalInventoryValue());
+        }
+        return Money.toDollars(units);
+    }
+
+    @Override
+    public double getTotalDiscountedValue() {
+        long units = 0;
+        for (MaterialStoreConcurrentImpl shard : shards) {
+            units += Money.toUnits(shard.getTotalDiscountedValue());
+        }
+        return Money.toDollars(units);
+    }
+
+    @Override
+    public InventoryStats getInventoryStats() {
+        // Shards are locked in array order, so concurrent stats readers cannot deadlock
+        for (MaterialStoreConcurrentImpl shard : shards) {
+            shard.lockAllStripes();
+        }
+        try {
+            return MaterialStoreConcurrentImpl.inventoryStats(Arrays.asList(shards));
+        } finally {
+            for (int i = shards.length - 1; i >= 0; i--) {
+                shards[i].unlockAllStripes();
+            }
+        }
+    }
+
+    @Override
+    public void clearInventory() {
+        for (MaterialStoreConcurrentImpl shard : shards) {
+            shard.clearInventory();
+        }
+    }
+
+    @Override
+    public int size() {
+        int count = 0;
+        for (MaterialStoreConcurrentImpl shard : shards) {
+            count += shard.size();
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (MaterialStoreConcurrentImpl shard : shards) {
+            if (!shard.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Stream<Material> stream() {
+        return Arrays.stream(shards).flatMap(MaterialStoreConcurrentImpl::stream);
+    }
+
+    @Override
+    public Stream<Material> streamByTitle(String title) {
+        return Arrays.stream(shards).flatMap(shard -> shard.streamByTitle(title));
+    }
+
+    @Override
+    public Stream<Material> streamByCreator(String creator) {
+        return Arrays.stream(shards).flatMap(shard -> shard.streamByCreator(creator));
+    }
+
+    @Override
+    public Stream<Material> streamByType(Material.MaterialType type) {
+        return Arrays.stream(shards).flatMap(shard -> shard.streamByType(type));
+    }
+
+    private MaterialStoreConcurrentImpl shardFor(String id) {
+        return shards[shardIndex(id)];
+    }
+
+    private int shardIndex(String id) {
+        int hash = id.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    /**
+     * Runs a query on every shard and returns the results in shard order. Large catalogs
+     * query the shards in parallel; the calling thread takes shard 0 itself. An exception
+     * thrown by a shard reaches the caller unchanged.
+     */
+    private <T> List<T> scatter(Function<MaterialStoreConcurrentImpl, T> query) {
+        List<T> results = new ArrayList<>(shards.length);
+        ScanConfig config = scanConfig;
+        if (shards.length == 1 || size() < config.getParallelThreshold()) {
+            for (MaterialStoreConcurrentImpl shard : shards) {
+                results.add(query.apply(shard));
+            }
+            return results;
+        }
+
+        ForkJoinPool pool = config.getPool();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        List<ForkJoinTask<T>> tasks = new ArrayList<>(shards.length - 1);
+        for (int i = 1; i < shards.length; i++) {
+            MaterialStoreConcurrentImpl shard = shards[i];
+            tasks.add(pool.submit(() -> {
+                try {
+                    return query.apply(shard);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    return null;
+                }
+            }));
+        }
+        try {
+            results.add(query.apply(shards[0]));
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+            results.add(null);
+        }
+        for (ForkJoinTask<T> task : tasks) {
+            results.add(task.join());
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return results;
+    }
+
+    private static <T> List<T> concat(List<? extends List<? extends T>> parts) {
+        int total = 0;
+        for (List<? extends T> part : parts) {
+            total += part.size();
+        }
+        List<T> results = new ArrayList<>(total);
+        for (List<? extends T> part : parts) {
+            results.addAll(part);
+        }
+        return results;
+    }
+
+    /**
+     * K-way merge of sorted runs with a heap of run heads: O(n log k) for n results from
+     * k shards. Ties keep shard order.
+     *
+     * @param runs lists each sorted by the comparator
+     * @param comparator the ordering of every run
+     * @param limit maximum number of results
+     * @return the first {@code limit} elements of the merged order
+     */
+    static <T> List<T> mergeSorted(List<? extends List<? extends T>> runs, Comparator<? super T> comparator,
+                                   int limit) {
+        int total = 0;
+        for (List<? extends T> run : runs) {
+            total += run.size();
+        }
+        List<T> results = new ArrayList<>(Math.min(total, limit));
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+            int order = comparator.compare(runs.get(a[0]).get(a[1]), runs.get(b[0]).get(b[1]));
+            return order != 0 ? order : Integer.compare(a[0], b[0]);
+        });
+        for (int r = 0; r < runs.size(); r++) {
+            if (!runs.get(r).isEmpty()) {
+                heads.add(new int[] {r, 0});
+            }
+        }
+        while (!heads.isEmpty() && results.size() < limit) {
+            int[] head = heads.poll();
+            List<? extends T> run = runs.get(head[0]);
+            results.add(run.get(head[1]));
+            if (++head[1] < run.size()) {
+                heads.add(head);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ShardedMaterialStore[Shards=%d, Size=%d]", shards.length, size());
+    }
+}
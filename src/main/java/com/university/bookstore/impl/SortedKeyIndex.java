@@ -0,0 +1,711 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Sorted index mapping a numeric key to items, kept as a directory of small sorted blocks.
+ *
+ * <p>Each block holds up to {@value #MAX_BLOCK} entries in parallel primitive arrays, and a
+ * Fenwick tree over the block sizes gives every block's rank. An update binary searches the
+ * directory and shifts entries within one block, so it costs O(log n + B) instead of O(n);
+ * full blocks split in half and sparse neighbours merge. Range lookups cost O(log n + k),
+ * and rank lookups ({@link #keyAt}, {@link #countBelow}, {@link #countAtMost}) cost
+ * O(log n). Integer keys such as years are stored exactly as doubles.</p>
+ *
+ * <p>Items with equal keys keep their insertion order. Each entry carries an insertion stamp
+ * as a secondary key and the index remembers every item's stamp, so removing an item from a
+ * long run of equal keys is still a binary search. Items must be distinct under
+ * {@code equals}. Several indexes may draw stamps from one shared source; their ranges
+ * then merge by {@link #mergeRanges} into the order a single index would have.</p>
+ *
+ * <p>This class is not thread-safe. Writers must be externally synchronized. Read methods
+ * never throw on a torn read, so they may run under a {@code StampedLock} optimistic read
+ * that is validated afterwards.</p>
+ *
+ * @param <T> the indexed item type
+ */
+class SortedKeyIndex<T> {
+
+    /** Entries per block before it splits. */
+    static final int MAX_BLOCK = 512;
+
+    private static final int INITIAL_BLOCK = 16;
+    // Neighbours merge once they fit in a quarter block, so blocks stay well filled
+    private static final int MERGE_THRESHOLD = MAX_BLOCK / 4;
+    // Bulk updates of at least 1/64 of the index rebuild it in one pass
+    private static final int REBUILD_RATIO = 64;
+
+    private Block[] blocks = new Block[4];
+    private int blockCount;
+    private int[] tree = new int[blocks.length + 1];
+    private final Map<Object, Long> stamps = new HashMap<>();
+    private final AtomicLong stampSource;
+    private int size;
+
+    /**
+     * Creates an empty index with its own stamp source.
+     */
+    SortedKeyIndex() {
+        this(new AtomicLong());
+    }
+
+    /**
+     * Creates an empty index drawing insertion stamps from a source shared with other
+     * indexes, so that equal keys across them keep one insertion order.
+     *
+     * @param stampSource the shared stamp source
+     */
+    SortedKeyIndex(AtomicLong stampSource) {
+        this.stampSource = stampSource;
+    }
+
+    /**
+     * Inserts an item after any existing items with the same key.
+     *
+     * @param key the sort key
+     * @param item the item to insert
+     */
+    void insert(double key, T item) {
+        insert(key, item, stampSource.getAndIncrement());
+    }
+
+    private void insert(double key, T item, long stamp) {
+        stamps.put(item, stamp);
+        size++;
+        if (blockCount == 0) {
+            insertBlock(0, new Block(INITIAL_BLOCK));
+        }
+        int b = blockFor(key, stamp);
+        Block block = blocks[b];
+        block.insertAt(block.upperBound(key, stamp), key, stamp, item);
+        if (block.size == MAX_BLOCK) {
+            insertBlock(b + 1, block.splitUpperHalf());
+            rebuildTree();
+        } else {
+            addToTree(b, 1);
+        }
+    }
+
+    /**
+     * Inserts many items at once. Small batches are inserted one by one; a batch of at least
+     * 1/64 of the index is stably sorted and merged in O(n + m log m) instead.
+     *
+     * <p>Either way the result is the same as inserting each item in iteration order.</p>
+     *
+     * @param batch the items to insert
+     * @param keyFunction extracts each item's sort key
+     */
+    void insertAll(Collection<? extends T> batch, ToDoubleFunction<? super T> keyFunction) {
+        long first = stampSource.getAndAdd(batch.size());
+        long[] batchStamps = new long[batch.size()];
+        Arrays.setAll(batchStamps, i -> first + i);
+        insertAll(new ArrayList<>(batch), keyFunction, batchStamps);
+    }
+
+    /**
+     * Inserts many items with stamps the caller already drew from this index's stamp
+     * source, ascending in list order. Used when one batch spreads over several indexes
+     * that share a source.
+     *
+     * @param batch the items to insert
+     * @param keyFunction extracts each item's sort key
+     * @param batchStamps the stamp of each item
+     */
+    void insertAll(List<? extends T> batch, ToDoubleFunction<? super T> keyFunction, long[] batchStamps) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if ((long) batch.size() * REBUILD_RATIO < size) {
+            for (int i = 0; i < batch.size(); i++) {
+                insert(keyFunction.applyAsDouble(batch.get(i)), batch.get(i), batchStamps[i]);
+            }
+            return;
+        }
+        // Stable sort of positions, so equal keys stay in stamp order
+        Integer[] sorted = new Integer[batch.size()];
+        Arrays.setAll(sorted, i -> i);
+        Arrays.sort(sorted, Comparator.comparingDouble(i -> keyFunction.applyAsDouble(batch.get(i))));
+
+        // New stamps exceed every existing one, so ties go behind existing items
+        int total = size + sorted.length;
+        double[] mergedKeys = new double[total];
+        long[] mergedStamps = new long[total];
+        Object[] mergedItems = new Object[total];
+        int out = 0;
+        int j = 0;
+        for (int b = 0; b < blockCount; b++) {
+            Block block = blocks[b];
+            for (int i = 0; i < block.size; i++) {
+                while (j < sorted.length && keyFunction.applyAsDouble(batch.get(sorted[j])) < block.keys[i]) {
+                    int at = sorted[j++];
+                    out = appendNew(batch.get(at), batchStamps[at], keyFunction, mergedKeys, mergedStamps, mergedItems, out);
+                }
+                mergedKeys[out] = block.keys[i];
+                mergedStamps[out] = block.stamps[i];
+                mergedItems[out++] = block.items[i];
+            }
+        }
+        while (j < sorted.length) {
+            int at = sorted[j++];
+            out = appendNew(batch.get(at), batchStamps[at], keyFunction, mergedKeys, mergedStamps, mergedItems, out);
+        }
+        load(mergedKeys, mergedStamps, mergedItems, out);
+    }
+
+    private int appendNew(T item, long stamp, ToDoubleFunction<? super T> keyFunction,
+                          double[] keys, long[] newStamps, Object[] items, int out) {
+        stamps.put(item, stamp);
+        keys[out] = keyFunction.applyAsDouble(item);
+        newStamps[out] = stamp;
+        items[out] = item;
+        return out + 1;
+    }
+
+    /**
+     * Removes an item previously inserted under the given key.
+     *
+     * @param key the sort key the item was inserted with
+     * @param item the item to remove (matched with equals)
+     * @return true if the item was found and removed
+     */
+    boolean remove(double key, T item) {
+        Long stamp = stamps.get(item);
+        if (stamp == null || blockCount == 0) {
+            return false;
+        }
+        int b = blockFor(key, stamp);
+        Block block = blocks[b];
+        int pos = block.lowerBound(key, stamp);
+        if (pos == block.size || block.keys[pos] != key || block.stamps[pos] != stamp) {
+            return false;
+        }
+        stamps.remove(item);
+        size--;
+        block.removeAt(pos);
+        if (block.size == 0) {
+            removeBlock(b);
+            rebuildTree();
+        } else if (b + 1 < blockCount && block.size + blocks[b + 1].size <= MERGE_THRESHOLD) {
+            block.appendAll(blocks[b + 1]);
+            removeBlock(b + 1);
+            rebuildTree();
+        } else if (b > 0 && blocks[b - 1].size + block.size <= MERGE_THRESHOLD) {
+            blocks[b - 1].appendAll(block);
+            removeBlock(b);
+            rebuildTree();
+        } else {
+            addToTree(b, -1);
+        }
+        return true;
+    }
+
+    /**
+     * Removes many items at once. Small batches are removed one by one; a batch of at least
+     * 1/64 of the index is removed in one O(n + m) compacting pass instead.
+     *
+     * @param batch the items to remove (matched with equals)
+     * @param keyFunction extracts each item's sort key, as inserted
+     * @return the number of items removed
+     */
+    int removeAll(Collection<? extends T> batch, ToDoubleFunction<? super T> keyFunction) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        if ((long) batch.size() * REBUILD_RATIO < size) {
+            int removed = 0;
+            for (T item : batch) {
+                if (remove(keyFunction.applyAsDouble(item), item)) {
+                    removed++;
+                }
+            }
+            return removed;
+        }
+        Set<Object> pending = new HashSet<>(batch);
+        double[] keptKeys = new double[size];
+        long[] keptStamps = new long[size];
+        Object[] keptItems = new Object[size];
+        int out = 0;
+        for (int b = 0; b < blockCount; b++) {
+            Block block = blocks[b];
+            for (int i = 0; i < block.size; i++) {
+                Object item = block.items[i];
+                if (!pending.isEmpty() && pending.remove(item)) {
+                    stamps.remove(item);
+                    continue;
+                }
+                keptKeys[out] = block.keys[i];
+                keptStamps[out] = block.stamps[i];
+                keptItems[out++] = item;
+            }
+        }
+        int removed = size - out;
+        load(keptKeys, keptStamps, keptItems, out);
+        return removed;
+    }
+
+    /**
+     * Gets all items whose key lies in {@code [min, max]}, in ascending key order.
+     *
+     * @param min lower bound (inclusive)
+     * @param max upper bound (inclusive)
+     * @return list of matching items (never null)
+     */
+    List<T> range(double min, double max) {
+        return collect(min, max).items();
+    }
+
+    /**
+     * Gets the items whose key lies in {@code [min, max]} across several indexes that draw
+     * from one stamp source, in the (key, stamp) order a single index holding all of them
+     * would give. A k-way merge, O(k log m) for k results from m indexes. Each index is
+     * read as by {@link #range}, so the caller validates the read as it would for one index.
+     *
+     * @param indexes the indexes, sharing a stamp source
+     * @param min lower bound (inclusive)
+     * @param max upper bound (inclusive)
+     * @param <T> the indexed item type
+     * @return list of matching items (never null)
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> mergeRanges(List<SortedKeyIndex<T>> indexes, double min, double max) {
+        PriorityQueue<Run> heads = new PriorityQueue<>(Math.max(1, indexes.size()), Run::compareHeads);
+        int total = 0;
+        for (SortedKeyIndex<T> index : indexes) {
+            Run run = index.collect(min, max);
+            if (run.size > 0) {
+                heads.add(run);
+                total += run.size;
+            }
+        }
+        List<T> result = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            Run run = heads.poll();
+            result.add((T) run.items[run.next++]);
+            if (run.next < run.size) {
+                heads.add(run);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copies the entries whose key lies in {@code [min, max]}; safe under a torn read.
+     */
+    private Run collect(double min, double max) {
+        Block[] current = blocks;
+        int count = Math.min(blockCount, current.length);
+        Run run = new Run();
+        for (int b = firstBlockReaching(current, count, min, false); b < count; b++) {
+            Block block = current[b];
+            if (block == null) {
+                continue;
+            }
+            double[] keys = block.keys;
+            long[] entryStamps = block.stamps;
+            Object[] items = block.items;
+            int n = Math.min(block.size, Math.min(keys.length, Math.min(entryStamps.length, items.length)));
+            for (int i = lowerBound(keys, n, min); i < n; i++) {
+                if (keys[i] > max) {
+                    return run;
+                }
+                Object item = items[i];
+                if (item != null) {
+                    run.add(keys[i], entryStamps[i], item);
+                }
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Gets all items whose key is at least {@code min}, in ascending key order.
+     *
+     * @param min lower bound (inclusive)
+     * @return list of matching items (never null)
+     */
+    List<T> tailFrom(double min) {
+        return range(min, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Gets the key at the given rank (0 is the smallest) by descending the Fenwick tree.
+     *
+     * @param rank position in ascending key order
+     * @return the key at that rank
+     * @throws IndexOutOfBoundsException if rank is outside {@code [0, size)}
+     */
+    double keyAt(int rank) {
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " outside index of size " + size);
+        }
+        int b = 0;
+        int remaining = rank;
+        for (int step = Integer.highestOneBit(blockCount); step > 0; step >>= 1) {
+            int next = b + step;
+            if (next <= blockCount && tree[next] <= remaining) {
+                b = next;
+                remaining -= tree[next];
+            }
+        }
+        return blocks[b].keys[remaining];
+    }
+
+    /**
+     * Counts the items whose key is below {@code key}.
+     *
+     * @param key the bound (exclusive)
+     * @return number of smaller keys
+     */
+    int countBelow(double key) {
+        int b = firstBlockReaching(blocks, blockCount, key, false);
+        return b == blockCount ? size : prefix(b) + lowerBound(blocks[b].keys, blocks[b].size, key);
+    }
+
+    /**
+     * Counts the items whose key is at most {@code key}.
+     *
+     * @param key the bound (inclusive)
+     * @return number of keys not above it
+     */
+    int countAtMost(double key) {
+        int b = firstBlockReaching(blocks, blockCount, key, true);
+        return b == blockCount ? size : prefix(b) + upperBound(blocks[b].keys, blocks[b].size, key);
+    }
+
+    /**
+     * Gets the earliest-inserted item among those with the largest key.
+     *
+     * @return that item, or null if the index is empty
+     */
+    @SuppressWarnings("unchecked")
+    T firstOfLargestKey() {
+        if (size == 0) {
+            return null;
+        }
+        Block last = blocks[blockCount - 1];
+        double largest = last.keys[last.size - 1];
+        Block first = blocks[firstBlockReaching(blocks, blockCount, largest, false)];
+        return (T) first.items[lowerBound(first.keys, first.size, largest)];
+    }
+
+    /**
+     * Copies the keys in ascending order.
+     *
+     * @return a new array of {@link #size()} keys
+     */
+    double[] keysCopy() {
+        double[] copy = new double[size];
+        int out = 0;
+        for (int b = 0; b < blockCount; b++) {
+            System.arraycopy(blocks[b].keys, 0, copy, out, blocks[b].size);
+            out += blocks[b].size;
+        }
+        return copy;
+    }
+
+    /**
+     * Gets the number of indexed items.
+     *
+     * @return item count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes every item and releases the blocks.
+     */
+    void clear() {
+        blocks = new Block[4];
+        blockCount = 0;
+        tree = new int[blocks.length + 1];
+        stamps.clear();
+        size = 0;
+    }
+
+    /**
+     * Replaces the contents with sorted entries, cut into half-full blocks.
+     */
+    private void load(double[] keys, long[] entryStamps, Object[] items, int n) {
+        int half = MAX_BLOCK / 2;
+        Block[] loaded = new Block[Math.max(4, (n + half - 1) / half)];
+        int count = 0;
+        for (int from = 0; from < n; from += half) {
+            loaded[count++] = new Block(keys, entryStamps, items, from, Math.min(n, from + half));
+        }
+        blocks = loaded;
+        blockCount = count;
+        size = n;
+        rebuildTree();
+    }
+
+    /**
+     * Finds the last block whose first entry is at most {@code (key, stamp)}, or block 0.
+     */
+    private int blockFor(double key, long stamp) {
+        int low = 1;
+        int high = blockCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Block block = blocks[mid];
+            if (block.keys[0] < key || (block.keys[0] == key && block.stamps[0] <= stamp)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * Finds the first block whose last key is {@code >= key}, or {@code > key} when strict;
+     * {@code count} if there is none. Safe on a torn directory.
+     */
+    private static int firstBlockReaching(Block[] directory, int count, double key, boolean strict) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            double last = lastKey(directory[mid]);
+            if (last < key || (strict && last == key)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static double lastKey(Block block) {
+        if (block == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double[] keys = block.keys;
+        int n = Math.min(block.size, keys.length);
+        return n > 0 ? keys[n - 1] : Double.POSITIVE_INFINITY;
+    }
+
+    private void insertBlock(int at, Block block) {
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blocks.length * 2);
+        }
+        System.arraycopy(blocks, at, blocks, at + 1, blockCount - at);
+        blocks[at] = block;
+        blockCount++;
+    }
+
+    private void removeBlock(int at) {
+        System.arraycopy(blocks, at + 1, blocks, at, blockCount - at - 1);
+        blocks[--blockCount] = null;
+    }
+
+    /**
+     * Sum of the sizes of the blocks before {@code b}.
+     */
+    private int prefix(int b) {
+        int sum = 0;
+        for (int i = b; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void addToTree(int b, int delta) {
+        for (int i = b + 1; i <= blockCount; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Rebuilds the Fenwick tree in O(blocks) after the directory changed shape.
+     */
+    private void rebuildTree() {
+        int[] rebuilt = new int[blocks.length + 1];
+        for (int i = 1; i <= blockCount; i++) {
+            rebuilt[i] += blocks[i - 1].size;
+            int parent = i + (i & -i);
+            if (parent <= blockCount) {
+                rebuilt[parent] += rebuilt[i];
+            }
+        }
+        tree = rebuilt;
+    }
+
+    /**
+     * First position whose key is {@code >= key}.
+     */
+    static int lowerBound(double[] keys, int size, double key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First position whose key is {@code > key}.
+     */
+    static int upperBound(double[] keys, int size, double key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Entries copied out of one index by a range read, with a cursor for merging.
+     */
+    private static final class Run {
+        double[] keys = new double[8];
+        long[] stamps = new long[8];
+        Object[] items = new Object[8];
+        int size;
+        int next;
+
+        void add(double key, long stamp, Object item) {
+            if (size == items.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                stamps = Arrays.copyOf(stamps, size * 2);
+                items = Arrays.copyOf(items, size * 2);
+            }
+            keys[size] = key;
+            stamps[size] = stamp;
+            items[size++] = item;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> List<T> items() {
+            List<T> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add((T) items[i]);
+            }
+            return list;
+        }
+
+        static int compareHeads(Run a, Run b) {
+            int byKey = Double.compare(a.keys[a.next], b.keys[b.next]);
+            return byKey != 0 ? byKey : Long.compare(a.stamps[a.next], b.stamps[b.next]);
+        }
+    }
+
+    /**
+     * Sorted run of entries ordered by key, then insertion stamp.
+     */
+    private static final class Block {
+        double[] keys;
+        long[] stamps;
+        Object[] items;
+        int size;
+
+        Block(int capacity) {
+            keys = new double[capacity];
+            stamps = new long[capacity];
+            items = new Object[capacity];
+        }
+
+        Block(double[] sourceKeys, long[] sourceStamps, Object[] sourceItems, int from, int to) {
+            keys = Arrays.copyOfRange(sourceKeys, from, to);
+            stamps = Arrays.copyOfRange(sourceStamps, from, to);
+            items = Arrays.copyOfRange(sourceItems, from, to);
+            size = to - from;
+        }
+
+        int lowerBound(double key, long stamp) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key || (keys[mid] == key && stamps[mid] < stamp)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int upperBound(double key, long stamp) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key || (keys[mid] == key && stamps[mid] <= stamp)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void insertAt(int pos, double key, long stamp, Object item) {
+            ensureCapacity(size + 1);
+            System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+            System.arraycopy(stamps, pos, stamps, pos + 1, size - pos);
+            System.arraycopy(items, pos, items, pos + 1, size - pos);
+            keys[pos] = key;
+            stamps[pos] = stamp;
+            items[pos] = item;
+            size++;
+        }
+
+        void removeAt(int pos) {
+            System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+            System.arraycopy(stamps, pos + 1, stamps, pos, size - pos - 1);
+            System.arraycopy(items, pos + 1, items, pos, size - pos - 1);
+            items[--size] = null;
+        }
+
+        void appendAll(Block other) {
+            ensureCapacity(size + other.size);
+            System.arraycopy(other.keys, 0, keys, size, other.size);
+            System.arraycopy(other.stamps, 0, stamps, size, other.size);
+            System.arraycopy(other.items, 0, items, size, other.size);
+            size += other.size;
+        }
+
+        /**
+         * Moves the upper half into a new block.
+         */
+        Block splitUpperHalf() {
+            int half = size / 2;
+            Block upper = new Block(keys, stamps, items, half, size);
+            Arrays.fill(items, half, size, null);
+            size = half;
+            return upper;
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed > keys.length) {
+                int capacity = Math.min(MAX_BLOCK, Math.max(needed, keys.length * 2));
+                keys = Arrays.copyOf(keys, capacity);
+                stamps = Arrays.copyOf(stamps, capacity);
+                items = Arrays.copyOf(items, capacity);
+            }
+        }
+    }
+}
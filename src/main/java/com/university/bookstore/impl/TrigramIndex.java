@@ -0,0 +1,163 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Case-insensitive substring index over one text field of the indexed items.
+ *
+ * <p>Every 1-, 2- and 3-character gram of the lowercased text is mapped to the items
+ * containing it. Queries of up to three characters are answered directly from a single
+ * posting set. Longer queries start from the smallest posting set among the query's
+ * trigrams and verify each candidate with {@link String#contains(CharSequence)}, so the
+ * result is identical to a full {@code toLowerCase().contains()} scan while only touching
+ * a small fraction of the items.</p>
+ *
+ * @param <T> the indexed item type
+ */
+class TrigramIndex<T> {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final ConcurrentHashMap<String, Set<T>> postings = new ConcurrentHashMap<>();
+    private final Function<T, String> textExtractor;
+    private final Supplier<Set<T>> postingFactory;
+
+    private TrigramIndex(Function<T, String> textExtractor, Supplier<Set<T>> postingFactory) {
+        this.textExtractor = textExtractor;
+        this.postingFactory = postingFactory;
+    }
+
+    /**
+     * Creates an index safe for concurrent readers and writers. Result order is unspecified.
+     *
+     * @param textExtractor function returning the indexed text of an item
+     * @param <T> the indexed item type
+     * @return a new concurrent index
+     */
+    static <T> TrigramIndex<T> concurrent(Function<T, String> textExtractor) {
+        return new TrigramIndex<>(textExtractor, ConcurrentHashMap::newKeySet);
+    }
+
+    /**
+     * Creates an index whose results follow insertion order.
+     * Writers must be externally synchronized.
+     *
+     * @param textExtractor function returning the indexed text of an item
+     * @param <T> the indexed item type
+     * @return a new insertion-ordered index
+     */
+    static <T> TrigramIndex<T> insertionOrdered(Function<T, String> textExtractor) {
+        return new TrigramIndex<>(textExtractor, LinkedHashSet::new);
+    }
+
+    /**
+     * Indexes an item under every gram of its text.
+     *
+     * @param item the item to add
+     */
+    void add(T item) {
+        for (String gram : grams(textExtractor.apply(item).toLowerCase())) {
+            postings.compute(gram, (key, posting) -> {
+                Set<T> target = posting != null ? posting : postingFactory.get();
+                target.add(item);
+                return target;
+            });
+        }
+    }
+
+    /**
+     * Removes an item from every gram of its text.
+     *
+     * @param item the item to remove
+     */
+    void remove(T item) {
+        for (String gram : grams(textExtractor.apply(item).toLowerCase())) {
+            postings.computeIfPresent(gram, (key, posting) -> {
+                posting.remove(item);
+                return posting.isEmpty() ? null : posting;
+            });
+        }
+    }
+
+    /**
+     * Finds all items whose text contains the query, ignoring case.
+     * The query is trimmed first, matching the stores' search contract.
+     *
+     * @param query the substring to search for (non-blank)
+     * @return list of matching items (never null)
+     */
+    List<T> search(String query) {
+        return stream(query).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Lazily streams the items whose text contains the query, ignoring case.
+     * Candidates are verified only as the stream is consumed, so a limited stream
+     * stops early. For insertion-ordered indexes the stream must be consumed before
+     * the next write.
+     *
+     * @param query the substring to search for (non-blank)
+     * @return stream of matching items
+     */
+    Stream<T> stream(String query) {
+        String keyword = query.trim().toLowerCase();
+        if (keyword.length() <= GRAM_LENGTH) {
+            Set<T> posting = postings.get(keyword);
+            return posting != null ? posting.stream() : Stream.empty();
+        }
+
+        Set<T> candidates = null;
+        for (int i = 0; i + GRAM_LENGTH <= keyword.length(); i++) {
+            Set<T> posting = postings.get(keyword.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return Stream.empty();
+            }
+            if (candidates == null || posting.size() < candidates.size()) {
+                candidates = posting;
+            }
+        }
+
+        return candidates.stream()
+                .filter(candidate -> textExtractor.apply(candidate).toLowerCase().contains(keyword));
+    }
+
+    /**
+     * Gets the number of distinct grams currently indexed.
+     *
+     * @return gram count
+     */
+    int gramCount() {
+        return postings.size();
+    }
+
+    /**
+     * Removes every posting.
+     */
+    void clear() {
+        postings.clear();
+    }
+
+    private static Set<String> grams(String text) {
+        if (text.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new HashSet<>();
+        for (int start = 0; start < text.length(); start++) {
+            int maxEnd = Math.min(text.length(), start + GRAM_LENGTH);
+            for (int end = start + 1; end <= maxEnd; end++) {
+                grams.add(text.substring(start, end));
+            }
+        }
+        return grams;
+    }
+}
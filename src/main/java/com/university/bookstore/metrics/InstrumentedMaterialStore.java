@@ -0,0 +1,324 @@
+package com.university.bookstore.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.impl.MaterialStoreConcurrentImpl;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+
+/**
+ * Decorator that records the latency, call count, failures and result size of every
+ * {@link MaterialStore} operation into a {@link StoreMetrics}.
+ *
+ * <p>Operations are named after their methods; paged variants get a {@code Page} suffix.
+ * When the metrics are disabled each call costs one volatile read on top of the delegate
+ * call. Streaming methods are passed straight through, since their work happens after
+ * they return.</p>
+ *
+ * <p>Wrapping a {@link MaterialStoreConcurrentImpl} also attaches the metrics to it, so
+ * its index rebuilds and index lock waits are recorded too.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public class InstrumentedMaterialStore implements MaterialStore {
+
+    private final MaterialStore delegate;
+    private final StoreMetrics metrics;
+
+    /**
+     * Wraps a store with a fresh, enabled metrics registry.
+     *
+     * @param delegate the store to instrument
+     */
+    public InstrumentedMaterialStore(MaterialStore delegate) {
+        this(delegate, new StoreMetrics());
+    }
+
+    /**
+     * Wraps a store.
+     *
+     * @param delegate the store to instrument
+     * @param metrics where to record
+     */
+    public InstrumentedMaterialStore(MaterialStore delegate, StoreMetrics metrics) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate cannot be null");
+        this.metrics = Objects.requireNonNull(metrics, "Metrics cannot be null");
+        if (delegate instanceof MaterialStoreConcurrentImpl concurrent) {
+            concurrent.setMetrics(metrics);
+        }
+    }
+
+    public StoreMetrics getMetrics() {
+        return metrics;
+    }
+
+    public MaterialStore getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public boolean addMaterial(Material material) {
+        if (!metrics.isEnabled()) {
+            return delegate.addMaterial(material);
+        }
+        return timed("addMaterial", () -> delegate.addMaterial(material), added -> added ? 1 : 0);
+    }
+
+    @Override
+    public Optional<Material> removeMaterial(String id) {
+        if (!metrics.isEnabled()) {
+            return delegate.removeMaterial(id);
+        }
+        return timed("removeMaterial", () -> delegate.removeMaterial(id), InstrumentedMaterialStore::sizeOf);
+    }
+
+    @Override
+    public Optional<Material> findById(String id) {
+        if (!metrics.isEnabled()) {
+            return delegate.findById(id);
+        }
+        return timed("findById", () -> delegate.findById(id), InstrumentedMaterialStore::sizeOf);
+    }
+
+    @Override
+    public List<Material> searchByTitle(String title) {
+        if (!metrics.isEnabled()) {
+            return delegate.searchByTitle(title);
+        }
+        return timed("searchByTitle", () -> delegate.searchByTitle(title), List::size);
+    }
+
+    @Override
+    public List<Material> searchByCreator(String creator) {
+        if (!metrics.isEnabled()) {
+            return delegate.searchByCreator(creator);
+        }
+        return timed("searchByCreator", () -> delegate.searchByCreator(creator), List::size);
+    }
+
+    @Override
+    public List<Material> getMaterialsByType(Material.MaterialType type) {
+        if (!metrics.isEnabled()) {
+            return delegate.getMaterialsByType(type);
+        }
+        return timed("getMaterialsByType", () -> delegate.getMaterialsByType(type), List::size);
+    }
+
+    @Override
+    public List<Media> getMediaMaterials() {
+        if (!metrics.isEnabled()) {
+            return delegate.getMediaMaterials();
+        }
+        return timed("getMediaMaterials", delegate::getMediaMaterials, List::size);
+    }
+
+    @Override
+    public List<Material> filterMaterials(Predicate<Material> predicate) {
+        if (!metrics.isEnabled()) {
+            return delegate.filterMaterials(predicate);
+        }
+        return timed("filterMaterials", () -> delegate.filterMaterials(predicate), List::size);
+    }
+
+    @Override
+    public List<Material> findRecentMaterials(int years) {
+        if (!metrics.isEnabled()) {
+            return delegate.findRecentMaterials(years);
+        }
+        return timed("findRecentMaterials", () -> delegate.findRecentMaterials(years), List::size);
+    }
+
+    @Override
+    public List<Material> findByCreators(String... creators) {
+        if (!metrics.isEnabled()) {
+            return delegate.findByCreators(creators);
+        }
+        return timed("findByCreators", () -> delegate.findByCreators(creators), List::size);
+    }
+
+    @Override
+    public List<Material> findWithPredicate(Predicate<Material> condition) {
+        if (!metrics.isEnabled()) {
+            return delegate.findWithPredicate(condition);
+        }
+        return timed("findWithPredicate", () -> delegate.findWithPredicate(condition), List::size);
+    }
+
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator) {
+        if (!metrics.isEnabled()) {
+            return delegate.getSorted(comparator);
+        }
+        return timed("getSorted", () -> delegate.getSorted(comparator), List::size);
+    }
+
+    @Override
+    public List<Material> getMaterialsByPriceRange(double minPrice, double maxPrice) {
+        if (!metrics.isEnabled()) {
+            return delegate.getMaterialsByPriceRange(minPrice, maxPrice);
+        }
+        return timed("getMaterialsByPriceRange",
+                     () -> delegate.getMaterialsByPriceRange(minPrice, maxPrice), List::size);
+    }
+
+    @Override
+    public List<Material> getMaterialsByYear(int year) {
+        if (!metrics.isEnabled()) {
+            return delegate.getMaterialsByYear(year);
+        }
+        return timed("getMaterialsByYear", () -> delegate.getMaterialsByYear(year), List::size);
+    }
+
+    @Override
+    public List<Material> getAllMaterialsSorted() {
+        if (!metrics.isEnabled()) {
+            return delegate.getAllMaterialsSorted();
+        }
+        return timed("getAllMaterialsSorted", delegate::getAllMaterialsSorted, List::size);
+    }
+
+    @Override
+    public List<Material> getAllMaterials() {
+        if (!metrics.isEnabled()) {
+            return delegate.getAllMaterials();
+        }
+        return timed("getAllMaterials", delegate::getAllMaterials, List::size);
+    }
+
+    @Override
+    public double getTotalInventoryValue() {
+        if (!metrics.isEnabled()) {
+            return delegate.getTotalInventoryValue();
+        }
+        return timed("getTotalInventoryValue", delegate::getTotalInventoryValue, value -> 0);
+    }
+
+    @Override
+    public double getTotalDiscountedValue() {
+        if (!metrics.isEnabled()) {
+            return delegate.getTotalDiscountedValue();
+        }
+        return timed("getTotalDiscountedValue", delegate::getTotalDiscountedValue, value -> 0);
+    }
+
+    @Override
+    public InventoryStats getInventoryStats() {
+        if (!metrics.isEnabled()) {
+            return delegate.getInventoryStats();
+        }
+        return timed("getInventoryStats", delegate::getInventoryStats, stats -> 0);
+    }
+
+    @Override
+    public void clearInventory() {
+        if (!metrics.isEnabled()) {
+            delegate.clearInventory();
+            return;
+        }
+        timed("clearInventory", () -> {
+            delegate.clearInventory();
+            return null;
+        }, nothing -> 0);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public Stream<Material> stream() {
+        return delegate.stream();
+    }
+
+    @Override
+    public Stream<Material> streamMatching(Predicate<Material> condition) {
+        return delegate.streamMatching(condition);
+    }
+
+    @Override
+    public Stream<Material> streamByTitle(String title) {
+        return delegate.streamByTitle(title);
+    }
+
+    @Override
+    public Stream<Material> streamByCreator(String creator) {
+        return delegate.streamByCreator(creator);
+    }
+
+    @Override
+    public Stream<Material> streamByType(Material.MaterialType type) {
+        return delegate.streamByType(type);
+    }
+
+    @Override
+    public List<Material> findWithPredicate(Predicate<Material> condition, int offset, int limit) {
+        if (!metrics.isEnabled()) {
+            return delegate.findWithPredicate(condition, offset, limit);
+        }
+        return timed("findWithPredicatePage",
+                     () -> delegate.findWithPredicate(condition, offset, limit), List::size);
+    }
+
+    @Override
+    public List<Material> searchByTitle(String title, int offset, int limit) {
+        if (!metrics.isEnabled()) {
+            return delegate.searchByTitle(title, offset, limit);
+        }
+        return timed("searchByTitlePage", () -> delegate.searchByTitle(title, offset, limit), List::size);
+    }
+
+    @Override
+    public List<Material> searchByCreator(String creator, int offset, int limit) {
+        if (!metrics.isEnabled()) {
+            return delegate.searchByCreator(creator, offset, limit);
+        }
+        return timed("searchByCreatorPage", () -> delegate.searchByCreator(creator, offset, limit), List::size);
+    }
+
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator, int k) {
+        if (!metrics.isEnabled()) {
+            return delegate.getSorted(comparator, k);
+        }
+        return timed("getSortedTopK", () -> delegate.getSorted(comparator, k), List::size);
+    }
+
+    private <T> T timed(String operation, Supplier<T> call, ToIntFunction<? super T> resultSize) {
+        StoreMetrics.OperationMetrics target = metrics.operation(operation);
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            target.recordFailure(System.nanoTime() - start);
+            throw e;
+        }
+        target.record(System.nanoTime() - start, resultSize.applyAsInt(result));
+        return result;
+    }
+
+    private static int sizeOf(Optional<?> result) {
+        return result.isPresent() ? 1 : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Instrumented[" + delegate + "]";
+    }
+}
@@ -0,0 +1,334 @@
+package com.university.bookstore.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of hot-path metrics for a {@link com.university.bookstore.api.MaterialStore}.
+ *
+ * <p>Holds a latency histogram, call count and result-size total per operation, plus
+ * index rebuild durations and lock wait times reported by stores that support them.
+ * {@link #snapshot()} returns an immutable copy for programmatic use, and
+ * {@link #registerMBean(String)} publishes the same numbers over JMX.</p>
+ *
+ * <p>When disabled, instrumented call sites skip timing entirely after one volatile read.
+ * All methods are thread-safe.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public class StoreMetrics implements StoreMetricsMXBean {
+
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private final ConcurrentHashMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final LatencyHistogram indexRebuilds = new LatencyHistogram();
+    private final LatencyHistogram lockWaits = new LatencyHistogram();
+    private volatile boolean enabled = true;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the metrics of one operation, creating them on first use.
+     *
+     * @param name the operation name, usually the method name
+     * @return the operation's metrics
+     */
+    public OperationMetrics operation(String name) {
+        Objects.requireNonNull(name, "Operation name cannot be null");
+        OperationMetrics metrics = operations.get(name);
+        return metrics != null ? metrics : operations.computeIfAbsent(name, n -> new OperationMetrics());
+    }
+
+    /**
+     * Records one rebuild of a store's scan snapshot or secondary indexes.
+     *
+     * @param nanos how long the rebuild held its lock
+     */
+    public void recordIndexRebuild(long nanos) {
+        indexRebuilds.record(nanos);
+    }
+
+    /**
+     * Records time spent waiting to acquire a store's index lock.
+     *
+     * @param nanos the wait
+     */
+    public void recordLockWait(long nanos) {
+        lockWaits.record(nanos);
+    }
+
+    public LatencyHistogram getIndexRebuilds() { return indexRebuilds; }
+    public LatencyHistogram getLockWaits() { return lockWaits; }
+
+    /**
+     * Copies the current values of every metric.
+     *
+     * @return an immutable snapshot
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, OperationSnapshot> copies = new TreeMap<>();
+        operations.forEach((name, metrics) -> copies.put(name, metrics.snapshot(name)));
+        return new MetricsSnapshot(Collections.unmodifiableMap(copies),
+                                   OperationSnapshot.of("indexRebuild", indexRebuilds, 0),
+                                   OperationSnapshot.of("lockWait", lockWaits, 0));
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server under
+     * {@code com.university.bookstore:type=StoreMetrics,name=<name>}.
+     *
+     * @param name distinguishes this store from others in the same JVM
+     * @return the registered object name
+     * @throws IllegalStateException if registration fails, for example on a duplicate name
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = objectName(name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register store metrics MBean: " + name, e);
+        }
+    }
+
+    /**
+     * Removes a registration made by {@link #registerMBean(String)}. Unknown names are ignored.
+     *
+     * @param name the name used at registration
+     */
+    public static void unregisterMBean(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister store metrics MBean: " + name, e);
+        }
+    }
+
+    private static ObjectName objectName(String name) throws JMException {
+        return new ObjectName("com.university.bookstore:type=StoreMetrics,name=" + ObjectName.quote(name));
+    }
+
+    @Override
+    public Map<String, Long> getCallCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        operations.forEach((name, metrics) -> result.put(name, metrics.latency.getCount()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getMeanLatencyMicros() {
+        return perOperation(metrics -> metrics.latency.getMean() / NANOS_PER_MICRO);
+    }
+
+    @Override
+    public Map<String, Double> getP99LatencyMicros() {
+        return perOperation(metrics -> metrics.latency.getValueAtPercentile(99.0) / NANOS_PER_MICRO);
+    }
+
+    @Override
+    public Map<String, Double> getMeanResultSizes() {
+        return perOperation(OperationMetrics::getMeanResultSize);
+    }
+
+    @Override
+    public long getIndexRebuildCount() {
+        return indexRebuilds.getCount();
+    }
+
+    @Override
+    public double getIndexRebuildMeanMicros() {
+        return indexRebuilds.getMean() / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getLockWaitP99Micros() {
+        return lockWaits.getValueAtPercentile(99.0) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getLockWaitTotalMillis() {
+        return lockWaits.getSum() / 1_000_000.0;
+    }
+
+    @Override
+    public void reset() {
+        operations.values().forEach(OperationMetrics::reset);
+        indexRebuilds.reset();
+        lockWaits.reset();
+    }
+
+    private Map<String, Double> perOperation(ToDoubleFunction<OperationMetrics> value) {
+        Map<String, Double> result = new TreeMap<>();
+        operations.forEach((name, metrics) -> result.put(name, value.applyAsDouble(metrics)));
+        return result;
+    }
+
+    /**
+     * Latency, call count, failures and result sizes of one operation.
+     */
+    public static final class OperationMetrics {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder resultTotal = new LongAdder();
+
+        OperationMetrics() {
+        }
+
+        /**
+         * Records a completed call.
+         *
+         * @param nanos the call's latency
+         * @param resultSize number of results returned, or 0 for scalar results
+         */
+        public void record(long nanos, int resultSize) {
+            latency.record(nanos);
+            resultTotal.add(resultSize);
+        }
+
+        /**
+         * Records a call that threw.
+         *
+         * @param nanos the call's latency
+         */
+        public void recordFailure(long nanos) {
+            latency.record(nanos);
+            failures.increment();
+        }
+
+        public LatencyHistogram getLatency() { return latency; }
+        public long getFailureCount() { return failures.sum(); }
+
+        public double getMeanResultSize() {
+            long calls = latency.getCount();
+            return calls == 0 ? 0.0 : (double) resultTotal.sum() / calls;
+        }
+
+        OperationSnapshot snapshot(String name) {
+            return OperationSnapshot.of(name, latency, failures.sum(), getMeanResultSize());
+        }
+
+        void reset() {
+            latency.reset();
+            failures.reset();
+            resultTotal.reset();
+        }
+    }
+
+    /**
+     * Immutable copy of one histogram's summary. Latencies are in nanoseconds.
+     */
+    public static final class OperationSnapshot {
+        private final String name;
+        private final long count;
+        private final long failures;
+        private final double mean;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long p999;
+        private final long max;
+        private final double meanResultSize;
+
+        private OperationSnapshot(String name, LatencyHistogram histogram, long failures, double meanResultSize) {
+            this.name = name;
+            this.count = histogram.getCount();
+            this.failures = failures;
+            this.mean = histogram.getMean();
+            this.p50 = histogram.getValueAtPercentile(50.0);
+            this.p90 = histogram.getValueAtPercentile(90.0);
+            this.p99 = histogram.getValueAtPercentile(99.0);
+            this.p999 = histogram.getValueAtPercentile(99.9);
+            this.max = histogram.getMax();
+            this.meanResultSize = meanResultSize;
+        }
+
+        static OperationSnapshot of(String name, LatencyHistogram histogram, long failures) {
+            return new OperationSnapshot(name, histogram, failures, 0.0);
+        }
+
+        static OperationSnapshot of(String name, LatencyHistogram histogram, long failures, double meanResultSize) {
+            return new OperationSnapshot(name, histogram, failures, meanResultSize);
+        }
+
+        public String getName() { return name; }
+        public long getCount() { return count; }
+        public long getFailures() { return failures; }
+        public double getMeanNanos() { return mean; }
+        public long getP50Nanos() { return p50; }
+        public long getP90Nanos() { return p90; }
+        public long getP99Nanos() { return p99; }
+        public long getP999Nanos() { return p999; }
+        public long getMaxNanos() { return max; }
+        public double getMeanResultSize() { return meanResultSize; }
+
+        @Override
+        public String toString() {
+            return String.format("%s[Count=%d, Mean=%.1fus, P99=%.1fus, Max=%.1fus]",
+                name, count, mean / NANOS_PER_MICRO, p99 / NANOS_PER_MICRO, max / NANOS_PER_MICRO);
+        }
+    }
+
+    /**
+     * Immutable copy of all metrics of a store at one point in time.
+     */
+    public static final class MetricsSnapshot {
+        private final Map<String, OperationSnapshot> operations;
+        private final OperationSnapshot indexRebuilds;
+        private final OperationSnapshot lockWaits;
+
+        MetricsSnapshot(Map<String, OperationSnapshot> operations,
+                        OperationSnapshot indexRebuilds, OperationSnapshot lockWaits) {
+            this.operations = operations;
+            this.indexRebuilds = indexRebuilds;
+            this.lockWaits = lockWaits;
+        }
+
+        /**
+         * Gets the snapshot of every operation that was called, by name.
+         *
+         * @return unmodifiable map sorted by name
+         */
+        public Map<String, OperationSnapshot> getOperations() { return operations; }
+
+        /**
+         * Gets one operation's snapshot.
+         *
+         * @param name the operation name
+         * @return the snapshot, or null if the operation was never called
+         */
+        public OperationSnapshot getOperation(String name) { return operations.get(name); }
+
+        public OperationSnapshot getIndexRebuilds() { return indexRebuilds; }
+        public OperationSnapshot getLockWaits() { return lockWaits; }
+
+        @Override
+        public String toString() {
+            return String.format("MetricsSnapshot[Operations=%s, Rebuilds=%s, LockWaits=%s]",
+                operations.values(), indexRebuilds, lockWaits);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.university.bookstore.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link StoreMetrics}. Latencies are reported in microseconds.
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public interface StoreMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /** Calls per operation name. */
+    Map<String, Long> getCallCounts();
+
+    /** Mean latency per operation name. */
+    Map<String, Double> getMeanLatencyMicros();
+
+    /** 99th percentile latency per operation name. */
+    Map<String, Double> getP99LatencyMicros();
+
+    /** Mean result size per operation name, for operations that return collections. */
+    Map<String, Double> getMeanResultSizes();
+
+    long getIndexRebuildCount();
+
+    double getIndexRebuildMeanMicros();
+
+    double getLockWaitP99Micros();
+
+    double getLockWaitTotalMillis();
+
+    /** Clears every recorded value. */
+    void reset();
+}
@@ -1,5 +1,8 @@
 package com.university.bookstore.model;
 
+import com.university.bookstore.visitor.MaterialResultVisitor;
+import com.university.bookstore.visitor.MaterialVisitor;
+
 /**
  * Represents an audio book that implements both Material and Media interfaces.
  * Demonstrates multiple inheritance through interfaces.
@@ -43,14 +46,14 @@ public class AudioBook extends Material implements Media {
                      boolean unabridged) {
         super(validateIsbn(isbn), title, price, year, MaterialType.AUDIO_BOOK);
         this.isbn = this.id;
-        this.author = validateStringField(author, "Author");
-        this.narrator = validateStringField(narrator, "Narrator");
+        this.author = sharedName(validateStringField(author, "Author"));
+        this.narrator = sharedName(validateStringField(narrator, "Narrator"));
         this.duration = validateDuration(duration);
-        this.format = validateStringField(format, "Format");
+        this.format = canonical(validateStringField(format, "Format"));
         this.fileSize = validateFileSize(fileSize);
         this.streamingOnly = false;
         this.quality = quality != null ? quality : MediaQuality.STANDARD;
-        this.language = validateStringField(language, "Language");
+        this.language = canonical(validateStringField(language, "Language"));
         this.unabridged = unabridged;
     }
     
@@ -86,6 +89,16 @@ public class AudioBook extends Material implements Media {
         return author + " (Narrated by " + narrator + ")";
     }
     
+    @Override
+    public void accept(MaterialVisitor visitor) {
+        visitor.visit(this);
+    }
+    
+    @Override
+    public <R> R accept(MaterialResultVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+    
     @Override
     public String getDisplayInfo() {
         return String.format("%s by %s, narrated by %s - %s, %d hours %d minutes, $%.2f",
@@ -3,6 +3,9 @@ package com.university.bookstore.model;
 import java.util.Objects;
 import java.util.Set;
 
+import com.university.bookstore.visitor.MaterialResultVisitor;
+import com.university.bookstore.visitor.MaterialVisitor;
+
 /**
  * Represents an electronic book (e-book) in the bookstore system.
  * Extends Material and implements Media interface to demonstrate
@@ -47,8 +50,8 @@ public class EBook extends Material implements Media {
                  String fileFormat, double fileSize, boolean drmEnabled, 
                  int wordCount, MediaQuality quality) {
         super(id, title, price, year, MaterialType.E_BOOK);
-        this.author = validateStringField(author, "Author");
-        this.fileFormat = validateFileFormat(fileFormat);
+        this.author = sharedName(validateStringField(author, "Author"));
+        this.fileFormat = canonical(validateFileFormat(fileFormat));
         this.fileSize = validateFileSize(fileSize);
         this.drmEnabled = drmEnabled;
         this.wordCount = validateWordCount(wordCount);
@@ -114,6 +117,16 @@ public class EBook extends Material implements Media {
         return author;
     }
     
+    @Override
+    public void accept(MaterialVisitor visitor) {
+        visitor.visit(this);
+    }
+    
+    @Override
+    public <R> R accept(MaterialResultVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+    
     @Override
     public String getDisplayInfo() {
         return String.format("EBook: %s by %s (%s, %.1f MB, %s, %d words)", 
@@ -1,5 +1,8 @@
 package com.university.bookstore.model;
 
+import com.university.bookstore.visitor.MaterialResultVisitor;
+import com.university.bookstore.visitor.MaterialVisitor;
+
 /**
  * Represents a magazine in the store inventory.
  * Demonstrates inheritance from Material base class.
@@ -55,10 +58,10 @@ public class Magazine extends Material {
                     int year, int issueNumber, String frequency, String category) {
         super(validateIssn(issn), title, price, year, MaterialType.MAGAZINE);
         this.issn = this.id;
-        this.publisher = validateStringField(publisher, "Publisher");
+        this.publisher = sharedName(validateStringField(publisher, "Publisher"));
         this.issueNumber = validateIssueNumber(issueNumber);
-        this.frequency = validateStringField(frequency, "Frequency");
-        this.category = validateStringField(category, "Category");
+        this.frequency = canonical(validateStringField(frequency, "Frequency"));
+        this.category = canonical(validateStringField(category, "Category"));
     }
     
     private static String validateIssn(String issn) {
@@ -89,6 +92,16 @@ public class Magazine extends Material {
         return publisher;
     }
     
+    @Override
+    public void accept(MaterialVisitor visitor) {
+        visitor.visit(this);
+    }
+    
+    @Override
+    public <R> R accept(MaterialResultVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+    
     @Override
     public String getDisplayInfo() {
         return String.format("%s - Issue #%d (%s %d) - %s, $%.2f",
@@ -3,6 +3,12 @@ package com.university.bookstore.model;
 import java.time.Year;
 import java.util.Objects;
 
+import com.university.bookstore.utils.Money;
+import com.university.bookstore.utils.StringDictionary;
+import com.university.bookstore.utils.WeakStringPool;
+import com.university.bookstore.visitor.MaterialResultVisitor;
+import com.university.bookstore.visitor.MaterialVisitor;
+
 /**
  * Abstract base class representing any material in the store inventory.
  * Demonstrates abstraction and inheritance in OOP design.
@@ -21,6 +27,7 @@ public abstract class Material implements Comparable<Material> {
     protected final String id;
     protected final String title;
     protected final double price;
+    protected final long priceUnits;
     protected final int year;
     protected final MaterialType type;
     
@@ -61,6 +68,7 @@ public abstract class Material implements Comparable<Material> {
         this.id = validateId(id);
         this.title = validateStringField(title, "Title");
         this.price = validatePrice(price);
+        this.priceUnits = Money.toUnits(this.price);
         this.year = validateYear(year);
         this.type = Objects.requireNonNull(type, "Material type cannot be null");
     }
@@ -91,6 +99,15 @@ public abstract class Material implements Comparable<Material> {
         return price * (1.0 - getDiscountRate());
     }
     
+    /**
+     * Discounted price as fixed-point {@link Money} units, for exact running totals.
+     * 
+     * @return discounted price in units
+     */
+    public final long getDiscountedPriceUnits() {
+        return Money.discount(priceUnits, getDiscountRate());
+    }
+    
     /**
      * Hook method for discount rate. Default is no discount.
      * Subclasses can override to provide type-specific discounts.
@@ -101,6 +118,56 @@ public abstract class Material implements Comparable<Material> {
         return 0.0;
     }
     
+    /**
+     * Double-dispatch entry point for visitors. Each concrete material type
+     * overrides this to call the matching visit overload.
+     *
+     * @param visitor the visitor to accept
+     * @throws IllegalArgumentException if this material type has no visit overload
+     */
+    public void accept(MaterialVisitor visitor) {
+        throw unsupportedVisitor();
+    }
+    
+    /**
+     * Double-dispatch entry point for result-returning visitors.
+     *
+     * @param <R> the result type
+     * @param visitor the visitor to accept
+     * @return the visitor's result for this material
+     * @throws IllegalArgumentException if this material type has no visit overload
+     */
+    public <R> R accept(MaterialResultVisitor<R> visitor) {
+        throw unsupportedVisitor();
+    }
+    
+    private IllegalArgumentException unsupportedVisitor() {
+        return new IllegalArgumentException("Unsupported material type: " + getClass().getSimpleName());
+    }
+    
+    /**
+     * Swaps a frequently repeated field value for its shared canonical instance. Only for
+     * fields with a small, bounded set of values such as formats, languages and ratings;
+     * the shared dictionary never forgets a value.
+     * 
+     * @param value the validated value
+     * @return the canonical instance
+     */
+    protected static String canonical(String value) {
+        return StringDictionary.shared().intern(value);
+    }
+    
+    /**
+     * Swaps a repeated name such as an author or publisher for its pooled instance. The
+     * pool forgets a name once no material holds it, so open-ended values are safe here.
+     * 
+     * @param value the validated value
+     * @return the pooled instance
+     */
+    protected static String sharedName(String value) {
+        return WeakStringPool.shared().intern(value);
+    }
+    
     protected String validateId(String id) {
         if (id == null) {
             throw new NullPointerException("ID cannot be null");
@@ -155,6 +222,15 @@ public abstract class Material implements Comparable<Material> {
         return price;
     }
     
+    /**
+     * Price as fixed-point {@link Money} units, rounded once at construction.
+     * 
+     * @return price in units
+     */
+    public long getPriceUnits() {
+        return priceUnits;
+    }
+    
     public int getYear() {
         return year;
     }
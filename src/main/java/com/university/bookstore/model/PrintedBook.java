@@ -2,6 +2,9 @@ package com.university.bookstore.model;
 
 import java.util.regex.Pattern;
 
+import com.university.bookstore.visitor.MaterialResultVisitor;
+import com.university.bookstore.visitor.MaterialVisitor;
+
 /**
  * Represents a physical printed book in the bookstore inventory.
  * Extends Material class to demonstrate inheritance.
@@ -40,9 +43,9 @@ public class PrintedBook extends Material {
                        int year, int pages, String publisher, boolean hardcover) {
         super(validateIsbn(isbn), title, price, year, MaterialType.BOOK);
         this.isbn = this.id;
-        this.author = validateStringField(author, "Author");
+        this.author = sharedName(validateStringField(author, "Author"));
         this.pages = validatePages(pages);
-        this.publisher = validateStringField(publisher, "Publisher");
+        this.publisher = sharedName(validateStringField(publisher, "Publisher"));
         this.hardcover = hardcover;
     }
     
@@ -81,6 +84,16 @@ public class PrintedBook extends Material {
         return author;
     }
     
+    @Override
+    public void accept(MaterialVisitor visitor) {
+        visitor.visit(this);
+    }
+    
+    @Override
+    public <R> R accept(MaterialResultVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+    
     @Override
     public String getDisplayInfo() {
         return String.format("%s by %s (%d, %s) - %d pages, $%.2f",
@@ -3,6 +3,9 @@ package com.university.bookstore.model;
 import java.util.Arrays;
 import java.util.List;
 
+import com.university.bookstore.visitor.MaterialResultVisitor;
+import com.university.bookstore.visitor.MaterialVisitor;
+
 /**
  * Represents video content (movies, documentaries, educational videos).
  * Implements both Material and Media interfaces to demonstrate multiple inheritance.
@@ -71,16 +74,16 @@ public class VideoMaterial extends Material implements Media {
                         List<String> cast, boolean subtitlesAvailable, String aspectRatio) {
         super(id, title, price, year, 
               videoType == VideoType.DOCUMENTARY ? MaterialType.DOCUMENTARY : MaterialType.VIDEO);
-        this.director = validateStringField(director, "Director");
+        this.director = sharedName(validateStringField(director, "Director"));
         this.duration = validateDuration(duration);
-        this.format = validateStringField(format, "Format");
+        this.format = canonical(validateStringField(format, "Format"));
         this.fileSize = validateFileSize(fileSize);
         this.quality = quality != null ? quality : MediaQuality.HD;
         this.videoType = videoType != null ? videoType : VideoType.MOVIE;
-        this.rating = rating != null ? rating : "NR";
+        this.rating = rating != null ? canonical(rating) : "NR";
         this.cast = cast != null ? cast : Arrays.asList();
         this.subtitlesAvailable = subtitlesAvailable;
-        this.aspectRatio = aspectRatio != null ? aspectRatio : "16:9";
+        this.aspectRatio = aspectRatio != null ? canonical(aspectRatio) : "16:9";
     }
     
     private int validateDuration(int duration) {
@@ -104,6 +107,16 @@ public class VideoMaterial extends Material implements Media {
         return director;
     }
     
+    @Override
+    public void accept(MaterialVisitor visitor) {
+        visitor.visit(this);
+    }
+    
+    @Override
+    public <R> R accept(MaterialResultVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+    
     @Override
     public String getDisplayInfo() {
         return String.format("%s (%d) - Directed by %s, %s, %d min, Rated %s, $%.2f",
@@ -0,0 +1,319 @@
+package com.university.bookstore.replication;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.university.bookstore.events.ChangeEvent;
+import com.university.bookstore.impl.MaterialBatch;
+import com.university.bookstore.impl.MaterialStoreConcurrentImpl;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.storage.MaterialCodec;
+
+/**
+ * Keeps a {@link MaterialStoreConcurrentImpl} in step with a {@link ReplicationLeader}.
+ *
+ * <p>The follower connects, reports the leader feed and last sequence its store reflects
+ * and applies whatever the leader sends: a snapshot that replaces the store's contents,
+ * then log batches in sequence order. If the connection drops, it reconnects and resumes
+ * after its last applied sequence, so only a follower that fell out of the leader's
+ * retention window, or whose leader restarted with a new feed, is sent a snapshot
+ * again.</p>
+ *
+ * <p>The store must not be written by anyone else. Readers may query it at any time. A
+ * snapshot is collected in full before it is applied, then swapped in as one
+ * {@link MaterialBatch} that replaces every material it contains and removes the ones it
+ * does not, followed by a single scan snapshot rebuild. Readers keep seeing the previous
+ * catalog until the swap.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public class ReplicationFollower implements Closeable {
+
+    /** Default pause before reconnecting after the connection to the leader drops. */
+    public static final long DEFAULT_RETRY_MILLIS = 200;
+
+    private final MaterialStoreConcurrentImpl store;
+    private final InetSocketAddress leaderAddress;
+    private final long retryMillis;
+    private final Thread worker;
+
+    private final Object progress = new Object();
+    private volatile long feedId;
+    private volatile long appliedSequence;
+    private volatile long leaderSequence;
+    private volatile long lastAppliedTimestamp;
+    private volatile long batchesApplied;
+    private volatile int snapshotsLoaded;
+    private volatile boolean connected;
+    private volatile boolean closed;
+    private volatile SocketChannel channel;
+
+    // Materials of the snapshot being received, and the feed and sequence it reflects
+    private List<Material> pendingSnapshot;
+    private long pendingFeedId;
+    private long pendingSequence;
+
+    /**
+     * Creates a follower for an empty store.
+     *
+     * @param store the replica store
+     * @param leaderAddress where the leader listens
+     */
+    public ReplicationFollower(MaterialStoreConcurrentImpl store, InetSocketAddress leaderAddress) {
+        this(store, leaderAddress, 0L, 0L, DEFAULT_RETRY_MILLIS);
+    }
+
+    /**
+     * Creates a follower for a store that already reflects the leader's log up to a
+     * sequence, such as a replica restarted with its data intact. The feed ID and sequence
+     * are the ones {@link #getFeedId()} and {@link #getAppliedSequence()} reported; if the
+     * leader's feed has another ID, the store is resynchronized from a snapshot.
+     *
+     * @param store the replica store
+     * @param leaderAddress where the leader listens
+     * @param feedId the leader feed the store follows, 0 for none
+     * @param appliedSequence the last sequence of that feed the store reflects, 0 for none
+     * @param retryMillis pause before reconnecting
+     */
+    public ReplicationFollower(MaterialStoreConcurrentImpl store, InetSocketAddress leaderAddress,
+                               long feedId, long appliedSequence, long retryMillis) {
+        this.store = Objects.requireNonNull(store, "Store cannot be null");
+        this.leaderAddress = Objects.requireNonNull(leaderAddress, "Leader address cannot be null");
+        if (appliedSequence < 0) {
+            throw new IllegalArgumentException("Applied sequence cannot be negative: " + appliedSequence);
+        }
+        this.feedId = feedId;
+        this.appliedSequence = appliedSequence;
+        this.retryMillis = retryMillis;
+        this.worker = new Thread(this::run, "replication-follower");
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Starts following the leader in a background thread.
+     *
+     * @return this follower
+     */
+    public ReplicationFollower start() {
+        worker.start();
+        return this;
+    }
+
+    public MaterialStoreConcurrentImpl getStore() { return store; }
+    public long getFeedId() { return feedId; }
+    public long getAppliedSequence() { return appliedSequence; }
+    public long getBatchesApplied() { return batchesApplied; }
+    public int getSnapshotsLoaded() { return snapshotsLoaded; }
+    public boolean isConnected() { return connected; }
+
+    /**
+     * Gets the leader's latest sequence as of the last frame received.
+     *
+     * @return the leader sequence
+     */
+    public long getLeaderSequence() {
+        return leaderSequence;
+    }
+
+    /**
+     * Gets how many of the leader's log entries this follower has not applied yet.
+     *
+     * @return the lag in entries
+     */
+    public long getLagEntries() {
+        return Math.max(0L, leaderSequence - appliedSequence);
+    }
+
+    /**
+     * Gets how long ago the last applied entry was written on the leader, while entries
+     * are outstanding.
+     *
+     * @return the lag in milliseconds, 0 when caught up
+     */
+    public long getLagMillis() {
+        if (getLagEntries() == 0 || lastAppliedTimestamp == 0) {
+            return 0L;
+        }
+        return Math.max(0L, System.currentTimeMillis() - lastAppliedTimestamp);
+    }
+
+    /**
+     * Waits until the store reflects a leader sequence.
+     *
+     * @param sequence the sequence to wait for
+     * @param timeout how long to wait
+     * @param unit the unit of the timeout
+     * @return whether the sequence was applied in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitSequence(long sequence, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (progress) {
+            while (appliedSequence < sequence) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(progress, remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Disconnects and stops following.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        SocketChannel current = channel;
+        if (current != null) {
+            current.close();
+        }
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (!closed) {
+            try (SocketChannel socket = SocketChannel.open(leaderAddress)) {
+                socket.socket().setTcpNoDelay(true);
+                channel = socket;
+                connected = true;
+                pendingSnapshot = null;
+                ReplicationProtocol.write(socket,
+                    ReplicationProtocol.feedFrame(ReplicationProtocol.HELLO, feedId, appliedSequence));
+                while (!closed) {
+                    apply(ReplicationProtocol.read(socket), socket);
+                }
+            } catch (IOException e) {
+                // Leader unreachable or connection lost; retry below
+            } finally {
+                connected = false;
+                channel = null;
+            }
+            if (!closed) {
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(ReplicationProtocol.Frame frame, SocketChannel socket) throws IOException {
+        DataInputStream in = frame.body;
+        switch (frame.type) {
+            case ReplicationProtocol.SNAPSHOT_BEGIN -> {
+                pendingFeedId = in.readLong();
+                pendingSequence = in.readLong();
+                pendingSnapshot = new ArrayList<>();
+            }
+            case ReplicationProtocol.SNAPSHOT_CHUNK -> {
+                if (pendingSnapshot == null) {
+                    throw new IOException("Snapshot chunk outside a snapshot");
+                }
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    pendingSnapshot.add(MaterialCodec.read(in));
+                }
+            }
+            case ReplicationProtocol.SNAPSHOT_END -> {
+                if (pendingSnapshot == null || in.readLong() != pendingFeedId || in.readLong() != pendingSequence) {
+                    throw new IOException("Snapshot end does not match its beginning");
+                }
+                installSnapshot(pendingSnapshot);
+                pendingSnapshot = null;
+                feedId = pendingFeedId;
+                leaderSequence = pendingSequence;
+                snapshotsLoaded++;
+                advance(pendingSequence, 0L);
+                acknowledge(socket);
+            }
+            case ReplicationProtocol.BATCH -> {
+                if (in.readLong() != feedId) {
+                    // Reconnecting with our feed ID makes the leader send a snapshot
+                    throw new IOException("Replication batch from another leader feed");
+                }
+                leaderSequence = in.readLong();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    applyEntry(in);
+                }
+                if (count > 0) {
+                    batchesApplied++;
+                }
+                acknowledge(socket);
+            }
+            default -> throw new IOException("Unexpected replication frame " + frame.type);
+        }
+    }
+
+    /**
+     * Replaces the store's contents with a received snapshot in one batch, so readers go
+     * straight from the previous catalog to the new one, then rebuilds the scan snapshot
+     * once.
+     */
+    private void installSnapshot(List<Material> materials) {
+        MaterialBatch batch = new MaterialBatch();
+        Set<String> ids = new HashSet<>();
+        for (Material material : materials) {
+            batch.replace(material);
+            ids.add(material.getId());
+        }
+        for (Material material : store.getAllMaterials()) {
+            if (!ids.contains(material.getId())) {
+                batch.remove(material.getId());
+            }
+        }
+        store.applyBatch(batch);
+        store.refreshScanSnapshot();
+    }
+
+    private void applyEntry(DataInputStream in) throws IOException {
+        long sequence = in.readLong();
+        long timestamp = in.readLong();
+        ChangeEvent.Type type = ReplicationProtocol.readEventType(in);
+        if (sequence != appliedSequence + 1) {
+            // Reconnecting resumes from the last applied sequence
+            throw new IOException(String.format("Replication gap: expected %d, got %d",
+                appliedSequence + 1, sequence));
+        }
+        switch (type) {
+            case ADDED -> store.addMaterial(MaterialCodec.read(in));
+            case REMOVED -> store.removeMaterial(in.readUTF());
+            case CLEARED -> store.clearInventory();
+        }
+        advance(sequence, timestamp);
+    }
+
+    private void advance(long sequence, long timestamp) {
+        synchronized (progress) {
+            appliedSequence = sequence;
+            lastAppliedTimestamp = timestamp;
+            progress.notifyAll();
+        }
+    }
+
+    private void acknowledge(SocketChannel socket) throws IOException {
+        ReplicationProtocol.write(socket,
+            ReplicationProtocol.sequenceFrame(ReplicationProtocol.ACK, appliedSequence));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ReplicationFollower[Leader=%s, Feed=%x, Applied=%d, Lag=%d, Connected=%b]",
+            leaderAddress, feedId, appliedSequence, getLagEntries(), connected);
+    }
+}
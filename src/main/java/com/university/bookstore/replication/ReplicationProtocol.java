@@ -0,0 +1,161 @@
+package com.university.bookstore.replication;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+
+import com.university.bookstore.events.ChangeEvent;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.storage.MaterialCodec;
+
+/**
+ * Framing and encoding of the replication stream.
+ *
+ * <p>Every frame is {@code [int bodyLength][byte type][body]}. Sequences are only
+ * comparable within one {@link com.university.bookstore.events.ChangeFeed}, so
+ * {@link #HELLO}, {@link #SNAPSHOT_BEGIN}, {@link #SNAPSHOT_END} and {@link #BATCH} all
+ * start with the feed ID. Followers send {@link #HELLO} with the feed ID and last
+ * sequence their store reflects (0 and 0 for none), then {@link #ACK}s. The leader
+ * answers with either a snapshot ({@link #SNAPSHOT_BEGIN}, any number of
+ * {@link #SNAPSHOT_CHUNK}s, {@link #SNAPSHOT_END}) or, if the feed ID is its own and the
+ * sequence is still retained, directly with {@link #BATCH} frames resuming after it. A
+ * batch carries the leader's latest sequence and the entries
+ * {@code [long sequence][long timestampMillis][byte type][payload]},
+ * where the payload is a {@link MaterialCodec} record for an add, the ID for a remove and
+ * nothing for a clear. An empty batch is a heartbeat.</p>
+ */
+final class ReplicationProtocol {
+
+    static final byte HELLO = 1;
+    static final byte ACK = 2;
+    static final byte BATCH = 3;
+    static final byte SNAPSHOT_BEGIN = 4;
+    static final byte SNAPSHOT_CHUNK = 5;
+    static final byte SNAPSHOT_END = 6;
+
+    private static final int HEADER_BYTES = Integer.BYTES + 1;
+    private static final int MAX_FRAME_BYTES = 64 << 20;
+
+    private static final ChangeEvent.Type[] EVENT_TYPES = ChangeEvent.Type.values();
+
+    private ReplicationProtocol() {
+    }
+
+    /**
+     * Body writer that may fail like any stream write.
+     */
+    interface BodyWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * A received frame.
+     */
+    static final class Frame {
+        final byte type;
+        final DataInputStream body;
+
+        Frame(byte type, byte[] body) {
+            this.type = type;
+            this.body = new DataInputStream(new ByteArrayInputStream(body));
+        }
+    }
+
+    static ByteBuffer frame(byte type, BodyWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeByte(type);
+        writer.write(out);
+        out.flush();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        buffer.putInt(0, buffer.remaining() - HEADER_BYTES);
+        return buffer;
+    }
+
+    static ByteBuffer sequenceFrame(byte type, long sequence) throws IOException {
+        return frame(type, out -> out.writeLong(sequence));
+    }
+
+    static ByteBuffer feedFrame(byte type, long feedId, long sequence) throws IOException {
+        return frame(type, out -> {
+            out.writeLong(feedId);
+            out.writeLong(sequence);
+        });
+    }
+
+    static ByteBuffer batch(long feedId, long leaderSequence, List<ChangeEvent> events) throws IOException {
+        return frame(BATCH, out -> {
+            out.writeLong(feedId);
+            out.writeLong(leaderSequence);
+            out.writeInt(events.size());
+            for (ChangeEvent event : events) {
+                out.writeLong(event.getSequence());
+                out.writeLong(event.getTimestampMillis());
+                out.writeByte(event.getType().ordinal());
+                switch (event.getType()) {
+                    case ADDED -> MaterialCodec.write(event.getMaterial(), out);
+                    case REMOVED -> out.writeUTF(event.getMaterial().getId());
+                    case CLEARED -> { }
+                }
+            }
+        });
+    }
+
+    static ByteBuffer snapshotChunk(List<Material> materials) throws IOException {
+        return frame(SNAPSHOT_CHUNK, out -> {
+            out.writeInt(materials.size());
+            for (Material material : materials) {
+                MaterialCodec.write(material, out);
+            }
+        });
+    }
+
+    static ChangeEvent.Type readEventType(DataInputStream in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= EVENT_TYPES.length) {
+            throw new IOException("Unknown change type " + ordinal);
+        }
+        return EVENT_TYPES[ordinal];
+    }
+
+    static void write(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    static Frame read(SocketChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header);
+        int length = header.getInt(0);
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid replication frame length " + length);
+        }
+        ByteBuffer body = ByteBuffer.allocate(length);
+        readFully(channel, body);
+        return new Frame(header.get(Integer.BYTES), body.array());
+    }
+
+    static Frame expect(SocketChannel channel, byte type) throws IOException {
+        Frame frame = read(channel);
+        if (frame.type != type) {
+            throw new IOException("Expected replication frame " + type + " but got " + frame.type);
+        }
+        return frame;
+    }
+
+    private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Replication peer closed the connection");
+            }
+        }
+    }
+}
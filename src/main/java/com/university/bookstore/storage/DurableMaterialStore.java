@@ -0,0 +1,821 @@
+package com.university.bookstore.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.impl.MaterialStoreConcurrentImpl;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+
+/**
+ * Decorator that makes any {@link MaterialStore} survive restarts.
+ *
+ * <p>Every successful {@link #addMaterial(Material)}, {@link #removeMaterial(String)} and
+ * {@link #clearInventory()} is appended to a write-ahead log before it is applied to the
+ * delegate, so a mutation whose record fails to reach the log is never visible.
+ * Each log record is framed with its length, a CRC32 and a sequence number, so a torn
+ * write at the end of the log is detected and discarded on recovery. How long a caller
+ * waits for its record depends on the {@link FsyncPolicy}. Concurrent writers that wait
+ * for the disk share one {@code fsync} (group commit).</p>
+ *
+ * <p>Mutations of one ID are serialized by a striped lock, so its log order is its apply
+ * order; mutations of different IDs commute and reach the delegate in parallel. Only the
+ * framing of a record into the log buffer is globally serialized. Clearing and
+ * snapshotting wait for every mutation in flight.</p>
+ *
+ * <p>After a configurable number of records, the log is rotated and a compact binary
+ * snapshot of the whole catalog is written in the background. The snapshot goes to a
+ * temporary file first and is then atomically renamed into place. Log segments covered
+ * by the snapshot are then deleted. {@link #open} rebuilds the delegate from the snapshot
+ * plus the log tail, decoding records with {@link MaterialCodec} rather than re-running
+ * any ingest pipeline.</p>
+ *
+ * <p>All mutations must go through this decorator. The delegate must be empty when
+ * opened, and thread-safe if the store is shared between threads. Reads are passed
+ * straight to the delegate.</p>
+ */
+public class DurableMaterialStore implements MaterialStore, Closeable {
+
+    /**
+     * When a mutation's log record is forced to stable storage.
+     */
+    public enum FsyncPolicy {
+        /** Each mutation returns after its record is fsynced; concurrent writers share a sync. */
+        ALWAYS,
+        /** Mutations return once buffered; a background task writes and fsyncs periodically. */
+        INTERVAL,
+        /** Mutations return once written to the OS; fsync happens only on rotation and close. */
+        NEVER
+    }
+
+    /** Default number of log records between automatic snapshots. */
+    public static final int DEFAULT_SNAPSHOT_EVERY = 100_000;
+
+    static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String SNAPSHOT_TEMP_FILE = "snapshot.bin.tmp";
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int SNAPSHOT_MAGIC = 0x4D534E50;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final int ID_LOCK_STRIPES = 64;
+
+    private static final byte OP_ADD = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final byte OP_CLEAR = 3;
+
+    private final MaterialStore delegate;
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final int snapshotEvery;
+
+    /** Held shared by single-ID mutations and exclusively by clear and snapshot. */
+    private final ReentrantReadWriteLock mutationLock = new ReentrantReadWriteLock();
+    /** Serializes the mutations of one ID from its existence check to its apply. */
+    private final ReentrantLock[] idLocks = new ReentrantLock[ID_LOCK_STRIPES];
+    /** Guards the pending buffer and the sequence numbers. */
+    private final ReentrantLock appendLock = new ReentrantLock();
+    /** Guards the segment channel; the holder drains the pending buffer for everyone. */
+    private final ReentrantLock ioLock = new ReentrantLock();
+    private final Object snapshotMonitor = new Object();
+    private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService background;
+
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOut = new DataOutputStream(pending);
+    private final CRC32 recordCrc = new CRC32();
+    private long appendedSeq;
+    private int recordsSinceSnapshot;
+    private boolean closed;
+
+    private FileChannel segment;
+    private long segmentStartSeq;
+    private volatile long writtenSeq;
+    private volatile long syncedSeq;
+    private volatile IOException failure;
+
+    private DurableMaterialStore(MaterialStore delegate, Path directory, FsyncPolicy fsyncPolicy,
+                                 long fsyncIntervalMillis, int snapshotEvery) throws IOException {
+        this.delegate = delegate;
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.snapshotEvery = snapshotEvery;
+        for (int i = 0; i < idLocks.length; i++) {
+            idLocks[i] = new ReentrantLock();
+        }
+
+        Files.createDirectories(directory);
+        recover();
+
+        this.background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "material-store-wal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            background.scheduleWithFixedDelay(this::backgroundSync,
+                fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Opens a durable store with {@link FsyncPolicy#ALWAYS} and the default snapshot interval.
+     *
+     * @param directory directory holding the snapshot and log; created if missing
+     * @param delegate empty store to rebuild into and delegate to
+     * @return the recovered store
+     * @throws IOException if the directory cannot be read or a snapshot is corrupt
+     */
+    public static DurableMaterialStore open(Path directory, MaterialStore delegate) throws IOException {
+        return open(directory, delegate, FsyncPolicy.ALWAYS, 0, DEFAULT_SNAPSHOT_EVERY);
+    }
+
+    /**
+     * Opens a durable store, rebuilding the delegate from the snapshot and log in the directory.
+     *
+     * @param directory directory holding the snapshot and log; created if missing
+     * @param delegate empty store to rebuild into and delegate to
+     * @param fsyncPolicy when log records are forced to disk
+     * @param fsyncIntervalMillis period of the background sync for {@link FsyncPolicy#INTERVAL}
+     * @param snapshotEvery number of log records between automatic snapshots
+     * @return the recovered store
+     * @throws IOException if the directory cannot be read or a snapshot is corrupt
+     * @throws IllegalArgumentException if the delegate is not empty or a setting is out of range
+     */
+    public static DurableMaterialStore open(Path directory, MaterialStore delegate, FsyncPolicy fsyncPolicy,
+                                            long fsyncIntervalMillis, int snapshotEvery) throws IOException {
+        Objects.requireNonNull(directory, "Directory cannot be null");
+        Objects.requireNonNull(delegate, "Delegate store cannot be null");
+        Objects.requireNonNull(fsyncPolicy, "Fsync policy cannot be null");
+        if (!delegate.isEmpty()) {
+            throw new IllegalArgumentException("Delegate store must be empty");
+        }
+        if (fsyncPolicy == FsyncPolicy.INTERVAL && fsyncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Fsync interval must be positive");
+        }
+        if (snapshotEvery <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        return new DurableMaterialStore(delegate, directory, fsyncPolicy, fsyncIntervalMillis, snapshotEvery);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the material type cannot be encoded
+     * @throws UncheckedIOException if the log cannot be written
+     */
+    @Override
+    public boolean addMaterial(Material material) {
+        Objects.requireNonNull(material, "Material cannot be null");
+        byte[] payload = MaterialCodec.encode(material);
+        ReentrantLock idLock = idLock(material.getId());
+        mutationLock.readLock().lock();
+        idLock.lock();
+        try {
+            if (delegate.findById(material.getId()).isPresent()) {
+                return false;
+            }
+            awaitLogged(append(OP_ADD, payload));
+            delegate.addMaterial(material);
+        } finally {
+            idLock.unlock();
+            mutationLock.readLock().unlock();
+        }
+        maybeScheduleSnapshot();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException if the log cannot be written
+     */
+    @Override
+    public Optional<Material> removeMaterial(String id) {
+        if (id == null || id.isBlank()) {
+            return Optional.empty();
+        }
+        Optional<Material> removed;
+        ReentrantLock idLock = idLock(id);
+        mutationLock.readLock().lock();
+        idLock.lock();
+        try {
+            Optional<Material> existing = delegate.findById(id);
+            if (existing.isEmpty()) {
+                return existing;
+            }
+            awaitLogged(append(OP_REMOVE, existing.get().getId().getBytes(StandardCharsets.UTF_8)));
+            removed = delegate.removeMaterial(id);
+        } finally {
+            idLock.unlock();
+            mutationLock.readLock().unlock();
+        }
+        maybeScheduleSnapshot();
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException if the log cannot be written
+     */
+    @Override
+    public void clearInventory() {
+        mutationLock.writeLock().lock();
+        try {
+            awaitLogged(append(OP_CLEAR, new byte[0]));
+            delegate.clearInventory();
+        } finally {
+            mutationLock.writeLock().unlock();
+        }
+        maybeScheduleSnapshot();
+    }
+
+    /**
+     * Writes a snapshot now and deletes the log segments it covers.
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotMonitor) {
+            List<Material> materials;
+            long seq;
+            // No mutation in flight, so the delegate holds exactly the logged records
+            mutationLock.writeLock().lock();
+            ioLock.lock();
+            try {
+                appendLock.lock();
+                try {
+                    ensureWritable();
+                    flushLocked(true);
+                    materials = delegate.getAllMaterials();
+                    seq = appendedSeq;
+                    recordsSinceSnapshot = 0;
+                    if (segmentStartSeq <= seq) {
+                        segment.close();
+                        openSegment(seq + 1);
+                    }
+                } finally {
+                    appendLock.unlock();
+                }
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            } finally {
+                ioLock.unlock();
+                mutationLock.writeLock().unlock();
+            }
+
+            writeSnapshot(materials, seq);
+            for (Path path : listSegments()) {
+                if (segmentStart(path) <= seq) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the sequence number of the last logged mutation.
+     *
+     * @return last sequence number, or 0 if nothing has been logged
+     */
+    public long getLastSequence() {
+        appendLock.lock();
+        try {
+            return appendedSeq;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the directory holding the snapshot and log.
+     *
+     * @return the store directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Flushes and fsyncs the log, stops background work and closes the log file.
+     * The delegate stays readable; further mutations throw {@link IllegalStateException}.
+     *
+     * @throws IOException if the final flush fails
+     */
+    @Override
+    public void close() throws IOException {
+        ioLock.lock();
+        try {
+            appendLock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            } finally {
+                appendLock.unlock();
+            }
+            background.shutdown();
+            try {
+                if (failure == null) {
+                    flushLocked(true);
+                }
+            } finally {
+                segment.close();
+            }
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Material> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Material> searchByTitle(String title) {
+        return delegate.searchByTitle(title);
+    }
+
+    @Override
+    public List<Material> searchByCreator(String creator) {
+        return delegate.searchByCreator(creator);
+    }
+
+    @Override
+    public List<Material> getMaterialsByType(Material.MaterialType type) {
+        return delegate.getMaterialsByType(type);
+    }
+
+    @Override
+    public List<Media> getMediaMaterials() {
+        return delegate.getMediaMaterials();
+    }
+
+    @Override
+    public List<Material> filterMaterials(Predicate<Material> predicate) {
+        return delegate.filterMaterials(predicate);
+    }
+
+    @Override
+    public List<Material> findRecentMaterials(int years) {
+        return delegate.findRecentMaterials(years);
+    }
+
+    @Override
+    public List<Material> findByCreators(String... creators) {
+        return delegate.findByCreators(creators);
+    }
+
+    @Override
+    public List<Material> findWithPredicate(Predicate<Material> condition) {
+        return delegate.findWithPredicate(condition);
+    }
+
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator) {
+        return delegate.getSorted(comparator);
+    }
+
+    @Override
+    public List<Material> getMaterialsByPriceRange(double minPrice, double maxPrice) {
+        return delegate.getMaterialsByPriceRange(minPrice, maxPrice);
+    }
+
+    @Override
+    public List<Material> getMaterialsByYear(int year) {
+        return delegate.getMaterialsByYear(year);
+    }
+
+    @Override
+    public List<Material> getAllMaterialsSorted() {
+        return delegate.getAllMaterialsSorted();
+    }
+
+    @Override
+    public List<Material> getAllMaterials() {
+        return delegate.getAllMaterials();
+    }
+
+    @Override
+    public Stream<Material> stream() {
+        return delegate.stream();
+    }
+
+    @Override
+    public Stream<Material> streamByTitle(String title) {
+        return delegate.streamByTitle(title);
+    }
+
+    @Override
+    public Stream<Material> streamByCreator(String creator) {
+        return delegate.streamByCreator(creator);
+    }
+
+    @Override
+    public Stream<Material> streamByType(Material.MaterialType type) {
+        return delegate.streamByType(type);
+    }
+
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator, int k) {
+        return delegate.getSorted(comparator, k);
+    }
+
+    @Override
+    public double getTotalInventoryValue() {
+        return delegate.getTotalInventoryValue();
+    }
+
+    @Override
+    public double getTotalDiscountedValue() {
+        return delegate.getTotalDiscountedValue();
+    }
+
+    @Override
+    public InventoryStats getInventoryStats() {
+        return delegate.getInventoryStats();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DurableMaterialStore[Dir=%s, Policy=%s, Seq=%d, Delegate=%s]",
+            directory, fsyncPolicy, getLastSequence(), delegate);
+    }
+
+    private ReentrantLock idLock(String id) {
+        int hash = id.hashCode();
+        return idLocks[(hash ^ (hash >>> 16)) & (ID_LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Frames a record into the pending buffer under the append lock.
+     *
+     * @throws IllegalStateException if the store is closed or the log has failed
+     */
+    private long append(byte op, byte[] payload) {
+        appendLock.lock();
+        try {
+            ensureWritable();
+            long seq = ++appendedSeq;
+            recordCrc.reset();
+            recordCrc.update(longBytes(seq));
+            recordCrc.update(op);
+            recordCrc.update(payload);
+            pendingOut.writeInt(Long.BYTES + 1 + payload.length);
+            pendingOut.writeInt((int) recordCrc.getValue());
+            pendingOut.writeLong(seq);
+            pendingOut.writeByte(op);
+            pendingOut.write(payload);
+            recordsSinceSnapshot++;
+            return seq;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Waits as long as the fsync policy requires for a record, before the caller applies it.
+     */
+    private void awaitLogged(long seq) {
+        try {
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                awaitFlushed(seq, true);
+            } else if (fsyncPolicy == FsyncPolicy.NEVER) {
+                awaitFlushed(seq, false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Write-ahead log append failed", e);
+        }
+    }
+
+    /**
+     * Waits until the record with the given sequence is written (and synced if asked).
+     * Whoever holds the I/O lock flushes every pending record, so waiters queued behind
+     * it usually find their record already flushed.
+     */
+    private void awaitFlushed(long seq, boolean sync) throws IOException {
+        while ((sync ? syncedSeq : writtenSeq) < seq) {
+            ioLock.lock();
+            try {
+                if ((sync ? syncedSeq : writtenSeq) < seq) {
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    flushLocked(sync);
+                }
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            } finally {
+                ioLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes the pending buffer to the current segment. Caller holds the I/O lock.
+     */
+    private void flushLocked(boolean sync) throws IOException {
+        byte[] batch;
+        long seq;
+        appendLock.lock();
+        try {
+            batch = pending.toByteArray();
+            pending.reset();
+            seq = appendedSeq;
+        } finally {
+            appendLock.unlock();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(batch);
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        writtenSeq = seq;
+        if (sync && syncedSeq < seq) {
+            segment.force(false);
+            syncedSeq = seq;
+        }
+    }
+
+    private void backgroundSync() {
+        if (failure != null) {
+            return;
+        }
+        ioLock.lock();
+        try {
+            if (segment.isOpen()) {
+                flushLocked(true);
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    private void maybeScheduleSnapshot() {
+        boolean due;
+        appendLock.lock();
+        try {
+            due = recordsSinceSnapshot >= snapshotEvery && !closed;
+        } finally {
+            appendLock.unlock();
+        }
+        if (due && snapshotScheduled.compareAndSet(false, true)) {
+            background.execute(() -> {
+                try {
+                    snapshot();
+                } catch (IOException | IllegalStateException e) {
+                    // The log still holds every record; the next snapshot will cover them
+                } finally {
+                    snapshotScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    private void ensureWritable() {
+        if (closed) {
+            throw new IllegalStateException("Store is closed");
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Write-ahead log failed", failure);
+        }
+    }
+
+    // ----- recovery -----
+
+    private void recover() throws IOException {
+        long lastSeq = loadSnapshot();
+        List<Path> segments = listSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            lastSeq = replaySegment(segments.get(i), lastSeq, i == segments.size() - 1);
+        }
+        appendedSeq = lastSeq;
+        writtenSeq = lastSeq;
+        syncedSeq = lastSeq;
+
+        if (segments.isEmpty()) {
+            openSegment(lastSeq + 1);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            segment = FileChannel.open(last, StandardOpenOption.WRITE);
+            segment.position(segment.size());
+            segmentStartSeq = segmentStart(last);
+        }
+    }
+
+    private long loadSnapshot() throws IOException {
+        Path path = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+            CheckedInputStream checked = new CheckedInputStream(raw, new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Not a material snapshot: " + path);
+            }
+            long seq = in.readLong();
+            int count = in.readInt();
+            // The count is not checksummed yet, so it only hints the capacity
+            List<Material> materials = new ArrayList<>(Math.min(count, 1 << 16));
+            for (int i = 0; i < count; i++) {
+                materials.add(MaterialCodec.read(in));
+            }
+            long expected = checked.getChecksum().getValue();
+            if (new DataInputStream(raw).readLong() != expected) {
+                throw new IOException("Snapshot checksum mismatch: " + path);
+            }
+            if (delegate instanceof MaterialStoreConcurrentImpl concurrent) {
+                concurrent.addMaterialsBatch(materials);
+            } else {
+                materials.forEach(delegate::addMaterial);
+            }
+            return seq;
+        } catch (EOFException | IllegalArgumentException e) {
+            throw new IOException("Corrupt snapshot: " + path, e);
+        }
+    }
+
+    /**
+     * Replays one segment, skipping records the snapshot already covers. A torn or corrupt
+     * record ends the log: it is truncated away if it is in the last segment.
+     */
+    private long replaySegment(Path path, long lastSeq, boolean lastSegment) throws IOException {
+        long fileBytes = Files.size(path);
+        long validBytes = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            CRC32 crc = new CRC32();
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                // A corrupt length must not allocate more than the segment could hold
+                if (length < Long.BYTES + 1 || length > fileBytes - validBytes - RECORD_HEADER_BYTES) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                int storedCrc;
+                try {
+                    storedCrc = in.readInt();
+                    in.readFully(body);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(body);
+                if ((int) crc.getValue() != storedCrc) {
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.wrap(body);
+                long seq = record.getLong();
+                byte op = record.get();
+                if (seq > lastSeq) {
+                    applyRecord(op, body, Long.BYTES + 1);
+                    lastSeq = seq;
+                }
+                validBytes += RECORD_HEADER_BYTES + length;
+            }
+        }
+
+        if (validBytes < fileBytes) {
+            if (!lastSegment) {
+                throw new IOException("Corrupt record inside log segment " + path);
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validBytes);
+                channel.force(true);
+            }
+        }
+        return lastSeq;
+    }
+
+    private void applyRecord(byte op, byte[] body, int offset) throws IOException {
+        switch (op) {
+            case OP_ADD:
+                byte[] encoded = new byte[body.length - offset];
+                System.arraycopy(body, offset, encoded, 0, encoded.length);
+                delegate.addMaterial(MaterialCodec.decode(encoded));
+                break;
+            case OP_REMOVE:
+                delegate.removeMaterial(new String(body, offset, body.length - offset, StandardCharsets.UTF_8));
+                break;
+            case OP_CLEAR:
+                delegate.clearInventory();
+                break;
+            default:
+                throw new IOException("Unknown log operation: " + op);
+        }
+    }
+
+    // ----- files -----
+
+    private void writeSnapshot(List<Material> materials, long seq) throws IOException {
+        Path temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+        try (OutputStream raw = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16)) {
+            CheckedOutputStream checked = new CheckedOutputStream(raw, new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(seq);
+            out.writeInt(materials.size());
+            for (Material material : materials) {
+                MaterialCodec.write(material, out);
+            }
+            out.flush();
+            new DataOutputStream(raw).writeLong(checked.getChecksum().getValue());
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+                       StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void openSegment(long startSeq) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, startSeq, SEGMENT_SUFFIX));
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        segment.position(segment.size());
+        segmentStartSeq = startSeq;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream =
+                 Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(Comparator.comparingLong(DurableMaterialStore::segmentStart));
+        return segments;
+    }
+
+    private static long segmentStart(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] longBytes(long value) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+    }
+}
@@ -0,0 +1,473 @@
+package com.university.bookstore.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.impl.MaterialStoreConcurrentImpl;
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.utils.Money;
+
+/**
+ * {@link MaterialStore} layered over a memory-mapped {@link MappedSnapshot}.
+ *
+ * <p>The snapshot is a read-through base layer. Mutations go to an in-memory
+ * {@link MaterialStoreConcurrentImpl} overlay, and removing a base item sets a bit in a
+ * tombstone bitmap. Overlay IDs never shadow live base IDs: replacing a base item means
+ * removing it first. Queries merge the two layers. Base items are served from the mapped
+ * columns and indexes and decoded only when a query returns them, so opening a catalog
+ * of any size costs just the mapping. Title and creator searches read one gram posting
+ * from the snapshot and decode only the strings of its candidates, so their cost follows
+ * the posting length rather than the catalog size.</p>
+ *
+ * <p>Running totals start from the snapshot header and are adjusted on every mutation.
+ * {@link #writeSnapshot(Path)} writes the merged catalog as a new snapshot, which can
+ * then be reopened as a fresh base.</p>
+ *
+ * <p>Thread-safe: mutations are serialized; queries run without locking and see each
+ * mutation atomically per layer.</p>
+ */
+public class MappedMaterialStore implements MaterialStore {
+
+    private final MappedSnapshot base;
+    private final MaterialStoreConcurrentImpl overlay = new MaterialStoreConcurrentImpl();
+    private final AtomicLongArray tombstones;
+    private volatile int tombstoneCount;
+
+    private final int[] typeCounts = new int[Material.MaterialType.values().length];
+    private long priceUnits;
+    private long discountedUnits;
+    private int mediaCount;
+    private int printCount;
+
+    /**
+     * Creates a store over an already mapped snapshot.
+     *
+     * @param base the base layer
+     */
+    public MappedMaterialStore(MappedSnapshot base) {
+        this.base = Objects.requireNonNull(base, "Base snapshot cannot be null");
+        this.tombstones = new AtomicLongArray((base.size() + 63) >>> 6);
+        this.priceUnits = base.priceUnits();
+        this.discountedUnits = base.discountedUnits();
+        this.mediaCount = base.mediaCount();
+        this.printCount = base.printCount();
+        for (int t = 0; t < typeCounts.length; t++) {
+            typeCounts[t] = base.typeCount(t);
+        }
+    }
+
+    /**
+     * Maps a snapshot file and layers a new store over it.
+     *
+     * @param snapshot the snapshot file written by {@link MappedSnapshot#write} or {@link #writeSnapshot}
+     * @return the store
+     * @throws IOException if the file cannot be mapped
+     */
+    public static MappedMaterialStore open(Path snapshot) throws IOException {
+        return new MappedMaterialStore(MappedSnapshot.open(snapshot));
+    }
+
+    @Override
+    public synchronized boolean addMaterial(Material material) {
+        Objects.requireNonNull(material, "Material cannot be null");
+        if (liveBaseItem(material.getId()) >= 0 || !overlay.addMaterial(material)) {
+            return false;
+        }
+        account(material, 1);
+        return true;
+    }
+
+    @Override
+    public synchronized Optional<Material> removeMaterial(String id) {
+        if (id == null || id.isBlank()) {
+            return Optional.empty();
+        }
+        Optional<Material> removed = overlay.removeMaterial(id);
+        if (removed.isEmpty()) {
+            int item = liveBaseItem(id);
+            if (item < 0) {
+                return Optional.empty();
+            }
+            removed = Optional.of(base.materialize(item));
+            tombstones.getAndUpdate(item >>> 6, word -> word | (1L << item));
+            tombstoneCount++;
+        }
+        account(removed.get(), -1);
+        return removed;
+    }
+
+    @Override
+    public Optional<Material> findById(String id) {
+        if (id == null || id.isBlank()) {
+            return Optional.empty();
+        }
+        Optional<Material> found = overlay.findById(id);
+        if (found.isPresent()) {
+            return found;
+        }
+        int item = liveBaseItem(id);
+        return item < 0 ? Optional.empty() : Optional.of(base.materialize(item));
+    }
+
+    @Override
+    public List<Material> searchByTitle(String title) {
+        if (title == null || title.isBlank()) {
+            return List.of();
+        }
+        String query = title.trim().toLowerCase();
+        List<Material> result = matchBase(base.titleCandidates(query), base.hasExactCandidates(query)
+                ? item -> true
+                : item -> base.title(item).toLowerCase().contains(query));
+        result.addAll(overlay.searchByTitle(title));
+        return result;
+    }
+
+    @Override
+    public List<Material> searchByCreator(String creator) {
+        if (creator == null || creator.isBlank()) {
+            return List.of();
+        }
+        String query = creator.trim().toLowerCase();
+        List<Material> result = matchBase(base.creatorCandidates(query), base.hasExactCandidates(query)
+                ? item -> true
+                : item -> base.creator(item).toLowerCase().contains(query));
+        result.addAll(overlay.searchByCreator(creator));
+        return result;
+    }
+
+    @Override
+    public List<Material> getMaterialsByType(Material.MaterialType type) {
+        if (type == null) {
+            return List.of();
+        }
+        int ordinal = type.ordinal();
+        List<Material> result = scanBase(item -> base.typeOrdinal(item) == ordinal);
+        result.addAll(overlay.getMaterialsByType(type));
+        return result;
+    }
+
+    @Override
+    public List<Media> getMediaMaterials() {
+        List<Media> result = new ArrayList<>();
+        for (Material material : scanBase(item -> isMediaKind(base.kind(item)))) {
+            result.add((Media) material);
+        }
+        result.addAll(overlay.getMediaMaterials());
+        return result;
+    }
+
+    @Override
+    public List<Material> filterMaterials(Predicate<Material> predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        return getAllMaterials().stream().filter(predicate).collect(Collectors.toList());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Results are ordered oldest first.</p>
+     */
+    @Override
+    public List<Material> findRecentMaterials(int years) {
+        if (years < 0) {
+            throw new IllegalArgumentException("Years must be non-negative");
+        }
+        int cutoff = Year.now().getValue() - years;
+        List<Material> fromBase = rankRange(base.yearRank(cutoff, false), base.size(), false);
+        return merge(fromBase, overlay.findRecentMaterials(years), Comparator.comparingInt(Material::getYear));
+    }
+
+    @Override
+    public List<Material> findByCreators(String... creators) {
+        if (creators == null || creators.length == 0) {
+            return List.of();
+        }
+        Set<String> creatorSet = Arrays.stream(creators)
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toSet());
+        if (creatorSet.isEmpty()) {
+            return List.of();
+        }
+        // An exact creator contains its own lowercased form, so its gram postings cover it
+        int[] candidates = creatorSet.stream()
+                .flatMapToInt(creator -> Arrays.stream(base.creatorCandidates(creator.toLowerCase())))
+                .sorted()
+                .distinct()
+                .toArray();
+        List<Material> result = matchBase(candidates, item -> creatorSet.contains(base.creator(item)));
+        result.addAll(overlay.findByCreators(creators));
+        return result;
+    }
+
+    @Override
+    public List<Material> findWithPredicate(Predicate<Material> condition) {
+        return filterMaterials(condition);
+    }
+
+    @Override
+    public List<Material> getSorted(Comparator<Material> comparator) {
+        Objects.requireNonNull(comparator, "Comparator cannot be null");
+        List<Material> result = getAllMaterials();
+        result.sort(comparator);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Base items come from the mapped price order; results are ordered by ascending price.</p>
+     */
+    @Override
+    public List<Material> getMaterialsByPriceRange(double minPrice, double maxPrice) {
+        if (minPrice < 0 || maxPrice < 0 || minPrice > maxPrice) {
+            return List.of();
+        }
+        List<Material> fromBase = rankRange(base.priceRank(minPrice, false), base.priceRank(maxPrice, true), true);
+        return merge(fromBase, overlay.getMaterialsByPriceRange(minPrice, maxPrice),
+                     Comparator.comparingDouble(Material::getPrice));
+    }
+
+    @Override
+    public List<Material> getMaterialsByYear(int year) {
+        List<Material> result = rankRange(base.yearRank(year, false), base.yearRank(year, true), false);
+        result.addAll(overlay.getMaterialsByYear(year));
+        return result;
+    }
+
+    @Override
+    public List<Material> getAllMaterialsSorted() {
+        List<Material> result = getAllMaterials();
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Base items come first, in snapshot order, followed by overlay items.</p>
+     */
+    @Override
+    public List<Material> getAllMaterials() {
+        List<Material> result = scanBase(item -> true);
+        result.addAll(overlay.getAllMaterials());
+        return result;
+    }
+
+    @Override
+    public synchronized double getTotalInventoryValue() {
+        return Money.toDollars(priceUnits);
+    }
+
+    @Override
+    public synchronized double getTotalDiscountedValue() {
+        return Money.toDollars(discountedUnits);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Counts come from running totals; the median walks the mapped price order merged
+     * with the overlay's prices.</p>
+     */
+    @Override
+    public synchronized InventoryStats getInventoryStats() {
+        int count = size();
+        if (count == 0) {
+            return new InventoryStats(0, 0.0, 0.0, 0, 0, 0);
+        }
+        int uniqueTypes = 0;
+        for (int typeCount : typeCounts) {
+            if (typeCount > 0) {
+                uniqueTypes++;
+            }
+        }
+        double median = count % 2 == 0
+                ? (priceAtRank(count / 2 - 1) + priceAtRank(count / 2)) / 2.0
+                : priceAtRank(count / 2);
+        return new InventoryStats(count, Money.toDollars(priceUnits) / count, median, uniqueTypes, mediaCount, printCount);
+    }
+
+    @Override
+    public synchronized void clearInventory() {
+        overlay.clearInventory();
+        for (int word = 0; word < tombstones.length(); word++) {
+            tombstones.set(word, -1L);
+        }
+        tombstoneCount = base.size();
+        Arrays.fill(typeCounts, 0);
+        priceUnits = 0;
+        discountedUnits = 0;
+        mediaCount = 0;
+        printCount = 0;
+    }
+
+    @Override
+    public int size() {
+        return base.size() - tombstoneCount + overlay.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Writes the merged catalog to a new snapshot file, replacing it atomically.
+     *
+     * @param target the snapshot file to write
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void writeSnapshot(Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        MappedSnapshot.write(temp, getAllMaterials());
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Gets the number of items served from the mapped base layer.
+     *
+     * @return live base items
+     */
+    public int getBaseSize() {
+        return base.size() - tombstoneCount;
+    }
+
+    /**
+     * Gets the number of items held in the in-memory overlay.
+     *
+     * @return overlay items
+     */
+    public int getOverlaySize() {
+        return overlay.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MappedMaterialStore[Base=%d, Overlay=%d, Removed=%d]",
+            getBaseSize(), getOverlaySize(), tombstoneCount);
+    }
+
+    private boolean isTombstoned(int item) {
+        return (tombstones.get(item >>> 6) & (1L << item)) != 0;
+    }
+
+    private int liveBaseItem(String id) {
+        int item = base.find(id);
+        return item >= 0 && !isTombstoned(item) ? item : -1;
+    }
+
+    private List<Material> scanBase(IntPredicate matches) {
+        List<Material> result = new ArrayList<>();
+        for (int item = 0; item < base.size(); item++) {
+            if (!isTombstoned(item) && matches.test(item)) {
+                result.add(base.materialize(item));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Materializes the live candidates that pass verification, keeping their item order.
+     */
+    private List<Material> matchBase(int[] candidates, IntPredicate matches) {
+        List<Material> result = new ArrayList<>();
+        for (int item : candidates) {
+            if (!isTombstoned(item) && matches.test(item)) {
+                result.add(base.materialize(item));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Materializes live base items with ranks in {@code [from, to)} of the price or year order.
+     */
+    private List<Material> rankRange(int from, int to, boolean byPrice) {
+        List<Material> result = new ArrayList<>(Math.max(0, to - from));
+        for (int rank = from; rank < to; rank++) {
+            int item = byPrice ? base.byPrice(rank) : base.byYear(rank);
+            if (!isTombstoned(item)) {
+                result.add(base.materialize(item));
+            }
+        }
+        return result;
+    }
+
+    private static List<Material> merge(List<Material> first, List<Material> second, Comparator<Material> order) {
+        List<Material> result = new ArrayList<>(first.size() + second.size());
+        int i = 0;
+        int j = 0;
+        while (i < first.size() || j < second.size()) {
+            if (j == second.size() || (i < first.size() && order.compare(first.get(i), second.get(j)) <= 0)) {
+                result.add(first.get(i++));
+            } else {
+                result.add(second.get(j++));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Price at the given rank of the merged catalog, walking both price orders.
+     */
+    private double priceAtRank(int rank) {
+        List<Material> overlayByPrice = overlay.getMaterialsByPriceRange(0.0, Double.MAX_VALUE);
+        int j = 0;
+        int seen = 0;
+        for (int r = 0; r < base.size(); r++) {
+            int item = base.byPrice(r);
+            if (isTombstoned(item)) {
+                continue;
+            }
+            double basePrice = base.price(item);
+            while (j < overlayByPrice.size() && overlayByPrice.get(j).getPrice() < basePrice) {
+                if (seen++ == rank) {
+                    return overlayByPrice.get(j).getPrice();
+                }
+                j++;
+            }
+            if (seen++ == rank) {
+                return basePrice;
+            }
+        }
+        return overlayByPrice.get(j + rank - seen).getPrice();
+    }
+
+    private void account(Material material, int delta) {
+        typeCounts[material.getType().ordinal()] += delta;
+        priceUnits += delta * material.getPriceUnits();
+        discountedUnits += delta * material.getDiscountedPriceUnits();
+        if (material instanceof Media) {
+            mediaCount += delta;
+        }
+        if (material instanceof PrintedBook || material instanceof Magazine) {
+            printCount += delta;
+        }
+    }
+
+    private static boolean isMediaKind(byte kind) {
+        return kind == MaterialCodec.KIND_AUDIO_BOOK || kind == MaterialCodec.KIND_VIDEO
+            || kind == MaterialCodec.KIND_E_BOOK;
+    }
+}
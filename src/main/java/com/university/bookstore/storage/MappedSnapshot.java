@@ -0,0 +1,677 @@
+package com.university.bookstore.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+
+/**
+ * Read-only catalog file that is queried in place through {@link FileChannel#map}.
+ *
+ * <p>Layout, all big-endian:</p>
+ * <ul>
+ *   <li>a fixed header with the item count, section offsets and precomputed totals in
+ *       {@link com.university.bookstore.utils.Money} units;</li>
+ *   <li>the records: each a length-prefixed {@link MaterialCodec#encode(Material)} blob,
+ *       padded so none crosses a 1 GB window, because a single mapping is limited to 2 GB;</li>
+ *   <li>the index section: per-item columns for record offset, price, year, ID hash and
+ *       type; item numbers sorted by price and by year; and an open-addressing ID
+ *       hash table;</li>
+ *   <li>the gram directory: for titles and then creators, the sorted codes of every 1-, 2-
+ *       and 3-character gram of the lowercased text, and where each gram's posting starts;</li>
+ *   <li>the postings: ascending item numbers per gram, mapped in 1 GB windows like the
+ *       records.</li>
+ * </ul>
+ *
+ * <p>Opening a snapshot only maps the file, so it costs the same for any catalog size.
+ * Lookups, range queries, substring searches and column scans read the mapped pages
+ * directly: a search reads one posting and decodes only the strings of its candidates.
+ * A {@link Material} is decoded only when a query returns it. The index section must stay
+ * under 2 GB, which allows a little over 40 million items. Version 2 files, which predate
+ * the gram postings, are still read; their searches scan every item.</p>
+ *
+ * <p>Instances are immutable and safe to share between threads.</p>
+ */
+public final class MappedSnapshot {
+
+    private static final int MAGIC = 0x4D4D4150;
+    private static final int VERSION = 3;
+    private static final int VERSION_WITHOUT_GRAMS = 2;
+    static final int GRAM_LENGTH = 3;
+    private static final int HEADER_BYTES = 128;
+    private static final int WINDOW_BITS = 30;
+    private static final long WINDOW_SIZE = 1L << WINDOW_BITS;
+    private static final int TYPE_COUNT = Material.MaterialType.values().length;
+
+    private final int count;
+    private final int slotMask;
+    private final ByteBuffer[] recordWindows;
+    private final ByteBuffer index;
+    private final int pricesAt;
+    private final int yearsAt;
+    private final int hashesAt;
+    private final int byPriceAt;
+    private final int byYearAt;
+    private final int slotsAt;
+    private final int typesAt;
+    private final long priceUnits;
+    private final long discountedUnits;
+    private final int mediaCount;
+    private final int printCount;
+    private final int[] typeCounts = new int[TYPE_COUNT];
+    private final int titleGrams;
+    private final int creatorGrams;
+    private final ByteBuffer gramDirectory;
+    private final ByteBuffer[] postingWindows;
+
+    private MappedSnapshot(FileChannel channel) throws IOException {
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        int version = header.getInt(4);
+        if (header.getInt(0) != MAGIC || (version != VERSION && version != VERSION_WITHOUT_GRAMS)) {
+            throw new IOException("Not a mapped material snapshot");
+        }
+        count = header.getInt(8);
+        int slotCount = header.getInt(12);
+        long recordsLength = header.getLong(16);
+        long indexOffset = header.getLong(24);
+        priceUnits = header.getLong(32);
+        discountedUnits = header.getLong(40);
+        mediaCount = header.getInt(48);
+        printCount = header.getInt(52);
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            typeCounts[t] = header.getInt(56 + t * Integer.BYTES);
+        }
+        slotMask = slotCount - 1;
+
+        int windows = (int) ((recordsLength + WINDOW_SIZE - 1) >>> WINDOW_BITS);
+        recordWindows = new ByteBuffer[windows];
+        for (int w = 0; w < windows; w++) {
+            long start = (long) w << WINDOW_BITS;
+            recordWindows[w] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + start,
+                                           Math.min(WINDOW_SIZE, recordsLength - start));
+        }
+
+        pricesAt = count * Long.BYTES;
+        yearsAt = pricesAt + count * Double.BYTES;
+        hashesAt = yearsAt + count * Integer.BYTES;
+        byPriceAt = hashesAt + count * Integer.BYTES;
+        byYearAt = byPriceAt + count * Integer.BYTES;
+        slotsAt = byYearAt + count * Integer.BYTES;
+        typesAt = slotsAt + slotCount * Integer.BYTES;
+        long indexLength = (long) typesAt + count;
+        if (indexOffset + indexLength > channel.size()) {
+            throw new IOException("Truncated mapped material snapshot");
+        }
+        index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, indexLength);
+
+        if (version == VERSION_WITHOUT_GRAMS) {
+            titleGrams = 0;
+            creatorGrams = 0;
+            gramDirectory = null;
+            postingWindows = null;
+            return;
+        }
+        titleGrams = header.getInt(88);
+        creatorGrams = header.getInt(92);
+        long directoryOffset = header.getLong(96);
+        long postingsOffset = header.getLong(104);
+        long postingsLength = header.getLong(112) * Integer.BYTES;
+        long directoryLength = (2L * titleGrams + 1 + 2L * creatorGrams + 1) * Long.BYTES;
+        if (postingsOffset + postingsLength > channel.size() || directoryOffset + directoryLength > postingsOffset) {
+            throw new IOException("Truncated mapped material snapshot");
+        }
+        gramDirectory = channel.map(FileChannel.MapMode.READ_ONLY, directoryOffset, directoryLength);
+        postingWindows = new ByteBuffer[(int) ((postingsLength + WINDOW_SIZE - 1) >>> WINDOW_BITS)];
+        for (int w = 0; w < postingWindows.length; w++) {
+            long start = (long) w << WINDOW_BITS;
+            postingWindows[w] = channel.map(FileChannel.MapMode.READ_ONLY, postingsOffset + start,
+                                            Math.min(WINDOW_SIZE, postingsLength - start));
+        }
+    }
+
+    /**
+     * Maps a snapshot file.
+     *
+     * @param path the snapshot file
+     * @return the mapped snapshot
+     * @throws IOException if the file cannot be mapped or is not a snapshot
+     */
+    public static MappedSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedSnapshot(channel);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given materials, in iteration order.
+     *
+     * @param path the file to create or replace
+     * @param materials the materials; IDs must be unique
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if a material type cannot be encoded
+     */
+    public static void write(Path path, Collection<? extends Material> materials) throws IOException {
+        int n = materials.size();
+        long[] offsets = new long[n];
+        double[] prices = new double[n];
+        int[] years = new int[n];
+        int[] hashes = new int[n];
+        byte[] types = new byte[n];
+        int[] typeCounts = new int[TYPE_COUNT];
+        long priceUnits = 0;
+        long discountedUnits = 0;
+        int mediaCount = 0;
+        int printCount = 0;
+        int slotCount = Integer.highestOneBit(Math.max(8, n) * 2 - 1) << 1;
+        GramPostings titlePostings = new GramPostings();
+        GramPostings creatorPostings = new GramPostings();
+
+        long recordsLength = 0;
+        long directoryOffset;
+        long postingsLength;
+        int titleGrams;
+        int creatorGrams;
+        try (OutputStream raw = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            DataOutputStream out = new DataOutputStream(raw);
+            out.write(new byte[HEADER_BYTES]);
+
+            int i = 0;
+            for (Material material : materials) {
+                byte[] record = MaterialCodec.encode(material);
+                long needed = Integer.BYTES + (long) record.length;
+                long used = recordsLength & (WINDOW_SIZE - 1);
+                if (used + needed > WINDOW_SIZE) {
+                    out.write(new byte[(int) (WINDOW_SIZE - used)]);
+                    recordsLength += WINDOW_SIZE - used;
+                }
+                offsets[i] = recordsLength;
+                out.writeInt(record.length);
+                out.write(record);
+                recordsLength += needed;
+
+                prices[i] = material.getPrice();
+                years[i] = material.getYear();
+                hashes[i] = material.getId().hashCode();
+                types[i] = (byte) material.getType().ordinal();
+                typeCounts[types[i]]++;
+                titlePostings.add(i, material.getTitle());
+                creatorPostings.add(i, material.getCreator());
+                priceUnits += material.getPriceUnits();
+                discountedUnits += material.getDiscountedPriceUnits();
+                if (material instanceof Media) {
+                    mediaCount++;
+                }
+                if (material instanceof PrintedBook || material instanceof Magazine) {
+                    printCount++;
+                }
+                i++;
+            }
+
+            int padding = (int) ((Long.BYTES - (HEADER_BYTES + recordsLength) % Long.BYTES) % Long.BYTES);
+            out.write(new byte[padding]);
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+            for (double price : prices) {
+                out.writeDouble(price);
+            }
+            for (int year : years) {
+                out.writeInt(year);
+            }
+            for (int hash : hashes) {
+                out.writeInt(hash);
+            }
+            for (int item : sortedOrder(prices)) {
+                out.writeInt(item);
+            }
+            for (int item : sortedOrder(years)) {
+                out.writeInt(item);
+            }
+            for (int slot : buildSlots(hashes, slotCount)) {
+                out.writeInt(slot);
+            }
+            out.write(types);
+
+            recordsLength += padding;
+            long indexLength = (long) n * (Long.BYTES + Double.BYTES + 4 * Integer.BYTES + 1)
+                             + (long) slotCount * Integer.BYTES;
+            long directoryPadding = (Long.BYTES - indexLength % Long.BYTES) % Long.BYTES;
+            out.write(new byte[(int) directoryPadding]);
+            directoryOffset = HEADER_BYTES + recordsLength + indexLength + directoryPadding;
+            long creatorBase = titlePostings.write(out, 0);
+            postingsLength = creatorPostings.write(out, creatorBase);
+            titlePostings.writeItems(out);
+            creatorPostings.writeItems(out);
+            out.flush();
+            titleGrams = titlePostings.gramCount();
+            creatorGrams = creatorPostings.gramCount();
+        }
+        long postingsOffset = directoryOffset
+                + (2L * titleGrams + 1 + 2L * creatorGrams + 1) * Long.BYTES;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(slotCount)
+                  .putLong(recordsLength).putLong(HEADER_BYTES + recordsLength)
+                  .putLong(priceUnits).putLong(discountedUnits)
+                  .putInt(mediaCount).putInt(printCount);
+            for (int typeCount : typeCounts) {
+                header.putInt(typeCount);
+            }
+            header.putInt(88, titleGrams).putInt(92, creatorGrams)
+                  .putLong(96, directoryOffset).putLong(104, postingsOffset).putLong(112, postingsLength);
+            header.clear();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Gets the number of items.
+     *
+     * @return item count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Finds an item by material ID.
+     *
+     * @param id the material ID
+     * @return the item number, or -1 if absent
+     */
+    int find(String id) {
+        byte[] expected = id.getBytes(StandardCharsets.UTF_8);
+        int hash = id.hashCode();
+        for (int slot = mix(hash) & slotMask; ; slot = (slot + 1) & slotMask) {
+            int value = index.getInt(slotsAt + slot * Integer.BYTES);
+            if (value == 0) {
+                return -1;
+            }
+            int item = value - 1;
+            if (hash(item) == hash && idEquals(item, expected)) {
+                return item;
+            }
+        }
+    }
+
+    /**
+     * Decodes an item.
+     *
+     * @param item the item number
+     * @return a new material equal to the one written
+     */
+    Material materialize(int item) {
+        ByteBuffer window = window(item);
+        int at = recordAt(item);
+        byte[] record = new byte[window.getInt(at)];
+        window.get(at + Integer.BYTES, record);
+        return MaterialCodec.decode(record);
+    }
+
+    /**
+     * Decodes only the title of an item.
+     */
+    String title(int item) {
+        ByteBuffer window = window(item);
+        int at = idAt(item);
+        at += Integer.BYTES + window.getInt(at);
+        return readString(window, at);
+    }
+
+    /**
+     * Decodes only the creator of an item.
+     */
+    String creator(int item) {
+        ByteBuffer window = window(item);
+        int at = idAt(item);
+        at += Integer.BYTES + window.getInt(at);
+        at += Integer.BYTES + window.getInt(at);
+        return readString(window, at);
+    }
+
+    /**
+     * Gets candidate items for a lowercase substring query on titles, in ascending order.
+     * See {@link #hasExactCandidates(String)} for when they must be verified.
+     */
+    int[] titleCandidates(String keyword) {
+        return candidates(keyword, 0, titleGrams);
+    }
+
+    /**
+     * Gets candidate items for a lowercase substring query on creators, in ascending order.
+     */
+    int[] creatorCandidates(String keyword) {
+        return candidates(keyword, (2L * titleGrams + 1) * Long.BYTES, creatorGrams);
+    }
+
+    /**
+     * Whether the candidates for a query are exactly the matching items. Queries of up to
+     * three characters are read from their own posting; longer ones get the smallest
+     * posting among their trigrams, a superset the caller verifies.
+     */
+    boolean hasExactCandidates(String keyword) {
+        return gramDirectory != null && keyword.length() <= GRAM_LENGTH;
+    }
+
+    private int[] candidates(String keyword, long tableAt, int grams) {
+        if (gramDirectory == null) {
+            int[] all = new int[count];
+            Arrays.setAll(all, item -> item);
+            return all;
+        }
+        if (keyword.length() <= GRAM_LENGTH) {
+            return posting(tableAt, grams, findGram(tableAt, grams, gramCode(keyword)));
+        }
+        int best = -1;
+        long bestSize = Long.MAX_VALUE;
+        for (int i = 0; i + GRAM_LENGTH <= keyword.length(); i++) {
+            int gram = findGram(tableAt, grams, gramCode(keyword.substring(i, i + GRAM_LENGTH)));
+            if (gram < 0) {
+                return new int[0];
+            }
+            long size = postingStart(tableAt, grams, gram + 1) - postingStart(tableAt, grams, gram);
+            if (size < bestSize) {
+                best = gram;
+                bestSize = size;
+            }
+        }
+        return posting(tableAt, grams, best);
+    }
+
+    private int findGram(long tableAt, int grams, long code) {
+        int low = 0;
+        int high = grams;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long key = gramDirectory.getLong((int) (tableAt + (long) mid * Long.BYTES));
+            if (key < code) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < grams && gramDirectory.getLong((int) (tableAt + (long) low * Long.BYTES)) == code ? low : -1;
+    }
+
+    private long postingStart(long tableAt, int grams, int gram) {
+        return gramDirectory.getLong((int) (tableAt + ((long) grams + gram) * Long.BYTES));
+    }
+
+    private int[] posting(long tableAt, int grams, int gram) {
+        if (gram < 0) {
+            return new int[0];
+        }
+        long from = postingStart(tableAt, grams, gram);
+        int[] items = new int[(int) (postingStart(tableAt, grams, gram + 1) - from)];
+        for (int i = 0; i < items.length; i++) {
+            long at = (from + i) * Integer.BYTES;
+            items[i] = postingWindows[(int) (at >>> WINDOW_BITS)].getInt((int) (at & (WINDOW_SIZE - 1)));
+        }
+        return items;
+    }
+
+    /**
+     * Packs a gram of up to three UTF-16 units and its length into one sortable long.
+     */
+    private static long gramCode(String gram) {
+        long code = (long) gram.length() << 48;
+        for (int i = 0; i < gram.length(); i++) {
+            code |= (long) gram.charAt(i) << (32 - 16 * i);
+        }
+        return code;
+    }
+
+    /**
+     * Gets the {@link MaterialCodec} kind tag of an item.
+     */
+    byte kind(int item) {
+        return window(item).get(recordAt(item) + Integer.BYTES);
+    }
+
+    double price(int item) {
+        return index.getDouble(pricesAt + item * Double.BYTES);
+    }
+
+    int year(int item) {
+        return index.getInt(yearsAt + item * Integer.BYTES);
+    }
+
+    int typeOrdinal(int item) {
+        return index.get(typesAt + item);
+    }
+
+    /**
+     * Gets the item at the given rank in ascending price order.
+     */
+    int byPrice(int rank) {
+        return index.getInt(byPriceAt + rank * Integer.BYTES);
+    }
+
+    /**
+     * Gets the item at the given rank in ascending year order.
+     */
+    int byYear(int rank) {
+        return index.getInt(byYearAt + rank * Integer.BYTES);
+    }
+
+    /**
+     * First rank in price order whose price is {@code >= price}, or {@code > price} if {@code after}.
+     */
+    int priceRank(double price, boolean after) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            double key = price(byPrice(mid));
+            if (key < price || (after && key == price)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First rank in year order whose year is {@code >= year}, or {@code > year} if {@code after}.
+     */
+    int yearRank(int year, boolean after) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int key = year(byYear(mid));
+            if (key < year || (after && key == year)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    long priceUnits() {
+        return priceUnits;
+    }
+
+    long discountedUnits() {
+        return discountedUnits;
+    }
+
+    int mediaCount() {
+        return mediaCount;
+    }
+
+    int printCount() {
+        return printCount;
+    }
+
+    int typeCount(int ordinal) {
+        return typeCounts[ordinal];
+    }
+
+    private int hash(int item) {
+        return index.getInt(hashesAt + item * Integer.BYTES);
+    }
+
+    private long recordOffset(int item) {
+        return index.getLong(item * Long.BYTES);
+    }
+
+    private ByteBuffer window(int item) {
+        return recordWindows[(int) (recordOffset(item) >>> WINDOW_BITS)];
+    }
+
+    private int recordAt(int item) {
+        return (int) (recordOffset(item) & (WINDOW_SIZE - 1));
+    }
+
+    /**
+     * Position of the ID's length prefix. Follows the field order of
+     * {@link MaterialCodec#write}: record length, kind, id, title, creator, ...
+     */
+    private int idAt(int item) {
+        return recordAt(item) + Integer.BYTES + 1;
+    }
+
+    private boolean idEquals(int item, byte[] expected) {
+        ByteBuffer window = window(item);
+        int at = idAt(item);
+        return window.getInt(at) == expected.length
+            && window.slice(at + Integer.BYTES, expected.length).equals(ByteBuffer.wrap(expected));
+    }
+
+    private static String readString(ByteBuffer window, int at) {
+        byte[] bytes = new byte[window.getInt(at)];
+        window.get(at + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int[] buildSlots(int[] hashes, int slotCount) {
+        int[] slots = new int[slotCount];
+        int mask = slotCount - 1;
+        for (int item = 0; item < hashes.length; item++) {
+            int slot = mix(hashes[item]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = item + 1;
+        }
+        return slots;
+    }
+
+    /**
+     * Item numbers stably sorted by key, using primitive sorts only.
+     */
+    private static int[] sortedOrder(double[] keys) {
+        double[] distinct = keys.clone();
+        Arrays.sort(distinct);
+        long[] packed = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            packed[i] = ((long) Arrays.binarySearch(distinct, keys[i]) << 32) | i;
+        }
+        return unpack(packed);
+    }
+
+    /**
+     * Ascending item postings per gram of one text field, built while writing.
+     */
+    private static final class GramPostings {
+        private final Map<Long, int[]> postings = new HashMap<>();
+        private long[] codes;
+
+        /**
+         * Adds an item under every 1-, 2- and 3-character gram of its lowercased text.
+         * Items arrive in ascending order, so a repeated gram shows as the last entry.
+         */
+        void add(int item, String text) {
+            String lower = text.toLowerCase();
+            for (int start = 0; start < lower.length(); start++) {
+                int maxEnd = Math.min(lower.length(), start + GRAM_LENGTH);
+                for (int end = start + 1; end <= maxEnd; end++) {
+                    // Slot 0 holds the size, the items follow
+                    int[] posting = postings.computeIfAbsent(gramCode(lower.substring(start, end)), code -> new int[4]);
+                    if (posting[0] > 0 && posting[posting[0]] == item) {
+                        continue;
+                    }
+                    if (posting[0] + 1 == posting.length) {
+                        posting = Arrays.copyOf(posting, posting.length * 2);
+                        postings.put(gramCode(lower.substring(start, end)), posting);
+                    }
+                    posting[++posting[0]] = item;
+                }
+            }
+        }
+
+        int gramCount() {
+            return postings.size();
+        }
+
+        /**
+         * Writes the sorted gram codes and posting starts, numbering entries from {@code base}.
+         *
+         * @return the entry number after the last posting
+         */
+        long write(DataOutputStream out, long base) throws IOException {
+            codes = postings.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            for (long code : codes) {
+                out.writeLong(code);
+            }
+            long start = base;
+            for (long code : codes) {
+                out.writeLong(start);
+                start += postings.get(code)[0];
+            }
+            out.writeLong(start);
+            return start;
+        }
+
+        void writeItems(DataOutputStream out) throws IOException {
+            for (long code : codes) {
+                int[] posting = postings.get(code);
+                for (int i = 1; i <= posting[0]; i++) {
+                    out.writeInt(posting[i]);
+                }
+            }
+        }
+    }
+
+    private static int[] sortedOrder(int[] keys) {
+        long[] packed = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            packed[i] = ((long) keys[i] << 32) | i;
+        }
+        return unpack(packed);
+    }
+
+    private static int[] unpack(long[] packed) {
+        Arrays.sort(packed);
+        int[] order = new int[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+}
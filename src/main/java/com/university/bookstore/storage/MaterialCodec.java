@@ -0,0 +1,302 @@
+package com.university.bookstore.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.university.bookstore.model.AudioBook;
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.model.VideoMaterial;
+
+/**
+ * Compact binary encoding of the concrete {@link Material} subtypes.
+ *
+ * <p>A material is split into its common fields (kind, id, title, creator, price, year)
+ * and a <em>details</em> blob holding the subtype-specific fields. The creator is the value
+ * of {@link Material#getCreator()}; where that is derived (an audio book's creator includes
+ * the narrator) the underlying author is part of the details. Columnar storage keeps
+ * the common fields in their own columns and only stores the details blob; stream formats
+ * use {@link #write(Material, DataOutput)} which writes both parts back to back.</p>
+ *
+ * <p>Strings are written as a length-prefixed UTF-8 byte sequence, enums by ordinal.
+ * Decoding goes through the public constructors, so every decoded material passes the
+ * same validation as the original.</p>
+ *
+ * <p>Only the five concrete subtypes in the model package are supported; anything else is
+ * rejected with an {@link IllegalArgumentException}.</p>
+ */
+public final class MaterialCodec {
+
+    /** Kind tag for {@link PrintedBook}. */
+    public static final byte KIND_PRINTED_BOOK = 1;
+    /** Kind tag for {@link Magazine}. */
+    public static final byte KIND_MAGAZINE = 2;
+    /** Kind tag for {@link AudioBook}. */
+    public static final byte KIND_AUDIO_BOOK = 3;
+    /** Kind tag for {@link VideoMaterial}. */
+    public static final byte KIND_VIDEO = 4;
+    /** Kind tag for {@link EBook}. */
+    public static final byte KIND_E_BOOK = 5;
+
+    private static final Media.MediaQuality[] QUALITIES = Media.MediaQuality.values();
+    private static final VideoMaterial.VideoType[] VIDEO_TYPES = VideoMaterial.VideoType.values();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private MaterialCodec() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Gets the kind tag of a material.
+     *
+     * @param material the material
+     * @return one of the {@code KIND_*} constants
+     * @throws IllegalArgumentException if the material is not a supported subtype
+     */
+    public static byte kindOf(Material material) {
+        if (material instanceof PrintedBook) {
+            return KIND_PRINTED_BOOK;
+        }
+        if (material instanceof Magazine) {
+            return KIND_MAGAZINE;
+        }
+        if (material instanceof AudioBook) {
+            return KIND_AUDIO_BOOK;
+        }
+        if (material instanceof VideoMaterial) {
+            return KIND_VIDEO;
+        }
+        if (material instanceof EBook) {
+            return KIND_E_BOOK;
+        }
+        throw new IllegalArgumentException(
+            "Unsupported material type: " + (material == null ? "null" : material.getClass().getName()));
+    }
+
+    /**
+     * Encodes a whole material.
+     *
+     * @param material the material to encode
+     * @return the encoded bytes
+     */
+    public static byte[] encode(Material material) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try {
+            write(material, new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a material produced by {@link #encode(Material)}.
+     *
+     * @param bytes the encoded bytes
+     * @return the decoded material
+     * @throws IllegalArgumentException if the bytes are not a valid encoding
+     */
+    public static Material decode(byte[] bytes) {
+        try {
+            return read(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated material encoding", e);
+        }
+    }
+
+    /**
+     * Writes a whole material: kind, common fields, then details.
+     *
+     * @param material the material to write
+     * @param out the destination
+     * @throws IOException if the destination fails
+     */
+    public static void write(Material material, DataOutput out) throws IOException {
+        out.writeByte(kindOf(material));
+        writeString(out, material.getId());
+        writeString(out, material.getTitle());
+        writeString(out, material.getCreator());
+        out.writeDouble(material.getPrice());
+        out.writeInt(material.getYear());
+        writeDetails(material, out);
+    }
+
+    /**
+     * Reads a material written by {@link #write(Material, DataOutput)}.
+     *
+     * @param in the source
+     * @return the decoded material
+     * @throws IOException if the source fails or ends early
+     */
+    public static Material read(DataInput in) throws IOException {
+        byte kind = in.readByte();
+        String id = readString(in);
+        String title = readString(in);
+        String creator = readString(in);
+        double price = in.readDouble();
+        int year = in.readInt();
+        return readDetails(kind, id, title, creator, price, year, in);
+    }
+
+    /**
+     * Encodes only the subtype-specific fields of a material.
+     *
+     * @param material the material
+     * @return the details blob
+     */
+    public static byte[] encodeDetails(Material material) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try {
+            writeDetails(material, new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Rebuilds a material from its common fields and details blob.
+     *
+     * @param kind the kind tag
+     * @param id the material ID
+     * @param title the title
+     * @param creator the creator as returned by {@link Material#getCreator()}
+     * @param price the price
+     * @param year the year
+     * @param details the blob produced by {@link #encodeDetails(Material)}
+     * @return the decoded material
+     * @throws IllegalArgumentException if the kind or blob is invalid
+     */
+    public static Material decodeDetails(byte kind, String id, String title, String creator,
+                                         double price, int year, byte[] details) {
+        try {
+            return readDetails(kind, id, title, creator, price, year,
+                               new DataInputStream(new ByteArrayInputStream(details)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated material details", e);
+        }
+    }
+
+    private static void writeDetails(Material material, DataOutput out) throws IOException {
+        switch (kindOf(material)) {
+            case KIND_PRINTED_BOOK: {
+                PrintedBook book = (PrintedBook) material;
+                out.writeInt(book.getPages());
+                writeString(out, book.getPublisher());
+                out.writeBoolean(book.isHardcover());
+                break;
+            }
+            case KIND_MAGAZINE: {
+                Magazine magazine = (Magazine) material;
+                out.writeInt(magazine.getIssueNumber());
+                writeString(out, magazine.getFrequency());
+                writeString(out, magazine.getCategory());
+                break;
+            }
+            case KIND_AUDIO_BOOK: {
+                AudioBook audio = (AudioBook) material;
+                writeString(out, audio.getAuthor());
+                writeString(out, audio.getNarrator());
+                out.writeInt(audio.getDuration());
+                writeString(out, audio.getFormat());
+                out.writeDouble(audio.getFileSize());
+                out.writeByte(audio.getQuality().ordinal());
+                writeString(out, audio.getLanguage());
+                out.writeBoolean(audio.isUnabridged());
+                break;
+            }
+            case KIND_VIDEO: {
+                VideoMaterial video = (VideoMaterial) material;
+                out.writeInt(video.getDuration());
+                writeString(out, video.getFormat());
+                out.writeDouble(video.getFileSize());
+                out.writeByte(video.getQuality().ordinal());
+                out.writeByte(video.getVideoType().ordinal());
+                writeString(out, video.getRating());
+                List<String> cast = video.getCast();
+                out.writeInt(cast.size());
+                for (String member : cast) {
+                    writeString(out, member);
+                }
+                out.writeBoolean(video.hasSubtitles());
+                writeString(out, video.getAspectRatio());
+                break;
+            }
+            default: {
+                EBook ebook = (EBook) material;
+                writeString(out, ebook.getFileFormat());
+                out.writeDouble(ebook.getFileSize());
+                out.writeBoolean(ebook.isDrmEnabled());
+                out.writeInt(ebook.getWordCount());
+                out.writeByte(ebook.getQuality().ordinal());
+                break;
+            }
+        }
+    }
+
+    private static Material readDetails(byte kind, String id, String title, String creator,
+                                        double price, int year, DataInput in) throws IOException {
+        switch (kind) {
+            case KIND_PRINTED_BOOK:
+                return new PrintedBook(id, title, creator, price, year,
+                                       in.readInt(), readString(in), in.readBoolean());
+            case KIND_MAGAZINE:
+                return new Magazine(id, title, creator, price, year,
+                                    in.readInt(), readString(in), readString(in));
+            case KIND_AUDIO_BOOK:
+                return new AudioBook(id, title, readString(in), readString(in), price, year,
+                                     in.readInt(), readString(in), in.readDouble(),
+                                     QUALITIES[in.readByte()], readString(in), in.readBoolean());
+            case KIND_VIDEO: {
+                int duration = in.readInt();
+                String format = readString(in);
+                double fileSize = in.readDouble();
+                Media.MediaQuality quality = QUALITIES[in.readByte()];
+                VideoMaterial.VideoType videoType = VIDEO_TYPES[in.readByte()];
+                String rating = readString(in);
+                int castSize = in.readInt();
+                List<String> cast = new ArrayList<>(castSize);
+                for (int i = 0; i < castSize; i++) {
+                    cast.add(readString(in));
+                }
+                return new VideoMaterial(id, title, creator, price, year, duration, format, fileSize,
+                                         quality, videoType, rating, cast, in.readBoolean(), readString(in));
+            }
+            case KIND_E_BOOK:
+                return new EBook(id, title, creator, price, year, readString(in), in.readDouble(),
+                                 in.readBoolean(), in.readInt(), QUALITIES[in.readByte()]);
+            default:
+                throw new IllegalArgumentException("Unknown material kind: " + kind);
+        }
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
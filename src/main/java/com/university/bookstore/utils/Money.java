@@ -0,0 +1,61 @@
+package com.university.bookstore.utils;
+
+/**
+ * Fixed-point money arithmetic on scaled {@code long} amounts.
+ *
+ * <p>An amount is stored as a whole number of {@link #SCALE}ths of a dollar. Four
+ * decimal places hold any price in whole cents and that price after any discount
+ * in whole percent, so such amounts add and subtract with no rounding error.
+ * Running totals kept in units therefore never drift, however many add/remove
+ * cycles they go through. Conversion to and from {@code double} is one
+ * multiplication or division.</p>
+ *
+ * <p>A long of units holds amounts up to about 922 trillion dollars.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public final class Money {
+
+    /** Units per dollar. */
+    public static final long SCALE = 10_000L;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private Money() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Converts a dollar amount to units, rounding to the nearest unit.
+     *
+     * @param dollars the amount in dollars
+     * @return the amount in units
+     */
+    public static long toUnits(double dollars) {
+        return Math.round(dollars * SCALE);
+    }
+
+    /**
+     * Converts units back to dollars.
+     *
+     * @param units the amount in units
+     * @return the amount in dollars
+     */
+    public static double toDollars(long units) {
+        return (double) units / SCALE;
+    }
+
+    /**
+     * Applies a discount rate to an amount, rounding to the nearest unit.
+     *
+     * @param units the undiscounted amount in units
+     * @param rate the discount rate between 0.0 and 1.0
+     * @return the discounted amount in units
+     */
+    public static long discount(long units, double rate) {
+        return Math.round(units * (1.0 - rate));
+    }
+}
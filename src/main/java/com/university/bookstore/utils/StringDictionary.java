@@ -0,0 +1,230 @@
+package com.university.bookstore.utils;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe dictionary encoding for low-cardinality strings.
+ *
+ * <p>Each distinct value gets a dense {@code int} code and one canonical {@link String}
+ * instance. {@link #intern(String)} swaps an equal duplicate for the canonical instance,
+ * so fields such as formats, languages and ratings share one copy across millions of
+ * materials; the duplicate becomes garbage as soon as the caller drops it. Codes are
+ * stable for the life of the dictionary and can serve as compact index keys.</p>
+ *
+ * <p>Values added by {@link #code(String)} or {@link #intern(String)} are never removed,
+ * so only values with a bounded number of distinct forms should be encoded that way in a
+ * long-lived dictionary such as {@link #shared()}. Open-ended values such as creator
+ * names are encoded with {@link #acquire(String)} and {@link #release(String)} instead:
+ * each acquire counts one holder, and the value and its code are dropped when the last
+ * holder releases it. A dropped code is reused for a later value, so a reader that looked
+ * up a code concurrently with its release must check what it finds under it. Lookups of
+ * known values are lock-free; assigning, counting and dropping take a short lock.</p>
+ *
+ * <p>{@link #getBytesSaved()} estimates the heap released by deduplication, assuming
+ * compressed object pointers: 24 bytes per {@code String} object plus its 8-byte-aligned
+ * backing array.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public final class StringDictionary {
+
+    private static final StringDictionary SHARED = new StringDictionary();
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private volatile int size;
+    // Guarded by this: holder counts per code, codes freed by release, the next new code
+    private int[] references = new int[64];
+    private int[] freeCodes = new int[16];
+    private int freeCount;
+    private int nextCode;
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * Returns the process-wide dictionary the model constructors use for low-cardinality
+     * fields.
+     *
+     * @return the shared dictionary
+     */
+    public static StringDictionary shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the canonical instance equal to {@code value}, adding it if it is new.
+     *
+     * @param value the value; may be null
+     * @return the canonical instance, or null if value is null
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        int code = code(value);
+        String canonical = values[code];
+        if (canonical != value) {
+            deduplicated.increment();
+            bytesSaved.add(footprint(value));
+        }
+        return canonical;
+    }
+
+    /**
+     * Returns the code of {@code value}, assigning the next free code if it is new.
+     *
+     * @param value the value
+     * @return its code, from 0 upwards
+     */
+    public int code(String value) {
+        Objects.requireNonNull(value, "Value cannot be null");
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(value);
+            return code != null ? code : assign(value);
+        }
+    }
+
+    /**
+     * Returns the code of {@code value} and counts one more holder of it, assigning a
+     * code if the value is new.
+     *
+     * @param value the value
+     * @return its code
+     */
+    public synchronized int acquire(String value) {
+        Objects.requireNonNull(value, "Value cannot be null");
+        Integer known = codes.get(value);
+        int code = known != null ? known : assign(value);
+        references[code]++;
+        return code;
+    }
+
+    /**
+     * Counts one holder of {@code value} less, dropping the value and freeing its code
+     * when no holder is left.
+     *
+     * @param value a value previously passed to {@link #acquire(String)}
+     * @throws IllegalStateException if the value has no holder
+     */
+    public synchronized void release(String value) {
+        Objects.requireNonNull(value, "Value cannot be null");
+        Integer code = codes.get(value);
+        if (code == null || references[code] == 0) {
+            throw new IllegalStateException("Value was not acquired: " + value);
+        }
+        if (--references[code] == 0) {
+            codes.remove(value);
+            values[code] = null;
+            if (freeCount == freeCodes.length) {
+                freeCodes = Arrays.copyOf(freeCodes, freeCount * 2);
+            }
+            freeCodes[freeCount++] = code;
+            size--;
+        }
+    }
+
+    /**
+     * Gives a new value a code, reusing a freed one first. The caller holds the lock.
+     */
+    private int assign(String value) {
+        int code = freeCount > 0 ? freeCodes[--freeCount] : nextCode++;
+        String[] table = values;
+        if (code == table.length) {
+            table = Arrays.copyOf(table, code * 2);
+            references = Arrays.copyOf(references, code * 2);
+        }
+        table[code] = value;
+        // Publish the value before the code becomes visible to lock-free readers
+        values = table;
+        size++;
+        codes.put(value, code);
+        return code;
+    }
+
+    /**
+     * Looks up the code of {@code value} without adding it.
+     *
+     * @param value the value
+     * @return its code, or -1 if the dictionary does not hold it
+     */
+    public int find(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : -1;
+    }
+
+    /**
+     * Decodes a code.
+     *
+     * @param code a code returned by this dictionary
+     * @return the canonical value
+     * @throws IllegalArgumentException if the code is not assigned
+     */
+    public String value(int code) {
+        String[] table = values;
+        String value = code >= 0 && code < table.length ? table[code] : null;
+        if (value == null) {
+            throw new IllegalArgumentException("Unknown dictionary code: " + code);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the number of distinct values.
+     *
+     * @return the dictionary size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns how many duplicates {@link #intern(String)} replaced with a canonical instance.
+     *
+     * @return the deduplicated count
+     */
+    public long getDeduplicatedCount() {
+        return deduplicated.sum();
+    }
+
+    /**
+     * Returns the estimated heap released by deduplication.
+     *
+     * @return estimated bytes saved
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * Estimates the retained size of a string: the object plus its Latin-1 or UTF-16 array.
+     */
+    static long footprint(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        long array = 16L + (long) value.length() * bytesPerChar;
+        return 24L + ((array + 7) & ~7L);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StringDictionary[Values=%d, Deduplicated=%d, Saved=%d bytes]",
+            size(), getDeduplicatedCount(), getBytesSaved());
+    }
+}
@@ -0,0 +1,192 @@
+package com.university.bookstore.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Bounded-heap selection of the {@code k} smallest elements of a list.
+ *
+ * <p>Selection runs in O(n log k) time and O(k) extra space instead of the
+ * O(n log n) time and O(n) copy of a full sort. Ties are broken by position in
+ * the input, so the result always equals the first {@code k} elements of a
+ * stable sort with the same comparator.</p>
+ *
+ * <p>The parallel variant splits the input into partitions, selects the
+ * {@code k} smallest of each on the common fork-join pool and merges the
+ * survivors with one more bounded-heap pass. It gives the same result as the
+ * sequential variant.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public final class TopK {
+
+    /** Inputs smaller than this are always selected sequentially. */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private TopK() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Selects the {@code k} smallest elements in comparator order.
+     *
+     * @param <T> the element type
+     * @param items the input; should support fast random access
+     * @param comparator the ordering
+     * @param k maximum number of elements to return
+     * @return a new list of at most {@code k} elements, sorted
+     * @throws IllegalArgumentException if k is negative
+     */
+    public static <T> List<T> smallest(List<? extends T> items, Comparator<? super T> comparator, int k) {
+        validate(items, comparator, k);
+        return collect(items, select(items, comparator, k, 0, items.size()));
+    }
+
+    /**
+     * Selects the {@code k} smallest elements, partitioning the input across the
+     * common fork-join pool when it holds at least {@link #PARALLEL_THRESHOLD}
+     * elements. The comparator must be safe to call from several threads.
+     *
+     * @param <T> the element type
+     * @param items the input; must support fast random access
+     * @param comparator the ordering
+     * @param k maximum number of elements to return
+     * @return a new list of at most {@code k} elements, sorted
+     * @throws IllegalArgumentException if k is negative
+     */
+    public static <T> List<T> smallestParallel(List<? extends T> items, Comparator<? super T> comparator, int k) {
+        validate(items, comparator, k);
+        int n = items.size();
+        if (n < PARALLEL_THRESHOLD || k == 0) {
+            return collect(items, select(items, comparator, k, 0, n));
+        }
+
+        int partitions = Math.max(2, Runtime.getRuntime().availableProcessors() * 4);
+        int partitionSize = (n + partitions - 1) / partitions;
+        int[] survivors = IntStream.range(0, partitions)
+                .parallel()
+                .mapToObj(p -> select(items, comparator, k, p * partitionSize,
+                                      Math.min(n, (p + 1) * partitionSize)))
+                .flatMapToInt(Arrays::stream)
+                .toArray();
+
+        // Each partition kept only its own winners; one more pass over them picks the global k
+        Heap<T> heap = new Heap<>(items, comparator, Math.min(k, survivors.length));
+        for (int position : survivors) {
+            heap.offer(position);
+        }
+        return collect(items, heap.drainSorted());
+    }
+
+    /**
+     * Selects the positions of the {@code k} smallest elements in {@code [from, to)}, sorted.
+     */
+    private static <T> int[] select(List<? extends T> items, Comparator<? super T> comparator,
+                                    int k, int from, int to) {
+        Heap<T> heap = new Heap<>(items, comparator, Math.min(k, to - from));
+        for (int i = from; i < to; i++) {
+            heap.offer(i);
+        }
+        return heap.drainSorted();
+    }
+
+    private static <T> List<T> collect(List<? extends T> items, int[] positions) {
+        List<T> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(items.get(position));
+        }
+        return result;
+    }
+
+    private static void validate(List<?> items, Comparator<?> comparator, int k) {
+        Objects.requireNonNull(items, "Items cannot be null");
+        Objects.requireNonNull(comparator, "Comparator cannot be null");
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative: " + k);
+        }
+    }
+
+    /**
+     * Max-heap of input positions holding the best {@code capacity} seen so far;
+     * the root is the worst of them.
+     */
+    private static final class Heap<T> {
+        private final List<? extends T> items;
+        private final Comparator<? super T> comparator;
+        private final int[] positions;
+        private int size;
+
+        Heap(List<? extends T> items, Comparator<? super T> comparator, int capacity) {
+            this.items = items;
+            this.comparator = comparator;
+            this.positions = new int[Math.max(0, capacity)];
+        }
+
+        void offer(int position) {
+            if (size < positions.length) {
+                positions[size] = position;
+                siftUp(size++);
+            } else if (size > 0 && before(position, positions[0])) {
+                positions[0] = position;
+                siftDown(0, size);
+            }
+        }
+
+        int[] drainSorted() {
+            // Heap sort in place: repeatedly move the worst to the end
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            return Arrays.copyOf(positions, size);
+        }
+
+        /** Total order: comparator first, then input position. */
+        private boolean before(int a, int b) {
+            int cmp = comparator.compare(items.get(a), items.get(b));
+            return cmp < 0 || (cmp == 0 && a < b);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!before(positions[parent], positions[index])) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index, int limit) {
+            while (true) {
+                int left = 2 * index + 1;
+                if (left >= limit) {
+                    return;
+                }
+                int right = left + 1;
+                int larger = right < limit && before(positions[left], positions[right]) ? right : left;
+                if (!before(positions[index], positions[larger])) {
+                    return;
+                }
+                swap(index, larger);
+                index = larger;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int tmp = positions[a];
+            positions[a] = positions[b];
+            positions[b] = tmp;
+        }
+    }
+}
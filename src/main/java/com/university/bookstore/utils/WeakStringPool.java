@@ -0,0 +1,125 @@
+package com.university.bookstore.utils;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe pool of canonical instances for open-ended strings such as author,
+ * narrator, publisher and director names.
+ *
+ * <p>{@link #intern(String)} swaps an equal duplicate for the pooled instance, like
+ * {@link StringDictionary#intern(String)}, but the pool holds its instances weakly: once
+ * no material refers to a name any more, the garbage collector reclaims it and its
+ * entry. Long-running processes that load and drop catalogs therefore keep only the
+ * names still in use, however many distinct names they have seen.</p>
+ *
+ * <p>The pool is split into independently locked stripes chosen by hash, so concurrent
+ * constructors rarely wait for each other. {@link #getBytesSaved()} uses the same
+ * estimate as {@link StringDictionary#getBytesSaved()}.</p>
+ *
+ * @author Navid Mohaghegh
+ * @version 1.0
+ * @since 2024-09-15
+ */
+public final class WeakStringPool {
+
+    private static final WeakStringPool SHARED = new WeakStringPool();
+    private static final int STRIPES = 32;
+
+    private final WeakHashMap<String, WeakReference<String>>[] stripes;
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * Creates an empty pool.
+     */
+    @SuppressWarnings("unchecked")
+    public WeakStringPool() {
+        stripes = new WeakHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new WeakHashMap<>();
+        }
+    }
+
+    /**
+     * Returns the process-wide pool the model constructors use for names.
+     *
+     * @return the shared pool
+     */
+    public static WeakStringPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the pooled instance equal to {@code value}, pooling value if none is alive.
+     *
+     * @param value the value; may be null
+     * @return the pooled instance, or null if value is null
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        WeakHashMap<String, WeakReference<String>> stripe = stripeFor(value);
+        String canonical;
+        synchronized (stripe) {
+            WeakReference<String> reference = stripe.get(value);
+            canonical = reference != null ? reference.get() : null;
+            if (canonical == null) {
+                // The reference must not hold the key strongly, or the entry would never clear
+                stripe.put(value, new WeakReference<>(value));
+                return value;
+            }
+        }
+        if (canonical != value) {
+            deduplicated.increment();
+            bytesSaved.add(StringDictionary.footprint(value));
+        }
+        return canonical;
+    }
+
+    /**
+     * Returns the number of pooled values not yet reclaimed.
+     *
+     * @return the pool size
+     */
+    public int size() {
+        int size = 0;
+        for (WeakHashMap<String, WeakReference<String>> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns how many duplicates {@link #intern(String)} replaced with a pooled instance.
+     *
+     * @return the deduplicated count
+     */
+    public long getDeduplicatedCount() {
+        return deduplicated.sum();
+    }
+
+    /**
+     * Returns the estimated heap released by deduplication.
+     *
+     * @return estimated bytes saved
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    private WeakHashMap<String, WeakReference<String>> stripeFor(String value) {
+        int hash = value.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WeakStringPool[Values=%d, Deduplicated=%d, Saved=%d bytes]",
+            size(), getDeduplicatedCount(), getBytesSaved());
+    }
+}
@@ -0,0 +1,173 @@
+package com.university.bookstore.visitor;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import com.university.bookstore.model.AudioBook;
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Material.MaterialType;
+import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.model.VideoMaterial;
+
+/**
+ * Precomputed handler table indexed by {@link MaterialType}.
+ *
+ * Dispatching goes straight to the handler registered for the material's
+ * type ordinal after one class check, instead of walking an instanceof
+ * chain or taking a megamorphic {@code accept} call. Build one table per
+ * hot visitor and reuse it; tables are immutable and thread-safe.
+ *
+ * Types without a concrete Material subclass (music albums, podcasts) and
+ * materials whose class does not match their declared type are rejected
+ * with an {@link IllegalArgumentException}.
+ *
+ * @param <R> the result type
+ */
+public final class MaterialDispatchTable<R> {
+
+    private static final int TYPE_COUNT = MaterialType.values().length;
+
+    private final Class<?>[] expectedClasses = new Class<?>[TYPE_COUNT];
+    private final Function<Material, R>[] handlers;
+
+    @SuppressWarnings("unchecked")
+    private MaterialDispatchTable(Function<? super PrintedBook, ? extends R> book,
+                                  Function<? super Magazine, ? extends R> magazine,
+                                  Function<? super AudioBook, ? extends R> audioBook,
+                                  Function<? super VideoMaterial, ? extends R> video,
+                                  Function<? super EBook, ? extends R> ebook) {
+        handlers = (Function<Material, R>[]) new Function<?, ?>[TYPE_COUNT];
+        register(MaterialType.BOOK, PrintedBook.class, m -> book.apply((PrintedBook) m));
+        register(MaterialType.MAGAZINE, Magazine.class, m -> magazine.apply((Magazine) m));
+        register(MaterialType.AUDIO_BOOK, AudioBook.class, m -> audioBook.apply((AudioBook) m));
+        register(MaterialType.VIDEO, VideoMaterial.class, m -> video.apply((VideoMaterial) m));
+        register(MaterialType.DOCUMENTARY, VideoMaterial.class, m -> video.apply((VideoMaterial) m));
+        register(MaterialType.E_BOOK, EBook.class, m -> ebook.apply((EBook) m));
+    }
+
+    private void register(MaterialType type, Class<?> expected, Function<Material, R> handler) {
+        expectedClasses[type.ordinal()] = expected;
+        handlers[type.ordinal()] = handler;
+    }
+
+    /**
+     * Builds a table from a result visitor.
+     *
+     * @param <R> the result type
+     * @param visitor the visitor whose overloads become the handlers
+     * @return the dispatch table
+     */
+    public static <R> MaterialDispatchTable<R> of(MaterialResultVisitor<R> visitor) {
+        Objects.requireNonNull(visitor, "Visitor cannot be null");
+        return new MaterialDispatchTable<>(visitor::visit, visitor::visit, visitor::visit,
+                                           visitor::visit, visitor::visit);
+    }
+
+    /**
+     * Builds a table from one handler per Material subclass.
+     *
+     * @param <R> the result type
+     * @param book handler for printed books
+     * @param magazine handler for magazines
+     * @param audioBook handler for audio books
+     * @param video handler for videos and documentaries
+     * @param ebook handler for eBooks
+     * @return the dispatch table
+     */
+    public static <R> MaterialDispatchTable<R> of(Function<? super PrintedBook, ? extends R> book,
+                                                  Function<? super Magazine, ? extends R> magazine,
+                                                  Function<? super AudioBook, ? extends R> audioBook,
+                                                  Function<? super VideoMaterial, ? extends R> video,
+                                                  Function<? super EBook, ? extends R> ebook) {
+        return new MaterialDispatchTable<>(Objects.requireNonNull(book), Objects.requireNonNull(magazine),
+                                           Objects.requireNonNull(audioBook), Objects.requireNonNull(video),
+                                           Objects.requireNonNull(ebook));
+    }
+
+    /**
+     * Builds a table of primitive double handlers, avoiding boxing on
+     * numeric hot paths such as pricing.
+     *
+     * @param book handler for printed books
+     * @param magazine handler for magazines
+     * @param audioBook handler for audio books
+     * @param video handler for videos and documentaries
+     * @param ebook handler for eBooks
+     * @return the dispatch table
+     */
+    public static OfDouble ofDouble(ToDoubleFunction<? super PrintedBook> book,
+                                    ToDoubleFunction<? super Magazine> magazine,
+                                    ToDoubleFunction<? super AudioBook> audioBook,
+                                    ToDoubleFunction<? super VideoMaterial> video,
+                                    ToDoubleFunction<? super EBook> ebook) {
+        return new OfDouble(Objects.requireNonNull(book), Objects.requireNonNull(magazine),
+                            Objects.requireNonNull(audioBook), Objects.requireNonNull(video),
+                            Objects.requireNonNull(ebook));
+    }
+
+    /**
+     * Applies the handler registered for the material's type.
+     *
+     * @param material the material
+     * @return the handler's result
+     * @throws IllegalArgumentException if no handler matches the material
+     */
+    public R apply(Material material) {
+        int slot = material.getType().ordinal();
+        Class<?> expected = expectedClasses[slot];
+        if (expected == null || !expected.isInstance(material)) {
+            throw unsupported(material);
+        }
+        return handlers[slot].apply(material);
+    }
+
+    private static IllegalArgumentException unsupported(Material material) {
+        return new IllegalArgumentException("Unsupported material type: " + material.getClass().getSimpleName());
+    }
+
+    /**
+     * Dispatch table specialised for {@code double} results.
+     */
+    public static final class OfDouble {
+        private final Class<?>[] expectedClasses = new Class<?>[TYPE_COUNT];
+        private final ToDoubleFunction<?>[] handlers = new ToDoubleFunction<?>[TYPE_COUNT];
+
+        private OfDouble(ToDoubleFunction<? super PrintedBook> book,
+                         ToDoubleFunction<? super Magazine> magazine,
+                         ToDoubleFunction<? super AudioBook> audioBook,
+                         ToDoubleFunction<? super VideoMaterial> video,
+                         ToDoubleFunction<? super EBook> ebook) {
+            register(MaterialType.BOOK, PrintedBook.class, book);
+            register(MaterialType.MAGAZINE, Magazine.class, magazine);
+            register(MaterialType.AUDIO_BOOK, AudioBook.class, audioBook);
+            register(MaterialType.VIDEO, VideoMaterial.class, video);
+            register(MaterialType.DOCUMENTARY, VideoMaterial.class, video);
+            register(MaterialType.E_BOOK, EBook.class, ebook);
+        }
+
+        private void register(MaterialType type, Class<?> expected, ToDoubleFunction<?> handler) {
+            expectedClasses[type.ordinal()] = expected;
+            handlers[type.ordinal()] = handler;
+        }
+
+        /**
+         * Applies the handler registered for the material's type.
+         *
+         * @param material the material
+         * @return the handler's result
+         * @throws IllegalArgumentException if no handler matches the material
+         */
+        @SuppressWarnings("unchecked")
+        public double applyAsDouble(Material material) {
+            int slot = material.getType().ordinal();
+            Class<?> expected = expectedClasses[slot];
+            if (expected == null || !expected.isInstance(material)) {
+                throw unsupported(material);
+            }
+            return ((ToDoubleFunction<Material>) handlers[slot]).applyAsDouble(material);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.university.bookstore.visitor;
+
+import com.university.bookstore.model.AudioBook;
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.model.VideoMaterial;
+
+/**
+ * A visitor that returns a result for each Material subclass.
+ *
+ * Unlike {@link MaterialVisitor}, which accumulates into its own fields,
+ * a result visitor can be stateless and shared between threads. Use it
+ * through {@code Material.accept(MaterialResultVisitor)} or, on hot paths,
+ * through a {@link MaterialDispatchTable}.
+ *
+ * @param <R> the result type
+ */
+public interface MaterialResultVisitor<R> {
+
+    /**
+     * Handle operation for printed books.
+     * @param book printed book instance
+     * @return the result for this book
+     */
+    R visit(PrintedBook book);
+
+    /**
+     * Handle operation for magazines.
+     * @param magazine magazine instance
+     * @return the result for this magazine
+     */
+    R visit(Magazine magazine);
+
+    /**
+     * Handle operation for audio books.
+     * @param audioBook audio book instance
+     * @return the result for this audio book
+     */
+    R visit(AudioBook audioBook);
+
+    /**
+     * Handle operation for video-based materials.
+     * @param video video material instance
+     * @return the result for this video
+     */
+    R visit(VideoMaterial video);
+
+    /**
+     * Handle operation for digital eBooks.
+     * @param ebook eBook instance
+     * @return the result for this eBook
+     */
+    R visit(EBook ebook);
+}
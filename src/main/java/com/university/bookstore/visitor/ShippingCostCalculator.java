@@ -1,5 +1,12 @@
 package com.university.bookstore.visitor;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
 import com.university.bookstore.model.*;
 
 /**
@@ -13,6 +20,10 @@ import com.university.bookstore.model.*;
  *
  * This implementation separates pricing logic from the material classes.
  *
+ * A calculator instance accumulates into a running total and must not be
+ * shared between threads. The static {@link #costOf(Material)} and the batch
+ * methods keep no state and are safe to call concurrently.
+ *
  * Luxsan Indran
  * 221298286
  * luxsan@my.yorku.ca
@@ -23,6 +34,10 @@ public class ShippingCostCalculator implements MaterialVisitor {
     private static final double MAGAZINE_RATE = 2.00;
     private static final double DIGITAL_RATE = 0.00;
 
+    private static final MaterialDispatchTable.OfDouble COSTS = MaterialDispatchTable.ofDouble(
+            ShippingCostCalculator::costOf, ShippingCostCalculator::costOf, ShippingCostCalculator::costOf,
+            ShippingCostCalculator::costOf, ShippingCostCalculator::costOf);
+
     private double totalCost;
 
     /**
@@ -31,8 +46,7 @@ public class ShippingCostCalculator implements MaterialVisitor {
      */
     @Override
     public void visit(PrintedBook book) {
-        double weightUnits = 5.0; // 500g / 100g
-        totalCost += weightUnits * RATE_PER_100G;
+        totalCost += costOf(book);
     }
 
     /**
@@ -40,7 +54,7 @@ public class ShippingCostCalculator implements MaterialVisitor {
      */
     @Override
     public void visit(Magazine magazine) {
-        totalCost += MAGAZINE_RATE;
+        totalCost += costOf(magazine);
     }
 
     /**
@@ -49,11 +63,7 @@ public class ShippingCostCalculator implements MaterialVisitor {
      */
     @Override
     public void visit(AudioBook audioBook) {
-        if (audioBook.getQuality() == Media.MediaQuality.PHYSICAL) {
-            totalCost += 1.0 * RATE_PER_100G; // 100g assumed
-        } else {
-            totalCost += DIGITAL_RATE;
-        }
+        totalCost += costOf(audioBook);
     }
 
     /**
@@ -61,11 +71,7 @@ public class ShippingCostCalculator implements MaterialVisitor {
      */
     @Override
     public void visit(VideoMaterial video) {
-        if (video.getQuality() == Media.MediaQuality.PHYSICAL) {
-            totalCost += 1.5 * RATE_PER_100G; // ~150g
-        } else {
-            totalCost += DIGITAL_RATE;
-        }
+        totalCost += costOf(video);
     }
 
     /**
@@ -73,7 +79,7 @@ public class ShippingCostCalculator implements MaterialVisitor {
      */
     @Override
     public void visit(EBook ebook) {
-        totalCost += DIGITAL_RATE;
+        totalCost += costOf(ebook);
     }
 
     /**
@@ -98,23 +104,133 @@ public class ShippingCostCalculator implements MaterialVisitor {
      */
     public double calculateShippingCost(Material material) {
         reset();
+        totalCost = costOf(material);
+        return totalCost;
+    }
 
-        if (material instanceof PrintedBook pb) {
-            visit(pb);
-        } else if (material instanceof Magazine mag) {
-            visit(mag);
-        } else if (material instanceof AudioBook ab) {
-            visit(ab);
-        } else if (material instanceof VideoMaterial vm) {
-            visit(vm);
-        } else if (material instanceof EBook eb) {
-            visit(eb);
-        } else {
-            throw new IllegalArgumentException(
-                    "Unsupported material type: " + material.getClass().getSimpleName()
-            );
+    /**
+     * Computes the shipping cost of a single material without touching
+     * any calculator state.
+     *
+     * @param material material whose shipping is to be calculated
+     * @return cost associated with this material
+     * @throws IllegalArgumentException if the material type is not supported
+     */
+    public static double costOf(Material material) {
+        return COSTS.applyAsDouble(material);
+    }
+
+    /**
+     * Prices a whole cart in one pass.
+     *
+     * @param materials items in cart order; repeated items are priced per occurrence
+     * @return per-item costs in input order, and their total
+     */
+    public static ShippingQuote priceAll(Collection<? extends Material> materials) {
+        Objects.requireNonNull(materials, "Materials cannot be null");
+        double[] costs = new double[materials.size()];
+        int i = 0;
+        for (Material material : materials) {
+            costs[i++] = costOf(material);
         }
+        return new ShippingQuote(costs);
+    }
 
-        return totalCost;
+    /**
+     * Prices a stream of materials.
+     *
+     * @param materials items in encounter order
+     * @return per-item costs in encounter order, and their total
+     */
+    public static ShippingQuote priceAll(Stream<? extends Material> materials) {
+        Objects.requireNonNull(materials, "Materials cannot be null");
+        return new ShippingQuote(materials.mapToDouble(ShippingCostCalculator::costOf).toArray());
+    }
+
+    /**
+     * Prices a large collection, such as a whole catalog, on the common
+     * fork-join pool. Gives the same result as {@link #priceAll(Collection)}.
+     *
+     * @param materials the items
+     * @return per-item costs in input order, and their total
+     */
+    public static ShippingQuote priceAllParallel(Collection<? extends Material> materials) {
+        Objects.requireNonNull(materials, "Materials cannot be null");
+        List<? extends Material> items = materials instanceof List<? extends Material> list
+                ? list : new ArrayList<>(materials);
+        double[] costs = new double[items.size()];
+        IntStream.range(0, costs.length).parallel().forEach(i -> costs[i] = costOf(items.get(i)));
+        return new ShippingQuote(costs);
+    }
+
+    private static double costOf(PrintedBook book) {
+        double weightUnits = 5.0; // 500g / 100g
+        return weightUnits * RATE_PER_100G;
+    }
+
+    private static double costOf(Magazine magazine) {
+        return MAGAZINE_RATE;
+    }
+
+    private static double costOf(AudioBook audioBook) {
+        if (audioBook.getQuality() == Media.MediaQuality.PHYSICAL) {
+            return 1.0 * RATE_PER_100G; // 100g assumed
+        }
+        return DIGITAL_RATE;
+    }
+
+    private static double costOf(VideoMaterial video) {
+        if (video.getQuality() == Media.MediaQuality.PHYSICAL) {
+            return 1.5 * RATE_PER_100G; // ~150g
+        }
+        return DIGITAL_RATE;
+    }
+
+    private static double costOf(EBook ebook) {
+        return DIGITAL_RATE;
+    }
+
+    /**
+     * Immutable result of pricing several materials at once.
+     */
+    public static final class ShippingQuote {
+        private final double[] itemCosts;
+        private final double total;
+
+        ShippingQuote(double[] itemCosts) {
+            this.itemCosts = itemCosts;
+            double sum = 0.0;
+            for (double cost : itemCosts) {
+                sum += cost;
+            }
+            this.total = sum;
+        }
+
+        /**
+         * Returns the cost of one item.
+         *
+         * @param index position of the item in the priced input
+         * @return shipping cost of that item
+         */
+        public double getItemCost(int index) {
+            return itemCosts[index];
+        }
+
+        /**
+         * Returns all per-item costs.
+         *
+         * @return a copy of the costs, in input order
+         */
+        public double[] getItemCosts() {
+            return itemCosts.clone();
+        }
+
+        public int getItemCount() { return itemCosts.length; }
+        public double getTotal() { return total; }
+
+        @Override
+        public String toString() {
+            return String.format("ShippingQuote[Items=%d, Total=$%.2f]", itemCosts.length, total);
+        }
     }
 }
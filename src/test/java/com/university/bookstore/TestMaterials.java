@@ -0,0 +1,48 @@
+package com.university.bookstore;
+
+import com.university.bookstore.model.PrintedBook;
+
+/**
+ * Numbered test materials shared by the store, feed and replication tests.
+ *
+ * <p>Book {@code i} has ISBN {@link #isbn(int)} and title {@code "Book i"}, so tests can
+ * refer to a book by number without keeping the instance.</p>
+ */
+public final class TestMaterials {
+
+    private TestMaterials() {
+    }
+
+    /**
+     * Gets the ISBN of book {@code i}.
+     *
+     * @param i the book number
+     * @return a 13-digit ISBN starting with 978
+     */
+    public static String isbn(int i) {
+        return String.format("978%010d", i);
+    }
+
+    /**
+     * Creates book {@code i} by a single author, priced {@code 10 + i}.
+     *
+     * @param i the book number
+     * @return the book
+     */
+    public static PrintedBook book(int i) {
+        return book(i, "Author", 10.0 + i, 2000);
+    }
+
+    /**
+     * Creates book {@code i} with the fields tests vary.
+     *
+     * @param i the book number
+     * @param author the author
+     * @param price the price
+     * @param year the publication year
+     * @return the book
+     */
+    public static PrintedBook book(int i, String author, double price, int year) {
+        return new PrintedBook(isbn(i), "Book " + i, author, price, year, 100, "Publisher", false);
+    }
+}
@@ -0,0 +1,93 @@
+package com.university.bookstore.events;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.university.bookstore.TestMaterials.book;
+import static com.university.bookstore.TestMaterials.isbn;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.impl.MaterialStoreConcurrentImpl;
+import com.university.bookstore.impl.MaterialStoreImpl;
+import com.university.bookstore.model.Material;
+
+/**
+ * Tests for publishing store mutations to a change feed.
+ */
+@DisplayName("ChangeFeedMaterialStore Tests")
+class ChangeFeedMaterialStoreTest {
+
+    @Test
+    @DisplayName("Only successful mutations are published")
+    void testPublishesMutations() {
+        ChangeFeedMaterialStore store = new ChangeFeedMaterialStore(new MaterialStoreImpl());
+        ChangeFeed.Subscription subscription = store.subscribe();
+
+        assertTrue(store.addMaterial(book(1)));
+        assertFalse(store.addMaterial(book(1)));
+        assertTrue(store.removeMaterial("9780000000001").isPresent());
+        assertFalse(store.removeMaterial("9780000000001").isPresent());
+        store.addMaterial(book(2));
+        store.clearInventory();
+
+        List<ChangeEvent> events = subscription.poll(10);
+        assertEquals(List.of(ChangeEvent.Type.ADDED, ChangeEvent.Type.REMOVED,
+                             ChangeEvent.Type.ADDED, ChangeEvent.Type.CLEARED),
+                     events.stream().map(ChangeEvent::getType).toList());
+        assertEquals("9780000000001", events.get(1).getMaterial().getId());
+        assertNull(events.get(3).getMaterial());
+        assertEquals(4, store.getChangeFeed().getLastSequence());
+        assertThrows(NullPointerException.class, () -> store.addMaterial(null));
+    }
+
+    @Test
+    @DisplayName("A replica applying the feed converges with a concurrently written store")
+    void testReplicaConverges() throws InterruptedException {
+        ChangeFeedMaterialStore store = new ChangeFeedMaterialStore(new MaterialStoreConcurrentImpl(),
+            new ChangeFeed(1 << 12, ChangeFeed.OverflowPolicy.BLOCK));
+        ChangeFeed.Subscription subscription = store.subscribe();
+
+        int writers = 4;
+        int perWriter = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        for (int w = 0; w < writers; w++) {
+            int base = w * perWriter;
+            executor.submit(() -> {
+                for (int i = base; i < base + perWriter; i++) {
+                    store.addMaterial(book(i % 3_000));
+                    if (i % 3 == 0) {
+                        store.removeMaterial(isbn((i + 7) % 3_000));
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+
+        Map<String, Material> replica = new HashMap<>();
+        while (!executor.isTerminated() || subscription.getLag() > 0) {
+            for (ChangeEvent event : subscription.poll(512, 10, TimeUnit.MILLISECONDS)) {
+                switch (event.getType()) {
+                    case ADDED -> assertNull(replica.put(event.getMaterial().getId(), event.getMaterial()));
+                    case REMOVED -> assertEquals(event.getMaterial(), replica.remove(event.getMaterial().getId()));
+                    case CLEARED -> replica.clear();
+                }
+            }
+        }
+
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(store.size(), replica.size());
+        for (Material material : store.getAllMaterials()) {
+            assertEquals(material, replica.get(material.getId()));
+        }
+    }
+}
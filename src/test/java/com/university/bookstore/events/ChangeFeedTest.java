@@ -0,0 +1,127 @@
+package com.university.bookstore.events;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.university.bookstore.TestMaterials.book;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the change-feed ring buffer, its cursors and overflow policies.
+ */
+@DisplayName("ChangeFeed Tests")
+class ChangeFeedTest {
+
+    @Test
+    @DisplayName("Subscribers read events in sequence order from independent cursors")
+    void testOrderAndCursors() {
+        ChangeFeed feed = new ChangeFeed(8, ChangeFeed.OverflowPolicy.OVERWRITE);
+        ChangeFeed.Subscription early = feed.subscribe();
+        feed.publish(ChangeEvent.Type.ADDED, book(1));
+        ChangeFeed.Subscription late = feed.subscribe();
+        feed.publish(ChangeEvent.Type.REMOVED, book(1));
+        feed.publish(ChangeEvent.Type.CLEARED, null);
+
+        List<ChangeEvent> first = early.poll(2);
+        assertEquals(2, first.size());
+        assertEquals(1, first.get(0).getSequence());
+        assertEquals(ChangeEvent.Type.REMOVED, first.get(1).getType());
+        assertEquals(1, early.getLag());
+        assertEquals(ChangeEvent.Type.CLEARED, early.poll(10).get(0).getType());
+        assertTrue(early.poll(10).isEmpty());
+
+        List<ChangeEvent> second = late.poll(10);
+        assertEquals(List.of(2L, 3L), second.stream().map(ChangeEvent::getSequence).toList());
+        assertEquals(4, late.getNextSequence());
+    }
+
+    @Test
+    @DisplayName("A consumer resumes from a retained sequence; older ones overflow")
+    void testResumeAndOverwrite() {
+        ChangeFeed feed = new ChangeFeed(4, ChangeFeed.OverflowPolicy.OVERWRITE);
+        ChangeFeed.Subscription slow = feed.subscribe();
+        for (int i = 1; i <= 10; i++) {
+            feed.publish(ChangeEvent.Type.ADDED, book(i));
+        }
+
+        FeedOverflowException overflow = assertThrows(FeedOverflowException.class, () -> slow.poll(1));
+        assertEquals(1, overflow.getRequestedSequence());
+        assertEquals(7, overflow.getOldestAvailableSequence());
+        assertThrows(FeedOverflowException.class, () -> feed.subscribe(6));
+        assertThrows(IllegalArgumentException.class, () -> feed.subscribe(12));
+
+        ChangeFeed.Subscription resumed = feed.subscribe(8);
+        List<ChangeEvent> events = resumed.poll(10);
+        assertEquals(List.of(8L, 9L, 10L), events.stream().map(ChangeEvent::getSequence).toList());
+        assertEquals("9780000000010", events.get(2).getMaterial().getId());
+    }
+
+    @Test
+    @DisplayName("The blocking policy holds publishers until the slowest subscriber reads")
+    void testBlockingBackpressure() throws InterruptedException {
+        ChangeFeed feed = new ChangeFeed(4, ChangeFeed.OverflowPolicy.BLOCK);
+        ChangeFeed.Subscription subscription = feed.subscribe();
+        for (int i = 1; i <= 4; i++) {
+            feed.publish(ChangeEvent.Type.ADDED, book(i));
+        }
+
+        CountDownLatch published = new CountDownLatch(1);
+        Thread publisher = new Thread(() -> {
+            feed.publish(ChangeEvent.Type.ADDED, book(5));
+            published.countDown();
+        });
+        publisher.start();
+        assertFalse(published.await(100, TimeUnit.MILLISECONDS));
+
+        assertEquals(1, subscription.poll(1).get(0).getSequence());
+        assertTrue(published.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(2L, 3L, 4L, 5L),
+                     subscription.poll(10).stream().map(ChangeEvent::getSequence).toList());
+
+        // A closed subscription no longer holds anyone back
+        subscription.close();
+        for (int i = 6; i <= 20; i++) {
+            feed.publish(ChangeEvent.Type.ADDED, book(i));
+        }
+        assertEquals(0, feed.getSubscriptionCount());
+        assertThrows(IllegalStateException.class, () -> subscription.poll(1));
+    }
+
+    @Test
+    @DisplayName("Concurrent publishers deliver every sequence exactly once")
+    void testConcurrentPublishers() throws InterruptedException {
+        ChangeFeed feed = new ChangeFeed(1 << 10, ChangeFeed.OverflowPolicy.BLOCK);
+        ChangeFeed.Subscription subscription = feed.subscribe();
+        int publishers = 4;
+        int perPublisher = 20_000;
+        Thread[] threads = new Thread[publishers];
+        for (int p = 0; p < publishers; p++) {
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perPublisher; i++) {
+                    feed.publish(ChangeEvent.Type.CLEARED, null);
+                }
+            });
+            threads[p].start();
+        }
+
+        AtomicLong expected = new AtomicLong(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (expected.get() <= (long) publishers * perPublisher && System.nanoTime() < deadline) {
+            for (ChangeEvent event : subscription.poll(256, 10, TimeUnit.MILLISECONDS)) {
+                assertEquals(expected.getAndIncrement(), event.getSequence());
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals((long) publishers * perPublisher + 1, expected.get());
+        assertThrows(IllegalArgumentException.class, () -> new ChangeFeed(6, ChangeFeed.OverflowPolicy.BLOCK));
+    }
+}
@@ -0,0 +1,163 @@
+package com.university.bookstore.factory;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.impl.MaterialStoreConcurrentImpl;
+import com.university.bookstore.metrics.StoreMetrics;
+import com.university.bookstore.model.*;
+
+/**
+ * Test suite for MaterialBulkLoader.
+ */
+class MaterialBulkLoaderTest {
+
+    private MaterialStoreConcurrentImpl store;
+
+    @BeforeEach
+    void setUp() {
+        store = new MaterialStoreConcurrentImpl();
+    }
+
+    private static Map<String, Object> bookRow(int i) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("type", "BOOK");
+        row.put("isbn", String.format("978%010d", i));
+        row.put("title", "Book " + i);
+        row.put("author", "Author " + (i % 50));
+        row.put("price", String.valueOf(10 + i % 90));
+        row.put("year", 1990 + i % 30);
+        row.put("pages", 100 + i % 400);
+        return row;
+    }
+
+    @Test
+    @DisplayName("Valid rows are loaded across chunks")
+    void testIngestAcrossChunks() {
+        StoreMetrics metrics = new StoreMetrics();
+        store.setMetrics(metrics);
+        MaterialBulkLoader loader = new MaterialBulkLoader(store, ForkJoinPool.commonPool(), 7, 100);
+
+        MaterialBulkLoader.IngestReport report = loader.ingest(IntStream.range(0, 100).mapToObj(MaterialBulkLoaderTest::bookRow));
+
+        // The scan snapshot is copied once for the whole ingest, not once per chunk
+        assertEquals(1, metrics.getIndexRebuildCount());
+
+        assertEquals(100, report.getRowsRead());
+        assertEquals(100, report.getLoadedCount());
+        assertEquals(0, report.getErrorCount());
+        assertEquals(100, store.size());
+        assertEquals("Book 42", store.findById(String.format("978%010d", 42)).get().getTitle());
+    }
+
+    @Test
+    @DisplayName("Bad rows are reported without aborting the batch")
+    void testBadRowsCollected() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        rows.add(bookRow(1));
+        Map<String, Object> missingType = bookRow(2);
+        missingType.remove("type");
+        rows.add(missingType);
+        Map<String, Object> badPrice = bookRow(3);
+        badPrice.put("price", "abc");
+        rows.add(badPrice);
+        Map<String, Object> unknownType = bookRow(4);
+        unknownType.put("type", "SCROLL");
+        rows.add(unknownType);
+        rows.add(bookRow(5));
+
+        MaterialBulkLoader loader = new MaterialBulkLoader(store, ForkJoinPool.commonPool(), 2, 100);
+        MaterialBulkLoader.IngestReport report = loader.ingest(rows.iterator());
+
+        assertEquals(5, report.getRowsRead());
+        assertEquals(2, report.getLoadedCount());
+        assertEquals(3, report.getErrorCount());
+        assertEquals(List.of(2L, 3L, 4L),
+                     report.getErrors().stream().map(MaterialBulkLoader.RowError::getRow).toList());
+        assertTrue(report.getErrors().get(0).getMessage().contains("type"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    @DisplayName("Only the first errors are kept in detail")
+    void testReportedErrorCap() {
+        MaterialBulkLoader loader = new MaterialBulkLoader(store, ForkJoinPool.commonPool(), 10, 3);
+        Stream<Map<String, Object>> rows = IntStream.range(0, 20).mapToObj(i -> {
+            Map<String, Object> row = bookRow(i);
+            row.remove("title");
+            return row;
+        });
+
+        MaterialBulkLoader.IngestReport report = loader.ingest(rows);
+
+        assertEquals(20, report.getErrorCount());
+        assertEquals(3, report.getErrors().size());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("CSV rows with quoted fields are ingested")
+    void testIngestCsv() {
+        String csv = "type,isbn,id,title,author,director,price,year,pages,duration,quality,videoType,cast\n"
+            + "BOOK,9780134685991,,\"Effective Java, 3rd Edition\",Joshua Bloch,,45.99,2018,412,,,,\n"
+            + "VIDEO,,V001,Inception,,Christopher Nolan,19.99,2010,,148,HIGH,MOVIE,\"Leonardo DiCaprio,Elliot Page\"\n"
+            + "BOOK,not-an-isbn,,Bad,Someone,,1.00,2000,10,,,,\n"
+            + "BOOK,9780596009205,,\"Head \"\"First\"\"\nJava\",Kathy Sierra,,39.99,2005,688,,,,\n";
+
+        MaterialBulkLoader.IngestReport report = new MaterialBulkLoader(store).ingestCsv(new StringReader(csv));
+
+        assertEquals(4, report.getRowsRead());
+        assertEquals(3, report.getLoadedCount());
+        assertEquals(3, report.getErrors().get(0).getRow());
+        assertEquals("Effective Java, 3rd Edition", store.findById("9780134685991").get().getTitle());
+        assertEquals("Head \"First\"\nJava", store.findById("9780596009205").get().getTitle());
+        VideoMaterial video = (VideoMaterial) store.findById("V001").get();
+        assertEquals(List.of("Leonardo DiCaprio", "Elliot Page"), video.getCast());
+    }
+
+    @Test
+    @DisplayName("Empty CSV input loads nothing")
+    void testEmptyCsv() {
+        MaterialBulkLoader.IngestReport report = new MaterialBulkLoader(store).ingestCsv(new StringReader(""));
+        assertEquals(0, report.getRowsRead());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Large feed loads completely on a dedicated pool")
+    void testLargeIngest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MaterialBulkLoader loader = new MaterialBulkLoader(store, pool, 5_000, 10);
+            MaterialBulkLoader.IngestReport report =
+                loader.ingest(IntStream.range(0, 50_000).mapToObj(MaterialBulkLoaderTest::bookRow));
+
+            assertEquals(50_000, report.getLoadedCount());
+            assertEquals(50_000, store.size());
+            assertEquals(50_000, store.getInventoryStats().getTotalCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid configuration is rejected")
+    void testInvalidConfiguration() {
+        assertThrows(NullPointerException.class, () -> new MaterialBulkLoader(null));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new MaterialBulkLoader(store, ForkJoinPool.commonPool(), 0, 10));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new MaterialBulkLoader(store, ForkJoinPool.commonPool(), 10, -1));
+    }
+}
@@ -0,0 +1,175 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import com.university.bookstore.model.Book;
+
+/**
+ * Tests for BookstoreHashMap implementation.
+ */
+@DisplayName("BookstoreHashMap Tests")
+class BookstoreHashMapTest {
+
+    private BookstoreHashMap bookstore;
+    private Book book1, book2, book3, book4, book5;
+
+    @BeforeEach
+    void setUp() {
+        bookstore = new BookstoreHashMap();
+
+        book1 = new Book("9780134685991", "Effective Java", "Joshua Bloch", 69.99, 2018);
+        book2 = new Book("9780596009205", "Head First Java", "Kathy Sierra", 39.99, 2005);
+        book3 = new Book("9780132350884", "Clean Code", "Robert Martin", 49.99, 2008);
+        book4 = new Book("9780201633610", "Design Patterns", "Gang of Four", 59.99, 1994);
+        book5 = new Book("9780134494166", "Clean Architecture", "Robert Martin", 44.99, 2017);
+    }
+
+    @Test
+    @DisplayName("Should create empty bookstore")
+    void testEmptyBookstore() {
+        assertEquals(0, bookstore.size());
+        assertEquals(0.0, bookstore.inventoryValue(), 0.001);
+        assertNull(bookstore.getMostExpensive());
+        assertNull(bookstore.getMostRecent());
+        assertTrue(bookstore.getAllBooks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject null and duplicate books")
+    void testAddRejectsNullAndDuplicates() {
+        assertTrue(bookstore.add(book1));
+        assertFalse(bookstore.add(book1));
+        assertFalse(bookstore.add(null));
+        assertEquals(1, bookstore.size());
+    }
+
+    @Test
+    @DisplayName("Should find and remove books by ISBN")
+    void testFindAndRemoveByIsbn() {
+        bookstore.add(book1);
+        bookstore.add(book2);
+
+        assertSame(book2, bookstore.findByIsbn("9780596009205"));
+        assertNull(bookstore.findByIsbn("9999999999999"));
+        assertNull(bookstore.findByIsbn(" "));
+
+        assertTrue(bookstore.removeByIsbn("9780596009205"));
+        assertFalse(bookstore.removeByIsbn("9780596009205"));
+        assertNull(bookstore.findByIsbn("9780596009205"));
+        assertTrue(bookstore.findByTitle("Head First").isEmpty());
+        assertTrue(bookstore.findByPriceRange(0, 100).contains(book1));
+        assertEquals(1, bookstore.size());
+        assertEquals(69.99, bookstore.inventoryValue(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should search titles and authors by partial match")
+    void testPartialSearch() {
+        bookstore = new BookstoreHashMap(Arrays.asList(book1, book2, book3, book4, book5));
+
+        assertEquals(List.of(book1, book2), bookstore.findByTitle("java"));
+        assertEquals(List.of(book3, book5), bookstore.findByTitle("CLEAN"));
+        assertEquals(List.of(book3, book5), bookstore.findByAuthor("martin"));
+        assertTrue(bookstore.findByAuthor("Knuth").isEmpty());
+        assertTrue(bookstore.findByTitle("").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should answer price and year queries from sorted indexes")
+    void testRangeQueries() {
+        bookstore = new BookstoreHashMap(Arrays.asList(book1, book2, book3, book4, book5));
+
+        assertEquals(List.of(book5, book3, book4), bookstore.findByPriceRange(40.0, 60.0));
+        assertEquals(List.of(book4), bookstore.findByYear(1994));
+        assertTrue(bookstore.findByYear(2000).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> bookstore.findByPriceRange(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> bookstore.findByPriceRange(50, 10));
+    }
+
+    @Test
+    @DisplayName("Should maintain most expensive and most recent across removals")
+    void testMaintainedExtremes() {
+        Book tiedPrice = new Book("9780000000002", "Tied Price", "Someone", 69.99, 2000);
+        Book tiedYear = new Book("9780000000003", "Tied Year", "Someone", 9.99, 2018);
+        bookstore = new BookstoreHashMap(Arrays.asList(book1, book2, book3, tiedPrice, tiedYear));
+
+        assertSame(book1, bookstore.getMostExpensive());
+        assertSame(book1, bookstore.getMostRecent());
+
+        bookstore.removeByIsbn(book1.getIsbn());
+        assertSame(tiedPrice, bookstore.getMostExpensive());
+        assertSame(tiedYear, bookstore.getMostRecent());
+
+        bookstore.clear();
+        assertNull(bookstore.getMostExpensive());
+        assertEquals(0.0, bookstore.inventoryValue(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should agree with BookstoreArrayList under random operations")
+    void testAgreesWithArrayList() {
+        Random random = new Random(42);
+        BookstoreArrayList reference = new BookstoreArrayList();
+        List<Book> pool = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            pool.add(new Book(String.format("978%010d", i), "Title " + (i % 37),
+                              "Author " + (i % 11), 1 + random.nextInt(50), 1990 + random.nextInt(30)));
+        }
+
+        for (int step = 0; step < 2000; step++) {
+            Book book = pool.get(random.nextInt(pool.size()));
+            if (random.nextBoolean()) {
+                assertEquals(reference.add(book), bookstore.add(book));
+            } else {
+                assertEquals(reference.removeByIsbn(book.getIsbn()),
+                             bookstore.removeByIsbn(book.getIsbn()));
+            }
+        }
+
+        Comparator<Book> byIsbn = Comparator.comparing(Book::getIsbn);
+        assertEquals(reference.getAllBooks(), bookstore.getAllBooks());
+        assertEquals(reference.inventoryValue(), bookstore.inventoryValue(), 0.001);
+        assertSame(reference.getMostExpensive(), bookstore.getMostExpensive());
+        assertSame(reference.getMostRecent(), bookstore.getMostRecent());
+        assertEquals(reference.findByTitle("Title 1"), bookstore.findByTitle("Title 1"));
+        assertEquals(reference.findByAuthor("author 3"), bookstore.findByAuthor("author 3"));
+        assertEquals(reference.findByYear(2000), bookstore.findByYear(2000));
+
+        List<Book> expected = new ArrayList<>(reference.findByPriceRange(10, 20));
+        List<Book> actual = new ArrayList<>(bookstore.findByPriceRange(10, 20));
+        expected.sort(byIsbn);
+        actual.sort(byIsbn);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("Should bulk load large catalogs quickly")
+    void testBulkLoad() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            books.add(new Book(String.format("978%010d", i), "Book " + i, "Author " + (i % 100),
+                               10.0 + i % 90, 1950 + i % 70));
+        }
+
+        BookstoreHashMap loaded = new BookstoreHashMap(books);
+
+        assertEquals(200_000, loaded.size());
+        assertSame(books.get(123_456), loaded.findByIsbn(books.get(123_456).getIsbn()));
+    }
+}
@@ -0,0 +1,139 @@
+package com.university.bookstore.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.TestMaterials;
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+import com.university.bookstore.model.VideoMaterial;
+
+/**
+ * Tests for the derived-value cache and its use by the stores.
+ */
+@DisplayName("DerivedValueCache Tests")
+class DerivedValueCacheTest {
+
+    private PrintedBook book;
+    private VideoMaterial video;
+
+    @BeforeEach
+    void setUp() {
+        book = new PrintedBook("9780134685991", "Effective Java", "Joshua Bloch",
+                               45.99, 2018, 412, "Addison-Wesley", true);
+        video = new VideoMaterial("V001", "Inception", "Christopher Nolan", 19.99, 2010, 148,
+                                  "MP4", 2048.0, Media.MediaQuality.HD, VideoMaterial.VideoType.MOVIE,
+                                  "PG-13", Arrays.asList("Leonardo DiCaprio"), true, "16:9");
+    }
+
+    @Test
+    @DisplayName("Derived values match the material and are served from cache")
+    void testValuesAndHits() {
+        DerivedValueCache cache = new DerivedValueCache(100);
+
+        DerivedValueCache.DerivedValues first = cache.get(video);
+        DerivedValueCache.DerivedValues second = cache.get(video);
+
+        assertSame(first, second);
+        assertEquals(video.getDisplayInfo(), first.getDisplayInfo());
+        assertEquals(video.getDiscountedPrice(), first.getDiscountedPrice(), 0.0);
+        assertEquals(8.0, first.getStreamingBandwidth(), 0.0);
+        assertEquals(0.0, first.getShippingCost(), 0.0);
+        assertEquals(0.0, cache.get(book).getStreamingBandwidth(), 0.0);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1.0 / 3, cache.getHitRate(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("A replaced material with the same ID is recomputed")
+    void testReplacedInstanceMisses() {
+        DerivedValueCache cache = new DerivedValueCache(100);
+        DerivedValueCache.DerivedValues old = cache.get(book);
+        PrintedBook repriced = new PrintedBook("9780134685991", "Effective Java", "Joshua Bloch",
+                                               29.99, 2018, 412, "Addison-Wesley", true);
+
+        DerivedValueCache.DerivedValues fresh = cache.get(repriced);
+
+        assertNotSame(old, fresh);
+        assertEquals(repriced.getDisplayInfo(), fresh.getDisplayInfo());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Least recently used entries are evicted past capacity")
+    void testEviction() {
+        DerivedValueCache cache = new DerivedValueCache(32);
+        List<PrintedBook> books = IntStream.range(0, 1_000).mapToObj(TestMaterials::book).toList();
+        books.forEach(cache::get);
+
+        assertTrue(cache.size() <= 32);
+        assertEquals(1_000 - cache.size(), cache.getEvictionCount());
+        assertThrows(IllegalArgumentException.class, () -> new DerivedValueCache(0));
+    }
+
+    @Test
+    @DisplayName("A one-pass scan does not flush entries in repeated use")
+    void testScanResistance() {
+        DerivedValueCache cache = new DerivedValueCache(512);
+        List<PrintedBook> hot = IntStream.range(0, 8).mapToObj(TestMaterials::book).toList();
+        hot.forEach(cache::get);
+        hot.forEach(cache::get);
+
+        IntStream.range(1_000, 11_000).mapToObj(TestMaterials::book).forEach(cache::get);
+        long hits = cache.getHitCount();
+        hot.forEach(cache::get);
+
+        assertEquals(hits + hot.size(), cache.getHitCount());
+        assertTrue(cache.size() <= 512);
+    }
+
+    @Test
+    @DisplayName("Stores drop cached values on remove and clear")
+    void testStoreInvalidation() {
+        MaterialStoreImpl store = new MaterialStoreImpl(List.of(book, video));
+        assertEquals(List.of(book.getDisplayInfo(), video.getDisplayInfo()), store.getAllDisplayInfo());
+        store.getAllDisplayInfo();
+        assertEquals(2, store.getDerivedValueCache().getHitCount());
+
+        store.removeMaterial(book.getId());
+        assertEquals(1, store.getDerivedValueCache().size());
+        store.clearInventory();
+        assertEquals(0, store.getDerivedValueCache().size());
+        assertTrue(store.getDerivedValues(book.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Concurrent store drops cached values when a batch replaces an item")
+    void testConcurrentStoreReplacement() {
+        MaterialStoreConcurrentImpl store = new MaterialStoreConcurrentImpl();
+        store.addMaterial(book);
+        assertEquals(book.getDisplayInfo(), store.getDerivedValues(book.getId()).get().getDisplayInfo());
+
+        Material repriced = new PrintedBook("9780134685991", "Effective Java", "Joshua Bloch",
+                                            29.99, 2018, 412, "Addison-Wesley", true);
+        store.addMaterialsBatch(List.of(repriced));
+
+        assertEquals(0, store.getDerivedValueCache().size());
+        assertEquals(repriced.getDisplayInfo(), store.getDerivedValues(book.getId()).get().getDisplayInfo());
+        assertEquals(2.50, store.getDerivedValues(book.getId()).get().getShippingCost(), 0.0001);
+
+        Magazine magazine = new Magazine("12345678", "Tech", "Publisher", 5.99, 2024, 1, "Monthly", "Tech");
+        store.addMaterial(magazine);
+        store.getDerivedValues(magazine.getId());
+        store.removeMaterial(magazine.getId());
+        assertEquals(1, store.getDerivedValueCache().size());
+    }
+}
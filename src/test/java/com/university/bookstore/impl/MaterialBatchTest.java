@@ -0,0 +1,230 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.university.bookstore.TestMaterials.isbn;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.TestMaterials;
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.PrintedBook;
+
+/**
+ * Tests for atomic batches on the concurrent store.
+ */
+@DisplayName("MaterialBatch Tests")
+class MaterialBatchTest {
+
+    private MaterialStoreConcurrentImpl store;
+
+    @BeforeEach
+    void setUp() {
+        store = new MaterialStoreConcurrentImpl();
+        for (int i = 0; i < 20; i++) {
+            store.addMaterial(book(i, 10.0 + i));
+        }
+    }
+
+    private static PrintedBook book(int i, double price) {
+        return TestMaterials.book(i, "Author " + (i % 3), price, 2000 + i % 5);
+    }
+
+    private static void assertMatchesFreshStore(MaterialStoreConcurrentImpl actual) {
+        MaterialStoreConcurrentImpl expected = new MaterialStoreConcurrentImpl(actual.getAllMaterials());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getTotalInventoryValue(), actual.getTotalInventoryValue(), 0.0);
+        assertEquals(expected.getTotalDiscountedValue(), actual.getTotalDiscountedValue(), 0.0);
+        assertEquals(new HashSet<>(expected.getMaterialsByPriceRange(0, 1000)),
+                     new HashSet<>(actual.getMaterialsByPriceRange(0, 1000)));
+        assertEquals(new HashSet<>(expected.getMaterialsByYear(2002)),
+                     new HashSet<>(actual.getMaterialsByYear(2002)));
+        assertEquals(new HashSet<>(expected.searchByCreator("Author 1")),
+                     new HashSet<>(actual.searchByCreator("Author 1")));
+        MaterialStore.InventoryStats expectedStats = expected.getInventoryStats();
+        MaterialStore.InventoryStats actualStats = actual.getInventoryStats();
+        assertEquals(expectedStats.getTotalCount(), actualStats.getTotalCount());
+        assertEquals(expectedStats.getAveragePrice(), actualStats.getAveragePrice(), 1e-9);
+        assertEquals(expectedStats.getMedianPrice(), actualStats.getMedianPrice(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Adds, replacements and removals apply together and keep every index exact")
+    void testMixedBatch() {
+        PrintedBook repriced = book(3, 99.0);
+        MaterialBatch.Result result = store.applyBatch(new MaterialBatch()
+            .add(book(100, 5.0))
+            .add(book(101, 55.0))
+            .replace(repriced)
+            .replace(book(102, 7.5))
+            .remove(isbn(0))
+            .remove(isbn(1))
+            .remove("missing"));
+
+        assertEquals(3, result.getAdded());
+        assertEquals(1, result.getReplaced());
+        assertEquals(2, result.getRemoved());
+        assertEquals(21, store.size());
+        assertSame(repriced, store.findById(isbn(3)).orElseThrow());
+        assertFalse(store.findById(isbn(0)).isPresent());
+        assertEquals(List.of(repriced), store.getMaterialsByPriceRange(99.0, 99.0));
+        assertMatchesFreshStore(store);
+    }
+
+    @Test
+    @DisplayName("Later operations on an ID see earlier ones in the same batch")
+    void testOperationsInOrder() {
+        MaterialBatch.Result cancelled = store.applyBatch(new MaterialBatch()
+            .add(book(200, 1.0))
+            .remove(isbn(200)));
+        assertEquals(0, cancelled.getAdded() + cancelled.getReplaced() + cancelled.getRemoved());
+        assertFalse(store.findById(isbn(200)).isPresent());
+
+        PrintedBook readded = book(5, 42.0);
+        MaterialBatch.Result result = store.applyBatch(new MaterialBatch()
+            .remove(isbn(5))
+            .add(readded));
+        assertEquals(1, result.getReplaced());
+        assertSame(readded, store.findById(isbn(5)).orElseThrow());
+        assertMatchesFreshStore(store);
+    }
+
+    @Test
+    @DisplayName("A conflicting batch is rejected without applying any of it")
+    void testConflictAppliesNothing() {
+        MaterialStoreConcurrentImpl.Totals before = store.getTotalsSnapshot();
+        long version = store.getVersion(isbn(7));
+
+        BatchConflictException e = assertThrows(BatchConflictException.class,
+            () -> store.applyBatch(new MaterialBatch()
+                .remove(isbn(7))
+                .add(book(300, 1.0))
+                .add(book(4, 1.0))));
+
+        assertEquals(List.of(isbn(4)), e.getConflictingIds());
+        assertEquals(before.getCount(), store.size());
+        assertEquals(before.getTotalValue(), store.getTotalInventoryValue(), 0.0);
+        assertTrue(store.findById(isbn(7)).isPresent());
+        assertFalse(store.findById(isbn(300)).isPresent());
+        assertEquals(version, store.getVersion(isbn(7)));
+        assertMatchesFreshStore(store);
+    }
+
+    @Test
+    @DisplayName("Versions detect intervening writes and absence")
+    void testVersionExpectations() {
+        long version = store.getVersion(isbn(2));
+        assertTrue(version > 0);
+        assertEquals(0L, store.getVersion("missing"));
+
+        store.removeMaterial(isbn(2));
+        assertEquals(0L, store.getVersion(isbn(2)));
+        store.addMaterial(book(2, 12.0));
+        long readded = store.getVersion(isbn(2));
+        assertTrue(readded > version);
+
+        BatchConflictException e = assertThrows(BatchConflictException.class,
+            () -> store.applyBatch(new MaterialBatch()
+                .expectVersion(isbn(2), version)
+                .expectAbsent(isbn(400))
+                .replace(book(2, 13.0))));
+        assertEquals(List.of(isbn(2)), e.getConflictingIds());
+        assertEquals(12.0, store.findById(isbn(2)).orElseThrow().getPrice(), 0.0);
+
+        store.applyBatch(new MaterialBatch()
+            .expectVersion(isbn(2), readded)
+            .expectAbsent(isbn(400))
+            .replace(book(2, 13.0))
+            .add(book(400, 1.0)));
+        assertEquals(13.0, store.findById(isbn(2)).orElseThrow().getPrice(), 0.0);
+        assertTrue(store.getVersion(isbn(2)) > readded);
+        assertTrue(store.getVersion(isbn(400)) > 0);
+
+        store.clearInventory();
+        assertEquals(0L, store.getVersion(isbn(400)));
+    }
+
+    @Test
+    @DisplayName("Concurrent batches never expose a partial batch and retry cleanly on conflict")
+    void testConcurrentAtomicity() throws Exception {
+        // Every batch swaps one book for another of the same price, so totals never move
+        int writers = 4;
+        int swaps = 2_000;
+        double value = store.getTotalInventoryValue();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+
+        Future<Integer> reader = executor.submit(() -> {
+            int reads = 0;
+            while (running.get()) {
+                MaterialStoreConcurrentImpl.Totals totals = store.getTotalsSnapshot();
+                assertEquals(20, totals.getCount());
+                assertEquals(value, totals.getTotalValue(), 1e-6);
+                MaterialStoreSnapshot snapshot = store.snapshot();
+                assertEquals(20, snapshot.size());
+                assertEquals(20, store.getInventoryStats().getTotalCount());
+                assertEquals(20, store.getMaterialsByPriceRange(0, 1000).size());
+                reads++;
+            }
+            return reads;
+        });
+
+        // Writers retry on conflict with fresh versions
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            results.add(executor.submit(() -> {
+                int conflicts = 0;
+                int done = 0;
+                while (done < swaps) {
+                    int slot = (int) (Math.random() * 20);
+                    Material current = null;
+                    long version = 0;
+                    for (int generation = 0; current == null && generation < 1_000; generation++) {
+                        int key = generation * 1_000 + slot;
+                        // Version first: a present ID at version 0 was added in between
+                        version = store.getVersion(isbn(key));
+                        current = version > 0 ? store.findById(isbn(key)).orElse(null) : null;
+                    }
+                    if (current == null) {
+                        continue;
+                    }
+                    int next = (int) (Long.parseLong(current.getId()) % 1_000_000) + 1_000;
+                    try {
+                        store.applyBatch(new MaterialBatch()
+                            .expectVersion(current.getId(), version)
+                            .remove(current.getId())
+                            .add(book(next, current.getPrice())));
+                        done++;
+                    } catch (BatchConflictException e) {
+                        conflicts++;
+                    }
+                }
+                return conflicts;
+            }));
+        }
+        for (Future<Integer> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        running.set(false);
+        assertTrue(reader.get(10, TimeUnit.SECONDS) > 0);
+        executor.shutdown();
+
+        assertEquals(20, store.size());
+        assertEquals(value, store.getTotalInventoryValue(), 1e-6);
+        assertMatchesFreshStore(store);
+    }
+}
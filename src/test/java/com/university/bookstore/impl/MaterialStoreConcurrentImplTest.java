@@ -2,6 +2,7 @@ package com.university.bookstore.impl;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
@@ -10,6 +11,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -28,6 +30,7 @@ import com.university.bookstore.model.Material;
 import com.university.bookstore.model.Media;
 import com.university.bookstore.model.PrintedBook;
 import com.university.bookstore.model.VideoMaterial;
+import com.university.bookstore.utils.Money;
 
 /**
  * Comprehensive test suite for MaterialStoreConcurrentImpl.
@@ -132,11 +135,36 @@ class MaterialStoreConcurrentImplTest {
         assertEquals(1, results.size());
         assertEquals(testBook, results.get(0));
         
-        // Test partial match (should not match)
+        // Test partial match (same contains() semantics as MaterialStoreImpl)
         results = store.searchByTitle("Effective");
+        assertEquals(1, results.size());
+        
+        results = store.searchByTitle("ava");
+        assertEquals(1, results.size());
+        
+        results = store.searchByTitle("Effective Javascript");
         assertEquals(0, results.size());
     }
     
+    @Test
+    @DisplayName("Should return the same substring matches as MaterialStoreImpl")
+    void testSearchAgreesWithArrayImplementation() {
+        MaterialStoreImpl reference = new MaterialStoreImpl();
+        for (Material material : Arrays.asList(testBook, testEBook, testMagazine, testAudioBook, testVideo)) {
+            store.addMaterial(material);
+            reference.addMaterial(material);
+        }
+        store.removeMaterial(testMagazine.getId());
+        reference.removeMaterial(testMagazine.getId());
+        
+        for (String query : Arrays.asList("e", "TH", "the", "Great Gats", "narrated by", " 1984 ", "o", "xyz", "Tech")) {
+            assertEquals(new java.util.HashSet<>(reference.searchByTitle(query)),
+                         new java.util.HashSet<>(store.searchByTitle(query)), "title query: " + query);
+            assertEquals(new java.util.HashSet<>(reference.searchByCreator(query)),
+                         new java.util.HashSet<>(store.searchByCreator(query)), "creator query: " + query);
+        }
+    }
+    
     @Test
     @DisplayName("Should search by creator correctly")
     void testSearchByCreator() {
@@ -296,6 +324,26 @@ class MaterialStoreConcurrentImplTest {
         assertEquals(59.33, store.getTotalDiscountedValue(), 0.01);
     }
     
+    @Test
+    @DisplayName("Should keep statistics current across removals")
+    void testStatisticsAfterRemoval() {
+        store.addMaterial(testBook);      // 45.99
+        store.addMaterial(testEBook);     // 14.99
+        store.addMaterial(testMagazine);  // 9.99
+        store.addMaterial(testVideo);     // 29.99
+        
+        assertEquals(22.49, store.getInventoryStats().getMedianPrice(), 0.001);
+        
+        store.removeMaterial(testBook.getId());
+        MaterialStore.InventoryStats stats = store.getInventoryStats();
+        assertEquals(3, stats.getTotalCount());
+        assertEquals(14.99, stats.getMedianPrice(), 0.001);
+        assertEquals(18.32, stats.getAveragePrice(), 0.01);
+        assertEquals(3, stats.getUniqueTypes());
+        assertEquals(2, stats.getMediaCount());
+        assertEquals(1, stats.getPrintCount());
+    }
+    
     @Test
     @DisplayName("Should clear inventory correctly")
     void testClearInventory() {
@@ -313,6 +361,57 @@ class MaterialStoreConcurrentImplTest {
         assertEquals(0.0, store.getTotalDiscountedValue(), 0.01);
     }
     
+    @Test
+    @DisplayName("Should keep secondary indexes in step with every mutation")
+    void testIncrementalIndexMaintenance() {
+        store.addMaterial(testBook);
+        store.addMaterial(testEBook);
+        assertEquals(1, store.searchByCreator("joshua bloch").size());
+        assertEquals(1, store.getMaterialsByType(Material.MaterialType.E_BOOK).size());
+        
+        store.removeMaterial(testBook.getId());
+        assertTrue(store.searchByCreator("joshua bloch").isEmpty());
+        assertTrue(store.getMaterialsByType(Material.MaterialType.BOOK).isEmpty());
+        assertEquals(1, store.getCreatorIndexSize());
+        
+        store.addMaterial(testBook);
+        assertEquals(1, store.searchByTitle("effective java").size());
+        assertEquals(2, store.getAllMaterials().size());
+    }
+    
+    @Test
+    @DisplayName("Should answer range queries from the sorted indexes")
+    void testSortedRangeIndexes() {
+        store.addMaterial(testBook);      // 45.99, 2018
+        store.addMaterial(testEBook);     // 14.99, 2020
+        store.addMaterial(testMagazine);  // 9.99, 2023
+        store.addMaterial(testAudioBook); // 19.99, 2020
+        
+        assertEquals(Arrays.asList(testMagazine, testEBook, testAudioBook),
+                     store.getMaterialsByPriceRange(9.99, 19.99));
+        assertEquals(2, store.getMaterialsByYear(2020).size());
+        
+        store.removeMaterial(testEBook.getId());
+        assertEquals(Arrays.asList(testAudioBook), store.getMaterialsByYear(2020));
+        assertEquals(Arrays.asList(testMagazine, testAudioBook, testBook),
+                     store.getMaterialsByPriceRange(0.0, 100.0));
+    }
+    
+    @Test
+    @DisplayName("Should replace duplicates in a batch without double counting")
+    void testBatchReplacesDuplicates() {
+        store.addMaterial(testBook);
+        Material replacement = new PrintedBook("9780134685991", "Effective Java 3rd", "Joshua Bloch",
+                                               50.00, 2018, 412, "Addison-Wesley", true);
+        store.addMaterialsBatch(Arrays.asList(replacement, testMagazine));
+        
+        assertEquals(2, store.size());
+        assertEquals(59.99, store.getTotalInventoryValue(), 0.01);
+        List<Material> results = store.searchByTitle("effective java");
+        assertEquals(1, results.size());
+        assertEquals("Effective Java 3rd", results.get(0).getTitle());
+    }
+    
     @Test
     @DisplayName("Should handle concurrent reads safely")
     @Timeout(value = 10, unit = TimeUnit.SECONDS)
@@ -542,4 +641,183 @@ class MaterialStoreConcurrentImplTest {
             }
         }
     }
+    
+    @Test
+    @DisplayName("Should stream the snapshot lazily and stop early")
+    void testStreamShortCircuits() {
+        for (int i = 0; i < 1000; i++) {
+            store.addMaterial(new PrintedBook(String.format("978%010d", i), "Book " + i, "Author",
+                                             10.0 + i % 50, 2000, 100, "Publisher", false));
+        }
+        
+        AtomicInteger evaluated = new AtomicInteger();
+        List<Material> page = store.streamMatching(m -> {
+            evaluated.incrementAndGet();
+            return m.getPrice() < 20.0;
+        }).limit(20).collect(Collectors.toList());
+        
+        assertEquals(20, page.size());
+        assertTrue(evaluated.get() < 1000, "Scan should stop once the page is full");
+        assertEquals(1000, store.stream().count());
+    }
+    
+    @Test
+    @DisplayName("Should page predicate and search results")
+    void testPagedQueries() {
+        for (int i = 0; i < 50; i++) {
+            store.addMaterial(new PrintedBook(String.format("978%010d", i), "Java Volume " + i, "Joshua Bloch",
+                                             10.0 + i, 2000, 100, "Publisher", false));
+        }
+        store.addMaterial(testMagazine);
+        
+        List<Material> all = store.findWithPredicate(m -> m instanceof PrintedBook);
+        List<Material> page = store.findWithPredicate(m -> m instanceof PrintedBook, 10, 15);
+        assertEquals(all.subList(10, 25), page);
+        assertTrue(store.findWithPredicate(m -> true, 100, 10).isEmpty());
+        
+        assertEquals(20, store.searchByTitle("java volume", 0, 20).size());
+        assertEquals(10, store.searchByTitle("java volume", 40, 20).size());
+        assertEquals(5, store.searchByCreator("bloch", 45, 100).size());
+        assertTrue(store.searchByTitle("  ", 0, 10).isEmpty());
+        assertEquals(50, store.streamByType(Material.MaterialType.BOOK).count());
+        assertEquals(0, store.streamByType(null).count());
+        
+        assertThrows(IllegalArgumentException.class, () -> store.findWithPredicate(m -> true, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> store.searchByTitle("java", 0, -1));
+        assertThrows(NullPointerException.class, () -> store.streamMatching(null));
+    }
+    
+    @Test
+    @DisplayName("Should return the first k materials in comparator order")
+    void testSortedTopK() {
+        store.addMaterial(testBook);
+        store.addMaterial(testEBook);
+        store.addMaterial(testMagazine);
+        store.addMaterial(testAudioBook);
+        store.addMaterial(testVideo);
+        
+        Comparator<Material> byPrice = Comparator.comparingDouble(Material::getPrice);
+        assertEquals(store.getSorted(byPrice).subList(0, 3), store.getSorted(byPrice, 3));
+        assertEquals(5, store.getSorted(byPrice, 10).size());
+        assertTrue(store.getSorted(byPrice, 0).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Should reuse the natural-order view until the next mutation")
+    void testNaturalOrderViewInvalidation() {
+        store.addMaterial(testBook);
+        store.addMaterial(testEBook);
+        store.addMaterial(testVideo);
+        
+        List<Material> sorted = store.getAllMaterialsSorted();
+        assertEquals(Arrays.asList(testEBook, testBook, testVideo), sorted);
+        assertEquals(sorted.subList(0, 2), store.getSorted(Comparator.naturalOrder(), 2));
+        
+        store.addMaterial(testAudioBook);
+        assertEquals(Arrays.asList(testEBook, testBook, testVideo, testAudioBook), store.getAllMaterialsSorted());
+        store.removeMaterial(testEBook.getId());
+        assertEquals(Arrays.asList(testBook, testVideo), store.getSorted(Comparator.naturalOrder(), 2));
+        
+        // Returned lists are independent copies
+        store.getAllMaterialsSorted().clear();
+        assertEquals(3, store.getAllMaterialsSorted().size());
+    }
+    
+    @Test
+    @DisplayName("Should select top-k from a large catalog in parallel")
+    void testLargeTopK() {
+        List<Material> batch = new java.util.ArrayList<>();
+        for (int i = 0; i < 70_000; i++) {
+            batch.add(new PrintedBook(String.format("978%010d", i), "Book " + i, "Author",
+                                     (i * 37L % 10000) / 100.0, 1950 + i % 70, 100, "Publisher", false));
+        }
+        store.addMaterialsBatch(batch);
+        
+        Comparator<Material> byYearThenPrice = Comparator.comparingInt(Material::getYear)
+                .thenComparingDouble(Material::getPrice).thenComparing(Material::getId);
+        assertEquals(store.getSorted(byYearThenPrice).subList(0, 50), store.getSorted(byYearThenPrice, 50));
+    }
+    
+    @Test
+    @DisplayName("Should keep striped totals exact under concurrent writers")
+    @Timeout(30)
+    void testStripedTotalsUnderConcurrentWrites() throws InterruptedException {
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            executor.submit(() -> {
+                try {
+                    for (int i = base; i < base + perThread; i++) {
+                        store.addMaterial(new PrintedBook(String.format("978%010d", i), "Book " + i, "Author",
+                                                         (i % 100) + 0.25, 2000, 100, "Publisher", false));
+                        // Every other material is removed again, and every third re-added twice
+                        if (i % 2 == 0) {
+                            store.removeMaterial(String.format("978%010d", i));
+                        }
+                        if (i % 3 == 0) {
+                            store.addMaterial(testBook);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(25, TimeUnit.SECONDS));
+        executor.shutdown();
+        
+        MaterialStoreConcurrentImpl.Totals totals = store.getTotalsSnapshot();
+        double expectedValue = store.getAllMaterials().stream().mapToDouble(Material::getPrice).sum();
+        assertEquals(threads * perThread / 2 + 1, totals.getCount());
+        assertEquals(totals.getCount(), store.size());
+        assertEquals(expectedValue, totals.getTotalValue(), 0.001);
+        assertEquals(expectedValue, store.getTotalInventoryValue(), 0.001);
+        assertEquals(store.getInventoryStats().getTotalCount(), totals.getCount());
+        
+        store.clearInventory();
+        assertEquals(0, store.getTotalsSnapshot().getCount());
+        assertEquals(0.0, store.getTotalsSnapshot().getTotalValue(), 0.0);
+    }
+    
+    @Test
+    @DisplayName("Running totals equal a fresh sum after many add/remove cycles")
+    void testTotalsDoNotDrift() {
+        store.addMaterial(testBook);
+        store.addMaterial(testMagazine);
+        double expectedValue = store.getTotalInventoryValue();
+        double expectedDiscounted = store.getTotalDiscountedValue();
+        
+        for (int i = 0; i < 200_000; i++) {
+            String id = String.format("978%010d", i % 64);
+            store.addMaterial(new PrintedBook(id, "Book", "Author", 0.01 * (i % 997) + 0.1,
+                                              2000, 100, "Publisher", false));
+            store.removeMaterial(id);
+        }
+        
+        assertEquals(expectedValue, store.getTotalInventoryValue(), 0.0);
+        assertEquals(expectedDiscounted, store.getTotalDiscountedValue(), 0.0);
+        assertEquals(store.getAllMaterials().stream().mapToLong(Material::getPriceUnits).sum(),
+                     Money.toUnits(store.getTotalsSnapshot().getTotalValue()));
+    }
+    
+    @Test
+    @DisplayName("Creator codes are dropped with the last material by each creator")
+    void testCreatorCodesReleased() {
+        store.addMaterial(testBook);
+        for (int i = 0; i < 1_000; i++) {
+            String id = String.format("978%010d", i);
+            store.addMaterial(new PrintedBook(id, "Book " + i, "Author " + i, 10.0, 2000, 100, "Publisher", false));
+            store.removeMaterial(id);
+        }
+        assertEquals(1, store.getCreatorCodeCount());
+        assertEquals(1, store.getCreatorIndexSize());
+        
+        store.addMaterial(new PrintedBook("9780000099999", "Late", "Late Author", 10.0, 2000, 100, "Publisher", false));
+        assertEquals(2, store.getCreatorCodeCount());
+        assertEquals(1, store.findByCreators("late author").size());
+        assertEquals(List.of(testBook), store.findByCreators("JOSHUA BLOCH"));
+    }
 }
@@ -174,6 +174,28 @@ public class MaterialStoreImplTest {
         assertEquals(magazine, cheap.get(0));
     }
     
+    @Test
+    @DisplayName("Range queries follow the sorted indexes after removals")
+    void testRangeQueriesAfterRemoval() {
+        store.addMaterial(book1);
+        store.addMaterial(book2);
+        store.addMaterial(magazine);
+        store.addMaterial(audioBook);
+        store.addMaterial(video);
+        
+        assertEquals(Arrays.asList(magazine, audioBook, video, book1),
+                     store.getMaterialsByPriceRange(6.99, 45.99));
+        
+        store.removeMaterial(audioBook.getId());
+        assertEquals(Arrays.asList(magazine, video), store.getMaterialsByPriceRange(0, 20));
+        assertTrue(store.getMaterialsByYear(2020).isEmpty());
+        assertEquals(Arrays.asList(book2), store.getMaterialsByYear(1994));
+        assertTrue(store.getMaterialsByPriceRange(100, 200).isEmpty());
+        
+        store.clearInventory();
+        assertTrue(store.getMaterialsByPriceRange(0, 100).isEmpty());
+    }
+    
     @Test
     @DisplayName("Calculate inventory values")
     void testInventoryValues() {
@@ -209,6 +231,33 @@ public class MaterialStoreImplTest {
         assertEquals(3, stats.getPrintCount());
     }
     
+    @Test
+    @DisplayName("Statistics track additions and removals incrementally")
+    void testInventoryStatisticsAfterRemoval() {
+        store.addMaterial(book1);     // 45.99
+        store.addMaterial(book2);     // 54.99
+        store.addMaterial(magazine);  // 6.99
+        store.addMaterial(audioBook); // 14.99
+        
+        MaterialStore.InventoryStats stats = store.getInventoryStats();
+        assertEquals(30.49, stats.getMedianPrice(), 0.001);
+        assertEquals(30.74, stats.getAveragePrice(), 0.001);
+        
+        store.removeMaterial(book2.getId());
+        store.removeMaterial(audioBook.getId());
+        stats = store.getInventoryStats();
+        assertEquals(2, stats.getTotalCount());
+        assertEquals(26.49, stats.getMedianPrice(), 0.001);
+        assertEquals(26.49, stats.getAveragePrice(), 0.001);
+        assertEquals(2, stats.getUniqueTypes());
+        assertEquals(0, stats.getMediaCount());
+        assertEquals(2, stats.getPrintCount());
+        
+        store.clearInventory();
+        assertEquals(0, store.getInventoryStats().getTotalCount());
+        assertEquals(0, store.getInventoryStats().getUniqueTypes());
+    }
+    
     @Test
     @DisplayName("Remove materials")
     void testRemoveMaterial() {
@@ -342,4 +391,39 @@ public class MaterialStoreImplTest {
         List<Material> blankCreatorSearch = store.searchByCreator("   ");
         assertTrue(blankCreatorSearch.isEmpty());
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Stream and paging defaults")
+    void testStreamAndPagingDefaults() {
+        store.addMaterial(book1);
+        store.addMaterial(book2);
+        store.addMaterial(magazine);
+        store.addMaterial(audioBook);
+        store.addMaterial(video);
+        
+        assertEquals(store.getAllMaterials(), store.stream().toList());
+        assertEquals(List.of(book2), store.findWithPredicate(m -> m instanceof PrintedBook, 1, 5));
+        assertEquals(List.of(book1), store.searchByCreator("bloch", 0, 1));
+        assertEquals(List.of(magazine, audioBook),
+                     store.getSorted(java.util.Comparator.comparingDouble(Material::getPrice), 2));
+        assertEquals(2, store.streamByType(Material.MaterialType.BOOK).count());
+        assertThrows(IllegalArgumentException.class, () -> store.searchByTitle("java", -1, 5));
+    }
+    
+    @Test
+    @DisplayName("Natural-order view follows mutations")
+    void testNaturalOrderViewInvalidation() {
+        store.addMaterial(book1);
+        store.addMaterial(video);
+        assertEquals(List.of(book1, video), store.getAllMaterialsSorted());
+        
+        store.addMaterial(audioBook);
+        assertEquals(List.of(audioBook, book1, video), store.getAllMaterialsSorted());
+        assertEquals(List.of(audioBook), store.getSorted(java.util.Comparator.naturalOrder(), 1));
+        
+        store.removeMaterial(audioBook.getId());
+        assertEquals(List.of(book1, video), store.getAllMaterialsSorted());
+        store.clearInventory();
+        assertTrue(store.getAllMaterialsSorted().isEmpty());
+    }
+}
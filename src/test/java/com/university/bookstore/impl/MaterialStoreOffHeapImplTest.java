@@ -0,0 +1,167 @@
+package com.university.bookstore.impl;
+
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the off-heap columnar MaterialStore.
+ */
+@DisplayName("MaterialStore Off-Heap Implementation Tests")
+public class MaterialStoreOffHeapImplTest {
+
+    private MaterialStoreOffHeapImpl store;
+    private PrintedBook book;
+    private Magazine magazine;
+    private AudioBook audioBook;
+    private VideoMaterial video;
+    private EBook ebook;
+
+    @BeforeEach
+    void setUp() {
+        store = new MaterialStoreOffHeapImpl();
+
+        book = new PrintedBook("9780134685991", "Effective Java", "Joshua Bloch",
+                               45.99, 2018, 412, "Addison-Wesley", true);
+        magazine = new Magazine("12345678", "National Geographic", "NatGeo Society",
+                                6.99, 2024, 3, "Monthly", "Science");
+        audioBook = new AudioBook("9780143038092", "1984", "George Orwell",
+                                  "Simon Prebble", 14.99, 2020, 690, "MP3",
+                                  850.5, Media.MediaQuality.HIGH, "English", true);
+        video = new VideoMaterial("883929665839", "Inception", "Christopher Nolan",
+                                  19.99, 2010, 148, "MP4", 2500.0,
+                                  Media.MediaQuality.HD, VideoMaterial.VideoType.MOVIE,
+                                  "PG-13", Arrays.asList("Leonardo DiCaprio"), true, "16:9");
+        ebook = new EBook("EB-1", "Clean Code", "Robert Martin", 29.99, 2008, "PDF", 3.2,
+                          false, 120000, Media.MediaQuality.STANDARD);
+        for (Material material : Arrays.asList(book, magazine, audioBook, video, ebook)) {
+            store.addMaterial(material);
+        }
+    }
+
+    @Test
+    @DisplayName("Materializes equal copies of stored materials")
+    void testMaterializesCopies() {
+        Optional<Material> found = store.findById("883929665839");
+
+        assertTrue(found.isPresent());
+        assertNotSame(video, found.get());
+        assertEquals(video.getDisplayInfo(), found.get().getDisplayInfo());
+        assertEquals(Arrays.asList("Leonardo DiCaprio"), ((VideoMaterial) found.get()).getCast());
+        assertFalse(store.addMaterial(book));
+        assertEquals(5, store.size());
+    }
+
+    @Test
+    @DisplayName("Answers column queries without retained objects")
+    void testColumnQueries() {
+        assertEquals(List.of(book), store.searchByTitle("effective"));
+        assertEquals(List.of(ebook), store.searchByCreator("MARTIN"));
+        assertEquals(List.of(book, video), store.findByCreators("Joshua Bloch", "Christopher Nolan"));
+        assertEquals(List.of(magazine, audioBook, video), store.getMaterialsByPriceRange(5.0, 20.0));
+        assertEquals(List.of(book), store.getMaterialsByYear(2018));
+        assertEquals(List.of(magazine), store.getMaterialsByType(Material.MaterialType.MAGAZINE));
+        assertEquals(3, store.getMediaMaterials().size());
+        assertEquals(117.95, store.getTotalInventoryValue(), 0.001);
+        assertTrue(store.getOffHeapBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Searches ASCII in place and non-ASCII text like toLowerCase().contains()")
+    void testSearchCaseFolding() {
+        EBook accented = new EBook("EB-2", "ÉTUDES Über Java", "Zoë ÅNGSTRÖM", 9.99, 2021, "EPUB", 1.0,
+                                   false, 5000, Media.MediaQuality.STANDARD);
+        store.addMaterial(accented);
+
+        assertEquals(List.of(book), store.searchByTitle("EFFECTIVE ja"));
+        assertEquals(List.of(accented), store.searchByTitle("études"));
+        assertEquals(List.of(accented), store.searchByTitle("über"));
+        assertEquals(List.of(book, accented), store.searchByTitle("java"));
+        assertEquals(List.of(accented), store.searchByCreator("ångström"));
+        assertTrue(store.searchByTitle("Effective Javas").isEmpty());
+        assertEquals((14.99 + 19.99) / 2.0, store.getInventoryStats().getMedianPrice(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Removes materials and frees their IDs for reuse")
+    void testRemove() {
+        Optional<Material> removed = store.removeMaterial("EB-1");
+
+        assertTrue(removed.isPresent());
+        assertEquals("Clean Code", removed.get().getTitle());
+        assertFalse(store.findById("EB-1").isPresent());
+        assertTrue(store.searchByCreator("Martin").isEmpty());
+        assertFalse(store.removeMaterial("EB-1").isPresent());
+        assertTrue(store.addMaterial(ebook));
+        assertEquals(5, store.size());
+    }
+
+    @Test
+    @DisplayName("Rejects materials the codec cannot store")
+    void testRejectsUnsupportedSubtype() {
+        Material custom = new Material("X1", "Custom", 1.0, 2020, Material.MaterialType.PODCAST) {
+            @Override
+            public String getCreator() {
+                return "Someone";
+            }
+
+            @Override
+            public String getDisplayInfo() {
+                return "Custom";
+            }
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> store.addMaterial(custom));
+        assertThrows(NullPointerException.class, () -> store.addMaterial(null));
+        assertEquals(5, store.size());
+    }
+
+    @Test
+    @DisplayName("Agrees with MaterialStoreImpl across growth, removal and compaction")
+    void testAgreesWithArrayImplementation() {
+        Random random = new Random(7);
+        MaterialStoreImpl reference = new MaterialStoreImpl();
+        store.clearInventory();
+        List<Material> pool = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            pool.add(new EBook("E" + i, "Title " + (i % 97), "Author " + (i % 13),
+                               random.nextInt(10000) / 100.0, 1990 + random.nextInt(30), "EPUB",
+                               1.0, i % 2 == 0, 1000 + i, Media.MediaQuality.HIGH));
+        }
+
+        for (int step = 0; step < 20000; step++) {
+            Material material = pool.get(random.nextInt(pool.size()));
+            if (random.nextInt(3) > 0) {
+                assertEquals(reference.addMaterial(material), store.addMaterial(material));
+            } else {
+                assertEquals(reference.removeMaterial(material.getId()).isPresent(),
+                             store.removeMaterial(material.getId()).isPresent());
+            }
+        }
+
+        assertEquals(reference.getAllMaterials(), store.getAllMaterials());
+        assertEquals(reference.searchByTitle("Title 4"), store.searchByTitle("Title 4"));
+        assertEquals(reference.getMaterialsByYear(2000), store.getMaterialsByYear(2000));
+        assertEquals(reference.findRecentMaterials(40), store.findRecentMaterials(40));
+        assertEquals(reference.getTotalDiscountedValue(), store.getTotalDiscountedValue(), 0.01);
+
+        MaterialStore.InventoryStats expected = reference.getInventoryStats();
+        MaterialStore.InventoryStats actual = store.getInventoryStats();
+        assertEquals(expected.getTotalCount(), actual.getTotalCount());
+        assertEquals(expected.getAveragePrice(), actual.getAveragePrice(), 0.001);
+        assertEquals(expected.getMedianPrice(), actual.getMedianPrice(), 0.0);
+
+        for (Material material : pool) {
+            assertEquals(reference.findById(material.getId()).isPresent(),
+                         store.findById(material.getId()).isPresent());
+        }
+    }
+}
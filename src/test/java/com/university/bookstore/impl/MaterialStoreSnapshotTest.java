@@ -0,0 +1,190 @@
+package com.university.bookstore.impl;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static com.university.bookstore.TestMaterials.isbn;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.TestMaterials;
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+
+/**
+ * Tests for versioned read-only snapshots of the concurrent store.
+ */
+@DisplayName("MaterialStoreSnapshot Tests")
+class MaterialStoreSnapshotTest {
+
+    private MaterialStoreConcurrentImpl store;
+
+    @BeforeEach
+    void setUp() {
+        store = new MaterialStoreConcurrentImpl();
+        for (int i = 0; i < 50; i++) {
+            store.addMaterial(book(i));
+        }
+        store.addMaterial(new EBook("E1", "Java EBook", "Author 1", 19.99, 2021,
+                                    "PDF", 1.0, false, 1000, Media.MediaQuality.HIGH));
+    }
+
+    private static PrintedBook book(int i) {
+        return TestMaterials.book(i, "Author " + (i % 5), 10.0 + i, 2000 + i % 10);
+    }
+
+    @Test
+    @DisplayName("A snapshot keeps its catalog state while the store changes")
+    void testPinnedToVersion() {
+        MaterialStoreSnapshot snapshot = store.snapshot();
+        double value = store.getTotalInventoryValue();
+
+        store.removeMaterial("9780000000000");
+        store.addMaterial(book(100));
+        store.clearInventory();
+
+        assertEquals(51, snapshot.size());
+        assertEquals(value, snapshot.getTotalInventoryValue(), 0.0);
+        assertEquals(51, snapshot.getInventoryStats().getTotalCount());
+        assertTrue(snapshot.findById("9780000000000").isPresent());
+        assertFalse(snapshot.findById("9780000000100").isPresent());
+        assertEquals(50, snapshot.getMaterialsByType(Material.MaterialType.BOOK).size());
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Queries on a quiescent snapshot match the live store")
+    void testMatchesStore() {
+        MaterialStoreSnapshot snapshot = store.snapshot();
+
+        assertEquals(new HashSet<>(store.searchByTitle("book 1")), new HashSet<>(snapshot.searchByTitle("book 1")));
+        assertEquals(new HashSet<>(store.searchByCreator("AUTHOR 3")), new HashSet<>(snapshot.searchByCreator("AUTHOR 3")));
+        assertEquals(new HashSet<>(store.findByCreators("author 2", "Author 4", "nobody")),
+                     new HashSet<>(snapshot.findByCreators("author 2", "Author 4", "nobody")));
+        assertEquals(store.getMaterialsByPriceRange(15.0, 30.0), snapshot.getMaterialsByPriceRange(15.0, 30.0));
+        assertEquals(store.getAllMaterialsSorted(), snapshot.getAllMaterialsSorted());
+        assertEquals(new HashSet<>(store.getMaterialsByYear(2003)), new HashSet<>(snapshot.getMaterialsByYear(2003)));
+        assertEquals(store.getMediaMaterials(), snapshot.getMediaMaterials());
+        assertEquals(store.getTotalDiscountedValue(), snapshot.getTotalDiscountedValue(), 0.0);
+
+        MaterialStore.InventoryStats expected = store.getInventoryStats();
+        MaterialStore.InventoryStats actual = snapshot.getInventoryStats();
+        assertEquals(expected.getTotalCount(), actual.getTotalCount());
+        assertEquals(expected.getAveragePrice(), actual.getAveragePrice(), 0.0);
+        assertEquals(expected.getMedianPrice(), actual.getMedianPrice(), 0.0);
+        assertEquals(expected.getUniqueTypes(), actual.getUniqueTypes());
+        assertEquals(expected.getMediaCount(), actual.getMediaCount());
+        assertEquals(expected.getPrintCount(), actual.getPrintCount());
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getMaterialsByPriceRange(5.0, 1.0));
+    }
+
+    @Test
+    @DisplayName("A snapshot answers the same after the store moves past its version")
+    void testStaleAnswersUnchanged() {
+        MaterialStoreSnapshot snapshot = store.snapshot();
+        List<Material> titles = snapshot.searchByTitle("book 1");
+        List<Material> creators = snapshot.searchByCreator("AUTHOR 3");
+        List<Material> named = snapshot.findByCreators("author 2", "Author 4", "nobody");
+        List<Material> priced = snapshot.getMaterialsByPriceRange(15.0, 30.0);
+        double median = snapshot.getInventoryStats().getMedianPrice();
+
+        store.removeMaterial("9780000000011");
+        store.addMaterial(book(103));
+
+        assertEquals(new HashSet<>(titles), new HashSet<>(snapshot.searchByTitle("book 1")));
+        assertEquals(new HashSet<>(creators), new HashSet<>(snapshot.searchByCreator("AUTHOR 3")));
+        assertEquals(new HashSet<>(named), new HashSet<>(snapshot.findByCreators("author 2", "Author 4", "nobody")));
+        assertEquals(priced, snapshot.getMaterialsByPriceRange(15.0, 30.0));
+        assertEquals(median, snapshot.getInventoryStats().getMedianPrice(), 0.0);
+        assertTrue(snapshot.searchByTitle("Book 103").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Snapshots are reused until a write and reject mutation")
+    void testVersionsAndReadOnly() {
+        MaterialStoreSnapshot first = store.snapshot();
+        assertSame(first, store.snapshot());
+
+        store.addMaterial(book(200));
+        MaterialStoreSnapshot second = store.snapshot();
+        assertNotSame(first, second);
+        assertTrue(second.getVersion() > first.getVersion());
+        assertEquals(first.size() + 1, second.size());
+
+        assertThrows(UnsupportedOperationException.class, () -> second.addMaterial(book(300)));
+        assertThrows(UnsupportedOperationException.class, () -> second.removeMaterial("9780000000001"));
+        assertThrows(UnsupportedOperationException.class, second::clearInventory);
+    }
+
+    @Test
+    @DisplayName("Snapshots taken during concurrent writes are internally consistent")
+    void testConsistentUnderConcurrentWrites() throws InterruptedException {
+        int writers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        AtomicBoolean running = new AtomicBoolean(true);
+        for (int w = 0; w < writers; w++) {
+            int base = 1_000 + w * 10_000;
+            executor.submit(() -> {
+                int i = base;
+                while (running.get()) {
+                    store.addMaterial(book(i));
+                    store.removeMaterial(isbn(i - 3));
+                    i++;
+                }
+            });
+        }
+
+        try {
+            long lastVersion = -1;
+            for (int round = 0; round < 200; round++) {
+                MaterialStoreSnapshot snapshot = store.snapshot();
+                List<Material> materials = snapshot.getAllMaterials();
+                long units = materials.stream().mapToLong(Material::getPriceUnits).sum();
+
+                assertTrue(snapshot.getVersion() >= lastVersion);
+                lastVersion = snapshot.getVersion();
+                assertEquals(materials.size(), snapshot.size());
+                assertEquals(materials.size(), snapshot.getInventoryStats().getTotalCount());
+                assertEquals(units, Math.round(snapshot.getTotalInventoryValue() * 10_000));
+                assertEquals(materials.size(), new HashSet<>(materials).size());
+
+                // Each writer's live IDs in any real state are a run of 3 or 4 ending at
+                // its latest add; a copy torn across writes would show a shorter run
+                for (int w = 0; w < writers; w++) {
+                    int base = 1_000 + w * 10_000;
+                    List<Integer> ids = materials.stream()
+                        .filter(m -> m instanceof PrintedBook)
+                        .map(m -> Integer.parseInt(m.getId().substring(3)))
+                        .filter(id -> id >= base && id < base + 10_000)
+                        .sorted()
+                        .collect(Collectors.toList());
+                    if (!ids.isEmpty()) {
+                        int last = ids.get(ids.size() - 1);
+                        int expected = Math.min(last - base + 1, 3);
+                        assertTrue(ids.size() == expected || ids.size() == expected + 1, "writer " + w + ": " + ids);
+                        assertEquals(last - ids.size() + 1, (int) ids.get(0));
+                    }
+                }
+            }
+        } finally {
+            running.set(false);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+}
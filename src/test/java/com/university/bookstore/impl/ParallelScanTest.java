@@ -0,0 +1,109 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+
+/**
+ * Tests for chunked parallel predicate scans and their store configuration.
+ */
+@DisplayName("ParallelScan Tests")
+class ParallelScanTest {
+
+    private static List<Material> catalog;
+
+    @BeforeAll
+    static void buildCatalog() {
+        catalog = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            if (i % 3 == 0) {
+                catalog.add(new EBook("E" + i, "EBook " + i, "Author " + (i % 40), 5.0 + i % 50, 2015,
+                                      "PDF", 1.0, false, 1000, Media.MediaQuality.HIGH));
+            } else {
+                catalog.add(new PrintedBook(String.format("978%010d", i), "Book " + i, "Author " + (i % 40),
+                                            10.0 + i % 90, 2000, 100, "Publisher", false));
+            }
+        }
+    }
+
+    private static final Predicate<Material> CHEAP = m -> m.getPrice() < 30.0;
+
+    @Test
+    @DisplayName("Ordered parallel scan matches a sequential scan exactly")
+    void testOrderedMatchesSequential() {
+        ScanConfig parallel = ScanConfig.defaults().withParallelThreshold(1).withChunkSize(777);
+
+        List<Material> expected = ParallelScan.select(catalog, CHEAP, Function.identity(), ScanConfig.sequential());
+        List<Material> actual = ParallelScan.select(catalog, CHEAP, Function.identity(), parallel);
+
+        assertEquals(expected, actual);
+        assertEquals(catalog.stream().filter(CHEAP).toList(), actual);
+    }
+
+    @Test
+    @DisplayName("Unordered parallel scan returns the same matches")
+    void testUnorderedSameElements() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ScanConfig config = new ScanConfig(pool, 1, 500, false);
+            List<Media> media = ParallelScan.select(catalog, Media.class::isInstance, Media.class::cast, config);
+
+            assertEquals(catalog.stream().filter(Media.class::isInstance).count(), media.size());
+            assertEquals(new HashSet<>(catalog.stream().filter(Media.class::isInstance).toList()),
+                         new HashSet<>(media));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Predicate exceptions reach the caller unchanged")
+    void testExceptionPropagates() {
+        ScanConfig parallel = ScanConfig.defaults().withParallelThreshold(1).withChunkSize(1000);
+        Predicate<Material> failing = m -> {
+            if (m.getId().equals("E9999")) {
+                throw new IllegalStateException("bad item");
+            }
+            return true;
+        };
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> ParallelScan.select(catalog, failing, Function.identity(), parallel));
+        assertEquals("bad item", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Stores use their scan configuration")
+    void testStoresUseConfig() {
+        MaterialStoreConcurrentImpl concurrent = new MaterialStoreConcurrentImpl(catalog);
+        MaterialStoreImpl simple = new MaterialStoreImpl(catalog);
+        List<Material> concurrentSequential = concurrent.filterMaterials(CHEAP);
+        List<Material> simpleSequential = simple.findByCreators("Author 7", "Author 8");
+
+        concurrent.setScanConfig(ScanConfig.defaults().withParallelThreshold(1).withChunkSize(1024));
+        simple.setScanConfig(ScanConfig.defaults().withParallelThreshold(1).withChunkSize(1024));
+
+        assertEquals(concurrentSequential, concurrent.filterMaterials(CHEAP));
+        assertEquals(concurrentSequential, concurrent.findWithPredicate(CHEAP));
+        assertEquals(simpleSequential, simple.findByCreators("Author 7", "Author 8"));
+        assertEquals(catalog.stream().filter(Media.class::isInstance).toList(), simple.getMediaMaterials());
+        assertTrue(concurrent.getMediaMaterials().size() > 0);
+        assertEquals(1, simple.getScanConfig().getParallelThreshold());
+        assertThrows(NullPointerException.class, () -> simple.setScanConfig(null));
+        assertThrows(IllegalArgumentException.class, () -> ScanConfig.defaults().withChunkSize(0));
+    }
+}
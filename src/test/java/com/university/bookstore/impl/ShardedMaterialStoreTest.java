@@ -0,0 +1,137 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.model.AudioBook;
+import com.university.bookstore.model.EBook;
+import com.university.bookstore.model.Material;
+import com.university.bookstore.model.Media;
+import com.university.bookstore.model.PrintedBook;
+
+/**
+ * Tests for the hash-partitioned store against a single unsharded store.
+ */
+@DisplayName("ShardedMaterialStore Tests")
+class ShardedMaterialStoreTest {
+
+    private List<Material> catalog;
+    private ShardedMaterialStore sharded;
+    private MaterialStoreImpl reference;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            if (i % 5 == 0) {
+                catalog.add(new EBook("E" + i, "Java EBook " + i, "Author " + (i % 17), 3.0 + i % 71, 2000 + i % 25,
+                                      "PDF", 1.0, false, 1000, Media.MediaQuality.HIGH));
+            } else if (i % 7 == 0) {
+                catalog.add(new AudioBook(String.format("979%010d", i), "Audio " + i, "Author " + (i % 17), "Narrator",
+                                          8.5 + i % 13, 2010 + i % 10, 300, "MP3", 50.0,
+                                          Media.MediaQuality.HIGH, "English", true));
+            } else {
+                catalog.add(new PrintedBook(String.format("978%010d", i), "Book " + i, "Author " + (i % 17),
+                                            5.25 + i % 93, 1990 + i % 30, 100, "Publisher", false));
+            }
+        }
+        sharded = new ShardedMaterialStore(6, catalog);
+        reference = new MaterialStoreImpl(catalog);
+    }
+
+    @Test
+    @DisplayName("Materials are spread over the shards and routed by ID")
+    void testPartitioning() {
+        assertEquals(6, sharded.getShardCount());
+        assertEquals(catalog.size(), sharded.size());
+        for (int size : sharded.getShardSizes()) {
+            assertTrue(size > catalog.size() / 12, "unbalanced shard of " + size);
+        }
+        assertEquals("E10", sharded.findById("E10").orElseThrow().getId());
+        assertFalse(sharded.addMaterial(catalog.get(3)));
+        assertTrue(sharded.removeMaterial("E10").isPresent());
+        assertFalse(sharded.findById("E10").isPresent());
+        assertEquals(catalog.size() - 1, sharded.size());
+        assertThrows(IllegalArgumentException.class, () -> new ShardedMaterialStore(0));
+    }
+
+    @Test
+    @DisplayName("Scatter-gather queries match the unsharded store")
+    void testQueriesMatchReference() {
+        assertEquals(new HashSet<>(reference.searchByTitle("java")), new HashSet<>(sharded.searchByTitle("java")));
+        assertEquals(new HashSet<>(reference.findByCreators("Author 3", "Author 9")),
+                     new HashSet<>(sharded.findByCreators("Author 3", "Author 9")));
+        assertEquals(new HashSet<>(reference.getMediaMaterials()), new HashSet<>(sharded.getMediaMaterials()));
+        assertEquals(reference.getAllMaterialsSorted(), sharded.getAllMaterialsSorted());
+
+        Comparator<Material> byPriceThenId = Comparator.comparingDouble(Material::getPrice).thenComparing(Material::getId);
+        assertEquals(reference.getSorted(byPriceThenId), sharded.getSorted(byPriceThenId));
+        assertEquals(reference.getSorted(byPriceThenId, 25), sharded.getSorted(byPriceThenId, 25));
+
+        List<Material> range = sharded.getMaterialsByPriceRange(20.0, 40.0);
+        assertEquals(new HashSet<>(reference.getMaterialsByPriceRange(20.0, 40.0)), new HashSet<>(range));
+        for (int i = 1; i < range.size(); i++) {
+            assertTrue(range.get(i - 1).getPrice() <= range.get(i).getPrice());
+        }
+        assertThrows(IllegalArgumentException.class, () -> sharded.getMaterialsByPriceRange(2.0, 1.0));
+    }
+
+    @Test
+    @DisplayName("Totals and statistics merge exactly")
+    void testMergedAggregates() {
+        assertEquals(reference.getTotalInventoryValue(), sharded.getTotalInventoryValue(), 1e-9);
+        assertEquals(reference.getTotalDiscountedValue(), sharded.getTotalDiscountedValue(), 1e-9);
+
+        MaterialStore.InventoryStats expected = reference.getInventoryStats();
+        MaterialStore.InventoryStats actual = sharded.getInventoryStats();
+        assertEquals(expected.getTotalCount(), actual.getTotalCount());
+        assertEquals(expected.getAveragePrice(), actual.getAveragePrice(), 1e-9);
+        assertEquals(expected.getMedianPrice(), actual.getMedianPrice(), 0.0);
+        assertEquals(expected.getUniqueTypes(), actual.getUniqueTypes());
+        assertEquals(expected.getMediaCount(), actual.getMediaCount());
+        assertEquals(expected.getPrintCount(), actual.getPrintCount());
+
+        // An odd count takes the middle price instead of an average of two
+        sharded.removeMaterial("E0");
+        reference.removeMaterial("E0");
+        assertEquals(reference.getInventoryStats().getMedianPrice(), sharded.getInventoryStats().getMedianPrice(), 0.0);
+
+        sharded.clearInventory();
+        assertTrue(sharded.isEmpty());
+        assertEquals(0, sharded.getInventoryStats().getTotalCount());
+    }
+
+    @Test
+    @DisplayName("Parallel fan-out returns the same results and original exceptions")
+    void testParallelFanOut() {
+        List<Material> sequential = sharded.getAllMaterialsSorted();
+        sharded.setScanConfig(ScanConfig.defaults().withParallelThreshold(1));
+
+        assertEquals(sequential, sharded.getAllMaterialsSorted());
+        assertEquals(reference.getInventoryStats().getMedianPrice(), sharded.getInventoryStats().getMedianPrice(), 0.0);
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> sharded.filterMaterials(m -> {
+                throw new IllegalStateException("bad predicate");
+            }));
+        assertEquals("bad predicate", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("K-way merge keeps order and honours the limit")
+    void testMergeSorted() {
+        List<List<Integer>> runs = List.of(List.of(1, 4, 9), List.of(), List.of(2, 3, 10), List.of(5));
+        assertEquals(List.of(1, 2, 3, 4, 5, 9, 10), ShardedMaterialStore.mergeSorted(runs, Comparator.naturalOrder(), 100));
+        assertEquals(List.of(1, 2, 3), ShardedMaterialStore.mergeSorted(runs, Comparator.naturalOrder(), 3));
+    }
+}
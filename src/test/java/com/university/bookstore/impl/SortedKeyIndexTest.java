@@ -0,0 +1,176 @@
+package com.university.bookstore.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the blocked sorted key index, checked against a stably sorted list.
+ */
+@DisplayName("SortedKeyIndex Tests")
+class SortedKeyIndexTest {
+
+    /** Items in insertion order with their keys; the reference model. */
+    private final Map<Integer, Double> model = new LinkedHashMap<>();
+    private final SortedKeyIndex<Integer> index = new SortedKeyIndex<>();
+
+    private List<Integer> expectedRange(double min, double max) {
+        List<Integer> sorted = new ArrayList<>(model.keySet());
+        sorted.sort(Comparator.comparingDouble(model::get));
+        sorted.removeIf(item -> model.get(item) < min || model.get(item) > max);
+        return sorted;
+    }
+
+    private double[] expectedKeys() {
+        return model.values().stream().mapToDouble(Double::doubleValue).sorted().toArray();
+    }
+
+    private void assertMatchesModel(Random random) {
+        assertEquals(model.size(), index.size());
+        assertArrayEquals(expectedKeys(), index.keysCopy());
+        assertEquals(expectedRange(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY),
+                     index.tailFrom(Double.NEGATIVE_INFINITY));
+        double[] keys = expectedKeys();
+        for (int probe = 0; probe < 20 && keys.length > 0; probe++) {
+            int rank = random.nextInt(keys.length);
+            assertEquals(keys[rank], index.keyAt(rank), 0.0);
+            double min = random.nextInt(60);
+            double max = min + random.nextInt(10);
+            assertEquals(expectedRange(min, max), index.range(min, max));
+            assertEquals(expectedRange(min, Double.POSITIVE_INFINITY), index.tailFrom(min));
+            assertEquals(SortedKeyIndex.lowerBound(keys, keys.length, min), index.countBelow(min));
+            assertEquals(SortedKeyIndex.upperBound(keys, keys.length, max), index.countAtMost(max));
+        }
+    }
+
+    @Test
+    @DisplayName("Random inserts and removals match a stable sort, ties in insertion order")
+    void testMatchesStableSort() {
+        Random random = new Random(42);
+        int next = 0;
+        for (int round = 0; round < 20; round++) {
+            // Few distinct keys, so equal-key runs span many blocks
+            for (int i = 0; i < 1_000; i++) {
+                double key = random.nextInt(50);
+                model.put(next, key);
+                index.insert(key, next++);
+            }
+            List<Integer> present = new ArrayList<>(model.keySet());
+            for (int i = 0; i < 600; i++) {
+                Integer item = present.get(random.nextInt(present.size()));
+                Double key = model.remove(item);
+                assertEquals(key != null, index.remove(key != null ? key : 0.0, item));
+            }
+            assertMatchesModel(random);
+        }
+        assertFalse(index.remove(1.0, -1));
+    }
+
+    @Test
+    @DisplayName("Bulk inserts and removals give the same result as one-by-one updates")
+    void testBulkUpdates() {
+        Random random = new Random(7);
+        for (int round = 0; round < 5; round++) {
+            Map<Integer, Double> batch = new LinkedHashMap<>();
+            int batchSize = round % 2 == 0 ? 5_000 : 10;
+            for (int i = 0; i < batchSize; i++) {
+                batch.put(round * 10_000 + i, (double) random.nextInt(50));
+            }
+            model.putAll(batch);
+            index.insertAll(batch.keySet(), batch::get);
+            assertMatchesModel(random);
+
+            List<Integer> doomed = new ArrayList<>();
+            for (Integer item : model.keySet()) {
+                if (random.nextInt(round % 2 == 0 ? 3 : 500) == 0) {
+                    doomed.add(item);
+                }
+            }
+            Map<Integer, Double> removedKeys = new LinkedHashMap<>();
+            doomed.forEach(item -> removedKeys.put(item, model.remove(item)));
+            assertEquals(doomed.size(), index.removeAll(doomed, removedKeys::get));
+            assertMatchesModel(random);
+        }
+    }
+
+    @Test
+    @DisplayName("Ranges merged across indexes sharing stamps match one index")
+    void testMergedRanges() {
+        Random random = new Random(11);
+        AtomicLong stamps = new AtomicLong();
+        List<SortedKeyIndex<Integer>> parts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            parts.add(new SortedKeyIndex<>(stamps));
+        }
+        for (int round = 0; round < 4; round++) {
+            List<Integer> batch = new ArrayList<>();
+            long[] batchStamps = new long[300];
+            long first = stamps.getAndAdd(batchStamps.length);
+            for (int i = 0; i < batchStamps.length; i++) {
+                int item = round * 1_000 + i;
+                model.put(item, (double) random.nextInt(20));
+                batch.add(item);
+                batchStamps[i] = first + i;
+            }
+            // One batch spread over every part, as a striped store applies it
+            for (int p = 0; p < parts.size(); p++) {
+                List<Integer> slice = new ArrayList<>();
+                List<Long> sliceStamps = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    if (batch.get(i) % parts.size() == p) {
+                        slice.add(batch.get(i));
+                        sliceStamps.add(batchStamps[i]);
+                    }
+                }
+                parts.get(p).insertAll(slice, model::get, sliceStamps.stream().mapToLong(Long::longValue).toArray());
+            }
+            for (int i = 0; i < 50; i++) {
+                int item = round * 1_000 + 300 + i;
+                model.put(item, (double) random.nextInt(20));
+                parts.get(item % parts.size()).insert(model.get(item), item);
+            }
+            for (int i = 0; i < 10; i++) {
+                double min = random.nextInt(20);
+                double max = min + random.nextInt(5);
+                assertEquals(expectedRange(min, max), SortedKeyIndex.mergeRanges(parts, min, max));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Extremes, ranks and clearing behave at the edges")
+    void testEdges() {
+        assertNull(index.firstOfLargestKey());
+        assertThrows(IndexOutOfBoundsException.class, () -> index.keyAt(0));
+        assertTrue(index.range(0, 100).isEmpty());
+
+        for (int i = 0; i < 2_000; i++) {
+            index.insert(i % 3 == 0 ? 9.0 : 1.0, i);
+        }
+        assertEquals(0, index.firstOfLargestKey());
+        index.remove(9.0, 0);
+        assertEquals(3, index.firstOfLargestKey());
+        assertEquals(1_333, index.countBelow(9.0));
+        assertEquals(1_999, index.countAtMost(9.0));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.keyAt(1_999));
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertFalse(index.remove(1.0, 1));
+        index.insert(5.0, 1);
+        assertEquals(List.of(1), index.range(5.0, 5.0));
+    }
+}
@@ -0,0 +1,104 @@
+package com.university.bookstore.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.impl.MaterialStoreConcurrentImpl;
+import com.university.bookstore.impl.MaterialStoreImpl;
+import com.university.bookstore.model.PrintedBook;
+
+/**
+ * Tests for the instrumentation decorator and its JMX view.
+ */
+@DisplayName("InstrumentedMaterialStore Tests")
+class InstrumentedMaterialStoreTest {
+
+    private InstrumentedMaterialStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InstrumentedMaterialStore(new MaterialStoreImpl());
+        for (int i = 0; i < 10; i++) {
+            store.addMaterial(new PrintedBook(String.format("978%010d", i), "Java Book " + i, "Author " + (i % 3),
+                                              10.0 + i, 2000, 100, "Publisher", false));
+        }
+    }
+
+    @Test
+    @DisplayName("Calls, result sizes and failures are recorded per operation")
+    void testOperationMetrics() {
+        store.searchByTitle("java");
+        store.searchByTitle("missing");
+        store.findById("9780000000003");
+        assertThrows(NullPointerException.class, () -> store.addMaterial(null));
+
+        StoreMetrics.MetricsSnapshot snapshot = store.getMetrics().snapshot();
+        StoreMetrics.OperationSnapshot search = snapshot.getOperation("searchByTitle");
+        assertEquals(2, search.getCount());
+        assertEquals(5.0, search.getMeanResultSize(), 0.0);
+        assertTrue(search.getMaxNanos() >= search.getP50Nanos());
+        assertEquals(1, snapshot.getOperation("findById").getCount());
+        assertEquals(11, snapshot.getOperation("addMaterial").getCount());
+        assertEquals(1, snapshot.getOperation("addMaterial").getFailures());
+        assertNull(snapshot.getOperation("getAllMaterials"));
+    }
+
+    @Test
+    @DisplayName("Disabled metrics record nothing and results are unchanged")
+    void testDisabled() {
+        store.getMetrics().reset();
+        store.getMetrics().setEnabled(false);
+
+        assertEquals(10, store.searchByTitle("java").size());
+        assertEquals(0L, store.getMetrics().getCallCounts().getOrDefault("searchByTitle", 0L));
+    }
+
+    @Test
+    @DisplayName("Concurrent store reports index rebuilds and lock waits")
+    void testConcurrentStoreHooks() {
+        MaterialStoreConcurrentImpl concurrent = new MaterialStoreConcurrentImpl();
+        InstrumentedMaterialStore instrumented = new InstrumentedMaterialStore(concurrent);
+        instrumented.addMaterial(new PrintedBook("9780134685991", "Effective Java", "Joshua Bloch",
+                                                 45.99, 2018, 412, "Addison-Wesley", true));
+        instrumented.getAllMaterials();
+        instrumented.getInventoryStats();
+
+        StoreMetrics metrics = instrumented.getMetrics();
+        assertTrue(metrics.getIndexRebuildCount() >= 1);
+        assertTrue(metrics.getLockWaits().getCount() >= 2);
+    }
+
+    @Test
+    @DisplayName("Metrics are readable over JMX")
+    void testJmxRegistration() throws Exception {
+        String name = "instrumented-test";
+        ObjectName objectName = store.getMetrics().registerMBean(name);
+        try {
+            store.getAllMaterials();
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertTrue(server.isRegistered(objectName));
+            assertEquals(Boolean.TRUE, server.getAttribute(objectName, "Enabled"));
+            Object counts = server.getAttribute(objectName, "CallCounts");
+            assertTrue(counts instanceof javax.management.openmbean.TabularData);
+            assertEquals(10L, store.getMetrics().getCallCounts().get("addMaterial"));
+            assertThrows(IllegalStateException.class, () -> store.getMetrics().registerMBean(name));
+        } finally {
+            StoreMetrics.unregisterMBean(name);
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+        Map<String, Double> p99 = store.getMetrics().getP99LatencyMicros();
+        assertTrue(p99.get("getAllMaterials") >= 0.0);
+    }
+}
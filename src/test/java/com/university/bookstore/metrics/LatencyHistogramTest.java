@@ -0,0 +1,74 @@
+package com.university.bookstore.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the log-linear latency histogram.
+ */
+@DisplayName("LatencyHistogram Tests")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Small values are exact and percentiles follow ranks")
+    void testExactSmallValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int v = 1; v <= 20; v++) {
+            histogram.record(v);
+        }
+        assertEquals(20, histogram.getCount());
+        assertEquals(10.5, histogram.getMean(), 0.0);
+        assertEquals(10, histogram.getValueAtPercentile(50.0));
+        assertEquals(20, histogram.getValueAtPercentile(100.0));
+        assertEquals(1, histogram.getValueAtPercentile(0.0));
+        assertEquals(20, histogram.getMax());
+    }
+
+    @Test
+    @DisplayName("Large values are reported within the bucket resolution")
+    void testRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(42);
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000 + (long) (random.nextDouble() * 10_000_000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        long exactP99 = values[(int) Math.ceil(0.99 * values.length) - 1];
+        long reported = histogram.getValueAtPercentile(99.0);
+        assertTrue(reported >= exactP99);
+        assertTrue(reported <= exactP99 * 1.04, "reported " + reported + " vs " + exactP99);
+    }
+
+    @Test
+    @DisplayName("Bucket bounds cover every long without gaps")
+    void testBucketBounds() {
+        for (long v : new long[] {0, 31, 32, 63, 64, 65, 1_000_003, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucketOf(v);
+            assertTrue(LatencyHistogram.highestValueIn(bucket) >= v);
+            assertTrue(bucket == 0 || LatencyHistogram.highestValueIn(bucket - 1) < v);
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent records are all counted and reset clears them")
+    void testConcurrentRecordAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        IntStream.range(0, 100_000).parallel().forEach(histogram::record);
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(99_999, histogram.getMax());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99.0));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101.0));
+    }
+}
@@ -0,0 +1,213 @@
+package com.university.bookstore.replication;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.university.bookstore.TestMaterials.isbn;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import com.university.bookstore.TestMaterials;
+import com.university.bookstore.events.ChangeFeed;
+import com.university.bookstore.events.ChangeFeedMaterialStore;
+import com.university.bookstore.impl.MaterialStoreConcurrentImpl;
+import com.university.bookstore.model.Material;
+
+/**
+ * Tests for leader/follower replication over localhost.
+ */
+@DisplayName("Replication Tests")
+@Timeout(60)
+class ReplicationTest {
+
+    private ReplicationLeader leader;
+    private ReplicationFollower follower;
+    private ReplicationFollower secondFollower;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (ReplicationFollower f : new ReplicationFollower[] {follower, secondFollower}) {
+            if (f != null) {
+                f.close();
+            }
+        }
+        if (leader != null) {
+            leader.close();
+        }
+    }
+
+    private static Material book(int i) {
+        return TestMaterials.book(i, "Author " + (i % 7), 10.0 + i % 50, 2000);
+    }
+
+    private static InetSocketAddress localhost() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    }
+
+    private static void assertSameCatalog(ChangeFeedMaterialStore expected, MaterialStoreConcurrentImpl actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new HashSet<>(expected.getAllMaterials()), new HashSet<>(actual.getAllMaterials()));
+        assertEquals(expected.getTotalInventoryValue(), actual.getTotalInventoryValue(), 0.0);
+    }
+
+    @Test
+    @DisplayName("A new follower loads a snapshot and then follows the log")
+    void testSnapshotThenLog() throws Exception {
+        ChangeFeedMaterialStore primary = new ChangeFeedMaterialStore(new MaterialStoreConcurrentImpl());
+        for (int i = 0; i < 3_000; i++) {
+            primary.addMaterial(book(i));
+        }
+        leader = ReplicationLeader.start(primary, localhost());
+        follower = new ReplicationFollower(new MaterialStoreConcurrentImpl(), leader.getAddress()).start();
+
+        assertTrue(follower.awaitSequence(3_000, 10, TimeUnit.SECONDS));
+        assertEquals(1, follower.getSnapshotsLoaded());
+        assertSameCatalog(primary, follower.getStore());
+
+        primary.removeMaterial("9780000000005");
+        primary.addMaterial(book(5_000));
+        primary.clearInventory();
+        primary.addMaterial(book(7));
+        long last = primary.getChangeFeed().getLastSequence();
+        assertTrue(follower.awaitSequence(last, 10, TimeUnit.SECONDS));
+        assertSameCatalog(primary, follower.getStore());
+        assertEquals(0, follower.getLagEntries());
+
+        // Acks arrive after the follower applied the batch
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (leader.getMaxFollowerLag() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        List<ReplicationLeader.FollowerStatus> statuses = leader.getFollowers();
+        assertEquals(1, statuses.size());
+        assertEquals(last, statuses.get(0).getAckedSequence());
+        assertEquals(1, statuses.get(0).getSnapshotsSent());
+    }
+
+    @Test
+    @DisplayName("Concurrent writes replicate to several followers in batches")
+    void testConcurrentWritesAndBatching() throws Exception {
+        ChangeFeedMaterialStore primary = new ChangeFeedMaterialStore(new MaterialStoreConcurrentImpl());
+        leader = ReplicationLeader.start(primary, localhost(), 256, 50);
+        follower = new ReplicationFollower(new MaterialStoreConcurrentImpl(), leader.getAddress()).start();
+        secondFollower = new ReplicationFollower(new MaterialStoreConcurrentImpl(), leader.getAddress()).start();
+        assertTrue(follower.awaitSequence(0, 5, TimeUnit.SECONDS));
+
+        int writers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        for (int w = 0; w < writers; w++) {
+            int base = w * 5_000;
+            executor.submit(() -> {
+                for (int i = base; i < base + 5_000; i++) {
+                    primary.addMaterial(book(i));
+                    if (i % 4 == 0) {
+                        primary.removeMaterial(isbn(i - 2));
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        long last = primary.getChangeFeed().getLastSequence();
+        assertTrue(follower.awaitSequence(last, 20, TimeUnit.SECONDS));
+        assertTrue(secondFollower.awaitSequence(last, 20, TimeUnit.SECONDS));
+        assertSameCatalog(primary, follower.getStore());
+        assertSameCatalog(primary, secondFollower.getStore());
+        assertTrue(follower.getBatchesApplied() < last, "entries were not batched");
+    }
+
+    @Test
+    @DisplayName("A restarted follower resumes from its offset, or resyncs if too far behind")
+    void testResumeAndResync() throws Exception {
+        ChangeFeedMaterialStore primary = new ChangeFeedMaterialStore(new MaterialStoreConcurrentImpl(),
+            new ChangeFeed(1 << 8, ChangeFeed.OverflowPolicy.OVERWRITE));
+        for (int i = 0; i < 100; i++) {
+            primary.addMaterial(book(i));
+        }
+        leader = ReplicationLeader.start(primary, localhost());
+        MaterialStoreConcurrentImpl replica = new MaterialStoreConcurrentImpl();
+        follower = new ReplicationFollower(replica, leader.getAddress()).start();
+        assertTrue(follower.awaitSequence(100, 10, TimeUnit.SECONDS));
+        long feedId = follower.getFeedId();
+        assertEquals(primary.getChangeFeed().getFeedId(), feedId);
+        follower.close();
+
+        // Within the feed's retention: log catch-up only
+        for (int i = 100; i < 150; i++) {
+            primary.addMaterial(book(i));
+        }
+        follower = new ReplicationFollower(replica, leader.getAddress(), feedId, 100, 50).start();
+        assertTrue(follower.awaitSequence(150, 10, TimeUnit.SECONDS));
+        assertEquals(0, follower.getSnapshotsLoaded());
+        assertSameCatalog(primary, replica);
+        follower.close();
+
+        // Beyond it: a fresh snapshot
+        for (int i = 150; i < 1_000; i++) {
+            primary.addMaterial(book(i));
+        }
+        follower = new ReplicationFollower(replica, leader.getAddress(), feedId, 150, 50).start();
+        assertTrue(follower.awaitSequence(1_000, 10, TimeUnit.SECONDS));
+        assertEquals(1, follower.getSnapshotsLoaded());
+        assertSameCatalog(primary, replica);
+    }
+
+    @Test
+    @DisplayName("A leader restarted with a new feed resyncs its followers from a snapshot")
+    void testLeaderRestart() throws Exception {
+        ChangeFeedMaterialStore primary = new ChangeFeedMaterialStore(new MaterialStoreConcurrentImpl());
+        for (int i = 0; i < 100; i++) {
+            primary.addMaterial(book(i));
+        }
+        leader = ReplicationLeader.start(primary, localhost());
+        InetSocketAddress address = leader.getAddress();
+        MaterialStoreConcurrentImpl replica = new MaterialStoreConcurrentImpl();
+        follower = new ReplicationFollower(replica, address, 0L, 0L, 50).start();
+        assertTrue(follower.awaitSequence(100, 10, TimeUnit.SECONDS));
+        leader.close();
+
+        // The new feed numbers an unrelated history past the follower's sequence
+        ChangeFeedMaterialStore restarted = new ChangeFeedMaterialStore(new MaterialStoreConcurrentImpl());
+        for (int i = 50; i < 250; i++) {
+            restarted.addMaterial(book(i + 1_000));
+        }
+        AtomicInteger smallest = new AtomicInteger(Integer.MAX_VALUE);
+        AtomicBoolean watching = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            while (watching.get()) {
+                smallest.accumulateAndGet(replica.getTotalsSnapshot().getCount(), Math::min);
+            }
+        });
+        reader.start();
+        leader = ReplicationLeader.start(restarted, address);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (follower.getSnapshotsLoaded() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        watching.set(false);
+        reader.join();
+        assertEquals(2, follower.getSnapshotsLoaded());
+        assertEquals(restarted.getChangeFeed().getFeedId(), follower.getFeedId());
+        assertSameCatalog(restarted, replica);
+        // The old catalog stayed visible until the new one was swapped in
+        assertEquals(100, smallest.get());
+
+        restarted.addMaterial(book(7));
+        assertTrue(follower.awaitSequence(201, 10, TimeUnit.SECONDS));
+        assertSameCatalog(restarted, replica);
+    }
+}
@@ -0,0 +1,192 @@
+package com.university.bookstore.storage;
+
+import com.university.bookstore.impl.MaterialStoreConcurrentImpl;
+import com.university.bookstore.impl.MaterialStoreImpl;
+import com.university.bookstore.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the write-ahead-logged DurableMaterialStore.
+ */
+@DisplayName("DurableMaterialStore Tests")
+public class DurableMaterialStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static EBook ebook(int i) {
+        return new EBook("E" + i, "Title " + i, "Author " + (i % 7), 1.0 + i % 50, 2000 + i % 20,
+                         "EPUB", 1.5, false, 1000 + i, Media.MediaQuality.HIGH);
+    }
+
+    private static List<Material> reopen(Path directory) throws IOException {
+        try (DurableMaterialStore store = DurableMaterialStore.open(directory, new MaterialStoreImpl())) {
+            return store.getAllMaterials();
+        }
+    }
+
+    @Test
+    @DisplayName("Recovers adds, removes and clears from the log")
+    void testRecoversFromLog() throws IOException {
+        try (DurableMaterialStore store = DurableMaterialStore.open(directory, new MaterialStoreImpl())) {
+            for (int i = 0; i < 10; i++) {
+                assertTrue(store.addMaterial(ebook(i)));
+            }
+            assertFalse(store.addMaterial(ebook(3)));
+            store.removeMaterial("E3");
+            store.removeMaterial("missing");
+            assertEquals(11, store.getLastSequence());
+        }
+
+        List<Material> recovered = reopen(directory);
+        assertEquals(9, recovered.size());
+        assertFalse(recovered.contains(ebook(3)));
+        assertEquals(ebook(9).getDisplayInfo(), recovered.get(8).getDisplayInfo());
+
+        try (DurableMaterialStore store = DurableMaterialStore.open(directory, new MaterialStoreImpl())) {
+            store.clearInventory();
+            store.addMaterial(ebook(42));
+        }
+        assertEquals(List.of(ebook(42)), reopen(directory));
+    }
+
+    @Test
+    @DisplayName("Rebuilds from snapshot plus log tail and drops covered segments")
+    void testSnapshotPlusTail() throws IOException {
+        try (DurableMaterialStore store = DurableMaterialStore.open(directory, new MaterialStoreImpl(),
+                DurableMaterialStore.FsyncPolicy.NEVER, 0, 1_000_000)) {
+            for (int i = 0; i < 100; i++) {
+                store.addMaterial(ebook(i));
+            }
+            store.snapshot();
+            store.removeMaterial("E0");
+            store.addMaterial(ebook(100));
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<String> names = files.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+            assertEquals(List.of(DurableMaterialStore.SNAPSHOT_FILE, "wal-00000000000000000101.log"), names);
+        }
+
+        List<Material> recovered = reopen(directory);
+        assertEquals(100, recovered.size());
+        assertEquals("E1", recovered.get(0).getId());
+        assertEquals("E100", recovered.get(99).getId());
+    }
+
+    @Test
+    @DisplayName("Takes automatic snapshots in the background")
+    void testAutomaticSnapshot() throws Exception {
+        try (DurableMaterialStore store = DurableMaterialStore.open(directory, new MaterialStoreImpl(),
+                DurableMaterialStore.FsyncPolicy.INTERVAL, 5, 50)) {
+            for (int i = 0; i < 120; i++) {
+                store.addMaterial(ebook(i));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!Files.exists(directory.resolve(DurableMaterialStore.SNAPSHOT_FILE))
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(Files.exists(directory.resolve(DurableMaterialStore.SNAPSHOT_FILE)));
+        }
+        assertEquals(120, reopen(directory).size());
+    }
+
+    @Test
+    @DisplayName("Discards a torn record at the end of the log")
+    void testTornTail() throws IOException {
+        try (DurableMaterialStore store = DurableMaterialStore.open(directory, new MaterialStoreImpl())) {
+            store.addMaterial(ebook(1));
+            store.addMaterial(ebook(2));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(p -> p.toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        long intact = Files.size(segment);
+        Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (DurableMaterialStore store = DurableMaterialStore.open(directory, new MaterialStoreImpl())) {
+            assertEquals(2, store.size());
+            assertEquals(intact, Files.size(segment));
+            store.addMaterial(ebook(3));
+        }
+        assertEquals(3, reopen(directory).size());
+    }
+
+    @Test
+    @DisplayName("Treats a record length beyond the segment as a torn tail")
+    void testCorruptLength() throws IOException {
+        try (DurableMaterialStore store = DurableMaterialStore.open(directory, new MaterialStoreImpl())) {
+            store.addMaterial(ebook(1));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(p -> p.toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        long intact = Files.size(segment);
+        Files.write(segment, new byte[] {0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0, 0, 0, 0, 1},
+                    StandardOpenOption.APPEND);
+
+        try (DurableMaterialStore store = DurableMaterialStore.open(directory, new MaterialStoreImpl())) {
+            assertEquals(1, store.size());
+            assertEquals(intact, Files.size(segment));
+        }
+    }
+
+    @Test
+    @DisplayName("Group-commits concurrent writers")
+    void testConcurrentWriters() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (DurableMaterialStore store = DurableMaterialStore.open(directory, new MaterialStoreConcurrentImpl())) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int base = t * 100;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        store.addMaterial(ebook(base + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertEquals(800, store.getLastSequence());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(800, reopen(directory).size());
+    }
+
+    @Test
+    @DisplayName("Rejects non-empty delegates and writes after close")
+    void testLifecycle() throws IOException {
+        MaterialStoreImpl populated = new MaterialStoreImpl();
+        populated.addMaterial(ebook(1));
+        assertThrows(IllegalArgumentException.class, () -> DurableMaterialStore.open(directory, populated));
+
+        DurableMaterialStore store = DurableMaterialStore.open(directory, new MaterialStoreImpl());
+        store.addMaterial(ebook(2));
+        store.close();
+        // Nothing reaches the delegate without its log record
+        assertThrows(IllegalStateException.class, () -> store.addMaterial(ebook(1)));
+        assertThrows(IllegalStateException.class, () -> store.removeMaterial("E2"));
+        assertThrows(IllegalStateException.class, store::clearInventory);
+        assertFalse(store.findById("E1").isPresent());
+        assertEquals(List.of(ebook(2)), store.getAllMaterials());
+    }
+}
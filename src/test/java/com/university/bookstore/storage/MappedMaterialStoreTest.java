@@ -0,0 +1,153 @@
+package com.university.bookstore.storage;
+
+import com.university.bookstore.api.MaterialStore;
+import com.university.bookstore.impl.MaterialStoreImpl;
+import com.university.bookstore.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the memory-mapped snapshot and the store layered over it.
+ */
+@DisplayName("MappedMaterialStore Tests")
+public class MappedMaterialStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static Material material(int i, Random random) {
+        double price = random.nextInt(5000) / 100.0;
+        int year = 1995 + random.nextInt(30);
+        switch (i % 5) {
+            case 0:
+                return new PrintedBook(String.format("978%010d", i), "Book " + (i % 41), "Author " + (i % 9),
+                                       price, year, 100 + i % 500, "Publisher", i % 2 == 0);
+            case 1:
+                return new Magazine(String.format("%08d", i), "Magazine " + (i % 41), "Publisher " + (i % 9),
+                                    price, year, 1 + i % 12, "Monthly", "Science");
+            case 2:
+                return new AudioBook(String.format("979%010d", i), "Audio " + (i % 41), "Author " + (i % 9),
+                                     "Narrator", price, year, 300, "MP3", 100.0, Media.MediaQuality.HIGH,
+                                     "English", true);
+            case 3:
+                return new VideoMaterial("V" + i, "Video " + (i % 41), "Director " + (i % 9), price, year, 120,
+                                         "MP4", 900.0, Media.MediaQuality.HD, VideoMaterial.VideoType.MOVIE,
+                                         "PG", Arrays.asList("Actor"), true, "16:9");
+            default:
+                return new EBook("E" + i, "EBook " + (i % 41), "Author " + (i % 9), price, year, "EPUB", 2.0,
+                                 false, 50000, Media.MediaQuality.HIGH);
+        }
+    }
+
+    @Test
+    @DisplayName("Serves lookups and indexes straight from the mapped file")
+    void testMappedQueries() throws IOException {
+        Random random = new Random(3);
+        List<Material> catalog = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            catalog.add(material(i, random));
+        }
+        Path file = directory.resolve("catalog.snap");
+        MappedSnapshot.write(file, catalog);
+
+        MappedMaterialStore store = MappedMaterialStore.open(file);
+        MaterialStoreImpl reference = new MaterialStoreImpl(catalog);
+
+        assertEquals(2000, store.size());
+        assertEquals(0, store.getOverlaySize());
+        assertEquals(catalog.get(1234).getDisplayInfo(), store.findById(catalog.get(1234).getId()).get().getDisplayInfo());
+        assertFalse(store.findById("missing").isPresent());
+        assertEquals(reference.getMaterialsByPriceRange(10.0, 12.5), store.getMaterialsByPriceRange(10.0, 12.5));
+        assertEquals(reference.getMaterialsByYear(2001), store.getMaterialsByYear(2001));
+        assertEquals(reference.searchByTitle("book 1"), store.searchByTitle("book 1"));
+        assertEquals(reference.searchByTitle("Bo"), store.searchByTitle("Bo"));
+        assertEquals(reference.searchByTitle("ebook 40"), store.searchByTitle("ebook 40"));
+        assertTrue(store.searchByTitle("book 99").isEmpty());
+        assertEquals(reference.searchByCreator("AUTHOR 3"), store.searchByCreator("AUTHOR 3"));
+        assertEquals(reference.searchByCreator("r 7"), store.searchByCreator("r 7"));
+        assertEquals(reference.findByCreators("Author 3", " Director 2 ", "author 4"),
+                     store.findByCreators("Author 3", " Director 2 ", "author 4"));
+        assertEquals(reference.getMaterialsByType(Material.MaterialType.VIDEO),
+                     store.getMaterialsByType(Material.MaterialType.VIDEO));
+        assertEquals(reference.getMediaMaterials().size(), store.getMediaMaterials().size());
+        assertEquals(reference.getTotalDiscountedValue(), store.getTotalDiscountedValue(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Layers mutations over the base and agrees with MaterialStoreImpl")
+    void testLayeredMutations() throws IOException {
+        Random random = new Random(11);
+        List<Material> pool = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            pool.add(material(i, random));
+        }
+        Path file = directory.resolve("catalog.snap");
+        MappedSnapshot.write(file, pool.subList(0, 1500));
+
+        MappedMaterialStore store = MappedMaterialStore.open(file);
+        MaterialStoreImpl reference = new MaterialStoreImpl(pool.subList(0, 1500));
+        for (int step = 0; step < 4000; step++) {
+            Material material = pool.get(random.nextInt(pool.size()));
+            if (random.nextBoolean()) {
+                assertEquals(reference.addMaterial(material), store.addMaterial(material));
+            } else {
+                assertEquals(reference.removeMaterial(material.getId()).isPresent(),
+                             store.removeMaterial(material.getId()).isPresent());
+            }
+        }
+
+        assertEquals(reference.size(), store.size());
+        assertTrue(store.getOverlaySize() > 0);
+        for (Material material : pool) {
+            assertEquals(reference.findById(material.getId()), store.findById(material.getId()));
+        }
+        assertEquals(reference.getMaterialsByPriceRange(5.0, 30.0), store.getMaterialsByPriceRange(5.0, 30.0));
+        assertEquals(reference.findRecentMaterials(15), store.findRecentMaterials(15));
+        assertEquals(reference.getAllMaterialsSorted(), store.getAllMaterialsSorted());
+
+        MaterialStore.InventoryStats expected = reference.getInventoryStats();
+        MaterialStore.InventoryStats actual = store.getInventoryStats();
+        assertEquals(expected.getTotalCount(), actual.getTotalCount());
+        assertEquals(expected.getAveragePrice(), actual.getAveragePrice(), 0.001);
+        assertEquals(expected.getMedianPrice(), actual.getMedianPrice(), 0.0);
+        assertEquals(expected.getUniqueTypes(), actual.getUniqueTypes());
+        assertEquals(expected.getMediaCount(), actual.getMediaCount());
+        assertEquals(expected.getPrintCount(), actual.getPrintCount());
+
+        Path merged = directory.resolve("merged.snap");
+        store.writeSnapshot(merged);
+        MappedMaterialStore reopened = MappedMaterialStore.open(merged);
+        assertEquals(reference.getAllMaterialsSorted(), reopened.getAllMaterialsSorted());
+        assertEquals(0, reopened.getOverlaySize());
+    }
+
+    @Test
+    @DisplayName("Clears the base layer and handles empty snapshots")
+    void testClearAndEmpty() throws IOException {
+        Path file = directory.resolve("catalog.snap");
+        MappedSnapshot.write(file, List.of(material(0, new Random(1)), material(1, new Random(2))));
+        MappedMaterialStore store = MappedMaterialStore.open(file);
+
+        store.clearInventory();
+        assertTrue(store.isEmpty());
+        assertEquals(0.0, store.getTotalInventoryValue(), 0.0);
+        assertTrue(store.getAllMaterials().isEmpty());
+        assertTrue(store.addMaterial(material(0, new Random(1))));
+        assertEquals(1, store.size());
+
+        Path empty = directory.resolve("empty.snap");
+        MappedSnapshot.write(empty, List.of());
+        MappedMaterialStore emptyStore = MappedMaterialStore.open(empty);
+        assertTrue(emptyStore.isEmpty());
+        assertEquals(0, emptyStore.getInventoryStats().getTotalCount());
+        assertTrue(emptyStore.getMaterialsByPriceRange(0, 100).isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+package com.university.bookstore.storage;
+
+import com.university.bookstore.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MaterialCodec round trips.
+ */
+@DisplayName("MaterialCodec Tests")
+public class MaterialCodecTest {
+
+    private static List<Material> allKinds() {
+        return Arrays.asList(
+            new PrintedBook("9780134685991", "Effective Java", "Joshua Bloch",
+                            45.99, 2018, 412, "Addison-Wesley", true),
+            new Magazine("1234-5678", "National Geographic", "NatGeo Society",
+                         6.99, 2024, 3, "Monthly", "Science"),
+            new AudioBook("9780143038092", "1984", "George Orwell", "Simon Prebble",
+                          14.99, 2020, 690, "MP3", 850.5, Media.MediaQuality.HIGH, "English", false),
+            new VideoMaterial("883929665839", "Inception", "Christopher Nolan", 19.99, 2010, 148,
+                              "MP4", 2500.0, Media.MediaQuality.HD, VideoMaterial.VideoType.DOCUMENTARY,
+                              "PG-13", Arrays.asList("Leonardo DiCaprio", "Élodie Yung"), true, "2.39:1"),
+            new EBook("EB-1", "Clean Code", "Robert Martin", 29.99, 2008, "PDF", 3.2,
+                      true, 120000, Media.MediaQuality.STANDARD));
+    }
+
+    @Test
+    @DisplayName("Round-trips every supported subtype field by field")
+    void testRoundTrip() {
+        for (Material original : allKinds()) {
+            Material decoded = MaterialCodec.decode(MaterialCodec.encode(original));
+
+            assertEquals(original.getClass(), decoded.getClass());
+            assertEquals(original.getId(), decoded.getId());
+            assertEquals(original.getType(), decoded.getType());
+            assertEquals(original.getCreator(), decoded.getCreator());
+            assertEquals(original.getDiscountedPrice(), decoded.getDiscountedPrice(), 0.0);
+            assertEquals(original.toString(), decoded.toString());
+            assertEquals(original.getDisplayInfo(), decoded.getDisplayInfo());
+        }
+    }
+
+    @Test
+    @DisplayName("Details blob plus common fields rebuilds the material")
+    void testDetailsRoundTrip() {
+        VideoMaterial video = (VideoMaterial) allKinds().get(3);
+
+        Material decoded = MaterialCodec.decodeDetails(MaterialCodec.kindOf(video), video.getId(),
+            video.getTitle(), video.getCreator(), video.getPrice(), video.getYear(),
+            MaterialCodec.encodeDetails(video));
+
+        VideoMaterial copy = assertInstanceOf(VideoMaterial.class, decoded);
+        assertEquals(video.getCast(), copy.getCast());
+        assertEquals(video.getAspectRatio(), copy.getAspectRatio());
+        assertEquals(Material.MaterialType.DOCUMENTARY, copy.getType());
+    }
+
+    @Test
+    @DisplayName("Rejects unsupported subtypes and unknown kinds")
+    void testRejectsUnknown() {
+        Material custom = new Material("X1", "Custom", 1.0, 2020, Material.MaterialType.PODCAST) {
+            @Override
+            public String getCreator() {
+                return "Someone";
+            }
+
+            @Override
+            public String getDisplayInfo() {
+                return "Custom";
+            }
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> MaterialCodec.encode(custom));
+        assertThrows(IllegalArgumentException.class,
+            () -> MaterialCodec.decodeDetails((byte) 99, "X1", "T", "C", 1.0, 2020, new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> MaterialCodec.decode(new byte[] {1, 0}));
+    }
+}
@@ -0,0 +1,44 @@
+package com.university.bookstore.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for fixed-point money arithmetic.
+ */
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    @Test
+    @DisplayName("Dollar amounts round-trip through units")
+    void testRoundTrip() {
+        assertEquals(459_900L, Money.toUnits(45.99));
+        assertEquals(1L, Money.toUnits(0.00005));
+        assertEquals(0L, Money.toUnits(0.0));
+        assertEquals(45.99, Money.toDollars(Money.toUnits(45.99)), 0.0);
+        assertEquals(0.1, Money.toDollars(Money.toUnits(0.1)), 0.0);
+    }
+
+    @Test
+    @DisplayName("Whole-percent discounts on cent prices are exact")
+    void testDiscountExact() {
+        assertEquals(127_415L, Money.discount(Money.toUnits(14.99), 0.15));
+        assertEquals(74_925L, Money.discount(Money.toUnits(9.99), 0.25));
+        assertEquals(Money.toUnits(14.99), Money.discount(Money.toUnits(14.99), 0.0));
+        assertEquals(0L, Money.discount(Money.toUnits(14.99), 1.0));
+    }
+
+    @Test
+    @DisplayName("Sums of units do not accumulate rounding error")
+    void testNoDrift() {
+        long total = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            total += Money.toUnits(0.1);
+        }
+        for (int i = 0; i < 999_990; i++) {
+            total -= Money.toUnits(0.1);
+        }
+        assertEquals(1.0, Money.toDollars(total), 0.0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.university.bookstore.utils;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.factory.MaterialFactory;
+import com.university.bookstore.model.Magazine;
+import com.university.bookstore.model.PrintedBook;
+
+/**
+ * Tests for dictionary encoding of repeated strings.
+ */
+@DisplayName("StringDictionary Tests")
+class StringDictionaryTest {
+
+    @Test
+    @DisplayName("Equal values share one instance and one code")
+    void testInternAndCodes() {
+        StringDictionary dictionary = new StringDictionary();
+        String first = new String("Prentice Hall");
+        String second = new String("Prentice Hall");
+        assertNotSame(first, second);
+
+        assertSame(first, dictionary.intern(first));
+        assertSame(first, dictionary.intern(second));
+        assertEquals(0, dictionary.code("Prentice Hall"));
+        assertEquals(1, dictionary.code("O'Reilly"));
+        assertEquals("O'Reilly", dictionary.value(1));
+        assertEquals(2, dictionary.size());
+        assertEquals(-1, dictionary.find("Unknown"));
+        assertEquals(2, dictionary.size());
+        assertNull(dictionary.intern(null));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.value(2));
+    }
+
+    @Test
+    @DisplayName("Saved heap is reported per replaced duplicate")
+    void testBytesSaved() {
+        StringDictionary dictionary = new StringDictionary();
+        dictionary.intern(new String("Monthly"));
+        assertEquals(0, dictionary.getBytesSaved());
+
+        dictionary.intern(new String("Monthly"));
+        dictionary.intern(new String("Monthly"));
+        // 24-byte String object plus a 16 + 7 byte array rounded up to 24
+        assertEquals(2, dictionary.getDeduplicatedCount());
+        assertEquals(2 * 48, dictionary.getBytesSaved());
+    }
+
+    @Test
+    @DisplayName("Concurrent callers agree on every code")
+    void testConcurrentCodes() {
+        StringDictionary dictionary = new StringDictionary();
+        Set<String> pairs = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 100_000).parallel().forEach(i -> {
+            String value = "value-" + (i % 500);
+            pairs.add(value + "=" + dictionary.code(value));
+        });
+        assertEquals(500, dictionary.size());
+        assertEquals(500, pairs.size());
+        for (int code = 0; code < 500; code++) {
+            assertEquals(code, dictionary.code(dictionary.value(code)));
+        }
+    }
+
+    @Test
+    @DisplayName("Counted values are dropped with their last holder and codes are reused")
+    void testReferenceCounts() {
+        StringDictionary dictionary = new StringDictionary();
+        int author = dictionary.acquire("knuth");
+        assertEquals(author, dictionary.acquire("knuth"));
+        int other = dictionary.acquire("lamport");
+        assertEquals(2, dictionary.size());
+
+        dictionary.release("knuth");
+        assertEquals(author, dictionary.find("knuth"));
+        dictionary.release("knuth");
+        assertEquals(-1, dictionary.find("knuth"));
+        assertEquals(1, dictionary.size());
+        assertThrows(IllegalArgumentException.class, () -> dictionary.value(author));
+        assertThrows(IllegalStateException.class, () -> dictionary.release("knuth"));
+
+        assertEquals(author, dictionary.acquire("hoare"));
+        assertEquals("lamport", dictionary.value(other));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    @DisplayName("Model constructors share every repeated field, names through the weak pool")
+    void testModelFieldsShared() {
+        Magazine first = new Magazine("12345678", "Tech", new String("Dictionary Test Press"),
+                                      5.99, 2024, 1, new String("Monthly"), new String("Technology"));
+        Magazine second = new Magazine("87654321", "Science", new String("Dictionary Test Press"),
+                                       6.99, 2024, 2, new String("Monthly"), new String("Technology"));
+        PrintedBook book = new PrintedBook("9780134685991", "Effective Java", new String("Dictionary Test Author"),
+                                           45.99, 2018, 412, "Addison-Wesley", true);
+
+        assertSame(first.getFrequency(), second.getFrequency());
+        assertSame(first.getCategory(), second.getCategory());
+        assertSame(first.getPublisher(), second.getPublisher());
+        assertSame(book.getAuthor(), WeakStringPool.shared().intern(new String("Dictionary Test Author")));
+        // Open-ended names stay out of the never-forgetting dictionary
+        assertEquals(-1, StringDictionary.shared().find("Dictionary Test Press"));
+        assertEquals(-1, StringDictionary.shared().find(book.getAuthor()));
+        assertTrue(StringDictionary.shared().getBytesSaved() > 0);
+        assertTrue(WeakStringPool.shared().getBytesSaved() > 0);
+        assertTrue(MaterialFactory.getBytesSaved() >= WeakStringPool.shared().getBytesSaved());
+    }
+}
@@ -0,0 +1,68 @@
+package com.university.bookstore.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for bounded-heap top-k selection.
+ */
+@DisplayName("TopK Tests")
+class TopKTest {
+
+    /** Value plus original position, so tie order is observable. */
+    private record Item(int value, int position) { }
+
+    private static final Comparator<Item> BY_VALUE = Comparator.comparingInt(Item::value);
+
+    private static List<Item> randomItems(int n, int bound, long seed) {
+        Random random = new Random(seed);
+        List<Item> items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            items.add(new Item(random.nextInt(bound), i));
+        }
+        return items;
+    }
+
+    private static List<Item> sortedPrefix(List<Item> items, int k) {
+        List<Item> sorted = new ArrayList<>(items);
+        sorted.sort(BY_VALUE);
+        return sorted.subList(0, Math.min(k, sorted.size()));
+    }
+
+    @Test
+    @DisplayName("Matches the prefix of a stable sort, ties included")
+    void testMatchesStableSort() {
+        List<Item> items = randomItems(5_000, 50, 7);
+        for (int k : new int[] {0, 1, 2, 20, 49, 500, 5_000, 10_000}) {
+            assertEquals(sortedPrefix(items, k), TopK.smallest(items, BY_VALUE, k), "k=" + k);
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel selection matches sequential selection")
+    void testParallelMatchesSequential() {
+        List<Item> items = randomItems(TopK.PARALLEL_THRESHOLD * 3 + 17, 1_000, 11);
+        for (int k : new int[] {0, 1, 50, 5_000, items.size() + 1, Integer.MAX_VALUE}) {
+            assertEquals(TopK.smallest(items, BY_VALUE, k), TopK.smallestParallel(items, BY_VALUE, k), "k=" + k);
+        }
+        List<Item> small = randomItems(100, 10, 3);
+        assertEquals(sortedPrefix(small, 10), TopK.smallestParallel(small, BY_VALUE, 10));
+    }
+
+    @Test
+    @DisplayName("Handles empty input and rejects bad arguments")
+    void testEdgeCases() {
+        assertTrue(TopK.smallest(new ArrayList<Item>(), BY_VALUE, 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> TopK.smallest(List.of(1), Comparator.<Integer>naturalOrder(), -1));
+        assertThrows(NullPointerException.class, () -> TopK.smallest(null, Comparator.<Integer>naturalOrder(), 1));
+        assertThrows(NullPointerException.class, () -> TopK.smallest(List.of(1), null, 1));
+    }
+}
@@ -0,0 +1,55 @@
+package com.university.bookstore.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the weakly held pool of repeated names.
+ */
+@DisplayName("WeakStringPool Tests")
+class WeakStringPoolTest {
+
+    @Test
+    @DisplayName("Equal names share one instance and report the saving")
+    void testIntern() {
+        WeakStringPool pool = new WeakStringPool();
+        String first = new String("Donald Knuth");
+        String second = new String("Donald Knuth");
+        assertNotSame(first, second);
+
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertEquals(1, pool.size());
+        assertEquals(1, pool.getDeduplicatedCount());
+        // 24-byte String object plus a 16 + 12 byte array rounded up to 32
+        assertEquals(56, pool.getBytesSaved());
+        assertNull(pool.intern(null));
+    }
+
+    @Test
+    @DisplayName("Names no longer held elsewhere are reclaimed")
+    void testReclaimed() throws InterruptedException {
+        WeakStringPool pool = new WeakStringPool();
+        List<String> held = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String name = pool.intern("Author " + i);
+            if (i < 10) {
+                held.add(name);
+            }
+        }
+        for (int attempt = 0; attempt < 50 && pool.size() > held.size(); attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(held.size(), pool.size());
+        assertTrue(held.stream().allMatch(name -> pool.intern(new String(name)) == name));
+    }
+}
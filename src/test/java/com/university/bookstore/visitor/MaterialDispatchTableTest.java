@@ -0,0 +1,112 @@
+package com.university.bookstore.visitor;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.university.bookstore.model.*;
+
+/**
+ * Test suite for double dispatch through Material.accept and MaterialDispatchTable.
+ */
+class MaterialDispatchTableTest {
+
+    private static final MaterialResultVisitor<String> NAMER = new MaterialResultVisitor<String>() {
+        @Override
+        public String visit(PrintedBook book) { return "book:" + book.getPages(); }
+        @Override
+        public String visit(Magazine magazine) { return "magazine:" + magazine.getIssueNumber(); }
+        @Override
+        public String visit(AudioBook audioBook) { return "audio:" + audioBook.getNarrator(); }
+        @Override
+        public String visit(VideoMaterial video) { return "video:" + video.getVideoType().name(); }
+        @Override
+        public String visit(EBook ebook) { return "ebook:" + ebook.getFileFormat(); }
+    };
+
+    private List<Material> materials;
+    private Material unknownMaterial;
+
+    @BeforeEach
+    void setUp() {
+        materials = Arrays.asList(
+            new PrintedBook("9780134685991", "Effective Java", "Joshua Bloch", 45.99, 2018, 412, "Addison-Wesley", false),
+            new Magazine("12345678", "National Geographic", "NatGeo Society", 6.99, 2024, 3, "Monthly", "Science"),
+            new AudioBook("9780143039433", "1984", "George Orwell", "Simon Prebble", 14.99, 2008, 720, "MP3",
+                          300.0, Media.MediaQuality.HIGH, "English", true),
+            new VideoMaterial("V001", "Inception", "Christopher Nolan", 19.99, 2010, 148, "MP4", 1500.0,
+                              Media.MediaQuality.HD, VideoMaterial.VideoType.MOVIE, "PG-13",
+                              Arrays.asList("Leonardo DiCaprio"), true, "16:9"),
+            new VideoMaterial("V002", "Planet Earth", "David Attenborough", 29.99, 2006, 550, "MP4", 4000.0,
+                              Media.MediaQuality.PHYSICAL, VideoMaterial.VideoType.DOCUMENTARY, "G",
+                              Arrays.asList("David Attenborough"), true, "16:9"),
+            new EBook("E001", "Clean Code", "Robert Martin", 29.99, 2008, "EPUB", 2.5, false, 120000,
+                      Media.MediaQuality.HIGH));
+
+        unknownMaterial = new Material("UNKNOWN-001", "Unknown Material", 19.99, 2023, Material.MaterialType.BOOK) {
+            @Override
+            public String getCreator() { return "Unknown Creator"; }
+
+            @Override
+            public String getDisplayInfo() { return "Unknown Material"; }
+        };
+    }
+
+    @Test
+    @DisplayName("accept routes each subtype to its visit overload")
+    void testAcceptResultVisitor() {
+        assertEquals(Arrays.asList("book:412", "magazine:3", "audio:Simon Prebble", "video:MOVIE",
+                                   "video:DOCUMENTARY", "ebook:EPUB"),
+                     materials.stream().map(m -> m.accept(NAMER)).toList());
+    }
+
+    @Test
+    @DisplayName("accept drives void visitors")
+    void testAcceptMutableVisitor() {
+        ShippingCostCalculator calculator = new ShippingCostCalculator();
+        for (Material material : materials) {
+            material.accept(calculator);
+        }
+        // book 2.50 + magazine 2.00 + physical documentary 0.75
+        assertEquals(5.25, calculator.getTotalShippingCost(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Table dispatch matches accept")
+    void testTableMatchesAccept() {
+        MaterialDispatchTable<String> table = MaterialDispatchTable.of(NAMER);
+        for (Material material : materials) {
+            assertEquals(material.accept(NAMER), table.apply(material));
+        }
+    }
+
+    @Test
+    @DisplayName("Double table dispatch matches the per-type handlers")
+    void testDoubleTable() {
+        MaterialDispatchTable.OfDouble pages = MaterialDispatchTable.ofDouble(
+            PrintedBook::getPages, Magazine::getIssueNumber, AudioBook::getDuration,
+            VideoMaterial::getDuration, EBook::getWordCount);
+        assertArrayEquals(new double[] {412, 3, 720, 148, 550, 120000},
+                          materials.stream().mapToDouble(pages::applyAsDouble).toArray(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Unknown subclasses are rejected")
+    void testUnsupportedMaterial() {
+        assertThrows(IllegalArgumentException.class, () -> unknownMaterial.accept(NAMER));
+        assertThrows(IllegalArgumentException.class, () -> unknownMaterial.accept(new ShippingCostCalculator()));
+        assertThrows(IllegalArgumentException.class, () -> MaterialDispatchTable.of(NAMER).apply(unknownMaterial));
+        assertThrows(IllegalArgumentException.class, () -> ShippingCostCalculator.costOf(unknownMaterial));
+    }
+
+    @Test
+    @DisplayName("Null arguments are rejected")
+    void testNulls() {
+        assertThrows(NullPointerException.class, () -> MaterialDispatchTable.of((MaterialResultVisitor<String>) null));
+        assertThrows(NullPointerException.class, () -> MaterialDispatchTable.of(NAMER).apply(null));
+    }
+}
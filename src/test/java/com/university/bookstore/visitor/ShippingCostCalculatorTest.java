@@ -1,5 +1,14 @@
 package com.university.bookstore.visitor;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -207,6 +216,95 @@ class ShippingCostCalculatorTest {
         assertEquals(1, counter.getEBookCount());
     }
     
+    @Test
+    void testPriceAllCart() {
+        List<Material> cart = Arrays.asList(printedBook, magazine, physicalAudioBook,
+                                            digitalVideo, printedBook);
+
+        ShippingCostCalculator.ShippingQuote quote = ShippingCostCalculator.priceAll(cart);
+
+        assertEquals(5, quote.getItemCount());
+        assertEquals(2.50, quote.getItemCost(0), 0.01);
+        assertEquals(2.00, quote.getItemCost(1), 0.01);
+        assertEquals(0.50, quote.getItemCost(2), 0.01);
+        assertEquals(0.00, quote.getItemCost(3), 0.01);
+        assertEquals(2.50, quote.getItemCost(4), 0.01);
+        assertEquals(7.50, quote.getTotal(), 0.01);
+        assertEquals(quote.getTotal(), ShippingCostCalculator.priceAll(cart.stream()).getTotal(), 0.0001);
+    }
+
+    @Test
+    void testStaticCostMatchesVisitor() {
+        for (Material material : Arrays.asList(printedBook, magazine, physicalAudioBook, digitalAudioBook,
+                                               physicalVideo, digitalVideo, ebook)) {
+            assertEquals(calculator.calculateShippingCost(material),
+                         ShippingCostCalculator.costOf(material), 0.0001);
+        }
+    }
+
+    @Test
+    void testPriceAllEmpty() {
+        ShippingCostCalculator.ShippingQuote quote = ShippingCostCalculator.priceAll(new ArrayList<Material>());
+        assertEquals(0, quote.getItemCount());
+        assertEquals(0.0, quote.getTotal(), 0.0001);
+    }
+
+    @Test
+    void testPriceAllParallelMatchesSequential() {
+        List<Material> catalog = new ArrayList<>();
+        Material[] kinds = {printedBook, magazine, physicalAudioBook, digitalAudioBook,
+                            physicalVideo, digitalVideo, ebook};
+        for (int i = 0; i < 20_000; i++) {
+            catalog.add(kinds[i % kinds.length]);
+        }
+
+        ShippingCostCalculator.ShippingQuote sequential = ShippingCostCalculator.priceAll(catalog);
+        ShippingCostCalculator.ShippingQuote parallel = ShippingCostCalculator.priceAllParallel(new HashSet<>(catalog));
+        ShippingCostCalculator.ShippingQuote parallelList = ShippingCostCalculator.priceAllParallel(catalog);
+
+        assertEquals(sequential.getTotal(), parallelList.getTotal(), 0.0);
+        assertArrayEquals(sequential.getItemCosts(), parallelList.getItemCosts(), 0.0);
+        assertEquals(kinds.length, parallel.getItemCount());
+    }
+
+    @Test
+    void testConcurrentStatelessPricing() throws Exception {
+        List<Material> cart = Arrays.asList(printedBook, magazine, physicalVideo);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Double>> totals = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                totals.add(executor.submit(() -> ShippingCostCalculator.priceAll(cart).getTotal()));
+            }
+            for (Future<Double> total : totals) {
+                assertEquals(5.25, total.get(), 0.01);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testPriceAllRejectsUnsupported() {
+        Material unknownMaterial = new Material("UNKNOWN-002", "Unknown Material",
+                                               19.99, 2023, Material.MaterialType.BOOK) {
+            @Override
+            public String getCreator() {
+                return "Unknown Creator";
+            }
+
+            @Override
+            public String getDisplayInfo() {
+                return "Unknown Material";
+            }
+        };
+
+        assertThrows(IllegalArgumentException.class,
+            () -> ShippingCostCalculator.priceAll(Arrays.asList(printedBook, unknownMaterial)));
+        assertThrows(NullPointerException.class,
+            () -> ShippingCostCalculator.priceAll((List<Material>) null));
+    }
+    
     /**
      * Custom visitor implementation to demonstrate extensibility.
      */